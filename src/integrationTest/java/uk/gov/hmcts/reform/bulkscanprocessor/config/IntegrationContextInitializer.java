@@ -3,6 +3,8 @@ package uk.gov.hmcts.reform.bulkscanprocessor.config;
 import com.azure.messaging.servicebus.ServiceBusProcessorClient;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.storage.blob.batch.BlobBatchClient;
+import com.azure.storage.blob.batch.BlobBatchClientBuilder;
 import com.azure.storage.blob.specialized.BlobLeaseClientBuilder;
 import com.github.tomakehurst.wiremock.common.Slf4jNotifier;
 import com.github.tomakehurst.wiremock.core.Options;
@@ -56,6 +58,12 @@ public class IntegrationContextInitializer implements ApplicationContextInitiali
             .buildClient();
     }
 
+    @Bean
+    @Profile(STORAGE_STUB)
+    public BlobBatchClient getBlobBatchClient(BlobServiceClient blobServiceClient) {
+        return new BlobBatchClientBuilder(blobServiceClient).buildClient();
+    }
+
     @Bean
     @Profile(STORAGE_STUB)
     public LeaseClientProvider getLeaseClientProvider() {
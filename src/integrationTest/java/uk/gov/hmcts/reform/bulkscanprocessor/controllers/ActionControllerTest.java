@@ -85,7 +85,7 @@ public class ActionControllerTest {
 
         Envelope envelope = envelope(NOTIFICATION_SENT, null, null);
         Optional<Envelope> envelopeOpt = Optional.of(envelope);
-        given(envelopeRepository.findById(envelopeId)).willReturn(envelopeOpt);
+        given(envelopeRepository.findWithoutItemsById(envelopeId)).willReturn(envelopeOpt);
 
         Instant fourtyNineHoursAgo = Instant.now().minus(49, HOURS);
         Instant fiftyHoursAgo = Instant.now().minus(50, HOURS);
@@ -130,7 +130,7 @@ public class ActionControllerTest {
 
         Envelope envelope = envelope(NOTIFICATION_SENT, null, null);
         Optional<Envelope> envelopeOpt = Optional.of(envelope);
-        given(envelopeRepository.findById(envelopeId)).willReturn(envelopeOpt);
+        given(envelopeRepository.findWithoutItemsById(envelopeId)).willReturn(envelopeOpt);
 
         Instant fourtySevenHoursAgo = Instant.now().minus(47, HOURS);
         Instant fiftyHoursAgo = Instant.now().minus(50, HOURS);
@@ -151,7 +151,7 @@ public class ActionControllerTest {
             )
             .andExpect(status().isConflict());
 
-        verify(envelopeRepository).findById(envelopeId);
+        verify(envelopeRepository).findWithoutItemsById(envelopeId);
         verifyNoMoreInteractions(envelopeRepository);
         verify(processEventRepository).findByZipFileNameOrderByCreatedAtDesc(envelope.getZipFileName());
         verifyNoMoreInteractions(processEventRepository);
@@ -164,7 +164,7 @@ public class ActionControllerTest {
 
         Envelope envelope = envelope(UPLOADED, null, null);
         Optional<Envelope> envelopeOpt = Optional.of(envelope);
-        given(envelopeRepository.findById(envelopeId)).willReturn(envelopeOpt);
+        given(envelopeRepository.findWithoutItemsById(envelopeId)).willReturn(envelopeOpt);
 
         Instant fourtyNineHoursAgo = Instant.now().minus(49, HOURS);
         Instant fiftyHoursAgo = Instant.now().minus(50, HOURS);
@@ -185,7 +185,7 @@ public class ActionControllerTest {
             )
             .andExpect(status().isConflict());
 
-        verify(envelopeRepository).findById(envelopeId);
+        verify(envelopeRepository).findWithoutItemsById(envelopeId);
         verifyNoMoreInteractions(envelopeRepository);
     }
 
@@ -196,7 +196,7 @@ public class ActionControllerTest {
 
         Envelope envelope = envelope(COMPLETED, "111222333", "created");
         Optional<Envelope> envelopeOpt = Optional.of(envelope);
-        given(envelopeRepository.findById(envelopeId)).willReturn(envelopeOpt);
+        given(envelopeRepository.findWithoutItemsById(envelopeId)).willReturn(envelopeOpt);
 
         Instant fourtyNineHoursAgo = Instant.now().minus(49, HOURS);
         Instant fiftyHoursAgo = Instant.now().minus(50, HOURS);
@@ -217,7 +217,7 @@ public class ActionControllerTest {
             )
             .andExpect(status().isConflict());
 
-        verify(envelopeRepository).findById(envelopeId);
+        verify(envelopeRepository).findWithoutItemsById(envelopeId);
         verifyNoMoreInteractions(envelopeRepository);
     }
 
@@ -228,7 +228,7 @@ public class ActionControllerTest {
 
         Envelope envelope = envelope(ABORTED, "111222333", "created");
         Optional<Envelope> envelopeOpt = Optional.of(envelope);
-        given(envelopeRepository.findById(envelopeId)).willReturn(envelopeOpt);
+        given(envelopeRepository.findWithoutItemsById(envelopeId)).willReturn(envelopeOpt);
 
         Instant fourtyNineHoursAgo = Instant.now().minus(49, HOURS);
         Instant fiftyHoursAgo = Instant.now().minus(50, HOURS);
@@ -249,7 +249,7 @@ public class ActionControllerTest {
             )
             .andExpect(status().isConflict());
 
-        verify(envelopeRepository).findById(envelopeId);
+        verify(envelopeRepository).findWithoutItemsById(envelopeId);
         verifyNoMoreInteractions(envelopeRepository);
     }
 
@@ -323,7 +323,7 @@ public class ActionControllerTest {
 
         Envelope envelope = envelope(SUPPLEMENTARY_EVIDENCE, NOTIFICATION_SENT, null, null);
         Optional<Envelope> envelopeOpt = Optional.of(envelope);
-        given(envelopeRepository.findById(envelopeId)).willReturn(envelopeOpt);
+        given(envelopeRepository.findWithoutItemsById(envelopeId)).willReturn(envelopeOpt);
 
         Instant fortyNineHoursAgo = Instant.now().minus(49, HOURS);
         Instant fiftyHoursAgo = Instant.now().minus(50, HOURS);
@@ -368,7 +368,7 @@ public class ActionControllerTest {
 
         Envelope envelope = envelope(SUPPLEMENTARY_EVIDENCE, NOTIFICATION_SENT, null, null);
         Optional<Envelope> envelopeOpt = Optional.of(envelope);
-        given(envelopeRepository.findById(envelopeId)).willReturn(envelopeOpt);
+        given(envelopeRepository.findWithoutItemsById(envelopeId)).willReturn(envelopeOpt);
 
         Instant fourtySevenHoursAgo = Instant.now().minus(47, HOURS);
         Instant fiftyHoursAgo = Instant.now().minus(50, HOURS);
@@ -389,7 +389,7 @@ public class ActionControllerTest {
             )
             .andExpect(status().isConflict());
 
-        verify(envelopeRepository).findById(envelopeId);
+        verify(envelopeRepository).findWithoutItemsById(envelopeId);
         verifyNoMoreInteractions(envelopeRepository);
         verify(processEventRepository).findByZipFileNameOrderByCreatedAtDesc(envelope.getZipFileName());
         verifyNoMoreInteractions(processEventRepository);
@@ -402,7 +402,7 @@ public class ActionControllerTest {
 
         Envelope envelope = envelope(SUPPLEMENTARY_EVIDENCE, UPLOADED, null, null);
         Optional<Envelope> envelopeOpt = Optional.of(envelope);
-        given(envelopeRepository.findById(envelopeId)).willReturn(envelopeOpt);
+        given(envelopeRepository.findWithoutItemsById(envelopeId)).willReturn(envelopeOpt);
 
         Instant fortyNineHoursAgo = Instant.now().minus(49, HOURS);
         Instant fiftyHoursAgo = Instant.now().minus(50, HOURS);
@@ -423,7 +423,7 @@ public class ActionControllerTest {
             )
             .andExpect(status().isConflict());
 
-        verify(envelopeRepository).findById(envelopeId);
+        verify(envelopeRepository).findWithoutItemsById(envelopeId);
         verifyNoMoreInteractions(envelopeRepository);
     }
 
@@ -434,7 +434,7 @@ public class ActionControllerTest {
 
         Envelope envelope = envelope(SUPPLEMENTARY_EVIDENCE, COMPLETED, "111222333", "created");
         Optional<Envelope> envelopeOpt = Optional.of(envelope);
-        given(envelopeRepository.findById(envelopeId)).willReturn(envelopeOpt);
+        given(envelopeRepository.findWithoutItemsById(envelopeId)).willReturn(envelopeOpt);
 
         Instant fortyNineHoursAgo = Instant.now().minus(49, HOURS);
         Instant fiftyHoursAgo = Instant.now().minus(50, HOURS);
@@ -455,7 +455,7 @@ public class ActionControllerTest {
             )
             .andExpect(status().isConflict());
 
-        verify(envelopeRepository).findById(envelopeId);
+        verify(envelopeRepository).findWithoutItemsById(envelopeId);
         verifyNoMoreInteractions(envelopeRepository);
     }
 
@@ -466,7 +466,7 @@ public class ActionControllerTest {
 
         Envelope envelope = envelope(SUPPLEMENTARY_EVIDENCE, ABORTED, "111222333", "created");
         Optional<Envelope> envelopeOpt = Optional.of(envelope);
-        given(envelopeRepository.findById(envelopeId)).willReturn(envelopeOpt);
+        given(envelopeRepository.findWithoutItemsById(envelopeId)).willReturn(envelopeOpt);
 
         Instant fortyNineHoursAgo = Instant.now().minus(49, HOURS);
         Instant fiftyHoursAgo = Instant.now().minus(50, HOURS);
@@ -487,7 +487,7 @@ public class ActionControllerTest {
             )
             .andExpect(status().isConflict());
 
-        verify(envelopeRepository).findById(envelopeId);
+        verify(envelopeRepository).findWithoutItemsById(envelopeId);
         verifyNoMoreInteractions(envelopeRepository);
     }
 
@@ -499,7 +499,7 @@ public class ActionControllerTest {
 
         Envelope envelope = envelope(NEW_APPLICATION, NOTIFICATION_SENT, null, null);
         Optional<Envelope> envelopeOpt = Optional.of(envelope);
-        given(envelopeRepository.findById(envelopeId)).willReturn(envelopeOpt);
+        given(envelopeRepository.findWithoutItemsById(envelopeId)).willReturn(envelopeOpt);
 
         mockMvc
             .perform(
@@ -508,7 +508,7 @@ public class ActionControllerTest {
             )
             .andExpect(status().isConflict());
 
-        verify(envelopeRepository).findById(envelopeId);
+        verify(envelopeRepository).findWithoutItemsById(envelopeId);
         verifyNoMoreInteractions(envelopeRepository);
     }
 
@@ -584,7 +584,7 @@ public class ActionControllerTest {
 
         Envelope envelope = envelope(NOTIFICATION_SENT, null, null);
         Optional<Envelope> envelopeOpt = Optional.of(envelope);
-        given(envelopeRepository.findById(envelopeId)).willReturn(envelopeOpt);
+        given(envelopeRepository.findWithoutItemsById(envelopeId)).willReturn(envelopeOpt);
 
         Instant oneHourAgo = Instant.now().minus(1, HOURS);
         Instant twoHoursAgo = Instant.now().minus(2, HOURS);
@@ -627,7 +627,7 @@ public class ActionControllerTest {
 
         Envelope envelope = envelope(COMPLETED, null, null);
         Optional<Envelope> envelopeOpt = Optional.of(envelope);
-        given(envelopeRepository.findById(envelopeId)).willReturn(envelopeOpt);
+        given(envelopeRepository.findWithoutItemsById(envelopeId)).willReturn(envelopeOpt);
 
         Instant oneHourAgo = Instant.now().minus(1, HOURS);
         Instant twoHoursAgo = Instant.now().minus(2, HOURS);
@@ -647,7 +647,7 @@ public class ActionControllerTest {
             )
             .andExpect(status().isConflict());
 
-        verify(envelopeRepository).findById(envelopeId);
+        verify(envelopeRepository).findWithoutItemsById(envelopeId);
         verifyNoMoreInteractions(envelopeRepository);
     }
 
@@ -658,7 +658,7 @@ public class ActionControllerTest {
 
         Envelope envelope = envelope(NOTIFICATION_SENT, null, null);
         Optional<Envelope> envelopeOpt = Optional.of(envelope);
-        given(envelopeRepository.findById(envelopeId)).willReturn(envelopeOpt);
+        given(envelopeRepository.findWithoutItemsById(envelopeId)).willReturn(envelopeOpt);
 
         Instant oneHourAgo = Instant.now().minus(1, HOURS);
         Instant twoHoursAgo = Instant.now().minus(2, HOURS);
@@ -676,7 +676,7 @@ public class ActionControllerTest {
             )
             .andExpect(status().isConflict());
 
-        verify(envelopeRepository).findById(envelopeId);
+        verify(envelopeRepository).findWithoutItemsById(envelopeId);
         verifyNoMoreInteractions(envelopeRepository);
     }
 
@@ -750,7 +750,7 @@ public class ActionControllerTest {
 
         Envelope envelope = envelope(NOTIFICATION_SENT, null, null);
         Optional<Envelope> envelopeOpt = Optional.of(envelope);
-        given(envelopeRepository.findById(envelopeId)).willReturn(envelopeOpt);
+        given(envelopeRepository.findWithoutItemsById(envelopeId)).willReturn(envelopeOpt);
 
         Instant fourtyNineHoursAgo = Instant.now().minus(49, HOURS);
         Instant fiftyHoursAgo = Instant.now().minus(50, HOURS);
@@ -795,7 +795,7 @@ public class ActionControllerTest {
 
         Envelope envelope = envelope(NOTIFICATION_SENT, null, null);
         Optional<Envelope> envelopeOpt = Optional.of(envelope);
-        given(envelopeRepository.findById(envelopeId)).willReturn(envelopeOpt);
+        given(envelopeRepository.findWithoutItemsById(envelopeId)).willReturn(envelopeOpt);
 
         Instant fourtySevenHoursAgo = Instant.now().minus(47, HOURS);
         Instant fiftyHoursAgo = Instant.now().minus(50, HOURS);
@@ -816,7 +816,7 @@ public class ActionControllerTest {
                 )
                 .andExpect(status().isConflict());
 
-        verify(envelopeRepository).findById(envelopeId);
+        verify(envelopeRepository).findWithoutItemsById(envelopeId);
         verifyNoMoreInteractions(envelopeRepository);
         verify(processEventRepository).findByZipFileNameOrderByCreatedAtDesc(envelope.getZipFileName());
         verifyNoMoreInteractions(processEventRepository);
@@ -829,7 +829,7 @@ public class ActionControllerTest {
 
         Envelope envelope = envelope(UPLOADED, null, null);
         Optional<Envelope> envelopeOpt = Optional.of(envelope);
-        given(envelopeRepository.findById(envelopeId)).willReturn(envelopeOpt);
+        given(envelopeRepository.findWithoutItemsById(envelopeId)).willReturn(envelopeOpt);
 
         Instant fourtyNineHoursAgo = Instant.now().minus(49, HOURS);
         Instant fiftyHoursAgo = Instant.now().minus(50, HOURS);
@@ -850,7 +850,7 @@ public class ActionControllerTest {
                 )
                 .andExpect(status().isConflict());
 
-        verify(envelopeRepository).findById(envelopeId);
+        verify(envelopeRepository).findWithoutItemsById(envelopeId);
         verifyNoMoreInteractions(envelopeRepository);
     }
 
@@ -861,7 +861,7 @@ public class ActionControllerTest {
 
         Envelope envelope = envelope(COMPLETED, "111222333", "created");
         Optional<Envelope> envelopeOpt = Optional.of(envelope);
-        given(envelopeRepository.findById(envelopeId)).willReturn(envelopeOpt);
+        given(envelopeRepository.findWithoutItemsById(envelopeId)).willReturn(envelopeOpt);
 
         Instant fourtyNineHoursAgo = Instant.now().minus(49, HOURS);
         Instant fiftyHoursAgo = Instant.now().minus(50, HOURS);
@@ -882,7 +882,7 @@ public class ActionControllerTest {
                 )
                 .andExpect(status().isConflict());
 
-        verify(envelopeRepository).findById(envelopeId);
+        verify(envelopeRepository).findWithoutItemsById(envelopeId);
         verifyNoMoreInteractions(envelopeRepository);
     }
 
@@ -893,7 +893,7 @@ public class ActionControllerTest {
 
         Envelope envelope = envelope(ABORTED, "111222333", "created");
         Optional<Envelope> envelopeOpt = Optional.of(envelope);
-        given(envelopeRepository.findById(envelopeId)).willReturn(envelopeOpt);
+        given(envelopeRepository.findWithoutItemsById(envelopeId)).willReturn(envelopeOpt);
 
         Instant fourtyNineHoursAgo = Instant.now().minus(49, HOURS);
         Instant fiftyHoursAgo = Instant.now().minus(50, HOURS);
@@ -914,7 +914,7 @@ public class ActionControllerTest {
             )
             .andExpect(status().isConflict());
 
-        verify(envelopeRepository).findById(envelopeId);
+        verify(envelopeRepository).findWithoutItemsById(envelopeId);
         verifyNoMoreInteractions(envelopeRepository);
     }
 
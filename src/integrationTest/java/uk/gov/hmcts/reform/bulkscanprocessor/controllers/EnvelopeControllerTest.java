@@ -5,6 +5,7 @@ import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.io.Resources;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -36,8 +37,11 @@ import uk.gov.hmcts.reform.bulkscanprocessor.services.EnvelopeHandler;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.FileContentProcessor;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.FileRejector;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.IncompleteEnvelopesService;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.UploadConcurrencyLimiter;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.UploadEnvelopeDocumentsService;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.document.DocumentManagementService;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.BlobInventory;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseAcquirer;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseMetaDataChecker;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.OcrValidationRetryManager;
@@ -46,6 +50,7 @@ import uk.gov.hmcts.reform.bulkscanprocessor.tasks.UploadEnvelopeDocumentsTask;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.BlobManager;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.DocumentProcessor;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.EnvelopeProcessor;
+import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ExtractedPdf;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ZipFileProcessor;
 import uk.gov.hmcts.reform.bulkscanprocessor.util.TestStorageHelper;
 import uk.gov.hmcts.reform.bulkscanprocessor.validation.EnvelopeValidator;
@@ -53,7 +58,7 @@ import uk.gov.hmcts.reform.bulkscanprocessor.validation.MetafileJsonValidator;
 import uk.gov.hmcts.reform.bulkscanprocessor.validation.OcrValidator;
 
 import java.io.ByteArrayInputStream;
-import java.io.File;
+import java.time.Duration;
 import java.time.Instant;
 import java.util.List;
 import java.util.UUID;
@@ -158,14 +163,28 @@ public class EnvelopeControllerTest {
             containerMappings,
             envelopeProcessor,
             ocrValidator,
+            new StageMetrics(new SimpleMeterRegistry()),
             paymentsEnabled
         );
 
+        UploadEnvelopeDocumentsService uploadService =  new UploadEnvelopeDocumentsService(
+            blobManager,
+            zipFileProcessor,
+            documentProcessor,
+            envelopeProcessor,
+            leaseAcquirer,
+            new UploadConcurrencyLimiter(2, 1),
+            new StageMetrics(new SimpleMeterRegistry())
+        );
+
         FileContentProcessor fileContentProcessor = new FileContentProcessor(
             zipFileProcessor,
             envelopeProcessor,
             envelopeHandler,
-            fileRejector
+            fileRejector,
+            uploadService,
+            new StageMetrics(new SimpleMeterRegistry()),
+            false
         );
 
         blobProcessorTask = new BlobProcessorTask(
@@ -173,15 +192,12 @@ public class EnvelopeControllerTest {
             envelopeProcessor,
             fileContentProcessor,
             leaseAcquirer,
-            ocrValidationRetryManager
-        );
-
-        UploadEnvelopeDocumentsService uploadService =  new UploadEnvelopeDocumentsService(
-            blobManager,
-            zipFileProcessor,
-            documentProcessor,
-            envelopeProcessor,
-            leaseAcquirer
+            ocrValidationRetryManager,
+            new BlobInventory(1000, false, Duration.ofHours(1)),
+            new StageMetrics(new SimpleMeterRegistry()),
+            2,
+            1,
+            false
         );
 
         uploadTask = new UploadEnvelopeDocumentsTask(envelopeRepository, uploadService, 1);
@@ -230,7 +246,7 @@ public class EnvelopeControllerTest {
         List<Envelope> envelopes = envelopeRepository.findAll();
         assertThat(envelopes).hasSize(1);
         assertThat(envelopes.get(0).getStatus()).isEqualTo(UPLOADED);
-        ArgumentCaptor<List<File>> pdfListCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<ExtractedPdf>> pdfListCaptor = ArgumentCaptor.forClass(List.class);
         verify(documentManagementService)
             .uploadDocuments(pdfListCaptor.capture(), eq("BULKSCAN"), eq("bulkscan"));
         assertThat(pdfListCaptor.getAllValues()).hasSize(1);
@@ -330,7 +346,7 @@ public class EnvelopeControllerTest {
         assertThat(envelopes.get(0).getStatus()).isEqualTo(UPLOADED);
         assertThat(envelopes.get(0).getZipFileName()).isEqualTo("1_24-06-2018-00-00-00.zip");
         assertThat(envelopes.get(0).getContainer()).isEqualTo("bulkscan");
-        ArgumentCaptor<List<File>> pdfListCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<ExtractedPdf>> pdfListCaptor = ArgumentCaptor.forClass(List.class);
         verify(documentManagementService)
             .uploadDocuments(pdfListCaptor.capture(), eq("BULKSCAN"), eq("bulkscan"));
         assertThat(pdfListCaptor.getAllValues()).hasSize(1);
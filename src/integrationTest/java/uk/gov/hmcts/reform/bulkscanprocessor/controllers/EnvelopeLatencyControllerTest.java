@@ -0,0 +1,63 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.controllers;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.out.EnvelopeLatencyInfo;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.EnvelopeLatencyTracker;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.COMPLETED;
+import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.DOC_PROCESSED_NOTIFICATION_SENT;
+
+@WebMvcTest(EnvelopeLatencyController.class)
+public class EnvelopeLatencyControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private EnvelopeLatencyTracker envelopeLatencyTracker;
+
+    @Test
+    void should_return_latency_percentiles_by_container_and_event() throws Exception {
+        given(envelopeLatencyTracker.getLatencies())
+            .willReturn(List.of(
+                new EnvelopeLatencyInfo("bulkscan", COMPLETED, 10, 60_000, 120_000, 300_000),
+                new EnvelopeLatencyInfo("bulkscan", DOC_PROCESSED_NOTIFICATION_SENT, 12, 30_000, 90_000, 200_000)
+            ));
+
+        mockMvc
+            .perform(get("/envelope-latency"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.count").value(2))
+            .andExpect(jsonPath("$.data", hasSize(2)))
+            .andExpect(jsonPath("$.data.[0].container").value("bulkscan"))
+            .andExpect(jsonPath("$.data.[0].event").value("COMPLETED"))
+            .andExpect(jsonPath("$.data.[0].count").value(10))
+            .andExpect(jsonPath("$.data.[0].p50_millis").value(60_000))
+            .andExpect(jsonPath("$.data.[0].p95_millis").value(120_000))
+            .andExpect(jsonPath("$.data.[0].p99_millis").value(300_000))
+            .andExpect(jsonPath("$.data.[1].event").value("DOC_PROCESSED_NOTIFICATION_SENT"))
+            .andExpect(jsonPath("$.data.[1].count").value(12));
+    }
+
+    @Test
+    void should_return_empty_data_when_no_envelope_was_measured() throws Exception {
+        given(envelopeLatencyTracker.getLatencies()).willReturn(List.of());
+
+        mockMvc
+            .perform(get("/envelope-latency"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.count").value(0))
+            .andExpect(jsonPath("$.data", hasSize(0)));
+    }
+}
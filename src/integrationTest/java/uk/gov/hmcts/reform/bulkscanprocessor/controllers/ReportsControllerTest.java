@@ -13,6 +13,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import uk.gov.hmcts.reform.bulkscanprocessor.config.TestClockProvider;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.out.reports.EnvelopeCountSummaryReportItem;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.out.reports.EnvelopeCountSummaryReportListResponse;
@@ -32,7 +33,10 @@ import uk.gov.hmcts.reform.bulkscanprocessor.services.reports.models.EnvelopeCou
 import uk.gov.hmcts.reform.bulkscanprocessor.services.reports.models.ReconciliationStatement;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.reports.models.RejectedFile;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.reports.models.ZipFileSummaryResponse;
+import uk.gov.hmcts.reform.bulkscanprocessor.util.CsvWriter;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -44,6 +48,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.UUID;
+import java.util.zip.GZIPInputStream;
 
 import static com.google.common.io.Resources.getResource;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -54,16 +59,21 @@ import static java.util.UUID.randomUUID;
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.verify;
 import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
 import static org.springframework.http.MediaType.APPLICATION_OCTET_STREAM;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static uk.gov.hmcts.reform.bulkscanprocessor.entity.Status.COMPLETED;
 import static uk.gov.hmcts.reform.bulkscanprocessor.entity.Status.CREATED;
@@ -333,8 +343,7 @@ class ReportsControllerTest {
             "AUTO_CREATED_CASE"
         );
 
-        given(reportsService.getZipFilesSummary(localDate, "bulkscan", null))
-            .willReturn(singletonList(zipFileSummaryResponse));
+        givenZipFilesSummaryCsvFor(localDate, "bulkscan", singletonList(zipFileSummaryResponse));
 
         String expectedContent = String.format(
             "Container,Zip File Name,Date Received,Time Received,Date Processed,Time Processed,"
@@ -344,9 +353,14 @@ class ReportsControllerTest {
             localDate.toString(), "13:30:10"
         );
 
-        mockMvc
+        MvcResult result = mockMvc
             .perform(get("/reports/zip-files-summary?date=2019-01-14&container=bulkscan")
                          .accept(APPLICATION_OCTET_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc
+            .perform(asyncDispatch(result))
             .andExpect(status().isOk())
             .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=zip-files-summary.csv"))
             .andExpect(content().contentType(APPLICATION_OCTET_STREAM))
@@ -357,12 +371,16 @@ class ReportsControllerTest {
     void should_return_empty_zipfiles_summary_in_csv_format_when_no_data_exists() throws Exception {
         LocalDate localDate = LocalDate.of(2019, 1, 14);
 
-        given(reportsService.getZipFilesSummary(localDate, "bulkscan", null))
-            .willReturn(emptyList());
+        givenZipFilesSummaryCsvFor(localDate, null, emptyList());
 
-        mockMvc
+        MvcResult result = mockMvc
             .perform(get("/reports/zip-files-summary?date=2019-01-14")
                          .accept(APPLICATION_OCTET_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc
+            .perform(asyncDispatch(result))
             .andExpect(status().isOk())
             .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=zip-files-summary.csv"))
             .andExpect(content().contentType(APPLICATION_OCTET_STREAM))
@@ -372,6 +390,38 @@ class ReportsControllerTest {
             ));
     }
 
+    @Test
+    void should_return_zipfiles_summary_in_gzipped_csv_format_when_requested() throws Exception {
+        LocalDate localDate = LocalDate.of(2019, 1, 14);
+
+        givenZipFilesSummaryCsvFor(localDate, "bulkscan", emptyList());
+
+        MvcResult result = mockMvc
+            .perform(get("/reports/zip-files-summary?date=2019-01-14&container=bulkscan&gzip=true")
+                         .accept(APPLICATION_OCTET_STREAM))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        byte[] content = mockMvc
+            .perform(asyncDispatch(result))
+            .andExpect(status().isOk())
+            .andExpect(header().string(
+                HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=zip-files-summary.csv.gz"
+            ))
+            .andExpect(content().contentType(APPLICATION_OCTET_STREAM))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        try (var csv = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            assertThat(new String(csv.readAllBytes(), UTF_8)).isEqualTo(
+                "Container,Zip File Name,Date Received,Time Received,Date Processed,Time Processed,"
+                    + "Status,Classification,CCD Action,CCD ID\r\n"
+            );
+        }
+    }
+
     @Test
     void should_return_zipfiles_summary_result_in_json_format() throws Exception {
         LocalDate localDate = LocalDate.of(2019, 1, 14);
@@ -891,4 +941,18 @@ class ReportsControllerTest {
         TestClockProvider.stoppedInstant = time;
     }
 
+    private void givenZipFilesSummaryCsvFor(
+        LocalDate date,
+        String container,
+        List<ZipFileSummaryResponse> summary
+    ) throws IOException {
+        willAnswer(invocation -> {
+            CsvWriter.writeZipFilesSummaryToCsv(
+                summary.stream(),
+                invocation.getArgument(2),
+                invocation.getArgument(3)
+            );
+            return null;
+        }).given(reportsService).writeZipFilesSummaryCsv(eq(date), eq(container), any(), anyBoolean());
+    }
 }
@@ -5,6 +5,7 @@ import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.io.Resources;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -30,8 +31,11 @@ import uk.gov.hmcts.reform.bulkscanprocessor.helper.DirectoryZipper;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.EnvelopeHandler;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.FileContentProcessor;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.FileRejector;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.UploadConcurrencyLimiter;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.UploadEnvelopeDocumentsService;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.document.DocumentManagementService;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.BlobInventory;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseAcquirer;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseMetaDataChecker;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.OcrValidationRetryManager;
@@ -40,6 +44,7 @@ import uk.gov.hmcts.reform.bulkscanprocessor.tasks.UploadEnvelopeDocumentsTask;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.BlobManager;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.DocumentProcessor;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.EnvelopeProcessor;
+import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ExtractedPdf;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ZipFileProcessor;
 import uk.gov.hmcts.reform.bulkscanprocessor.util.TestStorageHelper;
 import uk.gov.hmcts.reform.bulkscanprocessor.validation.EnvelopeValidator;
@@ -47,7 +52,6 @@ import uk.gov.hmcts.reform.bulkscanprocessor.validation.MetafileJsonValidator;
 import uk.gov.hmcts.reform.bulkscanprocessor.validation.OcrValidator;
 
 import java.io.ByteArrayInputStream;
-import java.io.File;
 import java.util.List;
 
 import static com.google.common.io.Resources.getResource;
@@ -147,14 +151,28 @@ class ZipStatusControllerTest {
             containerMappings,
             envelopeProcessor,
             ocrValidator,
+            new StageMetrics(new SimpleMeterRegistry()),
             paymentsEnabled
         );
 
+        UploadEnvelopeDocumentsService uploadService =  new UploadEnvelopeDocumentsService(
+            blobManager,
+            zipFileProcessor,
+            documentProcessor,
+            envelopeProcessor,
+            leaseAcquirer,
+            new UploadConcurrencyLimiter(2, 1),
+            new StageMetrics(new SimpleMeterRegistry())
+        );
+
         FileContentProcessor fileContentProcessor = new FileContentProcessor(
             zipFileProcessor,
             envelopeProcessor,
             envelopeHandler,
-            fileRejector
+            fileRejector,
+            uploadService,
+            new StageMetrics(new SimpleMeterRegistry()),
+            false
         );
 
         blobProcessorTask = new BlobProcessorTask(
@@ -162,15 +180,12 @@ class ZipStatusControllerTest {
             envelopeProcessor,
             fileContentProcessor,
             leaseAcquirer,
-            ocrValidationRetryManager
-        );
-
-        UploadEnvelopeDocumentsService uploadService =  new UploadEnvelopeDocumentsService(
-            blobManager,
-            zipFileProcessor,
-            documentProcessor,
-            envelopeProcessor,
-            leaseAcquirer
+            ocrValidationRetryManager,
+            new BlobInventory(1000, false, Duration.ofHours(1)),
+            new StageMetrics(new SimpleMeterRegistry()),
+            2,
+            1,
+            false
         );
 
         uploadTask = new UploadEnvelopeDocumentsTask(envelopeRepository, uploadService, 1);
@@ -213,7 +228,7 @@ class ZipStatusControllerTest {
             .andExpect(content().contentType(APPLICATION_JSON_VALUE))
             .andExpect(content().json(Resources.toString(getResource("zipstatus.json"), UTF_8)));
 
-        ArgumentCaptor<List<File>> pdfListCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<ExtractedPdf>> pdfListCaptor = ArgumentCaptor.forClass(List.class);
         verify(documentManagementService,times(1))
             .uploadDocuments(pdfListCaptor.capture(), eq("BULKSCAN"), eq("bulkscan"));
         assertThat(pdfListCaptor.getValue().get(0).getName()).isEqualTo("1111002.pdf");
@@ -0,0 +1,124 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.entity;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Hibernate;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static uk.gov.hmcts.reform.bulkscanprocessor.entity.Status.COMPLETED;
+import static uk.gov.hmcts.reform.bulkscanprocessor.entity.Status.UPLOADED;
+import static uk.gov.hmcts.reform.bulkscanprocessor.helper.EnvelopeCreator.envelope;
+
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ExtendWith(SpringExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class EnvelopeFetchGraphTest {
+
+    @Autowired
+    private EnvelopeRepository repo;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setUp() {
+        repo.saveAll(List.of(
+            envelope("A", COMPLETED, "c1"),
+            envelope("A", COMPLETED, "c1"),
+            envelope("A", UPLOADED, "c1")
+        ));
+        repo.flush();
+        // envelopes are read from the database, not from the persistence context
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    public void cleanUp() {
+        repo.deleteAll();
+    }
+
+    @Test
+    public void should_read_envelopes_with_a_single_query_without_loading_items() {
+        // when
+        List<Envelope> envelopes = repo.getCompleteEnvelopesFromContainer("c1");
+
+        // then
+        assertThat(envelopes).hasSize(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+        assertThat(itemsLoadCount()).isZero();
+        assertThat(envelopes).allSatisfy(envelope ->
+            assertThat(Hibernate.isInitialized(envelope.getScannableItems())).isFalse()
+        );
+    }
+
+    @Test
+    public void should_read_incomplete_envelopes_without_loading_items() {
+        // when
+        List<Envelope> envelopes = repo.getIncompleteEnvelopesBefore(Instant.now().plusSeconds(60));
+
+        // then
+        assertThat(envelopes).hasSize(1);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(itemsLoadCount()).isZero();
+    }
+
+    @Test
+    public void should_read_envelope_by_id_without_loading_items() {
+        // given
+        Envelope saved = repo.findAll().get(0);
+        entityManager.clear();
+        statistics.clear();
+
+        // when
+        Envelope envelope = repo.findWithoutItemsById(saved.getId()).orElseThrow();
+
+        // then
+        assertThat(envelope.getZipFileName()).isEqualTo(saved.getZipFileName());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(itemsLoadCount()).isZero();
+    }
+
+    @Test
+    public void should_load_items_with_the_envelopes_when_full_graph_is_read() {
+        // when
+        List<Envelope> envelopes = repo.findByContainerAndStatusAndZipDeleted("c1", COMPLETED, false);
+
+        // then
+        assertThat(envelopes).hasSize(2);
+        // envelopes, then scannable items, non scannable items and payments with subselects
+        assertThat(statistics.getPrepareStatementCount()).isGreaterThan(1);
+        assertThat(itemsLoadCount()).isPositive();
+        assertThat(envelopes).allSatisfy(envelope ->
+            assertThat(Hibernate.isInitialized(envelope.getScannableItems())).isTrue()
+        );
+    }
+
+    // scannable items carry the OCR data, which makes most of the bytes read for an envelope
+    private long itemsLoadCount() {
+        return statistics.getEntityStatistics(ScannableItem.class.getName()).getLoadCount();
+    }
+}
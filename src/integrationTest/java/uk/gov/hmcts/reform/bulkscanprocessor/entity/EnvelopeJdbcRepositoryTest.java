@@ -0,0 +1,230 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.entity;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.out.EnvelopeLatencyInfo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static uk.gov.hmcts.reform.bulkscanprocessor.entity.Status.COMPLETED;
+import static uk.gov.hmcts.reform.bulkscanprocessor.entity.Status.CREATED;
+import static uk.gov.hmcts.reform.bulkscanprocessor.entity.Status.UPLOADED;
+import static uk.gov.hmcts.reform.bulkscanprocessor.entity.Status.UPLOAD_FAILURE;
+import static uk.gov.hmcts.reform.bulkscanprocessor.helper.EnvelopeCreator.envelope;
+
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DataJpaTest
+@Import(EnvelopeJdbcRepository.class)
+@ExtendWith(SpringExtension.class)
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_CLASS)
+public class EnvelopeJdbcRepositoryTest {
+
+    private static final Duration CLAIM_DURATION = Duration.ofMinutes(15);
+
+    @Autowired
+    private EnvelopeRepository repo;
+
+    @Autowired
+    private EnvelopeJdbcRepository jdbcRepo;
+
+    @Autowired
+    private ProcessEventRepository processEventRepo;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @AfterEach
+    public void cleanUp() {
+        repo.deleteAll();
+        processEventRepo.deleteAll();
+    }
+
+    @Test
+    public void should_claim_disjoint_pages_of_envelopes_to_upload_for_different_nodes() {
+        // given
+        dbHas(
+            envelope("A", CREATED),
+            envelope("A", UPLOAD_FAILURE),
+            envelope("A", CREATED),
+            envelope("A", UPLOADED),
+            envelope("A", COMPLETED)
+        );
+
+        // when
+        List<UUID> claimedByNode1 = jdbcRepo.claimEnvelopesToUpload(5, "node-1", CLAIM_DURATION, 2);
+        List<UUID> claimedByNode2 = jdbcRepo.claimEnvelopesToUpload(5, "node-2", CLAIM_DURATION, 2);
+        List<UUID> claimedByNode3 = jdbcRepo.claimEnvelopesToUpload(5, "node-3", CLAIM_DURATION, 2);
+
+        // then
+        assertThat(claimedByNode1).hasSize(2);
+        assertThat(claimedByNode2).hasSize(1).doesNotContainAnyElementsOf(claimedByNode1);
+        assertThat(claimedByNode3).isEmpty();
+    }
+
+    @Test
+    public void should_not_claim_envelopes_which_failed_to_be_uploaded_too_many_times() {
+        // given
+        Envelope envelope = envelope("A", UPLOAD_FAILURE);
+        envelope.setUploadFailureCount(5);
+        dbHas(envelope);
+
+        // when
+        List<UUID> claimed = jdbcRepo.claimEnvelopesToUpload(5, "node-1", CLAIM_DURATION, 10);
+
+        // then
+        assertThat(claimed).isEmpty();
+    }
+
+    @Test
+    public void should_claim_released_envelopes_again() {
+        // given
+        Envelope envelope = envelope("A", UPLOADED);
+        dbHas(envelope, envelope("A", CREATED));
+
+        List<UUID> claimed = jdbcRepo.claimEnvelopesByStatus(UPLOADED, "node-1", CLAIM_DURATION, 10);
+
+        // when
+        int releasedByOtherNode = jdbcRepo.releaseClaims(claimed, "node-2");
+        int released = jdbcRepo.releaseClaims(claimed, "node-1");
+
+        // then
+        assertThat(claimed).containsExactly(envelope.getId());
+        assertThat(releasedByOtherNode).isZero();
+        assertThat(released).isEqualTo(1);
+        assertThat(jdbcRepo.claimEnvelopesByStatus(UPLOADED, "node-2", CLAIM_DURATION, 10))
+            .containsExactly(envelope.getId());
+    }
+
+    @Test
+    public void should_claim_envelopes_again_once_claim_expired() {
+        // given
+        Envelope envelope = envelope("A", UPLOADED);
+        dbHas(envelope);
+
+        // when
+        jdbcRepo.claimEnvelopesByStatus(UPLOADED, "node-1", Duration.ZERO, 10);
+        List<UUID> claimed = jdbcRepo.claimEnvelopesByStatus(UPLOADED, "node-2", CLAIM_DURATION, 10);
+
+        // then
+        assertThat(claimed).containsExactly(envelope.getId());
+    }
+
+    @Test
+    public void should_not_claim_envelopes_again_once_claim_extended() {
+        // given
+        Envelope envelope = envelope("A", UPLOADED);
+        dbHas(envelope);
+        List<UUID> claimedByNode1 = jdbcRepo.claimEnvelopesByStatus(UPLOADED, "node-1", Duration.ZERO, 10);
+
+        // when
+        int extendedByOtherNode = jdbcRepo.extendClaims(claimedByNode1, "node-2", CLAIM_DURATION);
+        int extended = jdbcRepo.extendClaims(claimedByNode1, "node-1", CLAIM_DURATION);
+
+        // then
+        assertThat(extendedByOtherNode).isZero();
+        assertThat(extended).isEqualTo(1);
+        assertThat(jdbcRepo.claimEnvelopesByStatus(UPLOADED, "node-2", CLAIM_DURATION, 10)).isEmpty();
+    }
+
+    @Test
+    public void should_mark_given_envelopes_as_deleted() {
+        // given
+        Envelope envelope1 = envelope("A", COMPLETED);
+        Envelope envelope2 = envelope("A", COMPLETED);
+        Envelope envelope3 = envelope("A", COMPLETED);
+        dbHas(envelope1, envelope2, envelope3);
+
+        // when
+        int updated = jdbcRepo.markEnvelopesAsDeleted(asList(envelope1.getId(), envelope2.getId()));
+        entityManager.clear();
+
+        // then
+        assertThat(updated).isEqualTo(2);
+        assertThat(repo.findAll())
+            .filteredOn(Envelope::isZipDeleted)
+            .extracting(Envelope::getId)
+            .containsExactlyInAnyOrder(envelope1.getId(), envelope2.getId());
+    }
+
+    @Test
+    public void should_not_update_envelopes_when_none_given_to_mark_as_deleted() {
+        // given
+        dbHas(envelope("A", COMPLETED));
+
+        // when
+        int updated = jdbcRepo.markEnvelopesAsDeleted(List.of());
+        entityManager.clear();
+
+        // then
+        assertThat(updated).isZero();
+        assertThat(repo.findAll()).noneMatch(Envelope::isZipDeleted);
+    }
+
+    @Test
+    public void should_find_latency_percentiles_from_zip_file_creation_to_requested_events() {
+        // given
+        Envelope envelope1 = envelope("A", COMPLETED);
+        Envelope envelope2 = envelope("A", COMPLETED);
+        dbHas(envelope1, envelope2);
+        dbHasEvent(envelope1, Event.DOC_UPLOADED, Duration.ofSeconds(30));
+        dbHasEvent(envelope1, Event.COMPLETED, Duration.ofMinutes(1));
+        dbHasEvent(envelope2, Event.COMPLETED, Duration.ofMinutes(3));
+
+        // when
+        List<EnvelopeLatencyInfo> latencies = jdbcRepo.findLatencies(
+            List.of(Event.COMPLETED),
+            Instant.now().minus(Duration.ofHours(1))
+        );
+
+        // then
+        assertThat(latencies)
+            .extracting(latency -> latency.container, latency -> latency.event, latency -> latency.count)
+            .containsExactly(tuple(envelope1.getContainer(), Event.COMPLETED, 2L));
+        assertThat(latencies.get(0).p50Millis).isEqualTo(60_000L);
+        assertThat(latencies.get(0).p95Millis).isEqualTo(180_000L);
+        assertThat(latencies.get(0).p99Millis).isEqualTo(180_000L);
+    }
+
+    @Test
+    public void should_not_find_latencies_of_events_before_given_time() {
+        // given
+        Envelope envelope = envelope("A", COMPLETED);
+        dbHas(envelope);
+        dbHasEvent(envelope, Event.COMPLETED, Duration.ofMinutes(1));
+
+        // when
+        List<EnvelopeLatencyInfo> latencies = jdbcRepo.findLatencies(
+            List.of(Event.COMPLETED),
+            envelope.getZipFileCreateddate().plus(Duration.ofMinutes(2))
+        );
+
+        // then
+        assertThat(latencies).isEmpty();
+    }
+
+    private void dbHasEvent(Envelope envelope, Event event, Duration afterZipFileCreated) {
+        ProcessEvent processEvent = new ProcessEvent(envelope.getContainer(), envelope.getZipFileName(), event);
+        processEvent.setCreatedAt(envelope.getZipFileCreateddate().plus(afterZipFileCreated));
+        processEventRepo.saveAndFlush(processEvent);
+    }
+
+    private void dbHas(Envelope... envelopes) {
+        repo.saveAll(asList(envelopes));
+        repo.flush();
+    }
+}
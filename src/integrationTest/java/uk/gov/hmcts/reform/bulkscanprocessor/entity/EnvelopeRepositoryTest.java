@@ -367,6 +367,23 @@ public class EnvelopeRepositoryTest {
 
     }
 
+    @Test
+    void findZipFileNamesWithEnvelope_should_return_zip_files_with_envelope_in_container() {
+        // given
+        dbHas(
+            envelope("A.zip", "X", UPLOADED, scannableItems(), "c1", false),
+            envelope("A.zip", "X", COMPLETED, scannableItems(), "c1", false),
+            envelope("B.zip", "Y", COMPLETED, scannableItems(), "c2", false),
+            envelope("C.zip", "Z", NOTIFICATION_SENT, scannableItems(), "c1", false)
+        );
+
+        // when
+        List<String> result = repo.findZipFileNamesWithEnvelope("c1", asList("A.zip", "B.zip", "D.zip"));
+
+        // then
+        assertThat(result).containsExactly("A.zip");
+    }
+
     @Test
     public void findByJurisdictionAndCreatedAtGreaterThan_should_return_envelopes()
         throws InterruptedException {
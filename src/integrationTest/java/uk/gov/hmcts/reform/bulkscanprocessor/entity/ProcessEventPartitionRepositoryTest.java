@@ -0,0 +1,156 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.entity;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event;
+
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DataJpaTest
+@Import(ProcessEventPartitionRepository.class)
+@ExtendWith(SpringExtension.class)
+public class ProcessEventPartitionRepositoryTest {
+
+    private static final DateTimeFormatter PARTITION_NAME_FORMAT =
+        DateTimeFormatter.ofPattern("'process_events_y'yyyy'm'MM").withZone(ZoneOffset.UTC);
+
+    @Autowired
+    private ProcessEventRepository eventRepo;
+
+    @Autowired
+    private ProcessEventPartitionRepository partitionRepo;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void should_store_events_in_partition_of_their_month() {
+        // given
+        Instant nextMonth = Instant.now().plus(40, ChronoUnit.DAYS);
+
+        // when
+        dbHasEvent("old.zip", Instant.parse("2021-02-07T14:15:23Z"));
+        dbHasEvent("new.zip", nextMonth);
+
+        // then
+        assertThat(partitionOf("old.zip")).isEqualTo("process_events_legacy");
+        assertThat(partitionOf("new.zip")).isEqualTo(PARTITION_NAME_FORMAT.format(nextMonth));
+    }
+
+    @Test
+    public void should_create_partitions_only_for_months_without_one() {
+        // given
+        Instant inFiveMonths = Instant.now().atZone(ZoneOffset.UTC).plusMonths(5).toInstant();
+
+        // when
+        int createdForExistingMonths = partitionRepo.createPartitions(3);
+        int created = partitionRepo.createPartitions(5);
+
+        // then
+        assertThat(createdForExistingMonths).isZero();
+        assertThat(created).isEqualTo(2);
+        assertThat(partitionRepo.findPartitionsEndingBefore(inFiveMonths.plus(31, ChronoUnit.DAYS)))
+            .contains(PARTITION_NAME_FORMAT.format(inFiveMonths));
+    }
+
+    @Test
+    public void should_move_events_of_created_partitions_out_of_default_partition() {
+        // given
+        Instant inFiveMonths = Instant.now().atZone(ZoneOffset.UTC).plusMonths(5).toInstant();
+        dbHasEvent("future.zip", inFiveMonths);
+        assertThat(partitionOf("future.zip")).isEqualTo("process_events_default");
+
+        // when
+        int created = partitionRepo.createPartitions(5);
+
+        // then
+        assertThat(created).isEqualTo(2);
+        assertThat(partitionOf("future.zip")).isEqualTo(PARTITION_NAME_FORMAT.format(inFiveMonths));
+        assertThat(eventRepo.findByZipFileNameOrderByCreatedAtDesc("future.zip")).hasSize(1);
+    }
+
+    @Test
+    public void should_find_partitions_ending_before_cutoff_oldest_first() {
+        // when
+        List<String> endingBeforeNow = partitionRepo.findPartitionsEndingBefore(Instant.now());
+        List<String> endingBeforeNextYear = partitionRepo.findPartitionsEndingBefore(
+            Instant.now().plus(365, ChronoUnit.DAYS)
+        );
+
+        // then
+        assertThat(endingBeforeNow).isEmpty();
+        assertThat(endingBeforeNextYear)
+            .hasSize(4)
+            .startsWith("process_events_legacy")
+            .doesNotContain("process_events_default");
+    }
+
+    @Test
+    public void should_read_events_of_partition_after_it_is_detached() {
+        // given
+        dbHasEvent("old.zip", Instant.parse("2021-02-07T14:15:23Z"));
+
+        // when
+        partitionRepo.detach("process_events_legacy");
+
+        // then
+        assertThat(eventRepo.findByZipFileNameOrderByCreatedAtDesc("old.zip")).isEmpty();
+        assertThat(partitionRepo.findPartitionsEndingBefore(Instant.now().plus(365, ChronoUnit.DAYS)))
+            .doesNotContain("process_events_legacy");
+
+        List<String> archivedZipFileNames = new ArrayList<>();
+        partitionRepo.forEachEvent(
+            "process_events_legacy",
+            rs -> archivedZipFileNames.add(rs.getString("zipfilename"))
+        );
+        assertThat(archivedZipFileNames).containsExactly("old.zip");
+    }
+
+    @Test
+    public void should_drop_detached_partition() {
+        // given
+        partitionRepo.detach("process_events_legacy");
+
+        // when
+        partitionRepo.drop("process_events_legacy");
+
+        // then
+        assertThat(jdbcTemplate.queryForObject("SELECT to_regclass('process_events_legacy')", String.class)).isNull();
+    }
+
+    @Test
+    public void should_not_accept_tables_other_than_process_events_partitions() {
+        assertThatThrownBy(() -> partitionRepo.drop("envelopes"))
+            .isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("Not a process events partition: envelopes");
+    }
+
+    private void dbHasEvent(String zipFileName, Instant createdAt) {
+        ProcessEvent event = new ProcessEvent("bulkscan", zipFileName, Event.ZIPFILE_PROCESSING_STARTED);
+        event.setCreatedAt(createdAt);
+        eventRepo.saveAndFlush(event);
+    }
+
+    private String partitionOf(String zipFileName) {
+        return jdbcTemplate.queryForObject(
+            "SELECT tableoid::regclass::text FROM process_events WHERE zipfilename = ?",
+            String.class,
+            zipFileName
+        );
+    }
+}
@@ -16,13 +16,16 @@ import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static java.time.temporal.ChronoUnit.HOURS;
 import static java.time.temporal.ChronoUnit.MINUTES;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
+import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Classification.EXCEPTION;
 import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Classification.SUPPLEMENTARY_EVIDENCE;
 import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.COMPLETED;
@@ -166,6 +169,92 @@ public class ZipFilesSummaryRepositoryTest {
             );
     }
 
+    @Test
+    public void should_filter_zipfiles_summary_by_container_and_classification() {
+        // given
+        Instant createdDate = Instant.parse("2019-02-15T14:15:23.456Z");
+
+        dbHasEvents(
+            event("c1", "test1.zip", createdDate, ZIPFILE_PROCESSING_STARTED),
+            event("c1", "test2.zip", createdDate, ZIPFILE_PROCESSING_STARTED),
+            event("c2", "test3.zip", createdDate, ZIPFILE_PROCESSING_STARTED)
+        );
+        dbHasEnvelope(envelope("c1", "test1.zip", Status.COMPLETED, EXCEPTION, null, null));
+        dbHasEnvelope(envelope("c1", "test2.zip", Status.COMPLETED, SUPPLEMENTARY_EVIDENCE, null, null));
+        dbHasEnvelope(envelope("c2", "test3.zip", Status.COMPLETED, SUPPLEMENTARY_EVIDENCE, null, null));
+
+        // when
+        List<ZipFileSummary> byContainer =
+            reportRepo.getZipFileSummaryReportFor(LocalDate.of(2019, 2, 15), "C1", null);
+        List<ZipFileSummary> byClassification =
+            reportRepo.getZipFileSummaryReportFor(LocalDate.of(2019, 2, 15), null, SUPPLEMENTARY_EVIDENCE.name());
+        List<ZipFileSummary> byBoth =
+            reportRepo.getZipFileSummaryReportFor(LocalDate.of(2019, 2, 15), "c1", SUPPLEMENTARY_EVIDENCE.name());
+
+        // then
+        assertThat(byContainer).extracting(ZipFileSummary::getZipFileName)
+            .containsExactlyInAnyOrder("test1.zip", "test2.zip");
+        assertThat(byClassification).extracting(ZipFileSummary::getZipFileName)
+            .containsExactlyInAnyOrder("test2.zip", "test3.zip");
+        assertThat(byBoth).extracting(ZipFileSummary::getZipFileName)
+            .containsExactly("test2.zip");
+    }
+
+    @Test
+    public void should_stream_zipfiles_summary_by_date_and_container() {
+        // given
+        Instant createdDate = Instant.parse("2019-02-15T14:15:23.456Z");
+
+        dbHasEvents(
+            event("c1", "test1.zip", createdDate, ZIPFILE_PROCESSING_STARTED),
+            event("c1", "test2.zip", createdDate.plus(1, MINUTES), ZIPFILE_PROCESSING_STARTED),
+            event("c1", "test2.zip", createdDate.plus(2, MINUTES), COMPLETED),
+            event("c2", "test3.zip", createdDate, ZIPFILE_PROCESSING_STARTED)
+        );
+        dbHasEnvelope(envelope("c1", "test2.zip", Status.COMPLETED, EXCEPTION, "ccd-id-2", "ccd-action-2"));
+
+        // when
+        List<ZipFileSummary> streamed;
+        try (Stream<ZipFileSummary> stream =
+                 reportRepo.streamZipFileSummaryReportFor(LocalDate.of(2019, 2, 15), "c1", null)) {
+            streamed = stream.collect(toList());
+        }
+
+        // then
+        assertThat(streamed)
+            .extracting(ZipFileSummary::getZipFileName, ZipFileSummary::getCompletedDate, ZipFileSummary::getCcdId)
+            .containsExactly(
+                tuple("test1.zip", null, null),
+                tuple("test2.zip", createdDate.plus(2, MINUTES), "ccd-id-2")
+            );
+    }
+
+    @Test
+    public void should_return_zipfile_for_each_day_its_processing_started_with_its_latest_event() {
+        // given
+        Instant firstDay = Instant.parse("2019-02-15T14:15:23.456Z");
+        Instant secondDay = Instant.parse("2019-02-16T10:15:23.456Z");
+
+        dbHasEvents(
+            event("c1", "test1.zip", firstDay, ZIPFILE_PROCESSING_STARTED),
+            event("c1", "test1.zip", firstDay.plus(1, MINUTES), FILE_VALIDATION_FAILURE),
+            event("c1", "test1.zip", secondDay, ZIPFILE_PROCESSING_STARTED),
+            event("c1", "test1.zip", secondDay.plus(1, MINUTES), COMPLETED)
+        );
+
+        // when
+        List<ZipFileSummary> firstDayResult = reportRepo.getZipFileSummaryReportFor(LocalDate.of(2019, 2, 15));
+        List<ZipFileSummary> secondDayResult = reportRepo.getZipFileSummaryReportFor(LocalDate.of(2019, 2, 16));
+
+        // then
+        assertThat(firstDayResult)
+            .extracting(ZipFileSummary::getCreatedDate, ZipFileSummary::getLastEventStatus)
+            .containsExactly(tuple(firstDay, COMPLETED.name()));
+        assertThat(secondDayResult)
+            .extracting(ZipFileSummary::getCreatedDate, ZipFileSummary::getLastEventStatus)
+            .containsExactly(tuple(secondDay, COMPLETED.name()));
+    }
+
     private void dbHasEvents(ProcessEvent... events) {
         eventRepo.saveAll(asList(events));
     }
@@ -1,6 +1,7 @@
 package uk.gov.hmcts.reform.bulkscanprocessor.services;
 
 import com.fasterxml.jackson.databind.node.TextNode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -8,10 +9,14 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeJdbcRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEvent;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventJdbcRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.ScannableItem;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.Status;
@@ -20,12 +25,14 @@ import uk.gov.hmcts.reform.bulkscanprocessor.model.common.DocumentType;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.common.OcrData;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.common.OcrDataField;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.in.msg.ProcessedEnvelope;
 
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Stream;
 
@@ -33,10 +40,12 @@ import static java.util.Collections.emptyList;
 import static java.util.stream.Collectors.toList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
 import static uk.gov.hmcts.reform.bulkscanprocessor.helper.EnvelopeCreator.envelope;
 
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @DataJpaTest
+@Import({EnvelopeJdbcRepository.class, ProcessEventJdbcRepository.class})
 @ExtendWith(SpringExtension.class)
 public class EnvelopeFinaliserServiceTest {
 
@@ -46,13 +55,31 @@ public class EnvelopeFinaliserServiceTest {
     @Autowired
     private ProcessEventRepository processEventRepository;
 
+    @Autowired
+    private ProcessEventJdbcRepository processEventJdbcRepository;
+
+    @Autowired
+    private EnvelopeJdbcRepository envelopeJdbcRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
     private EnvelopeFinaliserService envelopeFinaliserService;
 
     @BeforeEach
     public void setUp() {
         envelopeFinaliserService = new EnvelopeFinaliserService(
             envelopeRepository,
-            processEventRepository
+            envelopeJdbcRepository,
+            new ProcessEventRecorder(
+                processEventRepository,
+                processEventJdbcRepository,
+                new SimpleMeterRegistry(),
+                ProcessEventRecorder.Mode.IMMEDIATE,
+                100
+            ),
+            new StageMetrics(new SimpleMeterRegistry()),
+            mock(EnvelopeLatencyTracker.class)
         );
     }
 
@@ -213,6 +240,82 @@ public class EnvelopeFinaliserServiceTest {
             .hasMessage(String.format("Envelope with ID %s couldn't be found", nonExistingId));
     }
 
+    @Test
+    public void finaliseEnvelopes_should_complete_envelopes_clear_ocr_data_and_create_events() {
+        // given
+        Envelope envelope1 = envelope(
+            "JURISDICTION1",
+            Status.NOTIFICATION_SENT,
+            createScannableItems(2, createOcrData(), createWarnings())
+        );
+        Envelope envelope2 = envelope(
+            "JURISDICTION1",
+            Status.NOTIFICATION_SENT,
+            createScannableItems(1, createOcrData(), null)
+        );
+        Envelope unaffectedEnvelope = envelope(
+            "JURISDICTION1",
+            Status.NOTIFICATION_SENT,
+            createScannableItems(1, createOcrData(), null)
+        );
+        UUID envelope1Id = envelopeRepository.saveAndFlush(envelope1).getId();
+        UUID envelope2Id = envelopeRepository.saveAndFlush(envelope2).getId();
+        UUID unaffectedEnvelopeId = envelopeRepository.saveAndFlush(unaffectedEnvelope).getId();
+
+        // when
+        Set<UUID> notFound = envelopeFinaliserService.finaliseEnvelopes(List.of(
+            new ProcessedEnvelope(envelope1Id, "1", "EXCEPTION_RECORD"),
+            new ProcessedEnvelope(envelope2Id, "2", "AUTO_ATTACHED_TO_CASE")
+        ));
+        entityManager.clear();
+
+        // then
+        assertThat(notFound).isEmpty();
+
+        Envelope finalisedEnvelope1 = envelopeRepository.findById(envelope1Id).get();
+        assertThat(finalisedEnvelope1.getStatus()).isEqualTo(Status.COMPLETED);
+        assertThat(finalisedEnvelope1.getCcdId()).isEqualTo("1");
+        assertThat(finalisedEnvelope1.getEnvelopeCcdAction()).isEqualTo("EXCEPTION_RECORD");
+        assertThat(finalisedEnvelope1.getScannableItems())
+            .allMatch(item -> item.getOcrData() == null && item.getOcrValidationWarnings() == null);
+
+        Envelope finalisedEnvelope2 = envelopeRepository.findById(envelope2Id).get();
+        assertThat(finalisedEnvelope2.getStatus()).isEqualTo(Status.COMPLETED);
+        assertThat(finalisedEnvelope2.getCcdId()).isEqualTo("2");
+        assertThat(finalisedEnvelope2.getEnvelopeCcdAction()).isEqualTo("AUTO_ATTACHED_TO_CASE");
+        assertThat(finalisedEnvelope2.getScannableItems()).allMatch(item -> item.getOcrData() == null);
+
+        Envelope notFinalisedEnvelope = envelopeRepository.findById(unaffectedEnvelopeId).get();
+        assertThat(notFinalisedEnvelope.getStatus()).isEqualTo(Status.NOTIFICATION_SENT);
+        assertThat(notFinalisedEnvelope.getScannableItems()).allMatch(item -> item.getOcrData() != null);
+
+        assertThat(processEventRepository.findByZipFileNameOrderByCreatedAtDesc(envelope1.getZipFileName()))
+            .extracting(ProcessEvent::getEvent)
+            .containsExactly(Event.COMPLETED);
+        assertThat(processEventRepository.findByZipFileNameOrderByCreatedAtDesc(envelope2.getZipFileName()))
+            .extracting(ProcessEvent::getEvent)
+            .containsExactly(Event.COMPLETED);
+    }
+
+    @Test
+    public void finaliseEnvelopes_should_finalise_found_envelopes_and_return_ids_of_others() {
+        // given
+        Envelope envelope = envelope("JURISDICTION1", Status.NOTIFICATION_SENT, emptyList());
+        UUID envelopeId = envelopeRepository.saveAndFlush(envelope).getId();
+        UUID nonExistingId = UUID.fromString("ef2565fd-74f5-418e-9d8c-7bf847edde80");
+
+        // when
+        Set<UUID> notFound = envelopeFinaliserService.finaliseEnvelopes(List.of(
+            new ProcessedEnvelope(envelopeId, "1", "EXCEPTION_RECORD"),
+            new ProcessedEnvelope(nonExistingId, "2", "EXCEPTION_RECORD")
+        ));
+        entityManager.clear();
+
+        // then
+        assertThat(notFound).containsExactly(nonExistingId);
+        assertThat(envelopeRepository.findById(envelopeId).get().getStatus()).isEqualTo(Status.COMPLETED);
+    }
+
     private List<ScannableItem> createScannableItems(
         int count,
         OcrData ocrData,
@@ -0,0 +1,110 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeRepository;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEvent;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventJdbcRepository;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventRepository;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.Status;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static uk.gov.hmcts.reform.bulkscanprocessor.helper.EnvelopeCreator.envelope;
+import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.DOC_UPLOADED;
+
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@DataJpaTest
+@Import(ProcessEventJdbcRepository.class)
+@ExtendWith(SpringExtension.class)
+// transactions are committed or rolled back by the tests themselves
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ProcessEventRecorderTransactionTest {
+
+    @Autowired
+    private EnvelopeRepository envelopeRepository;
+
+    @Autowired
+    private ProcessEventRepository processEventRepository;
+
+    @Autowired
+    private ProcessEventJdbcRepository processEventJdbcRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private ProcessEventRecorder recorder;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    public void setUp() {
+        recorder = new ProcessEventRecorder(
+            processEventRepository,
+            processEventJdbcRepository,
+            new SimpleMeterRegistry(),
+            ProcessEventRecorder.Mode.TRANSACTIONAL,
+            100
+        );
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        processEventRepository.deleteAll();
+        envelopeRepository.deleteAll();
+    }
+
+    @Test
+    public void should_commit_events_together_with_status_change() {
+        // given
+        Envelope envelope = envelopeRepository.saveAndFlush(envelope("BULKSCAN", Status.CREATED));
+
+        // when
+        transactionTemplate.executeWithoutResult(status -> changeStatusToUploaded(envelope));
+
+        // then
+        assertThat(envelopeRepository.findById(envelope.getId()).orElseThrow().getStatus())
+            .isEqualTo(Status.UPLOADED);
+        assertThat(processEventRepository.findByZipFileNameOrderByCreatedAtDesc(envelope.getZipFileName()))
+            .extracting(ProcessEvent::getEvent)
+            .containsExactly(DOC_UPLOADED);
+    }
+
+    @Test
+    public void should_not_write_events_when_status_change_is_rolled_back() {
+        // given
+        Envelope envelope = envelopeRepository.saveAndFlush(envelope("BULKSCAN", Status.CREATED));
+
+        // when
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            changeStatusToUploaded(envelope);
+            throw new IllegalStateException("upload confirmation failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        // then
+        assertThat(envelopeRepository.findById(envelope.getId()).orElseThrow().getStatus())
+            .isEqualTo(Status.CREATED);
+        assertThat(processEventRepository.findByZipFileNameOrderByCreatedAtDesc(envelope.getZipFileName()))
+            .isEmpty();
+    }
+
+    private void changeStatusToUploaded(Envelope envelope) {
+        recorder.record(new ProcessEvent(envelope.getContainer(), envelope.getZipFileName(), DOC_UPLOADED));
+        envelope.setStatus(Status.UPLOADED);
+        envelopeRepository.saveAndFlush(envelope);
+    }
+}
@@ -2,6 +2,7 @@ package uk.gov.hmcts.reform.bulkscanprocessor.services.servicebus;
 
 import com.azure.messaging.servicebus.ServiceBusException;
 import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusMessageBatch;
 import com.azure.messaging.servicebus.ServiceBusSenderClient;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -34,6 +35,7 @@ import java.time.ZoneOffset;
 import java.time.ZonedDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 import static java.util.Collections.singletonList;
@@ -41,7 +43,11 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -140,6 +146,81 @@ public class ServiceBusSendHelperTest {
             .hasMessage("Unable to send message");
     }
 
+    @Test
+    public void should_send_messages_in_a_batch() {
+        // given
+        ServiceBusMessageBatch batch = mock(ServiceBusMessageBatch.class);
+        given(sendClient.createMessageBatch()).willReturn(batch);
+        given(batch.tryAddMessage(any())).willReturn(true);
+        List<EnvelopeMsg> msgs = List.of(new EnvelopeMsg(envelope), new EnvelopeMsg(envelope));
+
+        // when
+        List<EnvelopeMsg> sent = serviceBusHelper.sendMessages(msgs);
+
+        // then
+        assertThat(sent).isEqualTo(msgs);
+        verify(batch, times(2)).tryAddMessage(any());
+        verify(sendClient).sendMessages(batch);
+        verify(sendClient, never()).sendMessage(any());
+    }
+
+    @Test
+    public void should_send_messages_one_by_one_when_batch_fails() {
+        // given
+        ServiceBusMessageBatch batch = mock(ServiceBusMessageBatch.class);
+        given(sendClient.createMessageBatch()).willReturn(batch);
+        given(batch.tryAddMessage(any())).willReturn(true);
+        willThrow(ServiceBusException.class).given(sendClient).sendMessages(any(ServiceBusMessageBatch.class));
+        willThrow(ServiceBusException.class).willDoNothing().given(sendClient).sendMessage(any());
+        EnvelopeMsg failedMsg = new EnvelopeMsg(envelope);
+        EnvelopeMsg sentMsg = new EnvelopeMsg(envelope);
+
+        // when
+        List<EnvelopeMsg> sent = serviceBusHelper.sendMessages(List.of(failedMsg, sentMsg));
+
+        // then
+        assertThat(sent).containsExactly(sentMsg);
+        verify(sendClient, times(2)).sendMessage(any());
+    }
+
+    @Test
+    public void should_return_messages_sent_before_batch_could_not_be_created() {
+        // given
+        ServiceBusMessageBatch batch = mock(ServiceBusMessageBatch.class);
+        given(sendClient.createMessageBatch()).willReturn(batch).willThrow(new IllegalStateException("broker"));
+        given(batch.tryAddMessage(any())).willReturn(true, false);
+        EnvelopeMsg sentMsg = new EnvelopeMsg(envelope);
+        EnvelopeMsg notSentMsg = new EnvelopeMsg(envelope);
+
+        // when
+        List<EnvelopeMsg> sent = serviceBusHelper.sendMessages(List.of(sentMsg, notSentMsg));
+
+        // then
+        assertThat(sent).containsExactly(sentMsg);
+        verify(sendClient).sendMessages(batch);
+    }
+
+    @Test
+    public void should_return_messages_sent_before_batch_failed_unexpectedly() {
+        // given
+        ServiceBusMessageBatch batch1 = mock(ServiceBusMessageBatch.class);
+        ServiceBusMessageBatch batch2 = mock(ServiceBusMessageBatch.class);
+        given(sendClient.createMessageBatch()).willReturn(batch1, batch2);
+        given(batch1.tryAddMessage(any())).willReturn(true, false);
+        given(batch2.tryAddMessage(any())).willReturn(true);
+        willThrow(new IllegalStateException("closed")).given(sendClient).sendMessages(batch2);
+        EnvelopeMsg sentMsg = new EnvelopeMsg(envelope);
+        EnvelopeMsg notSentMsg = new EnvelopeMsg(envelope);
+
+        // when
+        List<EnvelopeMsg> sent = serviceBusHelper.sendMessages(List.of(sentMsg, notSentMsg));
+
+        // then
+        assertThat(sent).containsExactly(sentMsg);
+        verify(sendClient).sendMessages(batch1);
+        verify(sendClient, never()).sendMessage(any());
+    }
+
     @SuppressWarnings("unchecked")
     @Test
     public void should_send_message_with_envelope_data() throws Exception {
@@ -7,6 +7,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.test.context.TestPropertySource;
 import uk.gov.hmcts.reform.bulkscanprocessor.config.IntegrationTest;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.out.msg.ErrorCode;
+import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ExtractedPdf;
 
 import java.io.File;
 
@@ -38,7 +39,8 @@ public class BlobProcessorTaskTestForDisabledService extends ProcessorTestSuite
         File pdf =
             new File(DOWNLOAD_PATH + SAMPLE_ZIP_FILE_NAME +  "1111002.pdf");
 
-        given(documentManagementService.uploadDocuments(ImmutableList.of(pdf), "BULKSCAN", "bulkscan"))
+        given(documentManagementService
+            .uploadDocuments(ImmutableList.of(ExtractedPdf.onDisk(pdf)), "BULKSCAN", "bulkscan"))
             .willReturn(ImmutableMap.of(
                 "1111002.pdf", DOCUMENT_URL2
             ));
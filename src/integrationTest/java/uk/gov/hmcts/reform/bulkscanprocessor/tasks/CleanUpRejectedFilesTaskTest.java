@@ -3,6 +3,7 @@ package uk.gov.hmcts.reform.bulkscanprocessor.tasks;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.storage.blob.batch.BlobBatchClientBuilder;
 import com.azure.storage.blob.models.BlobItem;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
@@ -13,7 +14,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.testcontainers.containers.GenericContainer;
 import uk.gov.hmcts.reform.bulkscanprocessor.config.BlobManagementProperties;
 import uk.gov.hmcts.reform.bulkscanprocessor.config.IntegrationTest;
-import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseAcquirer;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.BlobBatchDeleter;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseMetaDataChecker;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.BlobManager;
 import uk.gov.hmcts.reform.bulkscanprocessor.util.TestStorageHelper;
 
@@ -38,7 +40,7 @@ public class CleanUpRejectedFilesTaskTest {
     private BlobManagementProperties blobManagementProperties;
 
     @Autowired
-    private LeaseAcquirer leaseAcquirer;
+    private LeaseMetaDataChecker leaseMetaDataChecker;
 
     private BlobServiceClient blobServiceClient;
 
@@ -46,6 +48,8 @@ public class CleanUpRejectedFilesTaskTest {
 
     private BlobManager blobManager;
 
+    private BlobBatchDeleter blobBatchDeleter;
+
     private static GenericContainer<?> dockerComposeContainer =
         new GenericContainer<>(AZURE_TEST_CONTAINER).withExposedPorts(CONTAINER_PORT)
             .withCommand("azurite-blob --blobHost 0.0.0.0 --blobPort 10000 --skipApiVersionCheck");
@@ -77,6 +81,10 @@ public class CleanUpRejectedFilesTaskTest {
             .buildClient();
 
         this.blobManager = new BlobManager(blobServiceClient, blobManagementProperties);
+        this.blobBatchDeleter = new BlobBatchDeleter(
+            new BlobBatchClientBuilder(blobServiceClient).buildClient(),
+            leaseMetaDataChecker
+        );
 
         this.rejectedContainer = blobServiceClient.getBlobContainerClient(("test-rejected"));
         if (!this.rejectedContainer.exists()) {
@@ -109,7 +117,7 @@ public class CleanUpRejectedFilesTaskTest {
 
 
         // when
-        new CleanUpRejectedFilesTask(blobManager, leaseAcquirer, "PT0H").run();
+        new CleanUpRejectedFilesTask(blobManager, blobBatchDeleter, "PT0H").run();
 
         // then
         assertThat(rejectedContainer.listBlobs()).isEmpty();
@@ -134,7 +142,7 @@ public class CleanUpRejectedFilesTaskTest {
             .setMetadata(blobMetaData);
 
         // when
-        new CleanUpRejectedFilesTask(blobManager, leaseAcquirer, "PT0H").run();
+        new CleanUpRejectedFilesTask(blobManager, blobBatchDeleter, "PT0H").run();
 
         // then
         assertThat(rejectedContainer.listBlobs()).isNotEmpty();
@@ -1,8 +1,8 @@
 package uk.gov.hmcts.reform.bulkscanprocessor.tasks;
 
-import com.azure.core.http.rest.Response;
-import com.azure.storage.blob.BlobClient;
+import com.azure.core.http.rest.PagedIterable;
 import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.models.BlobItem;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
@@ -13,23 +13,23 @@ import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeJdbcRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.DeleteFilesService;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.EnvelopeMarkAsDeletedService;
-import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseAcquirer;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.BlobBatchDeleter;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.BlobManager;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.EnvelopeProcessor;
 
 import java.util.List;
-import java.util.UUID;
-import java.util.function.Consumer;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static uk.gov.hmcts.reform.bulkscanprocessor.entity.Status.COMPLETED;
 import static uk.gov.hmcts.reform.bulkscanprocessor.helper.EnvelopeCreator.envelope;
 
@@ -54,7 +54,7 @@ public class DeleteCompleteFilesTaskTest {
     private DeleteFilesService deleteFilesService;
 
     @Mock
-    private LeaseAcquirer leaseAcquirer;
+    private BlobBatchDeleter blobBatchDeleter;
 
     private DeleteCompleteFilesTask task;
 
@@ -63,7 +63,7 @@ public class DeleteCompleteFilesTaskTest {
         deleteFilesService = new DeleteFilesService(
             envelopeRepository,
             envelopeMarkAsDeletedService,
-            leaseAcquirer
+            blobBatchDeleter
         );
         task = new DeleteCompleteFilesTask(
             blobManager,
@@ -79,19 +79,14 @@ public class DeleteCompleteFilesTaskTest {
         final Envelope envelopeSaved = envelopeRepository.saveAndFlush(envelope);
 
         final BlobContainerClient container1 = mock(BlobContainerClient.class);
-        final BlobClient blobClient = mock(BlobClient.class);
         given(container1.getBlobContainerName()).willReturn(containerName1);
         given(blobManager.listInputContainerClients()).willReturn(singletonList(container1));
 
-        doAnswer(invocation -> {
-            var okAction = (Consumer) invocation.getArgument(1);
-            okAction.accept(UUID.randomUUID().toString());
-            return null;
-        }).when(leaseAcquirer).ifAcquiredOrElse(any(), any(), any(), anyBoolean());
-
-        given(container1.getBlobClient(envelope.getZipFileName())).willReturn(blobClient);
-        given(blobClient.exists()).willReturn(true);
-        given(blobClient.deleteWithResponse(any(), any(), any(), any())).willReturn(mock(Response.class));
+        PagedIterable<BlobItem> blobItems = mock(PagedIterable.class);
+        given(blobItems.stream())
+            .willAnswer(invocation -> Stream.of(new BlobItem().setName(envelope.getZipFileName())));
+        given(container1.listBlobs(any(), any())).willReturn(blobItems);
+        given(blobBatchDeleter.deleteBlobs(eq(container1), anyList())).willReturn(Set.of(envelope.getZipFileName()));
 
         // when
         task.run();
@@ -114,15 +109,13 @@ public class DeleteCompleteFilesTaskTest {
             false
         );
         assertThat(envelopesNotMarkedAsDeleted).isEmpty();
-        verify(container1).getBlobClient(envelope.getZipFileName());
-        verify(blobClient).exists();
-        verify(blobClient).deleteWithResponse(any(), any(), any(), any());
+        verify(blobBatchDeleter).deleteBlobs(eq(container1), anyList());
 
         // and when
         task.run();
 
         // then
-        verify(blobClient).getBlobUrl();
-        verifyNoMoreInteractions(blobClient);
+        verify(container1, times(1)).listBlobs(any(), any());
+        verify(blobBatchDeleter, times(1)).deleteBlobs(any(), anyList());
     }
 }
@@ -14,13 +14,17 @@ import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.Status;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.InvalidMessageException;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.out.msg.EnvelopeMsg;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.OrchestratorNotificationService;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.servicebus.ServiceBusSendHelper;
 
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
 import static uk.gov.hmcts.reform.bulkscanprocessor.helper.EnvelopeCreator.envelope;
 
@@ -45,7 +49,9 @@ public class OrchestratorNotificationTaskTest {
         task = new OrchestratorNotificationTask(
             orchestratorNotificationService,
             envelopeRepo,
-            processEventRepo
+            processEventRepo,
+            false,
+            100
         );
     }
 
@@ -95,6 +101,41 @@ public class OrchestratorNotificationTaskTest {
 
     }
 
+    @Test
+    public void should_update_envelope_statuses_and_events_after_sending_notifications_in_batches() {
+        // given
+        Envelope sentEnvelope = envelopeRepo.saveAndFlush(envelope("some_jurisdiction", Status.UPLOADED));
+        Envelope failedEnvelope = envelopeRepo.saveAndFlush(envelope("some_jurisdiction", Status.UPLOADED));
+
+        given(serviceBusHelper.sendMessages(anyList())).willAnswer(invocation -> {
+            List<EnvelopeMsg> msgs = invocation.getArgument(0);
+            return msgs.stream()
+                .filter(msg -> msg.getMsgId().equals(sentEnvelope.getId().toString()))
+                .toList();
+        });
+
+        task = new OrchestratorNotificationTask(
+            orchestratorNotificationService,
+            envelopeRepo,
+            processEventRepo,
+            true,
+            1
+        );
+
+        // when
+        task.run();
+
+        // then
+        assertThat(envelopeRepo.getOne(sentEnvelope.getId()).getStatus()).isEqualTo(Status.NOTIFICATION_SENT);
+        assertThat(envelopeRepo.getOne(failedEnvelope.getId()).getStatus()).isEqualTo(Status.UPLOADED);
+        assertThat(processEventRepo.findAll())
+            .extracting(ProcessEvent::getZipFileName, ProcessEvent::getEvent)
+            .containsExactlyInAnyOrder(
+                tuple(sentEnvelope.getZipFileName(), Event.DOC_PROCESSED_NOTIFICATION_SENT),
+                tuple(failedEnvelope.getZipFileName(), Event.DOC_PROCESSED_NOTIFICATION_FAILURE)
+            );
+    }
+
     @AfterEach
     public void tearDown() {
         processEventRepo.deleteAll();
@@ -4,6 +4,7 @@ import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -26,10 +27,16 @@ import uk.gov.hmcts.reform.bulkscanprocessor.services.EnvelopeHandler;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.ErrorNotificationSender;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.FileContentProcessor;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.FileRejector;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.ProcessEventRecorder;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.UploadEnvelopeDocumentsService;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.document.DocumentManagementService;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.servicebus.ServiceBusSendHelper;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.BlobInventory;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseAcquirer;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseMetaDataChecker;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.OcrValidationRetryManager;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.RejectedFileMover;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.BlobManager;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.DocumentProcessor;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.EnvelopeProcessor;
@@ -40,6 +47,7 @@ import uk.gov.hmcts.reform.bulkscanprocessor.validation.MetafileJsonValidator;
 import uk.gov.hmcts.reform.bulkscanprocessor.validation.OcrValidator;
 
 import java.io.ByteArrayInputStream;
+import java.time.Duration;
 import java.util.List;
 
 import static com.jayway.awaitility.Awaitility.await;
@@ -83,6 +91,9 @@ public abstract class ProcessorTestSuite {
     @Autowired
     protected ProcessEventRepository processEventRepository;
 
+    @Autowired
+    protected ProcessEventRecorder processEventRecorder;
+
     @Autowired
     protected OcrValidationRetryManager ocrValidationRetryManager;
 
@@ -120,6 +131,9 @@ public abstract class ProcessorTestSuite {
     @Mock
     protected ServiceBusSendHelper serviceBusHelper;
 
+    @Mock
+    protected UploadEnvelopeDocumentsService uploadEnvelopeDocumentsService;
+
     @Value("${process-payments.enabled}")
     protected boolean paymentsEnabled;
 
@@ -154,7 +168,8 @@ public abstract class ProcessorTestSuite {
         envelopeProcessor = new EnvelopeProcessor(
             schemaValidator,
             envelopeRepository,
-            processEventRepository
+            processEventRepository,
+            processEventRecorder
         );
 
         errorNotificationSender = new ErrorNotificationSender(
@@ -165,7 +180,13 @@ public abstract class ProcessorTestSuite {
         envelopeValidator = new EnvelopeValidator();
 
         fileRejector = new FileRejector(
-            blobManager,
+            new RejectedFileMover(
+                blobManager,
+                new LeaseMetaDataChecker(blobManagementProperties),
+                0,
+                1,
+                Duration.ZERO
+            ),
             errorNotificationSender
         );
 
@@ -174,6 +195,7 @@ public abstract class ProcessorTestSuite {
             containerMappings,
             envelopeProcessor,
             ocrValidator,
+            new StageMetrics(new SimpleMeterRegistry()),
             paymentsEnabled
         );
 
@@ -181,7 +203,10 @@ public abstract class ProcessorTestSuite {
             zipFileProcessor,
             envelopeProcessor,
             envelopeHandler,
-            fileRejector
+            fileRejector,
+            uploadEnvelopeDocumentsService,
+            new StageMetrics(new SimpleMeterRegistry()),
+            false
         );
 
         testContainer = blobServiceClient.getBlobContainerClient(CONTAINER_NAME);
@@ -199,7 +224,12 @@ public abstract class ProcessorTestSuite {
             envelopeProcessor,
             fileContentProcessor,
             leaseAcquirer,
-            ocrValidationRetryManager
+            ocrValidationRetryManager,
+            new BlobInventory(1000, false, Duration.ofHours(1)),
+            new StageMetrics(new SimpleMeterRegistry()),
+            2,
+            1,
+            false
         );
     }
 
@@ -1,6 +1,7 @@
 package uk.gov.hmcts.reform.bulkscanprocessor.tasks;
 
 import com.google.common.collect.ImmutableMap;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeAll;
@@ -17,16 +18,18 @@ import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.blob.InputEnvelope;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.mapper.EnvelopeMapper;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.UploadConcurrencyLimiter;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.UploadEnvelopeDocumentsService;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.document.DocumentManagementService;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseAcquirer;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.BlobManager;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.DocumentProcessor;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.EnvelopeProcessor;
+import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ExtractedPdf;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ZipFileProcessor;
 import uk.gov.hmcts.reform.bulkscanprocessor.util.TestStorageHelper;
 
-import java.io.File;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -117,7 +120,9 @@ public class UploadEnvelopeDocumentsTaskTest {
             zipFileProcessor,
             documentProcessor,
             envelopeProcessor,
-            leaseAcquirer
+            leaseAcquirer,
+            new UploadConcurrencyLimiter(2, 1),
+            new StageMetrics(new SimpleMeterRegistry())
         );
         new UploadEnvelopeDocumentsTask(envelopeRepository, uploadService, 1).run();
 
@@ -127,7 +132,7 @@ public class UploadEnvelopeDocumentsTaskTest {
             .get()
             .extracting(Envelope::getStatus)
             .isEqualTo(UPLOADED);
-        ArgumentCaptor<List<File>> pdfListCaptor = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<List<ExtractedPdf>> pdfListCaptor = ArgumentCaptor.forClass(List.class);
         verify(documentManagementService, times(1))
             .uploadDocuments(pdfListCaptor.capture(), eq("BULKSCAN"), eq("bulkscan"));
         assertThat(pdfListCaptor.getValue().get(0).getName()).isEqualTo("1111002.pdf");
@@ -0,0 +1,84 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.hmcts.reform.bulkscanprocessor.config.ContainerMappingIndex;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.blob.InputEnvelope;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.out.msg.EnvelopeMsg;
+import uk.gov.hmcts.reform.bulkscanprocessor.validation.EnvelopeValidator;
+import uk.gov.hmcts.reform.bulkscanprocessor.validation.MetafileJsonValidator;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+
+import static uk.gov.hmcts.reform.bulkscanprocessor.benchmarks.SyntheticEnvelopes.CONTAINER;
+import static uk.gov.hmcts.reform.bulkscanprocessor.benchmarks.SyntheticEnvelopes.ZIP_FILE_NAME;
+import static uk.gov.hmcts.reform.bulkscanprocessor.model.mapper.EnvelopeMapper.toDbEnvelope;
+
+/**
+ * Stages applied to a parsed envelope: validation, mapping to the entity and serialization of the
+ * message sent to the orchestrator, for envelopes of 1 to 500 documents.
+ */
+@State(Scope.Benchmark)
+public class EnvelopeBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int pdfCount;
+
+    @Param({"true", "false"})
+    public boolean withOcr;
+
+    private InputEnvelope inputEnvelope;
+    private List<String> pdfNames;
+    private Envelope envelope;
+    private ContainerMappingIndex mappingIndex;
+    private EnvelopeValidator envelopeValidator;
+    private ObjectMapper objectMapper;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, ProcessingException {
+        inputEnvelope = new MetafileJsonValidator().validateAndParse(
+            SyntheticEnvelopes.metadata(pdfCount, withOcr),
+            ZIP_FILE_NAME
+        );
+        pdfNames = SyntheticEnvelopes.pdfNames(pdfCount);
+        envelope = toDbEnvelope(inputEnvelope, CONTAINER, Optional.empty());
+        mappingIndex = SyntheticEnvelopes.mappingIndex();
+        envelopeValidator = new EnvelopeValidator();
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    }
+
+    // same assertions, in the same order, as done for each envelope by EnvelopeHandler
+    @Benchmark
+    public InputEnvelope validateEnvelope() {
+        envelopeValidator.assertZipFilenameMatchesWithMetadata(inputEnvelope, ZIP_FILE_NAME);
+        envelopeValidator.assertContainerMatchesJurisdictionAndPoBox(mappingIndex, inputEnvelope, CONTAINER);
+        envelopeValidator.assertServiceEnabled(inputEnvelope, mappingIndex);
+        envelopeValidator.assertEnvelopeContainsOcrDataIfRequired(inputEnvelope);
+        envelopeValidator.assertEnvelopeHasPdfs(inputEnvelope, pdfNames);
+        envelopeValidator.assertDocumentControlNumbersAreUnique(inputEnvelope);
+        envelopeValidator.assertPaymentsEnabledForContainerIfPaymentsArePresent(inputEnvelope, true, mappingIndex);
+        envelopeValidator.assertEnvelopeContainsDocsOfAllowedTypesOnly(inputEnvelope);
+        return inputEnvelope;
+    }
+
+    @Benchmark
+    public Envelope mapToDbEnvelope() {
+        return toDbEnvelope(inputEnvelope, CONTAINER, Optional.empty());
+    }
+
+    @Benchmark
+    public byte[] serializeEnvelopeMsg() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(new EnvelopeMsg(envelope));
+    }
+}
@@ -0,0 +1,49 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.benchmarks;
+
+import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.blob.InputEnvelope;
+import uk.gov.hmcts.reform.bulkscanprocessor.validation.MetafileJsonValidator;
+
+import java.io.IOException;
+
+import static uk.gov.hmcts.reform.bulkscanprocessor.benchmarks.SyntheticEnvelopes.ZIP_FILE_NAME;
+
+/**
+ * Schema validation and parsing of metadata.json, for envelopes of 1 to 500 documents.
+ */
+@State(Scope.Benchmark)
+public class MetafileJsonValidatorBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int pdfCount;
+
+    @Param({"true", "false"})
+    public boolean withOcr;
+
+    private byte[] metadata;
+    private MetafileJsonValidator validator;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, ProcessingException {
+        metadata = SyntheticEnvelopes.metadata(pdfCount, withOcr);
+        validator = new MetafileJsonValidator();
+    }
+
+    @Benchmark
+    public InputEnvelope validateAndParse() throws IOException, ProcessingException {
+        return validator.validateAndParse(metadata, ZIP_FILE_NAME);
+    }
+
+    // reading metadata.json twice, as done before validation and parsing shared the same tree
+    @Benchmark
+    public InputEnvelope validateThenParse() throws IOException, ProcessingException {
+        validator.validate(metadata, ZIP_FILE_NAME);
+        return validator.parseMetafile(metadata);
+    }
+}
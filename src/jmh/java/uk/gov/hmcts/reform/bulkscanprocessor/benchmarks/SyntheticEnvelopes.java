@@ -0,0 +1,122 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import uk.gov.hmcts.reform.bulkscanprocessor.config.ContainerMappingIndex;
+import uk.gov.hmcts.reform.bulkscanprocessor.config.ContainerMappings;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Builds envelopes shaped like the ones received from the scanning supplier.
+ * The first document of an envelope with OCR data is a form carrying the OCR data,
+ * so the envelope passes the same validations as a new application.
+ */
+final class SyntheticEnvelopes {
+
+    static final String CONTAINER = "bulkscan";
+    static final String JURISDICTION = "BULKSCAN";
+    static final String PO_BOX = "BULKSCANPO";
+    static final String ZIP_FILE_NAME = "1_24-02-2017-00-00-00.zip";
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String DATE = "2017-02-24T00:00:00.000Z";
+    private static final int OCR_FIELDS = 50;
+
+    private SyntheticEnvelopes() {
+        // utility class
+    }
+
+    static ContainerMappingIndex mappingIndex() {
+        return new ContainerMappingIndex(List.of(
+            new ContainerMappings.Mapping(CONTAINER, JURISDICTION, List.of(PO_BOX), null, true, true)
+        ));
+    }
+
+    static List<String> pdfNames(int pdfCount) {
+        List<String> names = new ArrayList<>(pdfCount);
+        for (int i = 0; i < pdfCount; i++) {
+            names.add(String.format("%07d.pdf", i + 1));
+        }
+        return names;
+    }
+
+    static byte[] metadata(int pdfCount, boolean withOcr) throws IOException {
+        ObjectNode envelope = MAPPER.createObjectNode()
+            .put("case_number", "1111222233334446")
+            .put("po_box", PO_BOX)
+            .put("jurisdiction", JURISDICTION)
+            .put("delivery_date", DATE)
+            .put("opening_date", DATE)
+            .put("zip_file_createddate", DATE)
+            .put("zip_file_name", ZIP_FILE_NAME)
+            .put("envelope_classification", withOcr ? "new_application" : "supplementary_evidence");
+
+        ArrayNode scannableItems = envelope.putArray("scannable_items");
+        List<String> pdfNames = pdfNames(pdfCount);
+        for (int i = 0; i < pdfCount; i++) {
+            boolean isForm = withOcr && i == 0;
+            ObjectNode item = scannableItems.addObject()
+                .put("document_control_number", pdfNames.get(i).replace(".pdf", ""))
+                .put("scanning_date", DATE)
+                .put("manual_intervention", "string")
+                .put("next_action", "forward")
+                .put("next_action_date", DATE)
+                .put("file_name", pdfNames.get(i))
+                .put("notes", "synthetic document")
+                .put("document_type", isForm ? "Form" : "Other")
+                .put("document_sub_type", isForm ? "PERSONAL" : null);
+            if (isForm) {
+                item.put("ocr_data", ocrData());
+            }
+        }
+        envelope.putArray("payments");
+        envelope.putArray("non_scannable_items");
+
+        return MAPPER.writeValueAsBytes(envelope);
+    }
+
+    static byte[] zip(int pdfCount, int pdfSizeKb, boolean withOcr) throws IOException {
+        Random random = new Random(pdfCount * 31L + pdfSizeKb);
+        byte[] pdf = new byte[pdfSizeKb * 1024];
+
+        ByteArrayOutputStream zip = new ByteArrayOutputStream(pdfCount * pdf.length + 1024 * 1024);
+        try (ZipOutputStream zos = new ZipOutputStream(zip)) {
+            zos.putNextEntry(new ZipEntry("metadata.json"));
+            zos.write(metadata(pdfCount, withOcr));
+            zos.closeEntry();
+
+            for (String pdfName : pdfNames(pdfCount)) {
+                // scanned PDFs are compressed already, so random content is closer to them than repeated bytes
+                random.nextBytes(pdf);
+                byte[] header = "%PDF-1.4\n".getBytes(StandardCharsets.US_ASCII);
+                System.arraycopy(header, 0, pdf, 0, Math.min(header.length, pdf.length));
+
+                zos.putNextEntry(new ZipEntry(pdfName));
+                zos.write(pdf);
+                zos.closeEntry();
+            }
+        }
+        return zip.toByteArray();
+    }
+
+    private static String ocrData() throws IOException {
+        ObjectNode ocrData = MAPPER.createObjectNode();
+        ArrayNode fields = ocrData.putArray("Metadata_file");
+        for (int i = 0; i < OCR_FIELDS; i++) {
+            fields.addObject()
+                .put("metadata_field_name", "field_" + i)
+                .put("metadata_field_value", "value of field " + i);
+        }
+        return Base64.getEncoder().encodeToString(MAPPER.writeValueAsBytes(ocrData));
+    }
+}
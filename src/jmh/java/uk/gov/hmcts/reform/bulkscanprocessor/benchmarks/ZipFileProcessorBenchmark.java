@@ -0,0 +1,73 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.util.unit.DataSize;
+import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ZipFileContentDetail;
+import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ZipFileProcessor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.ZipInputStream;
+
+import static uk.gov.hmcts.reform.bulkscanprocessor.benchmarks.SyntheticEnvelopes.ZIP_FILE_NAME;
+
+/**
+ * Reading of zip files, from 1 PDF of 1 KB up to 500 PDFs of 600 KB (300 MB).
+ */
+@State(Scope.Benchmark)
+public class ZipFileProcessorBenchmark {
+
+    @Param({"1", "50", "500"})
+    public int pdfCount;
+
+    @Param({"1", "100", "600"})
+    public int pdfSizeKb;
+
+    @Param({"true", "false"})
+    public boolean withOcr;
+
+    private byte[] zip;
+    private Path downloadPath;
+    private ZipFileProcessor zipFileProcessor;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        zip = SyntheticEnvelopes.zip(pdfCount, pdfSizeKb, withOcr);
+        downloadPath = Files.createTempDirectory("jmh-zip");
+        zipFileProcessor = new ZipFileProcessor(
+            downloadPath.toString(),
+            DataSize.ofMegabytes(10),
+            DataSize.ofMegabytes(50),
+            DataSize.ofMegabytes(200)
+        );
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(downloadPath);
+    }
+
+    @Benchmark
+    public ZipFileContentDetail getZipContentDetail() throws IOException {
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            return zipFileProcessor.getZipContentDetail(zis, ZIP_FILE_NAME);
+        }
+    }
+
+    @Benchmark
+    public ZipFileContentDetail extractZipContent() throws IOException {
+        try (ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(zip))) {
+            ZipFileContentDetail detail = zipFileProcessor.extractZipContent(zis, ZIP_FILE_NAME);
+            zipFileProcessor.deleteExtractedFiles(detail);
+            return detail;
+        }
+    }
+}
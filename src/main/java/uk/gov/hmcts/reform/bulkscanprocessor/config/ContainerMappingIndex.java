@@ -0,0 +1,94 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.config;
+
+import uk.gov.hmcts.reform.bulkscanprocessor.config.ContainerMappings.Mapping;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Immutable lookup index over container mappings.
+ * Keys are case-insensitive. When a PO box is configured for more than one mapping,
+ * the first mapping in configuration order is returned.
+ */
+public class ContainerMappingIndex {
+
+    private final Map<String, Mapping> mappingsByPoBox;
+    private final Map<List<String>, Mapping> mappingsByJurisdictionAndPoBox;
+    private final Set<List<String>> containerJurisdictionPoBoxes;
+
+    /**
+     * Constructor.
+     * @param mappings The mappings to index
+     */
+    public ContainerMappingIndex(List<Mapping> mappings) {
+        Map<String, Mapping> byPoBox = new HashMap<>();
+        Map<List<String>, Mapping> byJurisdictionAndPoBox = new HashMap<>();
+        Set<List<String>> containerJurisdictionPoBoxKeys = new HashSet<>();
+
+        if (mappings != null) {
+            for (Mapping mapping : mappings) {
+                if (mapping.getPoBoxes() == null) {
+                    continue;
+                }
+                for (String poBox : mapping.getPoBoxes()) {
+                    byPoBox.putIfAbsent(normalise(poBox), mapping);
+                    byJurisdictionAndPoBox.putIfAbsent(key(mapping.getJurisdiction(), poBox), mapping);
+                    containerJurisdictionPoBoxKeys.add(
+                        key(mapping.getContainer(), mapping.getJurisdiction(), poBox)
+                    );
+                }
+            }
+        }
+
+        this.mappingsByPoBox = Map.copyOf(byPoBox);
+        this.mappingsByJurisdictionAndPoBox = Map.copyOf(byJurisdictionAndPoBox);
+        this.containerJurisdictionPoBoxes = Set.copyOf(containerJurisdictionPoBoxKeys);
+    }
+
+    /**
+     * Finds the mapping configured for the given PO box.
+     * @param poBox The PO box
+     * @return The mapping
+     */
+    public Optional<Mapping> findByPoBox(String poBox) {
+        return Optional.ofNullable(mappingsByPoBox.get(normalise(poBox)));
+    }
+
+    /**
+     * Finds the mapping configured for the given jurisdiction and PO box.
+     * @param jurisdiction The jurisdiction
+     * @param poBox The PO box
+     * @return The mapping
+     */
+    public Optional<Mapping> findByJurisdictionAndPoBox(String jurisdiction, String poBox) {
+        return Optional.ofNullable(mappingsByJurisdictionAndPoBox.get(key(jurisdiction, poBox)));
+    }
+
+    /**
+     * Checks if the given container is configured for the jurisdiction and PO box.
+     * @param container The container
+     * @param jurisdiction The jurisdiction
+     * @param poBox The PO box
+     * @return true if there is a mapping for the container, jurisdiction and PO box
+     */
+    public boolean matches(String container, String jurisdiction, String poBox) {
+        return containerJurisdictionPoBoxes.contains(key(container, jurisdiction, poBox));
+    }
+
+    private static List<String> key(String... values) {
+        String[] normalised = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            normalised[i] = normalise(values[i]);
+        }
+        return List.of(normalised);
+    }
+
+    private static String normalise(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+}
@@ -11,6 +11,8 @@ import java.util.List;
 public class ContainerMappings {
     private List<Mapping> mappings;
 
+    private volatile ContainerMappingIndex index;
+
     /**
      * Get list of mappings.
      * @return The mappings
@@ -25,6 +27,22 @@ public class ContainerMappings {
      */
     public void setMappings(List<Mapping> mappings) {
         this.mappings = mappings;
+        this.index = null;
+    }
+
+    /**
+     * Get lookup index of mappings.
+     * The index is built once and rebuilt only after the mappings are set again,
+     * e.g. when the properties are rebound on configuration refresh.
+     * @return The mapping index
+     */
+    public ContainerMappingIndex getIndex() {
+        ContainerMappingIndex currentIndex = index;
+        if (currentIndex == null) {
+            currentIndex = new ContainerMappingIndex(mappings);
+            index = currentIndex;
+        }
+        return currentIndex;
     }
 
     /**
@@ -4,10 +4,15 @@ import com.azure.core.http.HttpClient;
 import com.azure.core.http.netty.NettyAsyncHttpClientBuilder;
 import feign.Client;
 import feign.httpclient.ApacheHttpClient;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
 import org.apache.hc.core5.util.Timeout;
 import org.apache.http.client.config.RequestConfig;
 import org.apache.http.impl.client.CloseableHttpClient;
 import org.apache.http.impl.client.HttpClientBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.AutoConfigureBefore;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -38,29 +43,54 @@ public class HttpConfiguration {
      * @return The RestTemplate
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate(clientHttpRequestFactory());
+    public RestTemplate restTemplate(HttpComponentsClientHttpRequestFactory clientHttpRequestFactory) {
+        return new RestTemplate(clientHttpRequestFactory);
     }
 
     /**
      * Bean for HttpComponentsClientHttpRequestFactory.
      *
+     * @param maxConnections The maximum number of pooled connections
+     * @param maxConnectionsPerRoute The maximum number of pooled connections to a single host
      * @return The HttpComponentsClientHttpRequestFactory
      */
     @Bean
-    public HttpComponentsClientHttpRequestFactory clientHttpRequestFactory() {
-        return new HttpComponentsClientHttpRequestFactory(getHttp5Client());
+    public HttpComponentsClientHttpRequestFactory clientHttpRequestFactory(
+        @Value("${http_client.max_connections}") int maxConnections,
+        @Value("${http_client.max_connections_per_route}") int maxConnectionsPerRoute
+    ) {
+        return new HttpComponentsClientHttpRequestFactory(getHttp5Client(maxConnections, maxConnectionsPerRoute));
     }
 
-    private org.apache.hc.client5.http.classic.HttpClient getHttp5Client() {
+    // the default pool allows 5 connections per route, which is too few for concurrent document uploads.
+    // No socket timeout is set, so uploads of large document batches are not cut off while the response is awaited
+    private org.apache.hc.client5.http.classic.HttpClient getHttp5Client(
+        int maxConnections,
+        int maxConnectionsPerRoute
+    ) {
         org.apache.hc.client5.http.config.RequestConfig config =
             org.apache.hc.client5.http.config.RequestConfig.custom()
                 .setConnectionRequestTimeout(Timeout.ofSeconds(30))
                 .build();
 
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder
+            .create()
+            .useSystemProperties()
+            .setMaxConnTotal(maxConnections)
+            .setMaxConnPerRoute(maxConnectionsPerRoute)
+            .setDefaultConnectionConfig(
+                ConnectionConfig.custom()
+                    .setConnectTimeout(Timeout.ofSeconds(30))
+                    .setValidateAfterInactivity(TimeValue.ofSeconds(10))
+                    .build()
+            )
+            .build();
+
         return org.apache.hc.client5.http.impl.classic.HttpClientBuilder
             .create()
             .useSystemProperties()
+            .setConnectionManager(connectionManager)
+            .evictIdleConnections(TimeValue.ofMinutes(1))
             .setDefaultRequestConfig(config)
             .build();
     }
@@ -70,6 +70,8 @@ public class QueueClientConfig {
             .processor()
             .queueName(queueProperties.getQueueName())
             .receiveMode(ServiceBusReceiveMode.PEEK_LOCK)
+            .maxConcurrentCalls(queueProperties.getMaxConcurrentCalls())
+            .prefetchCount(queueProperties.getPrefetchCount())
             .disableAutoComplete()
             .processMessage(messageHandler::processMessage)
             .processError(messageHandler::processException)
@@ -11,6 +11,8 @@ public class QueueConfigurationProperties {
     private String accessKeyName;
     private String queueName;
     private Optional<String> namespaceOverride = Optional.empty();
+    private int maxConcurrentCalls = 1;
+    private int prefetchCount;
 
     /**
      * Get the access key.
@@ -44,6 +46,22 @@ public class QueueConfigurationProperties {
         return namespaceOverride;
     }
 
+    /**
+     * Get the max number of messages handled concurrently by a processor of the queue.
+     * @return the max concurrent calls
+     */
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    /**
+     * Get the number of messages prefetched by a processor of the queue.
+     * @return the prefetch count
+     */
+    public int getPrefetchCount() {
+        return prefetchCount;
+    }
+
     /**
      * Set the access key.
      * @param accessKey the access key
@@ -75,4 +93,20 @@ public class QueueConfigurationProperties {
     public void setNamespaceOverride(String namespaceOverride) {
         this.namespaceOverride = Optional.ofNullable(namespaceOverride);
     }
+
+    /**
+     * Set the max number of messages handled concurrently by a processor of the queue.
+     * @param maxConcurrentCalls the max concurrent calls
+     */
+    public void setMaxConcurrentCalls(int maxConcurrentCalls) {
+        this.maxConcurrentCalls = maxConcurrentCalls;
+    }
+
+    /**
+     * Set the number of messages prefetched by a processor of the queue.
+     * @param prefetchCount the prefetch count
+     */
+    public void setPrefetchCount(int prefetchCount) {
+        this.prefetchCount = prefetchCount;
+    }
 }
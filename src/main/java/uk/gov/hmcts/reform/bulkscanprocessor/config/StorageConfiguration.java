@@ -3,6 +3,8 @@ package uk.gov.hmcts.reform.bulkscanprocessor.config;
 import com.azure.core.http.HttpClient;
 import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.BlobServiceClientBuilder;
+import com.azure.storage.blob.batch.BlobBatchClient;
+import com.azure.storage.blob.batch.BlobBatchClientBuilder;
 import com.azure.storage.blob.specialized.BlobLeaseClientBuilder;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -42,6 +44,16 @@ public class StorageConfiguration {
             .buildClient();
     }
 
+    /**
+     * Get the client sending batches of blob requests.
+     * @param blobServiceClient The BlobServiceClient
+     * @return The BlobBatchClient
+     */
+    @Bean
+    public BlobBatchClient getBlobBatchClient(BlobServiceClient blobServiceClient) {
+        return new BlobBatchClientBuilder(blobServiceClient).buildClient();
+    }
+
     /**
      * Get the lease client provider.
      * @return The LeaseClientProvider
@@ -0,0 +1,35 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.controllers;
+
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.out.SearchResult;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.EnvelopeLatencyTracker;
+
+/**
+ * Controller for envelope latency percentiles by container.
+ */
+@RestController
+@RequestMapping(path = "/envelope-latency", produces = MediaType.APPLICATION_JSON_VALUE)
+public class EnvelopeLatencyController {
+
+    private final EnvelopeLatencyTracker envelopeLatencyTracker;
+
+    /**
+     * Constructor for the envelope latency controller.
+     * @param envelopeLatencyTracker The tracker of envelope latency
+     */
+    public EnvelopeLatencyController(EnvelopeLatencyTracker envelopeLatencyTracker) {
+        this.envelopeLatencyTracker = envelopeLatencyTracker;
+    }
+
+    /**
+     * Get envelope latency percentiles by container.
+     * @return The search result
+     */
+    @GetMapping
+    public SearchResult getLatencies() {
+        return new SearchResult(envelopeLatencyTracker.getLatencies());
+    }
+}
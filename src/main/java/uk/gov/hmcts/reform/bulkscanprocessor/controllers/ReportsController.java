@@ -15,6 +15,7 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.reports.ReceivedPayment;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.reports.ReceivedScannableItem;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.reports.ReceivedScannableItemPerDocumentType;
@@ -45,11 +46,7 @@ import uk.gov.hmcts.reform.bulkscanprocessor.services.reports.models.Reconciliat
 import uk.gov.hmcts.reform.bulkscanprocessor.services.reports.models.RejectedFile;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.reports.models.RejectedZipFileData;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.reports.models.ZipFileSummaryResponse;
-import uk.gov.hmcts.reform.bulkscanprocessor.util.CsvWriter;
 
-import java.io.File;
-import java.io.IOException;
-import java.nio.file.Files;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
@@ -188,24 +185,24 @@ public class ReportsController {
 
     /**
      * Retrieves zip files summary report.
+     * The CSV is streamed to the response as the rows are read, optionally gzip compressed.
      * @param date The date
      * @param container The container
+     * @param gzip Whether the CSV is gzip compressed
      * @return ResponseEntity with csv file
-     * @throws IOException If an I/O error occurs
      */
     @GetMapping(path = "/zip-files-summary", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
     @Operation(description = "Retrieves zip files summary report in csv format for the given date and container")
-    public ResponseEntity downloadZipFilesSummary(
+    public ResponseEntity<StreamingResponseBody> downloadZipFilesSummary(
         @RequestParam(name = "date") @DateTimeFormat(iso = DATE) LocalDate date,
-        @RequestParam(name = "container", required = false) String container
-    ) throws IOException {
-        List<ZipFileSummaryResponse> summary = this.reportsService.getZipFilesSummary(date, container, null);
-
-        File csvFile = CsvWriter.writeZipFilesSummaryToCsv(summary);
+        @RequestParam(name = "container", required = false) String container,
+        @RequestParam(name = "gzip", required = false, defaultValue = "false") boolean gzip
+    ) {
+        String fileName = gzip ? "zip-files-summary.csv.gz" : "zip-files-summary.csv";
         return ResponseEntity
             .ok()
-            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=zip-files-summary.csv")
-            .body(Files.readAllBytes(csvFile.toPath()));
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + fileName)
+            .body(outputStream -> reportsService.writeZipFilesSummaryCsv(date, container, outputStream, gzip));
     }
 
     /**
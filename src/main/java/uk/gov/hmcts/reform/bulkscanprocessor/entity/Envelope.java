@@ -9,6 +9,7 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.NamedEntityGraph;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
@@ -25,16 +26,22 @@ import java.util.UUID;
 
 /**
  * Represents an envelope in the system.
+ * Items and payments are loaded with the envelope, unless it is read with the {@link #WITHOUT_ITEMS_GRAPH} fetch graph
+ * by callers which only need the envelope columns.
  */
 @SuppressWarnings("PMD.TooManyFields") // entity class
 @Entity
 @Table(name = "envelopes")
+@NamedEntityGraph(name = Envelope.WITHOUT_ITEMS_GRAPH)
 public class Envelope {
 
     private static final Logger log = LoggerFactory.getLogger(Envelope.class);
 
     public static final String TEST_FILE_SUFFIX = ".test.zip";
 
+    // fetch graph with no attributes, so none of the eager collections is loaded
+    public static final String WITHOUT_ITEMS_GRAPH = "Envelope.withoutItems";
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
@@ -77,17 +84,20 @@ public class Envelope {
 
     private Instant lastModified;
 
-    //We will need to retrieve all scannable item entities of Envelope every time hence fetch type is Eager
+    //We will need to retrieve all scannable item entities of Envelope every time hence fetch type is Eager,
+    //apart from reads using WITHOUT_ITEMS_GRAPH
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, mappedBy = "envelope")
     @Fetch(FetchMode.SUBSELECT)
     private List<ScannableItem> scannableItems;
 
-    //We will need to retrieve all payments entities of Envelope every time hence fetch type is Eager
+    //We will need to retrieve all payments entities of Envelope every time hence fetch type is Eager,
+    //apart from reads using WITHOUT_ITEMS_GRAPH
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, mappedBy = "envelope")
     @Fetch(FetchMode.SUBSELECT)
     private List<Payment> payments;
 
-    //We will need to retrieve all non scannable item entities of Envelope every time hence fetch type is Eager
+    //We will need to retrieve all non scannable item entities of Envelope every time hence fetch type is Eager,
+    //apart from reads using WITHOUT_ITEMS_GRAPH
     @OneToMany(cascade = CascadeType.ALL, fetch = FetchType.EAGER, mappedBy = "envelope")
     @Fetch(FetchMode.SUBSELECT)
     private List<NonScannableItem> nonScannableItems;
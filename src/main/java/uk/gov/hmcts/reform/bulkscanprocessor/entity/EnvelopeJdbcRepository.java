@@ -2,12 +2,23 @@ package uk.gov.hmcts.reform.bulkscanprocessor.entity;
 
 import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
 import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
 import org.springframework.stereotype.Repository;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.in.msg.ProcessedEnvelope;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.out.EnvelopeLatencyInfo;
 
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 /**
  * Repository for envelopes.
+ * Envelopes are claimed with {@code FOR UPDATE SKIP LOCKED}, so nodes claiming at the same time get disjoint pages.
+ * A claim expires after a given duration, so envelopes claimed by a node which stopped are claimed again.
  */
 @Repository
 public class EnvelopeJdbcRepository {
@@ -25,15 +36,232 @@ public class EnvelopeJdbcRepository {
     }
 
     /**
-     * Marks the envelope as deleted.
-     * @param envelopeId the envelope ID
+     * Marks the envelopes as deleted with a single statement.
+     * The IDs are bound as one array parameter, so the statement does not grow with the number of envelopes.
+     * @param envelopeIds the envelope IDs
+     * @return the number of envelopes updated
      */
-    public void markEnvelopeAsDeleted(UUID envelopeId) {
-        jdbcTemplate.update(
+    public int markEnvelopesAsDeleted(List<UUID> envelopeIds) {
+        if (envelopeIds.isEmpty()) {
+            return 0;
+        }
+
+        return jdbcTemplate.update(
             "UPDATE envelopes SET zipdeleted = true "
-                + "WHERE id=:envelopeId",
+                + "WHERE id = ANY(CAST(:envelopeIds AS uuid[]))",
+            new MapSqlParameterSource()
+                .addValue("envelopeIds", envelopeIds.stream().map(UUID::toString).toArray(String[]::new))
+        );
+    }
+
+    /**
+     * Completes the envelopes in a single JDBC batch, setting the CCD ID and action of each,
+     * and removes the OCR data of their scannable items with a single statement.
+     * @param processedEnvelopes the processed envelopes
+     */
+    public void completeEnvelopes(List<ProcessedEnvelope> processedEnvelopes) {
+        if (processedEnvelopes.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(
+            "UPDATE envelopes SET status = :status, ccdid = :ccdId, envelopeccdaction = :envelopeCcdAction "
+                + "WHERE id = :envelopeId",
+            processedEnvelopes.stream()
+                .map(processedEnvelope -> new MapSqlParameterSource()
+                    .addValue("status", Status.COMPLETED.name())
+                    .addValue("ccdId", processedEnvelope.ccdId)
+                    .addValue("envelopeCcdAction", processedEnvelope.envelopeCcdAction)
+                    .addValue("envelopeId", processedEnvelope.envelopeId)
+                )
+                .toArray(SqlParameterSource[]::new)
+        );
+
+        jdbcTemplate.update(
+            "UPDATE scannable_items SET ocrdata = NULL, ocrvalidationwarnings = NULL "
+                + "WHERE envelope_id = ANY(CAST(:envelopeIds AS uuid[]))",
+            new MapSqlParameterSource()
+                .addValue(
+                    "envelopeIds",
+                    processedEnvelopes.stream().map(e -> e.envelopeId.toString()).toArray(String[]::new)
+                )
+        );
+    }
+
+    /**
+     * Updates the status of the envelopes with a single statement.
+     * @param envelopeIds the envelope IDs
+     * @param status the new status
+     * @return the number of envelopes updated
+     */
+    public int updateStatus(List<UUID> envelopeIds, Status status) {
+        if (envelopeIds.isEmpty()) {
+            return 0;
+        }
+
+        return jdbcTemplate.update(
+            "UPDATE envelopes SET status = :status "
+                + "WHERE id IN (:envelopeIds)",
             new MapSqlParameterSource()
-                .addValue("envelopeId", envelopeId)
+                .addValue("status", status.name())
+                .addValue("envelopeIds", envelopeIds)
+        );
+    }
+
+    /**
+     * Finds the latency percentiles of envelopes which reached the events since the given time,
+     * by container and event. Latency is the time from the zip file of the envelope being created
+     * to the event being recorded.
+     * @param events the events the latency is measured to
+     * @param since the time from which events are included
+     * @return the latencies, ordered by container and event
+     */
+    public List<EnvelopeLatencyInfo> findLatencies(Collection<Event> events, Instant since) {
+        return jdbcTemplate.query(
+            "SELECT e.container, pe.event, count(*) AS envelopes, "
+                + "  " + latencyPercentile(0.5) + " AS p50, "
+                + "  " + latencyPercentile(0.95) + " AS p95, "
+                + "  " + latencyPercentile(0.99) + " AS p99 "
+                + "FROM process_events pe "
+                + "JOIN envelopes e ON e.container = pe.container AND e.zipfilename = pe.zipfilename "
+                + "WHERE pe.event IN (:events) AND pe.createdat >= :since AND pe.createdat >= e.zipfilecreateddate "
+                + "GROUP BY e.container, pe.event "
+                + "ORDER BY e.container, pe.event",
+            new MapSqlParameterSource()
+                .addValue("events", events.stream().map(Event::name).toList())
+                .addValue("since", Timestamp.from(since)),
+            (rs, rowNum) -> new EnvelopeLatencyInfo(
+                rs.getString("container"),
+                Event.valueOf(rs.getString("event")),
+                rs.getLong("envelopes"),
+                rs.getLong("p50"),
+                rs.getLong("p95"),
+                rs.getLong("p99")
+            )
+        );
+    }
+
+    /**
+     * Claims the oldest envelopes to upload which are not claimed already.
+     * @param maxFailureCount the max upload failure count
+     * @param claimedBy the ID of the claiming node
+     * @param claimDuration the duration after which the claim expires
+     * @param limit the max number of envelopes claimed
+     * @return the IDs of the claimed envelopes
+     */
+    public List<UUID> claimEnvelopesToUpload(int maxFailureCount, String claimedBy, Duration claimDuration, int limit) {
+        return claim(
+            "status IN ('CREATED', 'UPLOAD_FAILURE') AND uploadfailurecount < :maxFailureCount",
+            new MapSqlParameterSource().addValue("maxFailureCount", maxFailureCount),
+            claimedBy,
+            claimDuration,
+            limit
+        );
+    }
+
+    /**
+     * Claims the oldest envelopes with the given status which are not claimed already.
+     * @param status the status
+     * @param claimedBy the ID of the claiming node
+     * @param claimDuration the duration after which the claim expires
+     * @param limit the max number of envelopes claimed
+     * @return the IDs of the claimed envelopes
+     */
+    public List<UUID> claimEnvelopesByStatus(Status status, String claimedBy, Duration claimDuration, int limit) {
+        return claim(
+            "status = :status",
+            new MapSqlParameterSource().addValue("status", status.name()),
+            claimedBy,
+            claimDuration,
+            limit
+        );
+    }
+
+    /**
+     * Releases the claims of the envelopes, if still held by the given node.
+     * @param envelopeIds the envelope IDs
+     * @param claimedBy the ID of the claiming node
+     * @return the number of envelopes released
+     */
+    public int releaseClaims(List<UUID> envelopeIds, String claimedBy) {
+        if (envelopeIds.isEmpty()) {
+            return 0;
+        }
+
+        return jdbcTemplate.update(
+            "UPDATE envelopes SET claimedby = NULL, claimeduntil = NULL "
+                + "WHERE id IN (:envelopeIds) AND claimedby = :claimedBy",
+            new MapSqlParameterSource()
+                .addValue("envelopeIds", envelopeIds)
+                .addValue("claimedBy", claimedBy)
+        );
+    }
+
+    /**
+     * Extends the claims of the envelopes, if still held by the given node.
+     * @param envelopeIds the envelope IDs
+     * @param claimedBy the ID of the claiming node
+     * @param claimDuration the duration after which the extended claims expire
+     * @return the number of envelopes whose claim was extended
+     */
+    public int extendClaims(List<UUID> envelopeIds, String claimedBy, Duration claimDuration) {
+        if (envelopeIds.isEmpty()) {
+            return 0;
+        }
+
+        return jdbcTemplate.update(
+            "UPDATE envelopes SET claimeduntil = now() + make_interval(secs => :claimSeconds) "
+                + "WHERE id IN (:envelopeIds) AND claimedby = :claimedBy",
+            new MapSqlParameterSource()
+                .addValue("claimSeconds", claimDuration.toSeconds())
+                .addValue("envelopeIds", envelopeIds)
+                .addValue("claimedBy", claimedBy)
+        );
+    }
+
+    /**
+     * Builds the SQL expression of a percentile of envelope latency in milliseconds.
+     * @param fraction the percentile as a fraction
+     * @return the SQL expression
+     */
+    private static String latencyPercentile(double fraction) {
+        return "CAST(extract(epoch FROM percentile_disc(" + fraction + ") "
+            + "WITHIN GROUP (ORDER BY pe.createdat - e.zipfilecreateddate)) * 1000 AS BIGINT)";
+    }
+
+    /**
+     * Claims the oldest unclaimed envelopes matching the condition, skipping rows locked by other nodes.
+     * @param condition the SQL condition on envelopes
+     * @param params the parameters of the condition
+     * @param claimedBy the ID of the claiming node
+     * @param claimDuration the duration after which the claim expires
+     * @param limit the max number of envelopes claimed
+     * @return the IDs of the claimed envelopes
+     */
+    private List<UUID> claim(
+        String condition,
+        MapSqlParameterSource params,
+        String claimedBy,
+        Duration claimDuration,
+        int limit
+    ) {
+        return jdbcTemplate.queryForList(
+            "UPDATE envelopes SET claimedby = :claimedBy, "
+                + "  claimeduntil = now() + make_interval(secs => :claimSeconds) "
+                + "WHERE id IN ("
+                + "  SELECT id FROM envelopes "
+                + "  WHERE " + condition
+                + "    AND (claimeduntil IS NULL OR claimeduntil <= now()) "
+                + "  ORDER BY createdat "
+                + "  LIMIT :limit "
+                + "  FOR UPDATE SKIP LOCKED"
+                + ") "
+                + "RETURNING id",
+            params
+                .addValue("claimedBy", claimedBy)
+                .addValue("claimSeconds", claimDuration.toSeconds())
+                .addValue("limit", limit),
+            UUID.class
         );
     }
 }
@@ -1,6 +1,8 @@
 package uk.gov.hmcts.reform.bulkscanprocessor.entity;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.EntityGraph.EntityGraphType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -10,6 +12,7 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
@@ -39,6 +42,22 @@ public interface EnvelopeRepository extends JpaRepository<Envelope, UUID> {
      */
     List<Envelope> findByJurisdictionAndCreatedAtGreaterThan(String jurisdiction, Instant date);
 
+    /**
+     * Find by id, without loading items and payments of the envelope.
+     * @param id id
+     * @return envelope
+     */
+    @EntityGraph(value = Envelope.WITHOUT_ITEMS_GRAPH, type = EntityGraphType.FETCH)
+    Optional<Envelope> findWithoutItemsById(UUID id);
+
+    /**
+     * Find by ids, without loading items and payments of the envelopes.
+     * @param ids ids
+     * @return list of envelopes
+     */
+    @EntityGraph(value = Envelope.WITHOUT_ITEMS_GRAPH, type = EntityGraphType.FETCH)
+    List<Envelope> findWithoutItemsByIdIn(Collection<UUID> ids);
+
     /**
      * Find by status.
      * @param status status
@@ -46,6 +65,17 @@ public interface EnvelopeRepository extends JpaRepository<Envelope, UUID> {
      */
     List<Envelope> findByStatus(Status status);
 
+    /**
+     * Finds a page of envelopes with a given status, ordered by id, after the given id.
+     * Pages are read by passing the id of the last envelope of the previous page,
+     * so envelopes leaving the status while pages are read do not shift the following pages.
+     * @param status status
+     * @param afterId id after which envelopes are returned
+     * @param pageable page size
+     * @return list of envelopes
+     */
+    List<Envelope> findByStatusAndIdGreaterThanOrderByIdAsc(Status status, UUID afterId, Pageable pageable);
+
     /**
      * Find by status in.
      * @param statuses statuses
@@ -79,6 +109,22 @@ public interface EnvelopeRepository extends JpaRepository<Envelope, UUID> {
         String container
     );
 
+    /**
+     * Finds which of the given zip files from a container already have an envelope.
+     *
+     * @param container    from where zip files originated.
+     * @param zipFileNames of zip files to check.
+     * @return A list of zip file names having an envelope.
+     */
+    @Query("select distinct e.zipFileName from Envelope e"
+        + " where e.container = :container"
+        + "   and e.zipFileName in :zipFileNames"
+    )
+    List<String> findZipFileNamesWithEnvelope(
+        @Param("container") String container,
+        @Param("zipFileNames") Collection<String> zipFileNames
+    );
+
     /**
      * Finds envelope for a given container, zip file name and status.
      *
@@ -137,10 +183,11 @@ public interface EnvelopeRepository extends JpaRepository<Envelope, UUID> {
     List<Envelope> findByContainerAndStatusAndZipDeleted(String container, Status status, boolean zipDeleted);
 
     /**
-     * Get incomplete envelopes before a given date time.
+     * Get incomplete envelopes before a given date time, without loading their items and payments.
      * @param dateTime date time
      * @return list of envelopes
      */
+    @EntityGraph(value = Envelope.WITHOUT_ITEMS_GRAPH, type = EntityGraphType.FETCH)
     @Query("select e from Envelope e "
         + "where e.createdAt < :datetime AND e.status != 'COMPLETED' AND e.status != 'ABORTED'"
     )
@@ -160,10 +207,11 @@ public interface EnvelopeRepository extends JpaRepository<Envelope, UUID> {
                               @Param("envelopeIds") List<UUID> envelopeIds);
 
     /**
-     * Get complete envelopes from a container.
+     * Get complete envelopes from a container, without loading their items and payments.
      * @param container container
      * @return list of envelopes
      */
+    @EntityGraph(value = Envelope.WITHOUT_ITEMS_GRAPH, type = EntityGraphType.FETCH)
     @Query("select e from Envelope e \n"
         + "WHERE e.container = :container "
         + "AND (e.status = 'COMPLETED' OR e.status = 'NOTIFICATION_SENT') "
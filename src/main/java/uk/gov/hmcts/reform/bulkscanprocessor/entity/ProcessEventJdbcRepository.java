@@ -0,0 +1,54 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.entity;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Repository for process events.
+ * Process events use an identity column, which prevents Hibernate from batching their inserts,
+ * so events created in bulk are inserted here in a single JDBC batch.
+ */
+@Repository
+public class ProcessEventJdbcRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor.
+     * @param jdbcTemplate the JDBC template
+     */
+    public ProcessEventJdbcRepository(
+        NamedParameterJdbcTemplate jdbcTemplate
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserts the events in a single JDBC batch.
+     * @param events the events
+     */
+    public void saveAll(List<ProcessEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO process_events (container, zipfilename, createdat, event, reason) "
+                + "VALUES (:container, :zipFileName, :createdAt, :event, :reason)",
+            events.stream()
+                .map(event -> new MapSqlParameterSource()
+                    .addValue("container", event.getContainer())
+                    .addValue("zipFileName", event.getZipFileName())
+                    .addValue("createdAt", Timestamp.from(event.getCreatedAt()))
+                    .addValue("event", event.getEvent().name())
+                    .addValue("reason", event.getReason())
+                )
+                .toArray(SqlParameterSource[]::new)
+        );
+    }
+}
@@ -0,0 +1,106 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.entity;
+
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Repository for the monthly partitions of process events.
+ * Partition names are used as SQL identifiers, so only names of process events partitions are accepted.
+ */
+@Repository
+public class ProcessEventPartitionRepository {
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("process_events_[a-z0-9_]+");
+    private static final int EXPORT_FETCH_SIZE = 1000;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * Constructor.
+     * @param jdbcTemplate the JDBC template
+     */
+    public ProcessEventPartitionRepository(
+        NamedParameterJdbcTemplate jdbcTemplate
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Creates the monthly partitions up to the end of the given number of months from now.
+     * @param monthsAhead the number of months after the current one to create partitions for
+     * @return the number of partitions created
+     */
+    public int createPartitions(int monthsAhead) {
+        return jdbcTemplate.queryForObject(
+            "SELECT create_process_events_partitions(:monthsAhead)",
+            new MapSqlParameterSource("monthsAhead", monthsAhead),
+            Integer.class
+        );
+    }
+
+    /**
+     * Finds the partitions which only hold events created before the given time, oldest first.
+     * @param cutoff the time
+     * @return the partition names
+     */
+    public List<String> findPartitionsEndingBefore(Instant cutoff) {
+        return jdbcTemplate.queryForList(
+            "SELECT name FROM process_events_partitions WHERE rangeend <= :cutoff ORDER BY rangeend",
+            new MapSqlParameterSource("cutoff", Timestamp.from(cutoff)),
+            String.class
+        );
+    }
+
+    /**
+     * Reads all events of the partition, in the order they were created.
+     * Rows are fetched in chunks within a read only transaction, so the partition is not held in memory.
+     * @param partition the partition name
+     * @param handler the handler of each row
+     */
+    @Transactional(readOnly = true)
+    public void forEachEvent(String partition, RowCallbackHandler handler) {
+        String sql = "SELECT id, container, zipfilename, createdat, event, reason FROM "
+            + checked(partition)
+            + " ORDER BY createdat, id";
+
+        jdbcTemplate.getJdbcTemplate().query(
+            con -> {
+                var statement = con.prepareStatement(sql);
+                statement.setFetchSize(EXPORT_FETCH_SIZE);
+                return statement;
+            },
+            handler
+        );
+    }
+
+    /**
+     * Detaches the partition from process events. The partition is kept as a standalone table.
+     * @param partition the partition name
+     */
+    public void detach(String partition) {
+        jdbcTemplate.getJdbcTemplate().execute("ALTER TABLE process_events DETACH PARTITION " + checked(partition));
+    }
+
+    /**
+     * Drops the detached partition.
+     * @param partition the partition name
+     */
+    public void drop(String partition) {
+        jdbcTemplate.getJdbcTemplate().execute("DROP TABLE " + checked(partition));
+    }
+
+    private static String checked(String partition) {
+        if (!PARTITION_NAME.matcher(partition).matches()) {
+            throw new IllegalArgumentException("Not a process events partition: " + partition);
+        }
+        return partition;
+    }
+}
@@ -32,7 +32,8 @@ public interface ProcessEventRepository extends JpaRepository<ProcessEvent, Long
                     + "FROM process_events "
                     + "WHERE zipFileName LIKE :dcnPrefix"
                     + "% "
-                    + "AND DATE(createdAt) BETWEEN :fromDate AND :toDate "
+                    + "AND createdAt >= CAST(:fromDate AS date) "
+                    + "AND createdAt < CAST(:toDate AS date) + 1 "
                     + "ORDER BY zipFileName, createdAt DESC"
     )
     List<ProcessEvent> findEventsByDcnPrefix(
@@ -49,7 +49,7 @@ public interface EnvelopeCountSummaryRepository extends JpaRepository<Envelope,
             + "  SELECT DISTINCT on (container, zipfilename)\n"
             + "    container, zipfilename, createdat\n"
             + "  FROM process_events\n"
-            + "  WHERE date(createdat) = :date"
+            + "  WHERE createdat >= CAST(:date AS date) AND createdat < CAST(:date AS date) + 1\n"
             + "  ORDER BY container, zipfilename, createdat ASC\n"
             + ") AS first_events\n"
             + "LEFT JOIN (\n"
@@ -57,11 +57,13 @@ public interface EnvelopeCountSummaryRepository extends JpaRepository<Envelope,
             + "  FROM ("
             + "    SELECT DISTINCT on (container, zipfilename)\n"
             + "      id, container, zipfilename, event, createdat\n"
+            // the latest event is on the date only if it is the latest of the events since the date
             + "    FROM process_events\n"
+            + "    WHERE createdat >= CAST(:date AS date)\n"
             + "    ORDER BY container, zipfilename, createdat DESC\n"
             + "  ) AS latest_events\n"
             + "  WHERE event IN ('DOC_FAILURE', 'FILE_VALIDATION_FAILURE', 'DOC_SIGNATURE_FAILURE')\n"
-            + "  AND date(createdat) = :date"
+            + "  AND createdat < CAST(:date AS date) + 1\n"
             + ") AS rejection_events\n"
             + "ON rejection_events.container = first_events.container\n"
             + "AND rejection_events.zipfilename = first_events.zipfilename\n"
@@ -93,7 +95,8 @@ public interface EnvelopeCountSummaryRepository extends JpaRepository<Envelope,
             + "      count(ev.*) AS received,\n"
             + "      count(ev.*) AS rejected\n"
             + "    FROM process_events ev\n"
-            + "    WHERE ev.event='FILE_VALIDATION_FAILURE' AND date(ev.createdat)=date(:date)\n"
+            + "    WHERE ev.event='FILE_VALIDATION_FAILURE'\n"
+            + "      AND ev.createdat >= CAST(:date AS date) AND ev.createdat < CAST(:date AS date) + 1\n"
             + "    GROUP BY container\n"
             + "  ) AS all_data\n"
             + "GROUP BY all_data.container, all_data.date\n"
@@ -31,7 +31,9 @@ public interface ReceivedZipFileRepository extends JpaRepository<Envelope, UUID>
             + "LEFT OUTER JOIN payments "
             + "  ON envelopes.id = payments.envelope_id "
             + "WHERE process_events.event = 'ZIPFILE_PROCESSING_STARTED'"
-            + "  AND date(process_events.createdat) = :date"
+            // range on createdat, unlike date(createdat), lets the partitions of other dates be skipped
+            + "  AND process_events.createdat >= CAST(:date AS date) "
+            + "  AND process_events.createdat < CAST(:date AS date) + 1"
     )
     List<ReceivedZipFile> getReceivedZipFilesReportFor(@Param("date") LocalDate date);
 }
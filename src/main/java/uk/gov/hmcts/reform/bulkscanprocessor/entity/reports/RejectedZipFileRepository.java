@@ -27,7 +27,8 @@ public interface RejectedZipFileRepository extends JpaRepository<Envelope, UUID>
                     + "    AND envelopes.zipfilename = process_events.zipfilename "
                     + "WHERE process_events.event "
                     + "  IN ('DOC_FAILURE', 'FILE_VALIDATION_FAILURE', 'DOC_SIGNATURE_FAILURE') "
-                    + "  AND date(process_events.createdat) = :date "
+                    + "  AND process_events.createdat >= CAST(:date AS date) "
+                    + "  AND process_events.createdat < CAST(:date AS date) + 1 "
                     + "GROUP BY process_events.container, "
                     + "         process_events.zipfilename, "
                     + "         process_events.event, "
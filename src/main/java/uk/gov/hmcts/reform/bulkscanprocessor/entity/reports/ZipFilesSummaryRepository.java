@@ -1,54 +1,84 @@
 package uk.gov.hmcts.reform.bulkscanprocessor.entity.reports;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+/**
+ * Repository for zip files summary.
+ * Reads zip_file_summary, which is maintained by a trigger as process events are written,
+ * so the report only reads the zip files of the requested day.
+ */
 public interface ZipFilesSummaryRepository extends JpaRepository<Envelope, UUID> {
-    @Query(
-        nativeQuery = true,
-        value = "SELECT "
-            + "Cast(envelope.id as varchar) as envelopeId, "
-            + "createdEvent.container, "
-            + "createdEvent.zipfilename, "
-            + "createdEvent.createdDate, "
-            + "envelope.classification AS classification, "
-            + "lastEventName.event AS lastEventStatus, "
-            + "envelope.status AS envelopeStatus, "
-            + "envelope.ccdId AS ccdId, "
-            + "envelope.envelopeCcdAction AS ccdAction, "
-            + "(CASE WHEN lastEventName.event = 'COMPLETED' THEN lastEvent.eventDate "
-            + "      ELSE null "
-            + "END) AS completedDate "
-            + "FROM ( "
-            + "  SELECT container, zipfilename, MIN(createdat) AS createdDate FROM process_events "
-            + "  WHERE date(createdat) = :date AND event='ZIPFILE_PROCESSING_STARTED' "
-            + "  GROUP BY container, zipfilename "
-            + ") createdEvent " /* zipfile processing started date */
-            + "JOIN ( "
-            + "  SELECT container, zipfilename, MAX(createdat) AS eventDate "
-            + "  FROM process_events "
-            + "  GROUP BY container, zipfilename "
-            + ") lastEvent " /* zipfile process completion date */
-            + "  ON createdEvent.container = lastEvent.container "
-            + "  AND createdEvent.zipfilename = lastEvent.zipfilename "
-            + "JOIN ( "
-            + "  SELECT container, zipfilename, createdat, event "
-            + "  FROM process_events "
-            + ") lastEventName " /* latest event of the zipfile */
-            + "  ON lastEvent.container = lastEventName.container "
-            + "  AND lastEvent.zipfilename = lastEventName.zipfilename "
-            + "  AND lastEvent.eventDate = lastEventName.createdat "
-            + "LEFT JOIN envelopes AS envelope "
-            + "  ON createdEvent.zipfilename = envelope.zipfilename "
-            + "  AND createdEvent.container = envelope.container "
-            + "ORDER BY createdEvent.createdDate ASC"
-    )
-    List<ZipFileSummary> getZipFileSummaryReportFor(@Param("date") LocalDate date);
 
+    String ZIP_FILE_SUMMARY_QUERY = "SELECT "
+        + "Cast(envelope.id as varchar) as envelopeId, "
+        + "summary.container, "
+        + "summary.zipfilename, "
+        + "summary.createddate AS createdDate, "
+        + "envelope.classification AS classification, "
+        + "summary.lastevent AS lastEventStatus, "
+        + "envelope.status AS envelopeStatus, "
+        + "envelope.ccdId AS ccdId, "
+        + "envelope.envelopeCcdAction AS ccdAction, "
+        + "(CASE WHEN summary.lastevent = 'COMPLETED' THEN summary.lasteventat "
+        + "      ELSE null "
+        + "END) AS completedDate "
+        + "FROM zip_file_summary summary "
+        + "LEFT JOIN envelopes AS envelope "
+        + "  ON summary.zipfilename = envelope.zipfilename "
+        + "  AND summary.container = envelope.container "
+        + "WHERE summary.createdday = :date "
+        + "  AND (CAST(:container AS varchar) IS NULL OR lower(summary.container) = lower(:container)) "
+        + "  AND (CAST(:classification AS varchar) IS NULL OR envelope.classification = :classification) "
+        + "ORDER BY summary.createddate ASC";
+
+    /**
+     * Get zip files summary for the given date.
+     * @param date zip file received date
+     * @return list of zip files summary
+     */
+    default List<ZipFileSummary> getZipFileSummaryReportFor(LocalDate date) {
+        return getZipFileSummaryReportFor(date, null, null);
+    }
+
+    /**
+     * Get zip files summary for the given date, container and classification.
+     * @param date zip file received date
+     * @param container container, case insensitive, or null for all containers
+     * @param classification envelope classification, or null for all classifications
+     * @return list of zip files summary
+     */
+    @Query(nativeQuery = true, value = ZIP_FILE_SUMMARY_QUERY)
+    List<ZipFileSummary> getZipFileSummaryReportFor(
+        @Param("date") LocalDate date,
+        @Param("container") String container,
+        @Param("classification") String classification
+    );
+
+    /**
+     * Streams zip files summary for the given date, container and classification.
+     * Rows are fetched from a database cursor in chunks, so the stream has to be read
+     * within a transaction and closed afterwards.
+     * @param date zip file received date
+     * @param container container, case insensitive, or null for all containers
+     * @param classification envelope classification, or null for all classifications
+     * @return stream of zip files summary
+     */
+    @Query(nativeQuery = true, value = ZIP_FILE_SUMMARY_QUERY)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<ZipFileSummary> streamZipFileSummaryReportFor(
+        @Param("date") LocalDate date,
+        @Param("container") String container,
+        @Param("classification") String classification
+    );
 }
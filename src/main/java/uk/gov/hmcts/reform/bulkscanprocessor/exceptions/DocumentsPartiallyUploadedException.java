@@ -0,0 +1,29 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.exceptions;
+
+import java.util.Map;
+
+/**
+ * An exception to be thrown when some batches of documents were uploaded, but a later batch failed.
+ */
+public class DocumentsPartiallyUploadedException extends RuntimeException {
+
+    private final transient Map<String, String> uploadedDocuments;
+
+    /**
+     * Creates a new instance of the exception.
+     * @param uploadedDocuments the names and URLs of the documents uploaded
+     * @param cause the failure of the batch
+     */
+    public DocumentsPartiallyUploadedException(Map<String, String> uploadedDocuments, Throwable cause) {
+        super("Uploaded " + uploadedDocuments.size() + " documents before failing: " + cause.getMessage(), cause);
+        this.uploadedDocuments = uploadedDocuments;
+    }
+
+    /**
+     * Gets the names and URLs of the documents uploaded before the failure.
+     * @return the names and URLs of the documents
+     */
+    public Map<String, String> getUploadedDocuments() {
+        return uploadedDocuments;
+    }
+}
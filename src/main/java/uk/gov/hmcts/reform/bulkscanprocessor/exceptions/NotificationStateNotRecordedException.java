@@ -0,0 +1,28 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.exceptions;
+
+/**
+ * An exception to be thrown when notifications were sent to the orchestrator,
+ * but the state of their envelopes could not be recorded.
+ */
+public class NotificationStateNotRecordedException extends RuntimeException {
+
+    private final int sentCount;
+
+    /**
+     * Creates a new instance of the exception.
+     * @param sentCount the number of notifications sent
+     * @param cause the cause of the exception
+     */
+    public NotificationStateNotRecordedException(int sentCount, Throwable cause) {
+        super("Sent " + sentCount + " notifications but failed to record the state of their envelopes", cause);
+        this.sentCount = sentCount;
+    }
+
+    /**
+     * Gets the number of notifications sent.
+     * @return the number of notifications sent
+     */
+    public int getSentCount() {
+        return sentCount;
+    }
+}
@@ -0,0 +1,15 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.exceptions;
+
+/**
+ * An exception to be thrown when OCR validation endpoint is not called because it is failing or overloaded.
+ */
+public class OcrValidationUnavailableException extends RuntimeException {
+
+    /**
+     * Creates a new instance of the exception.
+     * @param message the error message
+     */
+    public OcrValidationUnavailableException(String message) {
+        super(message);
+    }
+}
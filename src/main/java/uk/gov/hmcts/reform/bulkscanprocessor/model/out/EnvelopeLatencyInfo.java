@@ -0,0 +1,54 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.model.out;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event;
+
+/**
+ * Represents the latency percentiles of envelopes from a container, from the zip file of the envelope
+ * being created to the envelope reaching the given event.
+ */
+public class EnvelopeLatencyInfo {
+
+    @JsonProperty("container")
+    public final String container;
+
+    @JsonProperty("event")
+    public final Event event;
+
+    @JsonProperty("count")
+    public final long count;
+
+    @JsonProperty("p50_millis")
+    public final long p50Millis;
+
+    @JsonProperty("p95_millis")
+    public final long p95Millis;
+
+    @JsonProperty("p99_millis")
+    public final long p99Millis;
+
+    /**
+     * Constructor for EnvelopeLatencyInfo.
+     * @param container name of the container
+     * @param event event the latency is measured to
+     * @param count number of envelopes measured
+     * @param p50Millis median latency in milliseconds
+     * @param p95Millis 95th percentile latency in milliseconds
+     * @param p99Millis 99th percentile latency in milliseconds
+     */
+    public EnvelopeLatencyInfo(
+        String container,
+        Event event,
+        long count,
+        long p50Millis,
+        long p95Millis,
+        long p99Millis
+    ) {
+        this.container = container;
+        this.event = event;
+        this.count = count;
+        this.p50Millis = p50Millis;
+        this.p95Millis = p95Millis;
+        this.p99Millis = p99Millis;
+    }
+}
@@ -0,0 +1,224 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.ocrvalidation.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.OcrValidationUnavailableException;
+import uk.gov.hmcts.reform.bulkscanprocessor.ocrvalidation.client.model.req.FormData;
+import uk.gov.hmcts.reform.bulkscanprocessor.ocrvalidation.client.model.req.OcrDataField;
+import uk.gov.hmcts.reform.bulkscanprocessor.ocrvalidation.client.model.res.Status;
+import uk.gov.hmcts.reform.bulkscanprocessor.ocrvalidation.client.model.res.ValidationResponse;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Calls OCR validation endpoints with a limit of calls running at the same time per endpoint,
+ * a timeout and a circuit breaker, so a slow or failing service does not hold up envelope processing.
+ * Responses are cached by form type and OCR data, so identical resubmissions are not validated again.
+ * Responses with errors are not cached, so data rejected by the service is validated again once the service
+ * or its rules are fixed.
+ * When disabled, calls go straight to {@link OcrValidationClient}.
+ */
+@Component
+public class GuardedOcrValidationClient {
+
+    private static final Logger log = LoggerFactory.getLogger(GuardedOcrValidationClient.class);
+
+    private final OcrValidationClient client;
+    private final boolean enabled;
+    private final int maxConcurrencyPerUrl;
+    private final Duration timeout;
+    private final int failureThreshold;
+    private final Duration openDuration;
+    private final Cache<String, ValidationResponse> responses;
+
+    private final Map<String, Semaphore> urlPermits = new ConcurrentHashMap<>();
+    private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for GuardedOcrValidationClient.
+     * @param client The OCR validation client
+     * @param enabled The flag to guard and cache the calls
+     * @param maxConcurrencyPerUrl The maximum number of calls running at the same time for an endpoint
+     * @param timeout The maximum time to wait for a response, including waiting for a free slot
+     * @param failureThreshold The number of consecutive failures opening the circuit of an endpoint
+     * @param openDuration The time for which calls to an endpoint with open circuit fail fast
+     * @param cacheMaxSize The maximum number of cached responses
+     * @param cacheTtl The time for which a response without errors is cached
+     */
+    public GuardedOcrValidationClient(
+        OcrValidationClient client,
+        @Value("${ocr-validation.guard.enabled}") boolean enabled,
+        @Value("${ocr-validation.guard.max_concurrency_per_url}") int maxConcurrencyPerUrl,
+        @Value("${ocr-validation.guard.timeout}") Duration timeout,
+        @Value("${ocr-validation.guard.circuit_breaker.failure_threshold}") int failureThreshold,
+        @Value("${ocr-validation.guard.circuit_breaker.open_duration}") Duration openDuration,
+        @Value("${ocr-validation.guard.cache.max_size}") long cacheMaxSize,
+        @Value("${ocr-validation.guard.cache.ttl}") Duration cacheTtl
+    ) {
+        this.client = client;
+        this.enabled = enabled;
+        this.maxConcurrencyPerUrl = maxConcurrencyPerUrl;
+        this.timeout = timeout;
+        this.failureThreshold = failureThreshold;
+        this.openDuration = openDuration;
+        this.responses = Caffeine.newBuilder()
+            .maximumSize(cacheMaxSize)
+            .expireAfterWrite(cacheTtl)
+            .build();
+    }
+
+    /**
+     * Validates the OCR data.
+     * @param baseUrl base URL of the OCR validation service
+     * @param formData OCR data to validate
+     * @param formType form type
+     * @param s2sToken S2S token
+     * @return validation response
+     * @throws OcrValidationUnavailableException if the endpoint is failing, overloaded or did not respond in time
+     */
+    public ValidationResponse validate(
+        String baseUrl,
+        FormData formData,
+        String formType,
+        String s2sToken
+    ) {
+        if (!enabled) {
+            return client.validate(baseUrl, formData, formType, s2sToken);
+        }
+
+        String cacheKey = cacheKey(baseUrl, formType, formData);
+        ValidationResponse cachedResponse = responses.getIfPresent(cacheKey);
+        if (cachedResponse != null) {
+            log.info("Using cached OCR validation response. Url: {}, form type: {}", baseUrl, formType);
+            return cachedResponse;
+        }
+
+        ValidationResponse response = guardedValidate(baseUrl, formData, formType, s2sToken);
+        if (response != null && response.status != Status.ERRORS) {
+            responses.put(cacheKey, response);
+        }
+        return response;
+    }
+
+    private ValidationResponse guardedValidate(
+        String baseUrl,
+        FormData formData,
+        String formType,
+        String s2sToken
+    ) {
+        CircuitBreaker circuitBreaker = circuitBreakers.computeIfAbsent(baseUrl, url -> new CircuitBreaker());
+        if (!circuitBreaker.allowsCall()) {
+            throw new OcrValidationUnavailableException("OCR validation circuit is open. Url: " + baseUrl);
+        }
+
+        Semaphore permits = urlPermits.computeIfAbsent(baseUrl, url -> new Semaphore(maxConcurrencyPerUrl, true));
+        long deadline = System.nanoTime() + timeout.toNanos();
+
+        try {
+            if (!permits.tryAcquire(timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new OcrValidationUnavailableException(
+                    "Too many OCR validation calls in progress. Url: " + baseUrl
+                );
+            }
+
+            // the slot is released when the call completes, so calls which timed out still count against the limit
+            CompletableFuture<ValidationResponse> call = CompletableFuture.supplyAsync(
+                () -> {
+                    try {
+                        return client.validate(baseUrl, formData, formType, s2sToken);
+                    } finally {
+                        permits.release();
+                    }
+                },
+                command -> Thread.ofVirtual().start(command)
+            );
+
+            ValidationResponse response = call.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            circuitBreaker.onSuccess();
+            return response;
+        } catch (TimeoutException exc) {
+            circuitBreaker.onFailure(baseUrl);
+            throw new OcrValidationUnavailableException("OCR validation timed out. Url: " + baseUrl);
+        } catch (ExecutionException exc) {
+            Throwable cause = exc.getCause();
+            if (cause instanceof HttpClientErrorException) {
+                // the service responded, the request was rejected
+                circuitBreaker.onSuccess();
+            } else {
+                circuitBreaker.onFailure(baseUrl);
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException(cause);
+        } catch (InterruptedException exc) {
+            Thread.currentThread().interrupt();
+            throw new OcrValidationUnavailableException("Interrupted while calling OCR validation. Url: " + baseUrl);
+        }
+    }
+
+    private String cacheKey(String baseUrl, String formType, FormData formData) {
+        Hasher hasher = Hashing.sha256().newHasher();
+        putString(hasher, baseUrl);
+        putString(hasher, formType);
+        if (formData.ocrDataFields != null) {
+            for (OcrDataField field : formData.ocrDataFields) {
+                putString(hasher, field.name);
+                putString(hasher, field.value);
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    // length prefix keeps values apart, so moving characters between fields changes the hash
+    private static void putString(Hasher hasher, String value) {
+        if (value == null) {
+            hasher.putInt(-1);
+        } else {
+            hasher.putInt(value.length()).putString(value, StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * Opens after the configured number of consecutive failures and lets calls through again
+     * once the open duration has passed. A failure of the first call after that opens it again.
+     */
+    private class CircuitBreaker {
+
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private volatile Instant openUntil = Instant.MIN;
+
+        boolean allowsCall() {
+            return !Instant.now().isBefore(openUntil);
+        }
+
+        void onSuccess() {
+            consecutiveFailures.set(0);
+            openUntil = Instant.MIN;
+        }
+
+        void onFailure(String baseUrl) {
+            if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+                openUntil = Instant.now().plus(openDuration);
+                log.warn("OCR validation circuit opened for {}. Url: {}", openDuration, baseUrl);
+            }
+        }
+    }
+}
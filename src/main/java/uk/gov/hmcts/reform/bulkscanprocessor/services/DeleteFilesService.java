@@ -1,152 +1,111 @@
 package uk.gov.hmcts.reform.bulkscanprocessor.services;
 
-import com.azure.core.util.Context;
-import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
-import com.azure.storage.blob.models.BlobErrorCode;
-import com.azure.storage.blob.models.DeleteSnapshotsOptionType;
+import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.BlobListDetails;
+import com.azure.storage.blob.models.ListBlobsOptions;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeRepository;
-import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.BlobDeleteException;
-import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseAcquirer;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.BlobBatchDeleter;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 
-import static com.azure.storage.blob.models.BlobErrorCode.BLOB_NOT_FOUND;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
 
 /**
  * Service to delete files from the blob storage.
+ * Files of complete envelopes are deleted in batches, and their envelopes are marked as deleted with a single update.
  */
 @Service
 public class DeleteFilesService {
     private static final Logger log = LoggerFactory.getLogger(DeleteFilesService.class);
 
+    private static final ListBlobsOptions LIST_OPTIONS =
+        new ListBlobsOptions().setDetails(new BlobListDetails().setRetrieveMetadata(true));
+
     private final EnvelopeRepository envelopeRepository;
 
     private final EnvelopeMarkAsDeletedService envelopeMarkAsDeletedService;
 
-    private final LeaseAcquirer leaseAcquirer;
+    private final BlobBatchDeleter blobBatchDeleter;
 
     /**
      * Constructor for DeleteFilesService.
      * @param envelopeRepository EnvelopeRepository
      * @param envelopeMarkAsDeletedService EnvelopeMarkAsDeletedService
-     * @param leaseAcquirer LeaseAcquirer
+     * @param blobBatchDeleter BlobBatchDeleter
      */
     public DeleteFilesService(
         EnvelopeRepository envelopeRepository,
         EnvelopeMarkAsDeletedService envelopeMarkAsDeletedService,
-        LeaseAcquirer leaseAcquirer
+        BlobBatchDeleter blobBatchDeleter
     ) {
         this.envelopeRepository = envelopeRepository;
         this.envelopeMarkAsDeletedService = envelopeMarkAsDeletedService;
-        this.leaseAcquirer = leaseAcquirer;
+        this.blobBatchDeleter = blobBatchDeleter;
     }
 
     /**
      * Deletes complete files from the given container.
+     * The container is listed once, so files already deleted cost no request and
+     * files which are leased are left for the next run.
      * @param container BlobContainerClient
      */
     public void processCompleteFiles(BlobContainerClient container) {
-        log.info("Started deleting complete files in container {}", container.getBlobContainerName());
-
-        List<Envelope> envelopes =
-            envelopeRepository.getCompleteEnvelopesFromContainer(
-                container.getBlobContainerName()
-            );
-        int successCount = 0;
-        int failureCount = 0;
-        for (Envelope envelope : envelopes) {
-            if (tryProcessCompleteEnvelope(container, envelope)) {
-                successCount++;
-            } else {
-                failureCount++;
-            }
-        }
-
-        log.info(
-            "Finished deleting complete files in container {}, deleted {} files, failed to delete {} files",
-            container.getBlobContainerName(),
-            successCount,
-            failureCount
-        );
-    }
+        String containerName = container.getBlobContainerName();
+        log.info("Started deleting complete files in container {}", containerName);
 
-    /**
-     * Tries to process the given envelope.
-     * @param container BlobContainerClient
-     * @param envelope Envelope
-     * @return true if the envelope was processed successfully, false otherwise
-     */
-    private boolean tryProcessCompleteEnvelope(BlobContainerClient container, Envelope envelope) {
-
-        String loggingContext = String.format("File name: %s, Container: %s, Case reference: %s",
-                                              envelope.getZipFileName(), container.getBlobContainerName(),
-                                              Optional.ofNullable(envelope.getCaseNumber()).orElse("(Not Present)"));
-
-        try {
-            log.info("Deleting file. {}", loggingContext);
+        List<Envelope> envelopes = envelopeRepository.getCompleteEnvelopesFromContainer(containerName);
+        if (envelopes.isEmpty()) {
+            log.info("No complete files to delete in container {}", containerName);
+            return;
+        }
 
-            BlobClient blobClient = container.getBlobClient(envelope.getZipFileName());
+        Set<String> zipFileNames = envelopes.stream().map(Envelope::getZipFileName).collect(toSet());
+        Map<String, BlobItem> blobs = container
+            .listBlobs(LIST_OPTIONS, null)
+            .stream()
+            .filter(blobItem -> zipFileNames.contains(blobItem.getName()))
+            .collect(toMap(BlobItem::getName, identity(), (first, second) -> first));
 
-            if (Boolean.TRUE.equals(blobClient.exists())) {
+        Set<String> deleted = blobBatchDeleter.deleteBlobs(container, new ArrayList<>(blobs.values()));
 
-                leaseAcquirer.ifAcquiredOrElse(
-                    blobClient,
-                    leaseId -> deleteBlob(blobClient),
-                    //should throw this if deletion or lease acquiring fails envelope should not be marked as deleted
-                    errorCode -> throwBlobDeleteException(errorCode, loggingContext),
-                    false
+        List<UUID> envelopeIds = new ArrayList<>();
+        for (Envelope envelope : envelopes) {
+            if (!blobs.containsKey(envelope.getZipFileName())) {
+                log.info(
+                    "File has already been deleted. File name: {}, Container: {}",
+                    envelope.getZipFileName(),
+                    containerName
                 );
-
-            } else {
-                log.info("File has already been deleted. {}", loggingContext);
+                envelopeIds.add(envelope.getId());
+            } else if (deleted.contains(envelope.getZipFileName())) {
+                envelopeIds.add(envelope.getId());
             }
+        }
 
-
-            envelopeMarkAsDeletedService.markEnvelopeAsDeleted(envelope.getId(), loggingContext);
-            log.info("Delete processes completed.  Envelope marked as deleted. {}", loggingContext);
-
-            return true;
-
+        try {
+            envelopeMarkAsDeletedService.markEnvelopesAsDeleted(envelopeIds, containerName);
         } catch (Exception ex) {
-            log.error("Failed to process file. {}", loggingContext, ex);
-            return false;
+            // files are gone, the envelopes are found with no file and marked as deleted on the next run
+            log.error("Failed to mark {} envelopes as deleted. Container: {}", envelopeIds.size(), containerName, ex);
+            envelopeIds.clear();
         }
-    }
 
-    /**
-     * Deletes the blob.
-     * @param blobClient BlobClient
-     */
-    private void deleteBlob(BlobClient blobClient) {
-        blobClient.deleteWithResponse(
-            DeleteSnapshotsOptionType.INCLUDE,
-            null,
-            null,
-            Context.NONE
+        log.info(
+            "Finished deleting complete files in container {}, deleted {} files, failed to delete {} files",
+            containerName,
+            envelopeIds.size(),
+            envelopes.size() - envelopeIds.size()
         );
-
-        log.info("Blob {}  is deleted", blobClient.getBlobUrl());
-    }
-
-    /**
-     * Throws BlobDeleteException.
-     * @param errorCode BlobErrorCode
-     * @param loggingContext String
-     */
-    private void throwBlobDeleteException(BlobErrorCode errorCode, String loggingContext) {
-        if (BLOB_NOT_FOUND == errorCode) {
-            log.info(
-                "Blob not found. Envelope should mark as deleted. {}",
-                loggingContext
-            );
-        } else {
-            throw new BlobDeleteException("Deleting blob failed. ErrorCode: " + errorCode.toString());
-        }
     }
 }
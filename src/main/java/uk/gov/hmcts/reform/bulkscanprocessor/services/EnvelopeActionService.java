@@ -66,7 +66,7 @@ public class EnvelopeActionService {
      */
     @Transactional
     public void reprocessEnvelope(UUID envelopeId) {
-        Envelope envelope = envelopeRepository.findById(envelopeId)
+        Envelope envelope = envelopeRepository.findWithoutItemsById(envelopeId)
             .orElseThrow(
                 () -> new EnvelopeNotFoundException(getErrorMessage(envelopeId, "not found"))
             );
@@ -92,7 +92,7 @@ public class EnvelopeActionService {
      */
     @Transactional
     public void moveEnvelopeToCompleted(UUID envelopeId) {
-        Envelope envelope = envelopeRepository.findById(envelopeId)
+        Envelope envelope = envelopeRepository.findWithoutItemsById(envelopeId)
             .orElseThrow(
                 () -> new EnvelopeNotFoundException(getErrorMessage(envelopeId, "not found"))
             );
@@ -118,7 +118,7 @@ public class EnvelopeActionService {
      */
     @Transactional
     public void moveEnvelopeToAborted(UUID envelopeId) {
-        Envelope envelope = envelopeRepository.findById(envelopeId)
+        Envelope envelope = envelopeRepository.findWithoutItemsById(envelopeId)
             .orElseThrow(
                 () -> new EnvelopeNotFoundException(getErrorMessage(envelopeId, "not found"))
             );
@@ -144,7 +144,7 @@ public class EnvelopeActionService {
      */
     @Transactional
     public void updateClassificationAndReprocessEnvelope(UUID envelopeId) {
-        Envelope envelope = envelopeRepository.findById(envelopeId)
+        Envelope envelope = envelopeRepository.findWithoutItemsById(envelopeId)
             .orElseThrow(
                 () -> new EnvelopeNotFoundException(getErrorMessage(envelopeId, "not found"))
             );
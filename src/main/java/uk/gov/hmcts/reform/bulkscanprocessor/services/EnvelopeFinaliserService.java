@@ -5,17 +5,29 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeJdbcRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEvent;
-import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.Status;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.EnvelopeNotFoundException;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.in.msg.ProcessedEnvelope;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+import static java.util.stream.Collectors.toSet;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.ALL_CONTAINERS;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.Stage.FINALISATION;
+
 /**
- * Service to finalise an envelope.
+ * Service to finalise envelopes.
  */
 @Service
 public class EnvelopeFinaliserService {
@@ -23,19 +35,31 @@ public class EnvelopeFinaliserService {
     private static final Logger log = LoggerFactory.getLogger(EnvelopeFinaliserService.class);
 
     private final EnvelopeRepository envelopeRepository;
-    private final ProcessEventRepository processEventRepository;
+    private final EnvelopeJdbcRepository envelopeJdbcRepository;
+    private final ProcessEventRecorder processEventRecorder;
+    private final StageMetrics stageMetrics;
+    private final EnvelopeLatencyTracker envelopeLatencyTracker;
 
     /**
      * Constructor for the EnvelopeFinaliserService.
      * @param envelopeRepository The envelope repository
-     * @param processEventRepository The process event repository
+     * @param envelopeJdbcRepository The envelope JDBC repository
+     * @param processEventRecorder The process event recorder
+     * @param stageMetrics The metrics of processing stages
+     * @param envelopeLatencyTracker The tracker of envelope latency
      */
     public EnvelopeFinaliserService(
         EnvelopeRepository envelopeRepository,
-        ProcessEventRepository processEventRepository
+        EnvelopeJdbcRepository envelopeJdbcRepository,
+        ProcessEventRecorder processEventRecorder,
+        StageMetrics stageMetrics,
+        EnvelopeLatencyTracker envelopeLatencyTracker
     ) {
         this.envelopeRepository = envelopeRepository;
-        this.processEventRepository = processEventRepository;
+        this.envelopeJdbcRepository = envelopeJdbcRepository;
+        this.processEventRecorder = processEventRecorder;
+        this.stageMetrics = stageMetrics;
+        this.envelopeLatencyTracker = envelopeLatencyTracker;
     }
 
     /**
@@ -55,6 +79,60 @@ public class EnvelopeFinaliserService {
 
         Envelope envelope = findEnvelope(envelopeId);
 
+        stageMetrics.run(FINALISATION, envelope.getContainer(), () -> finalise(envelope, ccdId, envelopeCcdAction));
+    }
+
+    /**
+     * Finalises the envelopes in a single transaction.
+     * Envelopes are read with one query and completed with a batch update, and their events are recorded together.
+     * Envelopes which couldn't be found are skipped, so the others can still be finalised.
+     * @param processedEnvelopes The processed envelopes
+     * @return IDs of the envelopes which couldn't be found
+     */
+    @Transactional
+    public Set<UUID> finaliseEnvelopes(List<ProcessedEnvelope> processedEnvelopes) {
+        Map<UUID, Envelope> envelopes = envelopeRepository
+            .findWithoutItemsByIdIn(processedEnvelopes.stream().map(e -> e.envelopeId).collect(toSet()))
+            .stream()
+            .collect(toMap(Envelope::getId, identity()));
+
+        List<ProcessedEnvelope> found = new ArrayList<>();
+        Set<UUID> notFound = new HashSet<>();
+        for (ProcessedEnvelope processedEnvelope : processedEnvelopes) {
+            if (envelopes.containsKey(processedEnvelope.envelopeId)) {
+                found.add(processedEnvelope);
+            } else {
+                notFound.add(processedEnvelope.envelopeId);
+            }
+        }
+
+        List<Envelope> completed = found.stream()
+            .map(processedEnvelope -> envelopes.get(processedEnvelope.envelopeId))
+            .toList();
+        List<ProcessEvent> events = completed.stream()
+            .map(envelope -> new ProcessEvent(envelope.getContainer(), envelope.getZipFileName(), Event.COMPLETED))
+            .toList();
+
+        stageMetrics.run(FINALISATION, ALL_CONTAINERS, () -> {
+            envelopeJdbcRepository.completeEnvelopes(found);
+            processEventRecorder.recordAll(events);
+        });
+        for (int i = 0; i < completed.size(); i++) {
+            envelopeLatencyTracker.eventRecorded(completed.get(i), events.get(i));
+        }
+        stageMetrics.countItems(FINALISATION, ALL_CONTAINERS, found.size());
+
+        log.info("Finalised batch of {} envelopes, {} envelopes not found", found.size(), notFound.size());
+        return notFound;
+    }
+
+    /**
+     * Completes the envelope, removing its OCR data, and records its completion.
+     * @param envelope The envelope
+     * @param ccdId The CCD ID
+     * @param envelopeCcdAction The envelope CCD action
+     */
+    private void finalise(Envelope envelope, String ccdId, String envelopeCcdAction) {
         envelope.getScannableItems().forEach(item -> {
             item.setOcrData(null);
             item.setOcrValidationWarnings(null);
@@ -73,9 +151,9 @@ public class EnvelopeFinaliserService {
             envelope.getStatus()
         );
 
-        processEventRepository.saveAndFlush(
-            new ProcessEvent(envelope.getContainer(), envelope.getZipFileName(), Event.COMPLETED)
-        );
+        ProcessEvent event = new ProcessEvent(envelope.getContainer(), envelope.getZipFileName(), Event.COMPLETED);
+        processEventRecorder.record(event);
+        envelopeLatencyTracker.eventRecorded(envelope, event);
 
         log.info(
             "Saved processEvent, container: {}, zipFileName: {}, event: {}",
@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.bulkscanprocessor.config.ContainerMappingIndex;
 import uk.gov.hmcts.reform.bulkscanprocessor.config.ContainerMappings;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.blob.InputEnvelope;
@@ -18,6 +19,8 @@ import java.util.List;
 import java.util.Optional;
 
 import static uk.gov.hmcts.reform.bulkscanprocessor.model.mapper.EnvelopeMapper.toDbEnvelope;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.Stage.DB_SAVE;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.Stage.OCR_VALIDATION;
 
 /**
  * This class is in charge of handling input envelopes.
@@ -44,6 +47,8 @@ public class EnvelopeHandler {
 
     private final OcrValidator ocrValidator;
 
+    private final StageMetrics stageMetrics;
+
     private final boolean paymentsEnabled;
 
     /**
@@ -52,6 +57,7 @@ public class EnvelopeHandler {
      * @param containerMappings The container mappings
      * @param envelopeProcessor The envelope processor
      * @param ocrValidator The OCR validator
+     * @param stageMetrics The metrics of processing stages
      * @param paymentsEnabled The payments enabled flag
      */
     public EnvelopeHandler(
@@ -59,12 +65,14 @@ public class EnvelopeHandler {
         ContainerMappings containerMappings,
         EnvelopeProcessor envelopeProcessor,
         OcrValidator ocrValidator,
+        StageMetrics stageMetrics,
         @Value("${process-payments.enabled}") boolean paymentsEnabled
     ) {
         this.envelopeValidator = envelopeValidator;
         this.containerMappings = containerMappings;
         this.envelopeProcessor = envelopeProcessor;
         this.ocrValidator = ocrValidator;
+        this.stageMetrics = stageMetrics;
         this.paymentsEnabled = paymentsEnabled;
     }
 
@@ -74,30 +82,32 @@ public class EnvelopeHandler {
      * @param zipFilename The zip file name
      * @param pdfs The PDFs
      * @param inputEnvelope The input envelope
+     * @return The saved envelope
      */
-    public void handleEnvelope(
+    public Envelope handleEnvelope(
         String containerName,
         String zipFilename,
         List<String> pdfs,
         InputEnvelope inputEnvelope
     ) {
         envelopeValidator.assertZipFilenameMatchesWithMetadata(inputEnvelope, zipFilename);
-        envelopeValidator.assertContainerMatchesJurisdictionAndPoBox(
-            containerMappings.getMappings(), inputEnvelope, containerName
-        );
-        envelopeValidator.assertServiceEnabled(inputEnvelope, containerMappings.getMappings());
+        ContainerMappingIndex mappingIndex = containerMappings.getIndex();
+        envelopeValidator.assertContainerMatchesJurisdictionAndPoBox(mappingIndex, inputEnvelope, containerName);
+        envelopeValidator.assertServiceEnabled(inputEnvelope, mappingIndex);
         envelopeValidator.assertEnvelopeContainsOcrDataIfRequired(inputEnvelope);
         envelopeValidator.assertEnvelopeHasPdfs(inputEnvelope, pdfs);
         envelopeValidator.assertDocumentControlNumbersAreUnique(inputEnvelope);
         envelopeValidator.assertPaymentsEnabledForContainerIfPaymentsArePresent(
-            inputEnvelope, paymentsEnabled, containerMappings.getMappings()
+            inputEnvelope, paymentsEnabled, mappingIndex
         );
         envelopeValidator.assertEnvelopeContainsDocsOfAllowedTypesOnly(inputEnvelope);
 
         envelopeProcessor.assertDidNotFailToUploadBefore(inputEnvelope.zipFileName, containerName);
 
-        Optional<OcrValidationWarnings> ocrValidationWarnings = ocrValidator.assertOcrDataIsValid(
-            inputEnvelope
+        Optional<OcrValidationWarnings> ocrValidationWarnings = stageMetrics.record(
+            OCR_VALIDATION,
+            containerName,
+            () -> ocrValidator.assertOcrDataIsValid(inputEnvelope)
         );
 
         Envelope dbEnvelope = toDbEnvelope(inputEnvelope, containerName, ocrValidationWarnings);
@@ -108,6 +118,8 @@ public class EnvelopeHandler {
             dbEnvelope.getCaseNumber(),
             dbEnvelope.getStatus()
         );
-        envelopeProcessor.saveEnvelope(dbEnvelope);
+        stageMetrics.run(DB_SAVE, containerName, () -> envelopeProcessor.saveEnvelope(dbEnvelope));
+
+        return dbEnvelope;
     }
 }
@@ -0,0 +1,89 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.services;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeJdbcRepository;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEvent;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.out.EnvelopeLatencyInfo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.COMPLETED;
+import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.DOC_PROCESSED_NOTIFICATION_SENT;
+
+/**
+ * Tracks how long envelopes take from their zip file being created to reaching
+ * {@link Event#DOC_PROCESSED_NOTIFICATION_SENT} or {@link Event#COMPLETED}, so the time zip files wait
+ * in input containers before being picked up is included.
+ * <ul>
+ * <li>the latency of each envelope is recorded with the {@value #LATENCY_TIMER} timer when the event is written,
+ * tagged with the container and event. The timer publishes its percentile histogram, so percentiles are
+ * aggregated over all nodes by the metrics backend</li>
+ * <li>latency percentiles within the window are read from the database, so they cover envelopes of all nodes</li>
+ * </ul>
+ */
+@Service
+public class EnvelopeLatencyTracker {
+
+    public static final String LATENCY_TIMER = "bulkscan.envelope.latency";
+
+    private static final Set<Event> END_EVENTS = Set.of(DOC_PROCESSED_NOTIFICATION_SENT, COMPLETED);
+
+    private final MeterRegistry meterRegistry;
+    private final EnvelopeJdbcRepository envelopeJdbcRepository;
+    private final Duration window;
+
+    /**
+     * Constructor for the EnvelopeLatencyTracker.
+     * @param meterRegistry The meter registry
+     * @param envelopeJdbcRepository The envelope JDBC repository
+     * @param window The period the latency percentiles cover
+     */
+    public EnvelopeLatencyTracker(
+        MeterRegistry meterRegistry,
+        EnvelopeJdbcRepository envelopeJdbcRepository,
+        @Value("${monitoring.envelope-latency.window}") Duration window
+    ) {
+        this.meterRegistry = meterRegistry;
+        this.envelopeJdbcRepository = envelopeJdbcRepository;
+        this.window = window;
+    }
+
+    /**
+     * Records the latency of the envelope, if the event ends the period measured
+     * and the creation time of the zip file is known.
+     * @param envelope The envelope
+     * @param processEvent The process event of the envelope
+     */
+    public void eventRecorded(Envelope envelope, ProcessEvent processEvent) {
+        if (!END_EVENTS.contains(processEvent.getEvent()) || envelope.getZipFileCreateddate() == null) {
+            return;
+        }
+
+        Timer.builder(LATENCY_TIMER)
+            .description("Time from the zip file of the envelope being created to the envelope reaching the event")
+            .tag("container", envelope.getContainer())
+            .tag("event", processEvent.getEvent().name().toLowerCase(Locale.ROOT))
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofSeconds(1))
+            .maximumExpectedValue(Duration.ofDays(7))
+            .register(meterRegistry)
+            .record(Duration.between(envelope.getZipFileCreateddate(), processEvent.getCreatedAt()));
+    }
+
+    /**
+     * Gets the latency percentiles of envelopes which reached the events within the window, by container and event.
+     * @return The latencies, ordered by container and event
+     */
+    public List<EnvelopeLatencyInfo> getLatencies() {
+        return envelopeJdbcRepository.findLatencies(END_EVENTS, Instant.now().minus(window));
+    }
+}
@@ -6,10 +6,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeJdbcRepository;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
- * Service to mark an envelope as deleted.
+ * Service to mark envelopes as deleted.
  */
 @Service
 public class EnvelopeMarkAsDeletedService {
@@ -26,13 +27,13 @@ public class EnvelopeMarkAsDeletedService {
     }
 
     /**
-     * Marks an envelope as deleted.
-     * @param envelopeId The envelope ID
-     * @param loggingContext The logging context
+     * Marks the envelopes as deleted.
+     * @param envelopeIds The envelope IDs
+     * @param containerName The container of the envelopes
      */
     @Transactional
-    public void markEnvelopeAsDeleted(UUID envelopeId, String loggingContext) {
-        envelopeJdbcRepository.markEnvelopeAsDeleted(envelopeId);
-        log.info("Marked envelope as deleted. {}", loggingContext);
+    public void markEnvelopesAsDeleted(List<UUID> envelopeIds, String containerName) {
+        int updated = envelopeJdbcRepository.markEnvelopesAsDeleted(envelopeIds);
+        log.info("Marked {} envelopes as deleted. Container: {}", updated, containerName);
     }
 }
@@ -0,0 +1,106 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeJdbcRepository;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeRepository;
+
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static uk.gov.hmcts.reform.bulkscanprocessor.entity.Status.UPLOADED;
+
+/**
+ * Work queue of envelopes, shared by all nodes.
+ * A node claims a page of envelopes before working on them, so pages claimed by nodes at the same time are disjoint
+ * and tasks do not need to run on a single node.
+ * Claims held over a long run are extended before each page is worked on, so they do not expire while held.
+ */
+@Service
+public class EnvelopeWorkQueue {
+
+    private final EnvelopeJdbcRepository envelopeJdbcRepository;
+    private final EnvelopeRepository envelopeRepository;
+    private final int pageSize;
+    private final Duration claimDuration;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    /**
+     * Constructor for the EnvelopeWorkQueue.
+     * @param envelopeJdbcRepository The envelope JDBC repository
+     * @param envelopeRepository The envelope repository
+     * @param pageSize The number of envelopes claimed at once
+     * @param claimDuration The duration after which a claim expires
+     */
+    public EnvelopeWorkQueue(
+        EnvelopeJdbcRepository envelopeJdbcRepository,
+        EnvelopeRepository envelopeRepository,
+        @Value("${scheduling.work_queue.page_size}") int pageSize,
+        @Value("${scheduling.work_queue.claim_duration}") Duration claimDuration
+    ) {
+        this.envelopeJdbcRepository = envelopeJdbcRepository;
+        this.envelopeRepository = envelopeRepository;
+        this.pageSize = pageSize;
+        this.claimDuration = claimDuration;
+    }
+
+    /**
+     * Claims a page of envelopes to upload.
+     * @param maxFailureCount The max upload failure count
+     * @return The claimed envelopes, oldest first
+     */
+    public List<Envelope> claimEnvelopesToUpload(int maxFailureCount) {
+        return load(envelopeJdbcRepository.claimEnvelopesToUpload(maxFailureCount, nodeId, claimDuration, pageSize));
+    }
+
+    /**
+     * Claims a page of uploaded envelopes to notify the orchestrator about.
+     * @return The claimed envelopes, oldest first
+     */
+    public List<Envelope> claimEnvelopesToNotify() {
+        return load(envelopeJdbcRepository.claimEnvelopesByStatus(UPLOADED, nodeId, claimDuration, pageSize));
+    }
+
+    /**
+     * Releases the claims of the envelopes, so they can be claimed again by any node.
+     * @param envelopes The envelopes
+     */
+    public void release(List<Envelope> envelopes) {
+        envelopeJdbcRepository.releaseClaims(envelopes.stream().map(Envelope::getId).toList(), nodeId);
+    }
+
+    /**
+     * Extends the claims of the envelopes by the claim duration, so they are not claimed by other nodes.
+     * @param envelopes The envelopes
+     */
+    public void extendClaims(List<Envelope> envelopes) {
+        envelopeJdbcRepository.extendClaims(envelopes.stream().map(Envelope::getId).toList(), nodeId, claimDuration);
+    }
+
+    /**
+     * Get the number of envelopes claimed at once.
+     * @return The page size
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Loads the claimed envelopes.
+     * @param envelopeIds The IDs of the claimed envelopes
+     * @return The envelopes, oldest first
+     */
+    private List<Envelope> load(List<UUID> envelopeIds) {
+        if (envelopeIds.isEmpty()) {
+            return List.of();
+        }
+
+        return envelopeRepository.findAllById(envelopeIds)
+            .stream()
+            .sorted(Comparator.comparing(Envelope::getCreatedAt))
+            .toList();
+    }
+}
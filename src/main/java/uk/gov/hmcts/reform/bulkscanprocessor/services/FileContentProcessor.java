@@ -1,10 +1,13 @@
 package uk.gov.hmcts.reform.bulkscanprocessor.services;
 
+import com.azure.storage.blob.BlobClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.EnvelopeRejectionException;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.PaymentsDisabledException;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.PreviouslyFailedToUploadException;
@@ -15,6 +18,7 @@ import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.EnvelopeProcessor;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ZipFileContentDetail;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ZipFileProcessor;
 
+import java.io.IOException;
 import java.util.Optional;
 import java.util.zip.ZipInputStream;
 
@@ -23,9 +27,13 @@ import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.DISABLED_
 import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.DOC_FAILURE;
 import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.DOC_UPLOAD_FAILURE;
 import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.FILE_VALIDATION_FAILURE;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.Stage.SCHEMA_VALIDATION;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.Stage.ZIP_PARSE;
 
 /**
  * Processes the content of a zip file.
+ * In single pass mode PDFs are extracted while the zip file is read and uploaded as soon as
+ * the envelope is saved, so the blob is downloaded only once.
  */
 @Component
 @ConditionalOnProperty(value = "scheduling.task.scan.enabled", matchIfMissing = true)
@@ -41,6 +49,12 @@ public class FileContentProcessor {
 
     private final FileRejector fileRejector;
 
+    private final UploadEnvelopeDocumentsService uploadEnvelopeDocumentsService;
+
+    private final StageMetrics stageMetrics;
+
+    private final boolean singlePassUploadEnabled;
+
     private static final String CASE_REFERENCE_NOT_PRESENT = "(NOT PRESENT)";
 
     /**
@@ -49,17 +63,26 @@ public class FileContentProcessor {
      * @param envelopeProcessor The envelope processor
      * @param envelopeHandler The envelope handler
      * @param fileRejector The file rejector
+     * @param uploadEnvelopeDocumentsService The upload envelope documents service
+     * @param stageMetrics The metrics of processing stages
+     * @param singlePassUploadEnabled Whether documents are uploaded in the same pass as the envelope is created
      */
     public FileContentProcessor(
         ZipFileProcessor zipFileProcessor,
         EnvelopeProcessor envelopeProcessor,
         EnvelopeHandler envelopeHandler,
-        FileRejector fileRejector
+        FileRejector fileRejector,
+        UploadEnvelopeDocumentsService uploadEnvelopeDocumentsService,
+        StageMetrics stageMetrics,
+        @Value("${scheduling.task.scan.single_pass_upload_enabled}") boolean singlePassUploadEnabled
     ) {
         this.zipFileProcessor = zipFileProcessor;
         this.envelopeProcessor = envelopeProcessor;
         this.envelopeHandler = envelopeHandler;
         this.fileRejector = fileRejector;
+        this.uploadEnvelopeDocumentsService = uploadEnvelopeDocumentsService;
+        this.stageMetrics = stageMetrics;
+        this.singlePassUploadEnabled = singlePassUploadEnabled;
     }
 
     /**
@@ -72,12 +95,74 @@ public class FileContentProcessor {
         ZipInputStream zis,
         String zipFilename,
         String containerName
+    ) {
+        processZipFileContent(
+            () -> singlePassUploadEnabled
+                ? zipFileProcessor.extractZipContent(zis, zipFilename)
+                : zipFileProcessor.getZipContentDetail(zis, zipFilename),
+            zipFilename,
+            containerName
+        );
+    }
+
+    /**
+     * Processes the content of a zip file stored in a blob.
+     * Unless documents are uploaded in a single pass, only the metadata is downloaded from the blob.
+     * @param blobClient The blob client
+     * @param zipFilename The zip file name
+     * @param containerName The container name
+     */
+    public void processZipFileContent(
+        BlobClient blobClient,
+        String zipFilename,
+        String containerName
+    ) {
+        if (singlePassUploadEnabled) {
+            processZipFileContent(
+                () -> {
+                    try (
+                        ZipInputStream zis = new ZipInputStream(
+                            stageMetrics.meterDownload(blobClient.openInputStream(), containerName)
+                        )
+                    ) {
+                        return zipFileProcessor.extractZipContent(zis, zipFilename);
+                    }
+                },
+                zipFilename,
+                containerName
+            );
+        } else {
+            processZipFileContent(
+                () -> zipFileProcessor.getZipContentDetail(blobClient, zipFilename),
+                zipFilename,
+                containerName
+            );
+        }
+    }
+
+    /**
+     * Processes the content of a zip file.
+     * @param zipContentReader Reads the content detail of the zip file
+     * @param zipFilename The zip file name
+     * @param containerName The container name
+     */
+    private void processZipFileContent(
+        ZipContentReader zipContentReader,
+        String zipFilename,
+        String containerName
     ) {
         Optional<String> caseReference = Optional.empty();
+        ZipFileContentDetail zipDetail = null;
         try {
-            ZipFileContentDetail zipDetail = zipFileProcessor.getZipContentDetail(zis, zipFilename);
+            zipDetail = stageMetrics.record(ZIP_PARSE, containerName, zipContentReader::read);
+            stageMetrics.countItems(ZIP_PARSE, containerName, zipDetail.pdfFileNames.size());
 
-            InputEnvelope inputEnvelope = envelopeProcessor.parseEnvelope(zipDetail.getMetadata(), zipFilename);
+            byte[] metadata = zipDetail.getMetadata();
+            InputEnvelope inputEnvelope = stageMetrics.record(
+                SCHEMA_VALIDATION,
+                containerName,
+                () -> envelopeProcessor.parseEnvelope(metadata, zipFilename)
+            );
             caseReference = Optional.ofNullable(inputEnvelope.caseNumber);
 
             log.info(
@@ -89,12 +174,16 @@ public class FileContentProcessor {
                 caseReference.orElse(CASE_REFERENCE_NOT_PRESENT)
             );
 
-            envelopeHandler.handleEnvelope(
+            Envelope envelope = envelopeHandler.handleEnvelope(
                 containerName,
                 zipFilename,
                 zipDetail.pdfFileNames,
                 inputEnvelope
             );
+
+            if (singlePassUploadEnabled) {
+                uploadEnvelopeDocumentsService.uploadExtractedDocuments(envelope, zipDetail.pdfFiles);
+            }
         } catch (PaymentsDisabledException ex) {
             log.error(
                 "Rejected file {} from container {}, Case reference: {} - Payments processing is disabled",
@@ -121,6 +210,11 @@ public class FileContentProcessor {
         } catch (Exception ex) {
             log.error("Failed to process file {} from container {}", zipFilename, containerName, ex);
             createEvent(DOC_FAILURE, containerName, zipFilename, ex.getMessage());
+        } finally {
+            // extraction removes its own files when it fails, so there is nothing to delete without content
+            if (singlePassUploadEnabled && zipDetail != null) {
+                zipFileProcessor.deleteExtractedFiles(zipDetail);
+            }
         }
     }
 
@@ -146,4 +240,12 @@ public class FileContentProcessor {
             null
         );
     }
+
+    /**
+     * Reads the content detail of a zip file.
+     */
+    @FunctionalInterface
+    private interface ZipContentReader {
+        ZipFileContentDetail read() throws IOException;
+    }
 }
@@ -4,30 +4,32 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.EnvelopeRejectionException;
-import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.BlobManager;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.RejectedFileMover;
 
 /**
  * Rejects invalid files.
+ * The error notification is sent right away, while the file is moved to the rejected container
+ * by the {@link RejectedFileMover}.
  */
 @Component
 @ConditionalOnProperty(value = "scheduling.task.scan.enabled", matchIfMissing = true)
 @ConditionalOnExpression("!${jms.enabled}")
 public class FileRejector {
 
-    private final BlobManager blobManager;
+    private final RejectedFileMover rejectedFileMover;
 
     private final ErrorNotificationSender errorNotificationSender;
 
     /**
      * Constructor for the FileRejector.
-     * @param blobManager The blob manager
+     * @param rejectedFileMover The mover of rejected files
      * @param errorNotificationSender The error notification sender
      */
     public FileRejector(
-        BlobManager blobManager,
+        RejectedFileMover rejectedFileMover,
         ErrorNotificationSender errorNotificationSender
     ) {
-        this.blobManager = blobManager;
+        this.rejectedFileMover = rejectedFileMover;
         this.errorNotificationSender = errorNotificationSender;
     }
 
@@ -51,6 +53,6 @@ public class FileRejector {
             eventId,
             cause.getErrorCode()
         );
-        blobManager.tryMoveFileToRejectedContainer(zipFilename, containerName);
+        rejectedFileMover.moveToRejectedContainer(zipFilename, containerName);
     }
 }
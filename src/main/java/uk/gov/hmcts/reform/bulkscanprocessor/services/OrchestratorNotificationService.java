@@ -7,17 +7,27 @@ import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeJdbcRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEvent;
-import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventRepository;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventJdbcRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.Status;
+import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.NotificationStateNotRecordedException;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.out.msg.EnvelopeMsg;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.servicebus.ServiceBusSendHelper;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.ALL_CONTAINERS;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.Stage.NOTIFICATION_SEND;
+
 /**
  * Service to handle sending notifications to orchestrator.
  */
@@ -28,22 +38,38 @@ public class OrchestratorNotificationService {
 
     private final ServiceBusSendHelper serviceBusHelper;
     private final EnvelopeRepository envelopeRepo;
-    private final ProcessEventRepository processEventRepo;
+    private final ProcessEventRecorder processEventRecorder;
+    private final EnvelopeJdbcRepository envelopeJdbcRepo;
+    private final ProcessEventJdbcRepository processEventJdbcRepo;
+    private final StageMetrics stageMetrics;
+    private final EnvelopeLatencyTracker envelopeLatencyTracker;
 
     /**
      * Constructor for the OrchestratorNotificationService.
      * @param serviceBusHelper The service bus helper
      * @param envelopeRepo The repository for envelope
-     * @param processEventRepo The repository for process event
+     * @param processEventRecorder The recorder of process events
+     * @param envelopeJdbcRepo The JDBC repository for envelope
+     * @param processEventJdbcRepo The JDBC repository for process event
+     * @param stageMetrics The metrics of processing stages
+     * @param envelopeLatencyTracker The tracker of envelope latency
      */
     public OrchestratorNotificationService(
         @Qualifier("envelopes-helper") ServiceBusSendHelper serviceBusHelper,
         EnvelopeRepository envelopeRepo,
-        ProcessEventRepository processEventRepo
+        ProcessEventRecorder processEventRecorder,
+        EnvelopeJdbcRepository envelopeJdbcRepo,
+        ProcessEventJdbcRepository processEventJdbcRepo,
+        StageMetrics stageMetrics,
+        EnvelopeLatencyTracker envelopeLatencyTracker
     ) {
         this.serviceBusHelper = serviceBusHelper;
         this.envelopeRepo = envelopeRepo;
-        this.processEventRepo = processEventRepo;
+        this.processEventRecorder = processEventRecorder;
+        this.envelopeJdbcRepo = envelopeJdbcRepo;
+        this.processEventJdbcRepo = processEventJdbcRepo;
+        this.stageMetrics = stageMetrics;
+        this.envelopeLatencyTracker = envelopeLatencyTracker;
     }
 
     /**
@@ -54,12 +80,77 @@ public class OrchestratorNotificationService {
     @Transactional
     public void processEnvelope(AtomicInteger successCount, Envelope env) {
         updateStatus(env);
-        createEvent(env, Event.DOC_PROCESSED_NOTIFICATION_SENT);
-        serviceBusHelper.sendMessage(new EnvelopeMsg(env));
+        ProcessEvent event = createEvent(env, Event.DOC_PROCESSED_NOTIFICATION_SENT);
+        stageMetrics.run(
+            NOTIFICATION_SEND,
+            env.getContainer(),
+            () -> serviceBusHelper.sendMessage(new EnvelopeMsg(env))
+        );
+        stageMetrics.countItems(NOTIFICATION_SEND, env.getContainer(), 1);
+        envelopeLatencyTracker.eventRecorded(env, event);
         logEnvelopeSent(env);
         successCount.incrementAndGet();
     }
 
+    /**
+     * Process envelopes in a batch.
+     * Messages are sent in service bus batches, then the statuses of the envelopes and their events
+     * are written with a single update and a single JDBC batch insert.
+     * An envelope which fails to be sent stays UPLOADED and gets a failure event, without affecting the others.
+     * @param envelopes The envelopes
+     * @return The number of envelopes sent
+     * @throws NotificationStateNotRecordedException if messages were sent but the statuses or events
+     *     could not be written, in which case the envelopes stay UPLOADED
+     */
+    @Transactional
+    public int processEnvelopes(List<Envelope> envelopes) {
+        List<EnvelopeMsg> msgs = new ArrayList<>();
+        for (Envelope env : envelopes) {
+            try {
+                msgs.add(new EnvelopeMsg(env));
+            } catch (Exception exc) {
+                log.error("Error creating notification for envelope {}", env.getId(), exc);
+            }
+        }
+
+        Set<String> sentIds = new HashSet<>();
+        // a batch holds envelopes of any container, sent envelopes are counted per container below
+        stageMetrics.record(NOTIFICATION_SEND, ALL_CONTAINERS, () -> serviceBusHelper.sendMessages(msgs))
+            .forEach(msg -> sentIds.add(msg.getMsgId()));
+
+        List<UUID> sentEnvelopeIds = new ArrayList<>();
+        List<ProcessEvent> events = new ArrayList<>();
+        for (Envelope env : envelopes) {
+            boolean sent = sentIds.contains(env.getId().toString());
+            if (sent) {
+                sentEnvelopeIds.add(env.getId());
+                stageMetrics.countItems(NOTIFICATION_SEND, env.getContainer(), 1);
+                logEnvelopeSent(env);
+            }
+            events.add(
+                new ProcessEvent(
+                    env.getContainer(),
+                    env.getZipFileName(),
+                    sent ? Event.DOC_PROCESSED_NOTIFICATION_SENT : Event.DOC_PROCESSED_NOTIFICATION_FAILURE
+                )
+            );
+        }
+
+        // messages are delivered already, so a failure from here on is not a failure to notify
+        try {
+            envelopeJdbcRepo.updateStatus(sentEnvelopeIds, Status.NOTIFICATION_SENT);
+            processEventJdbcRepo.saveAll(events);
+        } catch (RuntimeException exc) {
+            throw new NotificationStateNotRecordedException(sentEnvelopeIds.size(), exc);
+        }
+        for (int i = 0; i < envelopes.size(); i++) {
+            envelopeLatencyTracker.eventRecorded(envelopes.get(i), events.get(i));
+        }
+        log.info("{} envelopes status changed to NOTIFICATION_SENT", sentEnvelopeIds.size());
+
+        return sentEnvelopeIds.size();
+    }
+
     /**
      * Process envelope.
      * @param env The envelope
@@ -77,15 +168,16 @@ public class OrchestratorNotificationService {
      * Create event.
      * @param envelope The envelope
      * @param event The event
+     * @return The process event
      */
-    private void createEvent(Envelope envelope, Event event) {
-        processEventRepo.saveAndFlush(
-            new ProcessEvent(
-                envelope.getContainer(),
-                envelope.getZipFileName(),
-                event
-            )
+    private ProcessEvent createEvent(Envelope envelope, Event event) {
+        ProcessEvent processEvent = new ProcessEvent(
+            envelope.getContainer(),
+            envelope.getZipFileName(),
+            event
         );
+        processEventRecorder.record(processEvent);
+        return processEvent;
     }
 
     /**
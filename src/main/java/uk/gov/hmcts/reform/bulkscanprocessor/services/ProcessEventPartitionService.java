@@ -0,0 +1,144 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.services;
+
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.BlobServiceClient;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventPartitionRepository;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Manages the monthly partitions of process events.
+ * Creates partitions ahead of time and removes the ones past the retention period from the table,
+ * either only detaching them or archiving them to blob storage and dropping them.
+ */
+@Service
+public class ProcessEventPartitionService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcessEventPartitionService.class);
+
+    private static final String[] ARCHIVE_CSV_HEADERS = {
+        "id", "container", "zipfilename", "createdat", "event", "reason"
+    };
+
+    private final ProcessEventPartitionRepository partitionRepository;
+    private final BlobServiceClient blobServiceClient;
+    private final int monthsAhead;
+    private final boolean retentionEnabled;
+    private final Duration retentionPeriod;
+    private final boolean archiveEnabled;
+    private final String archiveContainer;
+
+    /**
+     * Constructor for the ProcessEventPartitionService.
+     * @param partitionRepository The process event partition repository
+     * @param blobServiceClient The blob service client
+     * @param monthsAhead The number of months after the current one to create partitions for
+     * @param retentionEnabled Whether partitions past the retention period are removed
+     * @param retentionPeriod The retention period of process events
+     * @param archiveEnabled Whether removed partitions are archived to blob storage and dropped
+     * @param archiveContainer The container to archive partitions to
+     */
+    public ProcessEventPartitionService(
+        ProcessEventPartitionRepository partitionRepository,
+        BlobServiceClient blobServiceClient,
+        @Value("${scheduling.task.process-events-partitions.months_ahead}") int monthsAhead,
+        @Value("${scheduling.task.process-events-partitions.retention.enabled}") boolean retentionEnabled,
+        @Value("${scheduling.task.process-events-partitions.retention.period}") Duration retentionPeriod,
+        @Value("${scheduling.task.process-events-partitions.retention.archive_enabled}") boolean archiveEnabled,
+        @Value("${scheduling.task.process-events-partitions.retention.archive_container}") String archiveContainer
+    ) {
+        this.partitionRepository = partitionRepository;
+        this.blobServiceClient = blobServiceClient;
+        this.monthsAhead = monthsAhead;
+        this.retentionEnabled = retentionEnabled;
+        this.retentionPeriod = retentionPeriod;
+        this.archiveEnabled = archiveEnabled;
+        this.archiveContainer = archiveContainer;
+    }
+
+    /**
+     * Creates the missing monthly partitions up to the configured number of months ahead.
+     */
+    public void createPartitions() {
+        int created = partitionRepository.createPartitions(monthsAhead);
+        log.info("Created {} process events partitions", created);
+    }
+
+    /**
+     * Removes the partitions which only hold events older than the retention period.
+     * A partition which fails to be archived is kept in the table and tried again on the next run.
+     */
+    public void removeExpiredPartitions() {
+        if (!retentionEnabled) {
+            return;
+        }
+
+        List<String> partitions = partitionRepository.findPartitionsEndingBefore(Instant.now().minus(retentionPeriod));
+        log.info("Found {} process events partitions past retention period", partitions.size());
+
+        for (String partition : partitions) {
+            try {
+                if (archiveEnabled) {
+                    archive(partition);
+                    partitionRepository.detach(partition);
+                    partitionRepository.drop(partition);
+                    log.info("Archived and dropped process events partition {}", partition);
+                } else {
+                    partitionRepository.detach(partition);
+                    log.info("Detached process events partition {}", partition);
+                }
+            } catch (Exception exc) {
+                log.error("Failed to remove process events partition {}", partition, exc);
+            }
+        }
+    }
+
+    /**
+     * Writes all events of the partition to a gzipped CSV blob named after the partition.
+     * @param partition The partition name
+     * @throws IOException if the blob could not be written
+     */
+    private void archive(String partition) throws IOException {
+        BlobContainerClient containerClient = blobServiceClient.getBlobContainerClient(archiveContainer);
+        if (!containerClient.exists()) {
+            containerClient.create();
+        }
+
+        var blobClient = containerClient.getBlobClient(partition + ".csv.gz").getBlockBlobClient();
+        CSVFormat csvFormat = CSVFormat.DEFAULT.builder().setHeader(ARCHIVE_CSV_HEADERS).build();
+        try (
+            Writer writer = new OutputStreamWriter(new GZIPOutputStream(blobClient.getBlobOutputStream(true)), UTF_8);
+            CSVPrinter printer = new CSVPrinter(writer, csvFormat)
+        ) {
+            partitionRepository.forEachEvent(partition, rs -> {
+                try {
+                    printer.printRecord(
+                        rs.getLong("id"),
+                        rs.getString("container"),
+                        rs.getString("zipfilename"),
+                        rs.getTimestamp("createdat").toInstant(),
+                        rs.getString("event"),
+                        rs.getString("reason")
+                    );
+                } catch (IOException exc) {
+                    throw new UncheckedIOException(exc);
+                }
+            });
+        }
+    }
+}
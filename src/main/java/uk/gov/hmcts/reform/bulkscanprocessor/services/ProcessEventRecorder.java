@@ -0,0 +1,224 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.services;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEvent;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventJdbcRepository;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventRepository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Records process events which go along with a change of the envelope state.
+ * How events are written depends on the configured {@link Mode}. The number of events written
+ * with each database flush is recorded, so the flushes made per envelope step can be followed.
+ */
+@Service
+public class ProcessEventRecorder {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcessEventRecorder.class);
+
+    private static final String FLUSH_SIZE_SUMMARY = "process.events.flush.size";
+
+    /**
+     * How process events are written.
+     */
+    public enum Mode {
+        /**
+         * Each event is inserted and flushed on its own. Events recorded together are inserted in a single
+         * JDBC batch.
+         */
+        IMMEDIATE,
+        /**
+         * Events recorded within a transaction are inserted in a single JDBC batch just before it commits,
+         * so they are committed together with the state change. Events recorded outside of a transaction
+         * are inserted right away.
+         */
+        TRANSACTIONAL,
+        /**
+         * Events are queued and inserted in JDBC batches in the background.
+         * Events still queued are lost if the node stops abruptly.
+         */
+        WRITE_BEHIND
+    }
+
+    private final ProcessEventRepository processEventRepository;
+    private final ProcessEventJdbcRepository processEventJdbcRepository;
+    private final MeterRegistry meterRegistry;
+    private final Mode mode;
+    private final int batchSize;
+
+    private final Queue<ProcessEvent> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger queueSize = new AtomicInteger();
+
+    /**
+     * Constructor for the ProcessEventRecorder.
+     * @param processEventRepository The process event repository
+     * @param processEventJdbcRepository The process event JDBC repository
+     * @param meterRegistry The meter registry
+     * @param mode The mode of writing events
+     * @param batchSize The maximum number of queued events inserted in a batch
+     */
+    public ProcessEventRecorder(
+        ProcessEventRepository processEventRepository,
+        ProcessEventJdbcRepository processEventJdbcRepository,
+        MeterRegistry meterRegistry,
+        @Value("${process-events.recorder.mode}") Mode mode,
+        @Value("${process-events.recorder.batch_size}") int batchSize
+    ) {
+        this.processEventRepository = processEventRepository;
+        this.processEventJdbcRepository = processEventJdbcRepository;
+        this.meterRegistry = meterRegistry;
+        this.mode = mode;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Records the event.
+     * @param event The event
+     */
+    public void record(ProcessEvent event) {
+        switch (mode) {
+            case TRANSACTIONAL -> recordInTransaction(event);
+            case WRITE_BEHIND -> {
+                queue.add(event);
+                if (queueSize.incrementAndGet() >= batchSize) {
+                    flushQueue();
+                }
+            }
+            default -> {
+                processEventRepository.saveAndFlush(event);
+                recordFlush(1);
+            }
+        }
+    }
+
+    /**
+     * Records the events, written together as far as the mode allows.
+     * @param events The events
+     */
+    public void recordAll(List<ProcessEvent> events) {
+        switch (mode) {
+            case TRANSACTIONAL -> events.forEach(this::recordInTransaction);
+            case WRITE_BEHIND -> {
+                queue.addAll(events);
+                if (queueSize.addAndGet(events.size()) >= batchSize) {
+                    flushQueue();
+                }
+            }
+            default -> insert(events);
+        }
+    }
+
+    /**
+     * Inserts the queued events in batches. Runs periodically in write behind mode and on shutdown.
+     */
+    @Scheduled(fixedDelayString = "${process-events.recorder.flush_interval}")
+    @PreDestroy
+    public void flushQueue() {
+        List<ProcessEvent> batch = new ArrayList<>();
+        ProcessEvent event;
+        while ((event = queue.poll()) != null) {
+            queueSize.decrementAndGet();
+            batch.add(event);
+            if (batch.size() == batchSize) {
+                insertQueued(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        insertQueued(batch);
+    }
+
+    /**
+     * Adds the event to the events of the current transaction, or inserts it if there is no transaction.
+     * @param event The event
+     */
+    private void recordInTransaction(ProcessEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            insert(List.of(event));
+            return;
+        }
+
+        @SuppressWarnings("unchecked")
+        List<ProcessEvent> events = (List<ProcessEvent>) TransactionSynchronizationManager.getResource(this);
+        if (events == null) {
+            List<ProcessEvent> transactionEvents = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, transactionEvents);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    insert(transactionEvents);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ProcessEventRecorder.this);
+                }
+            });
+            events = transactionEvents;
+        }
+        events.add(event);
+    }
+
+    /**
+     * Inserts the queued events. If the batch fails, events are inserted one by one so a single bad event
+     * does not prevent the others from being written.
+     * @param events The events
+     */
+    private void insertQueued(List<ProcessEvent> events) {
+        try {
+            insert(events);
+        } catch (Exception exc) {
+            log.error("Failed to insert batch of {} process events, inserting them one by one", events.size(), exc);
+            for (ProcessEvent event : events) {
+                try {
+                    insert(List.of(event));
+                } catch (Exception eventExc) {
+                    log.error(
+                        "Failed to insert process event {} for file {} from container {}",
+                        event.getEvent(),
+                        event.getZipFileName(),
+                        event.getContainer(),
+                        eventExc
+                    );
+                }
+            }
+        }
+    }
+
+    /**
+     * Inserts the events in a single JDBC batch.
+     * @param events The events
+     */
+    private void insert(List<ProcessEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        processEventJdbcRepository.saveAll(events);
+        recordFlush(events.size());
+    }
+
+    /**
+     * Records a database flush of the events.
+     * @param eventCount The number of events flushed
+     */
+    private void recordFlush(int eventCount) {
+        DistributionSummary.builder(FLUSH_SIZE_SUMMARY)
+            .description("Process events written with a single database flush")
+            .tag("mode", mode.name())
+            .register(meterRegistry)
+            .record(eventCount);
+    }
+}
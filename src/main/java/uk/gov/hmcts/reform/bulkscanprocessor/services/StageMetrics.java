@@ -0,0 +1,277 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.services;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the latency and throughput of each stage envelopes go through.
+ * All stages share the same meters, tagged with the stage, the container and the outcome:
+ * <ul>
+ * <li>{@value #STAGE_TIMER} timer, whose count is the number of times the stage ran</li>
+ * <li>{@value #STAGE_SIZE_SUMMARY} summary of the bytes handled by the stage</li>
+ * <li>{@value #STAGE_ITEMS_COUNTER} counter of the items, like zip files or PDFs, handled by the stage</li>
+ * </ul>
+ */
+@Component
+public class StageMetrics {
+
+    public static final String STAGE_TIMER = "bulkscan.stage";
+    public static final String STAGE_SIZE_SUMMARY = "bulkscan.stage.size";
+    public static final String STAGE_ITEMS_COUNTER = "bulkscan.stage.items";
+
+    public static final String SUCCESS = "success";
+    public static final String FAILURE = "failure";
+
+    /**
+     * Container tag of stages run for several containers at once.
+     */
+    public static final String ALL_CONTAINERS = "all";
+
+    /**
+     * Stages envelopes go through, from the blob being listed to the envelope being finalised.
+     */
+    public enum Stage {
+        BLOB_LIST,
+        LEASE_CLAIM,
+        DOWNLOAD,
+        ZIP_PARSE,
+        SCHEMA_VALIDATION,
+        OCR_VALIDATION,
+        DB_SAVE,
+        PDF_EXTRACTION,
+        CDAM_UPLOAD,
+        NOTIFICATION_SEND,
+        FINALISATION;
+
+        /**
+         * Gets the value of the stage tag.
+         * @return The tag value
+         */
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor for the StageMetrics.
+     * @param meterRegistry The meter registry
+     */
+    public StageMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs the action and records its duration, with a failure outcome if it throws.
+     * @param stage The stage
+     * @param container The container
+     * @param action The action
+     * @param <T> The type of the result
+     * @param <E> The type of the exception thrown by the action
+     * @return The result of the action
+     * @throws E If the action fails
+     */
+    public <T, E extends Exception> T record(Stage stage, String container, StageAction<T, E> action) throws E {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = FAILURE;
+        try {
+            T result = action.run();
+            outcome = SUCCESS;
+            return result;
+        } finally {
+            stop(sample, stage, container, outcome);
+        }
+    }
+
+    /**
+     * Runs the action and records its duration, with a failure outcome if it throws.
+     * @param stage The stage
+     * @param container The container
+     * @param action The action
+     * @param <E> The type of the exception thrown by the action
+     * @throws E If the action fails
+     */
+    public <E extends Exception> void run(Stage stage, String container, StageRunnable<E> action) throws E {
+        this.<Void, E>record(stage, container, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Starts timing a stage whose outcome is only known later.
+     * @return The sample to pass to {@link #stop(Timer.Sample, Stage, String, String)}
+     */
+    public Timer.Sample start() {
+        return Timer.start(meterRegistry);
+    }
+
+    /**
+     * Records the duration of the stage started with {@link #start()}.
+     * @param sample The sample
+     * @param stage The stage
+     * @param container The container
+     * @param outcome The outcome of the stage
+     * @return The duration in nanoseconds
+     */
+    public long stop(Timer.Sample sample, Stage stage, String container, String outcome) {
+        return sample.stop(timer(stage, container, outcome));
+    }
+
+    /**
+     * Records the number of bytes handled by the stage.
+     * @param stage The stage
+     * @param container The container
+     * @param bytes The number of bytes
+     */
+    public void recordSize(Stage stage, String container, long bytes) {
+        DistributionSummary.builder(STAGE_SIZE_SUMMARY)
+            .description("Bytes handled by a processing stage")
+            .baseUnit("bytes")
+            .tag("stage", stage.tag())
+            .tag("container", containerTag(container))
+            .register(meterRegistry)
+            .record(bytes);
+    }
+
+    /**
+     * Counts the items handled by the stage.
+     * @param stage The stage
+     * @param container The container
+     * @param count The number of items
+     */
+    public void countItems(Stage stage, String container, long count) {
+        Counter.builder(STAGE_ITEMS_COUNTER)
+            .description("Items handled by a processing stage")
+            .tag("stage", stage.tag())
+            .tag("container", containerTag(container))
+            .register(meterRegistry)
+            .increment(count);
+    }
+
+    /**
+     * Wraps the blob content stream so the time spent waiting for its bytes and their number are recorded
+     * as the {@link Stage#DOWNLOAD} stage when the stream is closed. Time spent by the reader processing
+     * the bytes is not included, so downloading can be told apart from parsing.
+     * @param inputStream The blob content stream
+     * @param container The container
+     * @return The metered stream
+     */
+    public InputStream meterDownload(InputStream inputStream, String container) {
+        return new DownloadInputStream(inputStream, container);
+    }
+
+    private static String containerTag(String container) {
+        return container == null ? "unknown" : container;
+    }
+
+    private Timer timer(Stage stage, String container, String outcome) {
+        return Timer.builder(STAGE_TIMER)
+            .description("Duration of a processing stage")
+            .tag("stage", stage.tag())
+            .tag("container", containerTag(container))
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+
+    /**
+     * Action of a stage returning a result.
+     * @param <T> The type of the result
+     * @param <E> The type of the exception thrown
+     */
+    @FunctionalInterface
+    public interface StageAction<T, E extends Exception> {
+        T run() throws E;
+    }
+
+    /**
+     * Action of a stage without a result.
+     * @param <E> The type of the exception thrown
+     */
+    @FunctionalInterface
+    public interface StageRunnable<E extends Exception> {
+        void run() throws E;
+    }
+
+    /**
+     * Stream accumulating the time spent in reads and the bytes read.
+     */
+    private class DownloadInputStream extends FilterInputStream {
+
+        private final String container;
+        private long readNanos;
+        private long bytes;
+        private boolean failed;
+        private boolean closed;
+
+        DownloadInputStream(InputStream inputStream, String container) {
+            super(inputStream);
+            this.container = container;
+        }
+
+        @Override
+        public int read() throws IOException {
+            long start = System.nanoTime();
+            try {
+                int result = super.read();
+                if (result >= 0) {
+                    bytes++;
+                }
+                return result;
+            } catch (IOException | RuntimeException exc) {
+                failed = true;
+                throw exc;
+            } finally {
+                readNanos += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            long start = System.nanoTime();
+            try {
+                int result = super.read(buffer, offset, length);
+                if (result > 0) {
+                    bytes += result;
+                }
+                return result;
+            } catch (IOException | RuntimeException exc) {
+                failed = true;
+                throw exc;
+            } finally {
+                readNanos += System.nanoTime() - start;
+            }
+        }
+
+        @Override
+        public long skip(long count) throws IOException {
+            long skipped = super.skip(count);
+            bytes += skipped;
+            return skipped;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                if (!closed) {
+                    closed = true;
+                    timer(Stage.DOWNLOAD, container, failed ? FAILURE : SUCCESS)
+                        .record(readNanos, TimeUnit.NANOSECONDS);
+                    recordSize(Stage.DOWNLOAD, container, bytes);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.services;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Limits the number of document uploads to CDAM running at the same time on a node.
+ * Uploads are limited per jurisdiction as well, so slow responses for one jurisdiction
+ * cannot take all the upload slots of the node.
+ */
+@Component
+public class UploadConcurrencyLimiter {
+
+    private final Semaphore nodePermits;
+    private final Map<String, Semaphore> jurisdictionPermits = new ConcurrentHashMap<>();
+    private final int maxConcurrencyPerJurisdiction;
+
+    /**
+     * Constructor for the UploadConcurrencyLimiter.
+     * @param maxConcurrency The maximum number of uploads running at the same time on a node
+     * @param maxConcurrencyPerJurisdiction The maximum number of uploads running at the same time for a jurisdiction
+     */
+    public UploadConcurrencyLimiter(
+        @Value("${scheduling.task.upload-documents.max_concurrency}") int maxConcurrency,
+        @Value("${scheduling.task.upload-documents.max_concurrency_per_jurisdiction}")
+        int maxConcurrencyPerJurisdiction
+    ) {
+        this.nodePermits = new Semaphore(maxConcurrency, true);
+        this.maxConcurrencyPerJurisdiction = maxConcurrencyPerJurisdiction;
+    }
+
+    /**
+     * Runs the upload once both a jurisdiction and a node slot are available.
+     * @param jurisdiction The jurisdiction of the envelope
+     * @param upload The upload
+     * @throws InterruptedException If interrupted while waiting for a slot
+     */
+    public void run(String jurisdiction, Runnable upload) throws InterruptedException {
+        Semaphore permits = jurisdictionPermits.computeIfAbsent(
+            Objects.requireNonNullElse(jurisdiction, ""),
+            key -> new Semaphore(maxConcurrencyPerJurisdiction, true)
+        );
+
+        // jurisdiction slot is taken first so waiting uploads of one jurisdiction do not queue up for node slots
+        permits.acquire();
+        try {
+            nodePermits.acquire();
+            try {
+                upload.run();
+            } finally {
+                nodePermits.release();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+}
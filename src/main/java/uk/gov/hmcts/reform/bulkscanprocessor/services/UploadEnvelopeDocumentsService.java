@@ -3,6 +3,7 @@ package uk.gov.hmcts.reform.bulkscanprocessor.services;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.models.BlobStorageException;
+import io.micrometer.core.instrument.Timer;
 import org.slf4j.Logger;
 import org.springframework.stereotype.Service;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
@@ -12,12 +13,15 @@ import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseAcquirer;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.BlobManager;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.DocumentProcessor;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.EnvelopeProcessor;
+import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ExtractedPdf;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ZipFileProcessor;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.zip.ZipInputStream;
 
 import static org.slf4j.LoggerFactory.getLogger;
@@ -25,6 +29,10 @@ import static uk.gov.hmcts.reform.bulkscanprocessor.entity.Status.COMPLETED;
 import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.DOC_UPLOADED;
 import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.DOC_UPLOAD_FAILURE;
 import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.FILE_SIZE_EXCEED_UPLOAD_LIMIT_FAILURE;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.FAILURE;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.SUCCESS;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.Stage.CDAM_UPLOAD;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.Stage.PDF_EXTRACTION;
 
 /**
  * Service responsible to upload envelopes ended in state after main processor task.
@@ -49,6 +57,8 @@ public class UploadEnvelopeDocumentsService {
     private final DocumentProcessor documentProcessor;
     private final EnvelopeProcessor envelopeProcessor;
     private final LeaseAcquirer leaseAcquirer;
+    private final UploadConcurrencyLimiter uploadLimiter;
+    private final StageMetrics stageMetrics;
 
     /**
      * Constructor for the UploadEnvelopeDocumentsService.
@@ -57,23 +67,30 @@ public class UploadEnvelopeDocumentsService {
      * @param documentProcessor The document processor
      * @param envelopeProcessor The envelope processor
      * @param leaseAcquirer The lease acquirer
+     * @param uploadLimiter The limiter of concurrent uploads
+     * @param stageMetrics The metrics of processing stages
      */
     public UploadEnvelopeDocumentsService(
         BlobManager blobManager,
         ZipFileProcessor zipFileProcessor,
         DocumentProcessor documentProcessor,
         EnvelopeProcessor envelopeProcessor,
-        LeaseAcquirer leaseAcquirer
+        LeaseAcquirer leaseAcquirer,
+        UploadConcurrencyLimiter uploadLimiter,
+        StageMetrics stageMetrics
     ) {
         this.blobManager = blobManager;
         this.zipFileProcessor = zipFileProcessor;
         this.documentProcessor = documentProcessor;
         this.envelopeProcessor = envelopeProcessor;
         this.leaseAcquirer = leaseAcquirer;
+        this.uploadLimiter = uploadLimiter;
+        this.stageMetrics = stageMetrics;
     }
 
     /**
      * Processes envelopes by container.
+     * Envelopes are uploaded concurrently, within the limits of {@link UploadConcurrencyLimiter}.
      * @param containerName The container name
      * @param envelopes The envelopes
      */
@@ -84,10 +101,10 @@ public class UploadEnvelopeDocumentsService {
             envelopes.size()
         );
 
-        try {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
             BlobContainerClient blobContainer = blobManager.listContainerClient(containerName);
 
-            envelopes.forEach(envelope -> processEnvelope(blobContainer, envelope));
+            envelopes.forEach(envelope -> executor.execute(() -> tryProcessEnvelope(blobContainer, envelope)));
         } catch (Exception exception) {
             log.error(
                 "An error occurred when trying to upload documents. Container: {}",
@@ -97,6 +114,24 @@ public class UploadEnvelopeDocumentsService {
         }
     }
 
+    /**
+     * Processes envelope once an upload slot is available.
+     * @param blobContainer The blob container
+     * @param envelope The envelope
+     */
+    private void tryProcessEnvelope(BlobContainerClient blobContainer, Envelope envelope) {
+        try {
+            uploadLimiter.run(envelope.getJurisdiction(), () -> processEnvelope(blobContainer, envelope));
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            log.warn(
+                "Interrupted while waiting to upload documents. Container: {}, File: {}",
+                blobContainer.getBlobContainerName(),
+                envelope.getZipFileName()
+            );
+        }
+    }
+
     /**
      * Processes envelope.
      * @param blobContainer The blob container
@@ -129,6 +164,47 @@ public class UploadEnvelopeDocumentsService {
         }
     }
 
+    /**
+     * Uploads documents already extracted from the zip file while its envelope was being created.
+     * Must be called while the blob is leased. Any failure is logged and the envelope is left
+     * for {@link uk.gov.hmcts.reform.bulkscanprocessor.tasks.UploadEnvelopeDocumentsTask} to retry.
+     * @param envelope The envelope
+     * @param pdfs The extracted PDF files
+     */
+    public void uploadExtractedDocuments(Envelope envelope, List<ExtractedPdf> pdfs) {
+        try {
+            zipFileProcessor.checkFileSizeAgainstUploadLimit(pdfs);
+        } catch (FileSizeExceedMaxUploadLimit exception) {
+            // rejection of the blob is left to the upload task
+            log.warn(
+                "PDF size exceeds max upload limit, skipping single pass upload. File: {}, Envelope ID: {}",
+                envelope.getZipFileName(),
+                envelope.getId()
+            );
+            return;
+        }
+
+        try {
+            uploadLimiter.run(envelope.getJurisdiction(), () -> uploadParsedZipFileName(envelope, pdfs));
+            envelopeProcessor.handleEvent(envelope, DOC_UPLOADED);
+
+            log.info(
+                "Finished single pass upload of docs. File: {}, container: {}, EnvelopeId: {}",
+                envelope.getZipFileName(),
+                envelope.getContainer(),
+                envelope.getId()
+            );
+        } catch (Exception exception) {
+            log.error(
+                "Single pass upload failed, leaving envelope for upload task. File: {}, Container: {}, Envelope ID: {}",
+                envelope.getZipFileName(),
+                envelope.getContainer(),
+                envelope.getId(),
+                exception
+            );
+        }
+    }
+
     /**
      * Uploads documents.
      * @param blobClient The blob client
@@ -165,8 +241,20 @@ public class UploadEnvelopeDocumentsService {
     ) {
         String zipFileName = envelope.getZipFileName();
         UUID envelopeId = envelope.getId();
-        try (ZipInputStream zis = new ZipInputStream(blobClient.openInputStream())) {
-            zipFileProcessor.extractPdfFiles(zis, zipFileName, pdfList -> uploadParsedZipFileName(envelope, pdfList));
+        // extraction is timed up to the point PDFs are handed over for upload, which is timed on its own
+        Timer.Sample extraction = stageMetrics.start();
+        AtomicBoolean extracted = new AtomicBoolean();
+        try (
+            ZipInputStream zis = new ZipInputStream(
+                stageMetrics.meterDownload(blobClient.openInputStream(), containerName)
+            )
+        ) {
+            zipFileProcessor.extractPdfFiles(zis, zipFileName, pdfList -> {
+                extracted.set(true);
+                stageMetrics.stop(extraction, PDF_EXTRACTION, containerName, SUCCESS);
+                stageMetrics.countItems(PDF_EXTRACTION, containerName, pdfList.size());
+                uploadParsedZipFileName(envelope, pdfList);
+            });
         } catch (FileSizeExceedMaxUploadLimit exception) {
             String message = String.format(
                 "PDF size exceeds max upload limit. Container: %s, File: %s, Envelope ID:  %s",
@@ -187,6 +275,10 @@ public class UploadEnvelopeDocumentsService {
 
             createDocUploadFailureEvent(containerName, zipFileName, exception.getMessage(), envelopeId);
             throw new FailedUploadException(message, exception);
+        } finally {
+            if (!extracted.get()) {
+                stageMetrics.stop(extraction, PDF_EXTRACTION, containerName, FAILURE);
+            }
         }
     }
 
@@ -196,14 +288,23 @@ public class UploadEnvelopeDocumentsService {
      * @param pdfs The PDFs
      * @throws FailedUploadException If the upload fails
      */
-    private void uploadParsedZipFileName(Envelope envelope, List<File> pdfs) {
+    private void uploadParsedZipFileName(Envelope envelope, List<ExtractedPdf> pdfs) {
         try {
 
-            documentProcessor.uploadPdfFiles(
-                pdfs,
-                envelope.getScannableItems(),
-                envelope.getJurisdiction(),
-                envelope.getContainer()
+            stageMetrics.run(
+                CDAM_UPLOAD,
+                envelope.getContainer(),
+                () -> documentProcessor.uploadPdfFiles(
+                    pdfs,
+                    envelope.getScannableItems(),
+                    envelope.getJurisdiction(),
+                    envelope.getContainer()
+                )
+            );
+            stageMetrics.recordSize(
+                CDAM_UPLOAD,
+                envelope.getContainer(),
+                pdfs.stream().mapToLong(ExtractedPdf::getSize).sum()
             );
 
             log.info(
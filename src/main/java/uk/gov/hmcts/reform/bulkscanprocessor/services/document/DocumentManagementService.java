@@ -1,23 +1,36 @@
 package uk.gov.hmcts.reform.bulkscanprocessor.services.document;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.util.LinkedMultiValueMap;
 import org.springframework.util.MultiValueMap;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.client.HttpStatusCodeException;
 import org.springframework.web.client.RestTemplate;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.DocumentUrlNotRetrievedException;
+import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.DocumentsPartiallyUploadedException;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.UnableToUploadDocumentException;
+import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ExtractedPdf;
 import uk.gov.hmcts.reform.ccd.document.am.model.Classification;
 
-import java.io.File;
+import java.net.ConnectException;
+import java.time.Duration;
 import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static java.util.stream.Collectors.toMap;
@@ -25,6 +38,7 @@ import static org.springframework.http.MediaType.MULTIPART_FORM_DATA_VALUE;
 
 /**
  * Service to upload documents to document management service.
+ * Records the latency and the size of every upload request, tagged with the jurisdiction.
  */
 @Service
 public class DocumentManagementService {
@@ -34,36 +48,57 @@ public class DocumentManagementService {
     private final DocumentServiceHelper documentServiceHelper;
     private final RestTemplate restTemplate;
     private final String docUploadUrl;
+    private final MeterRegistry meterRegistry;
+    private final DataSize maxBatchSize;
+    private final int maxBatchAttempts;
+    private final Duration batchRetryDelay;
 
     private static final String CLASSIFICATION = "classification";
     private static final String FILES = "files";
     private static final String SERVICE_AUTHORIZATION = "ServiceAuthorization";
+    private static final String UPLOAD_TIMER = "cdam.upload";
+    private static final String UPLOAD_SIZE_SUMMARY = "cdam.upload.size";
 
     /**
      * Constructor for DocumentManagementService.
      * @param documentServiceHelper The document service helper
      * @param dmUrl The document management URL
      * @param restTemplate The rest template
+     * @param meterRegistry The meter registry
+     * @param maxBatchSize The maximum total size of documents sent in a single request
+     * @param maxBatchAttempts The maximum number of attempts to upload a batch
+     * @param batchRetryDelay The delay before a failed batch is uploaded again
      */
     public DocumentManagementService(
         DocumentServiceHelper documentServiceHelper,
         @Value("${case_document_am.url}") String dmUrl,
-        RestTemplate restTemplate
+        RestTemplate restTemplate,
+        MeterRegistry meterRegistry,
+        @Value("${case_document_am.upload_batch.max_size}") DataSize maxBatchSize,
+        @Value("${case_document_am.upload_batch.max_attempts}") int maxBatchAttempts,
+        @Value("${case_document_am.upload_batch.retry_delay}") Duration batchRetryDelay
     ) {
         this.documentServiceHelper = documentServiceHelper;
         this.restTemplate = restTemplate;
         this.docUploadUrl = dmUrl + "" + "/cases/documents";
+        this.meterRegistry = meterRegistry;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchAttempts = maxBatchAttempts;
+        this.batchRetryDelay = batchRetryDelay;
     }
 
     /**
      * Uploads the given documents to document management service.
+     * Documents are sent in batches of bounded size and a failed batch is retried on its own,
+     * so a failure does not require the documents of other batches to be sent again.
      * @param pdfs list of PDF files to upload
      * @param jurisdiction jurisdiction of the case
      * @param container container of the case
      * @return map of document names and their URLs
+     * @throws DocumentsPartiallyUploadedException if a batch fails after other batches were uploaded
      */
     public Map<String, String> uploadDocuments(
-        List<File> pdfs,
+        List<ExtractedPdf> pdfs,
         String jurisdiction,
         String container
     ) {
@@ -72,7 +107,99 @@ public class DocumentManagementService {
             jurisdiction,
             container
         );
+
+        Map<String, String> response = new HashMap<>();
+        List<List<ExtractedPdf>> batches = splitIntoBatches(pdfs);
+        for (List<ExtractedPdf> batch : batches) {
+            try {
+                response.putAll(uploadBatch(batch, jurisdiction, credential));
+            } catch (RuntimeException exception) {
+                if (response.isEmpty()) {
+                    throw exception;
+                }
+                throw new DocumentsPartiallyUploadedException(response, exception);
+            }
+        }
+
+        if (batches.size() > 1) {
+            log.info("Uploaded {} documents to CDAM in {} batches", pdfs.size(), batches.size());
+        }
+        return response;
+    }
+
+    /**
+     * Splits the documents into batches whose total size does not exceed the max batch size.
+     * A document bigger than the max batch size is sent in a batch of its own.
+     * @param pdfs list of PDF files to upload
+     * @return the batches, in the order of the documents
+     */
+    private List<List<ExtractedPdf>> splitIntoBatches(List<ExtractedPdf> pdfs) {
+        List<List<ExtractedPdf>> batches = new ArrayList<>();
+        List<ExtractedPdf> batch = new ArrayList<>();
+        long batchSize = 0;
+
+        for (ExtractedPdf pdf : pdfs) {
+            if (!batch.isEmpty() && batchSize + pdf.getSize() > maxBatchSize.toBytes()) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+                batchSize = 0;
+            }
+            batch.add(pdf);
+            batchSize += pdf.getSize();
+        }
+
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    /**
+     * Uploads a batch of documents, retrying it when the upload failed before the request was processed.
+     * Other failures are not retried, as the documents may have been created already.
+     * @param pdfs list of PDF files in the batch
+     * @param jurisdiction jurisdiction of the case
+     * @param credential the credential
+     * @return map of document names and their URLs
+     */
+    private Map<String, String> uploadBatch(
+        List<ExtractedPdf> pdfs,
+        String jurisdiction,
+        DocumentUploadCredential credential
+    ) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return uploadBatchOnce(pdfs, jurisdiction, credential);
+            } catch (UnableToUploadDocumentException exception) {
+                if (attempt >= maxBatchAttempts || !isRetryable(exception.getCause())) {
+                    throw exception;
+                }
+                log.warn(
+                    "Failed to upload batch of {} documents to CDAM, retrying. Attempt: {}, jurisdiction: {}",
+                    pdfs.size(),
+                    attempt,
+                    jurisdiction
+                );
+                waitBeforeRetry(exception);
+            }
+        }
+    }
+
+    /**
+     * Uploads a batch of documents in a single request.
+     * @param pdfs list of PDF files in the batch
+     * @param jurisdiction jurisdiction of the case
+     * @param credential the credential
+     * @return map of document names and their URLs
+     */
+    private Map<String, String> uploadBatchOnce(
+        List<ExtractedPdf> pdfs,
+        String jurisdiction,
+        DocumentUploadCredential credential
+    ) {
         UploadResponse upload = null;
+        long size = pdfs.stream().mapToLong(ExtractedPdf::getSize).sum();
+        Timer.Sample sample = Timer.start(meterRegistry);
 
         try {
             upload = uploadDocs(
@@ -80,13 +207,22 @@ public class DocumentManagementService {
                 credential
             );
         } catch (Exception exception) {
+            recordUpload(sample, jurisdiction, "failure", size);
             log.error("Exception occurred while uploading documents ", exception);
             throw new UnableToUploadDocumentException(exception.getMessage(), exception);
         }
+        long durationNanos = recordUpload(sample, jurisdiction, "success", size);
+        log.info(
+            "Uploaded {} documents to CDAM. Jurisdiction: {}, size: {} bytes, time: {} ms",
+            pdfs.size(),
+            jurisdiction,
+            size,
+            TimeUnit.NANOSECONDS.toMillis(durationNanos)
+        );
         List<Document> documents;
         if (upload == null || (documents = upload.getDocuments()) == null) {
             throw new DocumentUrlNotRetrievedException(
-                pdfs.stream().map(File::getName).collect(Collectors.toSet())
+                pdfs.stream().map(ExtractedPdf::getName).collect(Collectors.toSet())
             );
         }
 
@@ -99,6 +235,67 @@ public class DocumentManagementService {
         return createFileUploadResponse(documents);
     }
 
+    /**
+     * Checks if an upload failed before the request was processed, so sending it again cannot create
+     * the documents twice. That is the case when no connection could be made or taken from the pool,
+     * or when the request was turned away with a throttling or unavailable status.
+     * @param cause the cause of the failure
+     * @return true if the upload can be retried
+     */
+    private static boolean isRetryable(Throwable cause) {
+        if (cause instanceof HttpStatusCodeException statusError) {
+            return statusError.getStatusCode() == HttpStatus.TOO_MANY_REQUESTS
+                || statusError.getStatusCode() == HttpStatus.SERVICE_UNAVAILABLE;
+        }
+
+        for (Throwable error = cause; error != null; error = error.getCause()) {
+            if (error instanceof ConnectException
+                || error instanceof ConnectTimeoutException
+                || error instanceof ConnectionRequestTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Waits for the retry delay.
+     * @param failure the failure of the previous attempt, rethrown if interrupted
+     */
+    private void waitBeforeRetry(UnableToUploadDocumentException failure) {
+        try {
+            Thread.sleep(batchRetryDelay.toMillis());
+        } catch (InterruptedException interruptedException) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+
+    /**
+     * Records the latency and the size of an upload.
+     * Throughput can be derived from the two.
+     * @param sample the sample started before the upload
+     * @param jurisdiction jurisdiction of the case
+     * @param outcome outcome of the upload
+     * @param size total size of the uploaded documents in bytes
+     * @return the duration of the upload in nanoseconds
+     */
+    private long recordUpload(Timer.Sample sample, String jurisdiction, String outcome, long size) {
+        DistributionSummary.builder(UPLOAD_SIZE_SUMMARY)
+            .baseUnit("bytes")
+            .tag("jurisdiction", jurisdiction)
+            .tag("outcome", outcome)
+            .register(meterRegistry)
+            .record(size);
+
+        return sample.stop(
+            Timer.builder(UPLOAD_TIMER)
+                .tag("jurisdiction", jurisdiction)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+        );
+    }
+
     /**
      * Creates a response for the given document.
      * @param document the document
@@ -129,7 +326,7 @@ public class DocumentManagementService {
      * @return the upload response
      */
     private UploadResponse uploadDocs(
-        List<File> pdfs,
+        List<ExtractedPdf> pdfs,
         DocumentUploadCredential credential
     ) {
         Classification classification = Classification.RESTRICTED;
@@ -168,14 +365,14 @@ public class DocumentManagementService {
      * @return the request
      */
     private static MultiValueMap<String, Object> prepareRequest(
-        List<File> pdfs,
+        List<ExtractedPdf> pdfs,
         Classification classification,
         String caseType,
         String jurisdiction
     ) {
         MultiValueMap<String, Object> parameters = new LinkedMultiValueMap<>();
         pdfs.stream()
-            .map(FileSystemResource::new)
+            .map(ExtractedPdf::toResource)
             .forEach(file -> parameters.add(FILES, file));
         parameters.add(CLASSIFICATION, classification.name());
         parameters.add("caseTypeId", caseType);
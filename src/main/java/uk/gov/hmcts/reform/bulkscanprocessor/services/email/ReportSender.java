@@ -6,19 +6,17 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ByteArrayResource;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.reports.ReportsService;
-import uk.gov.hmcts.reform.bulkscanprocessor.services.reports.models.ZipFileSummaryResponse;
-import uk.gov.hmcts.reform.bulkscanprocessor.util.CsvWriter;
 
-import java.io.File;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.time.LocalDate;
 import java.util.Arrays;
-import java.util.List;
 
 /**
  * Sends daily report to configured recipients.
@@ -91,12 +89,14 @@ public class ReportSender {
 
     /**
      * Gets the CSV report.
+     * The CSV is written straight from the database rows into memory, without a temporary file.
      * @return The CSV report
      * @throws IOException If an I/O error occurs
      */
-    private File getCsvReport() throws IOException {
-        List<ZipFileSummaryResponse> reportDate = reportsService.getZipFilesSummary(getPreviousDay(), null, null);
-        return CsvWriter.writeZipFilesSummaryToCsv(reportDate);
+    private ByteArrayResource getCsvReport() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        reportsService.writeZipFilesSummaryCsv(getPreviousDay(), null, outputStream, false);
+        return new ByteArrayResource(outputStream.toByteArray());
     }
 
     /**
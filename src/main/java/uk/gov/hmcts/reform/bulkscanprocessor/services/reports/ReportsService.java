@@ -3,6 +3,7 @@ package uk.gov.hmcts.reform.bulkscanprocessor.services.reports;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.reports.EnvelopeCountSummaryItem;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.reports.EnvelopeCountSummaryRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.reports.ZipFileSummary;
@@ -11,7 +12,10 @@ import uk.gov.hmcts.reform.bulkscanprocessor.model.common.Classification;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.reports.models.EnvelopeCountSummary;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.reports.models.ZipFileSummaryResponse;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.reports.utils.ZeroRowFiller;
+import uk.gov.hmcts.reform.bulkscanprocessor.util.CsvWriter;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -19,7 +23,7 @@ import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Objects;
-import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import static java.util.stream.Collectors.toList;
 import static org.apache.commons.lang3.StringUtils.isEmpty;
@@ -91,8 +95,10 @@ public class ReportsService {
 
     /**
      * Get zip files summary for the given date and container.
+     * Container and classification are filtered by the query.
      * @param date      zip file received date
      * @param container to filter the zip files when container value is provided
+     * @param classification to filter the zip files when classification value is provided
      * @return list of zip files summary
      */
     public List<ZipFileSummaryResponse> getZipFilesSummary(
@@ -100,16 +106,39 @@ public class ReportsService {
         String container,
         Classification classification
     ) {
-        Predicate<ZipFileSummaryResponse> predicate =
-            summary -> isEmpty(container) || summary.container.equalsIgnoreCase(container);
-        if (classification != null) {
-            predicate = predicate.and(summary -> classification.name().equalsIgnoreCase(summary.classification));
+        return zipFilesSummaryRepository
+            .getZipFileSummaryReportFor(
+                date,
+                isEmpty(container) ? null : container,
+                classification == null ? null : classification.name()
+            )
+            .stream()
+            .map(this::fromDbZipfileSummary)
+            .collect(toList());
+    }
+
+    /**
+     * Writes zip files summary for the given date as CSV to the output stream.
+     * Rows are read from the database as they are written, so the report is never held in memory.
+     * @param date zip file received date
+     * @param container to filter the zip files when container value is provided
+     * @param outputStream output stream to write the CSV to
+     * @param gzip whether the CSV is gzip compressed
+     * @throws IOException if the CSV could not be written
+     */
+    @Transactional(readOnly = true)
+    public void writeZipFilesSummaryCsv(
+        LocalDate date,
+        String container,
+        OutputStream outputStream,
+        boolean gzip
+    ) throws IOException {
+        try (
+            Stream<ZipFileSummary> summary = zipFilesSummaryRepository
+                .streamZipFileSummaryReportFor(date, isEmpty(container) ? null : container, null)
+        ) {
+            CsvWriter.writeZipFilesSummaryToCsv(summary.map(this::fromDbZipfileSummary), outputStream, gzip);
         }
-        return zipFilesSummaryRepository.getZipFileSummaryReportFor(date)
-                .stream()
-                .map(this::fromDbZipfileSummary)
-                .filter(predicate)
-                .collect(toList());
     }
 
     /**
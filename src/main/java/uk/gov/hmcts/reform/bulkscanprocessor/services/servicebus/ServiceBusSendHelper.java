@@ -3,18 +3,26 @@ package uk.gov.hmcts.reform.bulkscanprocessor.services.servicebus;
 import com.azure.core.util.BinaryData;
 import com.azure.messaging.servicebus.ServiceBusException;
 import com.azure.messaging.servicebus.ServiceBusMessage;
+import com.azure.messaging.servicebus.ServiceBusMessageBatch;
 import com.azure.messaging.servicebus.ServiceBusSenderClient;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.base.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.InvalidMessageException;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.out.msg.Msg;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Helper class to send messages to Service Bus.
  */
 public class ServiceBusSendHelper {
 
+    private static final Logger log = LoggerFactory.getLogger(ServiceBusSendHelper.class);
+
     private final ServiceBusSenderClient sendClient;
 
     private final ObjectMapper objectMapper;
@@ -43,6 +51,101 @@ public class ServiceBusSendHelper {
         }
     }
 
+    /**
+     * Sends messages to the service bus in as few batches as possible.
+     * A message which cannot be mapped or does not fit in a batch does not stop the others from being sent.
+     * When a batch fails to be sent, its messages are sent one by one, so one bad message only fails itself.
+     * Any other failure to create or send a batch stops sending, and the messages sent until then are returned,
+     * so they are not taken as failed.
+     * @param msgs The messages to send
+     * @param <T> The type of messages
+     * @return The messages which were sent
+     */
+    public <T extends Msg> List<T> sendMessages(List<T> msgs) {
+        List<T> sent = new ArrayList<>();
+        List<T> batchMsgs = new ArrayList<>();
+        ServiceBusMessageBatch batch = createMessageBatch();
+        if (batch == null) {
+            return sent;
+        }
+
+        for (T msg : msgs) {
+            ServiceBusMessage busMessage;
+            try {
+                busMessage = mapToBusMessage(msg);
+            } catch (InvalidMessageException e) {
+                log.error("Unable to create message {}", msg.getMsgId(), e);
+                continue;
+            }
+
+            if (!batch.tryAddMessage(busMessage)) {
+                if (!sendBatch(batch, batchMsgs, sent)) {
+                    return sent;
+                }
+                batch = createMessageBatch();
+                if (batch == null) {
+                    return sent;
+                }
+                batchMsgs = new ArrayList<>();
+
+                if (!batch.tryAddMessage(busMessage)) {
+                    log.error("Message {} is too large to be sent", msg.getMsgId());
+                    continue;
+                }
+            }
+            batchMsgs.add(msg);
+        }
+        sendBatch(batch, batchMsgs, sent);
+
+        return sent;
+    }
+
+    /**
+     * Creates an empty message batch.
+     * @return The batch, or null if it could not be created
+     */
+    private ServiceBusMessageBatch createMessageBatch() {
+        try {
+            return sendClient.createMessageBatch();
+        } catch (RuntimeException e) {
+            log.error("Unable to create message batch", e);
+            return null;
+        }
+    }
+
+    /**
+     * Sends a batch of messages, falling back to sending them one by one if the batch fails.
+     * @param batch The batch
+     * @param batchMsgs The messages in the batch
+     * @param sent The messages sent so far, which the sent messages are added to
+     * @param <T> The type of messages
+     * @return false if the batch failed in a way which should stop sending
+     */
+    private <T extends Msg> boolean sendBatch(ServiceBusMessageBatch batch, List<T> batchMsgs, List<T> sent) {
+        if (batchMsgs.isEmpty()) {
+            return true;
+        }
+
+        try {
+            sendClient.sendMessages(batch);
+            sent.addAll(batchMsgs);
+        } catch (ServiceBusException e) {
+            log.warn("Unable to send batch of {} messages, sending them one by one", batchMsgs.size(), e);
+            for (T msg : batchMsgs) {
+                try {
+                    sendMessage(msg);
+                    sent.add(msg);
+                } catch (InvalidMessageException ex) {
+                    log.error("Unable to send message {}", msg.getMsgId(), ex);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Unable to send batch of {} messages", batchMsgs.size(), e);
+            return false;
+        }
+        return true;
+    }
+
     /**
      * Maps a message to a ServiceBusMessage.
      * @param msg The message to map
@@ -0,0 +1,172 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.services.storage;
+
+import com.azure.core.http.rest.Response;
+import com.azure.core.util.Context;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.batch.BlobBatch;
+import com.azure.storage.blob.batch.BlobBatchClient;
+import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.BlobRequestConditions;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.CopyStatusType;
+import com.azure.storage.blob.models.DeleteSnapshotsOptionType;
+import com.azure.storage.common.Utility;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static com.azure.storage.blob.models.BlobErrorCode.BLOB_NOT_FOUND;
+import static org.slf4j.LoggerFactory.getLogger;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseAcquirer.META_DATA_WAIT_COPY;
+
+/**
+ * Deletes blobs, with their snapshots, using batch requests of up to {@value #MAX_BATCH_SIZE} deletes.
+ * Blobs are checked with the properties and metadata they were listed with instead of being leased one by one.
+ * Leased blobs and blobs being copied are skipped, and each delete is conditional on the etag
+ * of the listed blob, so a blob leased after it was listed is not deleted.
+ */
+@Component
+public class BlobBatchDeleter {
+
+    private static final Logger logger = getLogger(BlobBatchDeleter.class);
+
+    // largest number of sub-requests the Blob Batch API accepts
+    public static final int MAX_BATCH_SIZE = 256;
+
+    private final BlobBatchClient blobBatchClient;
+    private final LeaseMetaDataChecker leaseMetaDataChecker;
+
+    /**
+     * Constructor for BlobBatchDeleter.
+     * @param blobBatchClient The blob batch client
+     * @param leaseMetaDataChecker The lease metadata checker
+     */
+    public BlobBatchDeleter(BlobBatchClient blobBatchClient, LeaseMetaDataChecker leaseMetaDataChecker) {
+        this.blobBatchClient = blobBatchClient;
+        this.leaseMetaDataChecker = leaseMetaDataChecker;
+    }
+
+    /**
+     * Deletes the blobs from the container.
+     * The blobs must be listed with their metadata, to skip the leased ones.
+     * @param container The container
+     * @param blobItems The blobs to delete
+     * @return names of the blobs deleted or found deleted already
+     */
+    public Set<String> deleteBlobs(BlobContainerClient container, List<BlobItem> blobItems) {
+        String containerName = container.getBlobContainerName();
+        List<BlobItem> deletable = new ArrayList<>();
+        for (BlobItem blobItem : blobItems) {
+            if (canDelete(blobItem)) {
+                deletable.add(blobItem);
+            } else {
+                logger.info(
+                    "Skipping deletion of blob {} in container {}, it is leased or being copied",
+                    blobItem.getName(),
+                    containerName
+                );
+            }
+        }
+
+        Set<String> deleted = new HashSet<>();
+        for (int from = 0; from < deletable.size(); from += MAX_BATCH_SIZE) {
+            List<BlobItem> batchItems = deletable.subList(from, Math.min(from + MAX_BATCH_SIZE, deletable.size()));
+            try {
+                deleted.addAll(deleteBatch(container, batchItems));
+            } catch (Exception exc) {
+                logger.error(
+                    "Failed to submit batch deleting {} blobs from container {}",
+                    batchItems.size(),
+                    containerName,
+                    exc
+                );
+            }
+        }
+
+        logger.info(
+            "Deleted {} of {} blobs from container {} in batches",
+            deleted.size(),
+            blobItems.size(),
+            containerName
+        );
+        return deleted;
+    }
+
+    /**
+     * Deletes the blobs with a single batch request.
+     * @param container The container
+     * @param blobItems The blobs to delete, no more than {@value #MAX_BATCH_SIZE}
+     * @return names of the blobs deleted or found deleted already
+     */
+    private Set<String> deleteBatch(BlobContainerClient container, List<BlobItem> blobItems) {
+        BlobBatch batch = blobBatchClient.getBlobBatch();
+        Map<String, Response<Void>> responses = new LinkedHashMap<>();
+        for (BlobItem blobItem : blobItems) {
+            responses.put(
+                blobItem.getName(),
+                batch.deleteBlob(
+                    container.getBlobContainerUrl() + "/" + Utility.urlEncode(blobItem.getName()),
+                    DeleteSnapshotsOptionType.INCLUDE,
+                    ifMatch(blobItem)
+                )
+            );
+        }
+
+        // failed deletes are read from their responses instead of failing the whole batch
+        blobBatchClient.submitBatchWithResponse(batch, false, null, Context.NONE);
+
+        Set<String> deleted = new HashSet<>();
+        responses.forEach((blobName, response) -> {
+            try {
+                response.getStatusCode();
+                deleted.add(blobName);
+            } catch (BlobStorageException exc) {
+                if (exc.getErrorCode() == BLOB_NOT_FOUND) {
+                    deleted.add(blobName);
+                } else {
+                    logger.warn(
+                        "Unable to delete blob {} from container {}. Error code: {}",
+                        blobName,
+                        container.getBlobContainerName(),
+                        exc.getErrorCode()
+                    );
+                }
+            }
+        });
+        return deleted;
+    }
+
+    /**
+     * Checks if the blob can be deleted according to the properties and metadata it was listed with.
+     * @param blobItem The blob item
+     * @return true if the blob is neither leased nor being copied, false otherwise
+     */
+    private boolean canDelete(BlobItem blobItem) {
+        Map<String, String> metadata = blobItem.getMetadata();
+        CopyStatusType copyStatus = blobItem.getProperties() == null ? null : blobItem.getProperties().getCopyStatus();
+
+        return (copyStatus == null || copyStatus == CopyStatusType.SUCCESS)
+            && (metadata == null || metadata.get(META_DATA_WAIT_COPY) == null)
+            && !leaseMetaDataChecker.isLeased(metadata);
+    }
+
+    /**
+     * Gets the conditions deleting the blob only if it did not change since it was listed.
+     * @param blobItem The blob item
+     * @return The request conditions
+     */
+    private static BlobRequestConditions ifMatch(BlobItem blobItem) {
+        BlobRequestConditions conditions = new BlobRequestConditions();
+        String etag = blobItem.getProperties() == null ? null : blobItem.getProperties().getETag();
+        if (etag != null) {
+            conditions.setIfMatch(etag.startsWith("\"") ? etag : "\"" + etag + "\"");
+        }
+        return conditions;
+    }
+}
@@ -0,0 +1,194 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.services.storage;
+
+import com.azure.core.http.rest.PagedResponse;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.ListBlobsOptions;
+import com.google.common.base.Strings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.FileNamesExtractor.getShuffledZipFileNames;
+
+/**
+ * Keeps track of the blobs in input containers between scans.
+ * Blobs known to be processed already are not handed out again unless they change,
+ * so a backlog of processed blobs waiting for deletion is not looked at on every scan.
+ * Processed blobs are skipped for a limited time only, after which they are handed out again and checked
+ * for an envelope, so a blob whose envelope has been deleted is picked up again.
+ * The inventory is kept in memory, so each node builds its own.
+ */
+@Component
+public class BlobInventory {
+
+    private static final Logger log = LoggerFactory.getLogger(BlobInventory.class);
+
+    private final int pageSize;
+    private final boolean enabled;
+    private final Duration processedBlobTtl;
+
+    // blobs processed already, by container, with the version they had when found processed
+    private final Map<String, Map<String, ProcessedBlob>> processedBlobs = new ConcurrentHashMap<>();
+
+    // blobs handed out by the last listing, by container
+    private final Map<String, Map<String, BlobVersion>> listedBlobs = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for the BlobInventory.
+     * @param pageSize The number of blobs listed in a single request
+     * @param enabled Whether unchanged processed blobs are skipped. If not, all blobs are handed out on every scan
+     * @param processedBlobTtl The time a processed blob is skipped for before it is handed out again
+     */
+    public BlobInventory(
+        @Value("${scheduling.task.scan.list_page_size}") int pageSize,
+        @Value("${scheduling.task.scan.incremental_listing_enabled}") boolean enabled,
+        @Value("${scheduling.task.scan.processed_blob_ttl}") Duration processedBlobTtl
+    ) {
+        this.pageSize = pageSize;
+        this.enabled = enabled;
+        this.processedBlobTtl = processedBlobTtl;
+    }
+
+    /**
+     * Gets the number of blobs listed in a single request.
+     * @return The page size
+     */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    /**
+     * Lists the zip files of the container which are new, changed, or not known to be processed yet.
+     * Processed blobs are listed again once they have been skipped for the TTL.
+     * Blobs are listed page by page, following continuation tokens.
+     * @param container The container
+     * @return The zip file names, shuffled to minimise lease acquire contention between nodes
+     */
+    public List<String> getNewOrChangedZipFileNames(BlobContainerClient container) {
+        if (!enabled) {
+            return getShuffledZipFileNames(container);
+        }
+
+        String containerName = container.getBlobContainerName();
+        Map<String, ProcessedBlob> processed = processedBlobs.getOrDefault(containerName, Map.of());
+        Map<String, ProcessedBlob> stillProcessed = new ConcurrentHashMap<>();
+        Instant now = Instant.now();
+        Map<String, BlobVersion> listed = new ConcurrentHashMap<>();
+        List<String> zipFileNames = new ArrayList<>();
+
+        var options = new ListBlobsOptions().setMaxResultsPerPage(pageSize);
+        for (PagedResponse<BlobItem> page : container.listBlobs(options, null).iterableByPage()) {
+            for (BlobItem blob : page.getValue()) {
+                if (Strings.isNullOrEmpty(blob.getName())) {
+                    log.error("Filename name is empty or null.");
+                    continue;
+                }
+
+                BlobVersion version = BlobVersion.of(blob);
+                ProcessedBlob processedBlob = processed.get(blob.getName());
+                if (processedBlob != null && processedBlob.isSkipped(version, now)) {
+                    stillProcessed.put(blob.getName(), processedBlob);
+                } else {
+                    listed.put(blob.getName(), version);
+                    zipFileNames.add(blob.getName());
+                }
+            }
+        }
+
+        // blobs no longer in the container, or skipped for the TTL, are forgotten
+        processedBlobs.put(containerName, stillProcessed);
+        listedBlobs.put(containerName, listed);
+
+        log.info(
+            "Listed container {}. New or changed blobs: {}, unchanged processed blobs skipped: {}",
+            containerName,
+            zipFileNames.size(),
+            stillProcessed.size()
+        );
+
+        Collections.shuffle(zipFileNames);
+        return zipFileNames;
+    }
+
+    /**
+     * Records that the zip file has been processed already,
+     * so it is not handed out again until it changes or the TTL elapses.
+     * @param containerName The container name
+     * @param zipFileName The zip file name
+     */
+    public void markProcessed(String containerName, String zipFileName) {
+        if (!enabled) {
+            return;
+        }
+
+        BlobVersion version = listedBlobs.getOrDefault(containerName, Map.of()).get(zipFileName);
+        if (version != null) {
+            processedBlobs
+                .computeIfAbsent(containerName, key -> new ConcurrentHashMap<>())
+                .put(zipFileName, new ProcessedBlob(version, Instant.now().plus(processedBlobTtl)));
+        }
+    }
+
+    /**
+     * Version of a processed blob and the time until which it is skipped.
+     */
+    private static final class ProcessedBlob {
+        private final BlobVersion version;
+        private final Instant skippedUntil;
+
+        private ProcessedBlob(BlobVersion version, Instant skippedUntil) {
+            this.version = version;
+            this.skippedUntil = skippedUntil;
+        }
+
+        boolean isSkipped(BlobVersion currentVersion, Instant now) {
+            return version.equals(currentVersion) && now.isBefore(skippedUntil);
+        }
+    }
+
+    /**
+     * ETag and last modified time of a blob.
+     */
+    private static final class BlobVersion {
+        private final String etag;
+        private final OffsetDateTime lastModified;
+
+        private BlobVersion(String etag, OffsetDateTime lastModified) {
+            this.etag = etag;
+            this.lastModified = lastModified;
+        }
+
+        static BlobVersion of(BlobItem blob) {
+            return new BlobVersion(blob.getProperties().getETag(), blob.getProperties().getLastModified());
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (this == other) {
+                return true;
+            }
+            if (!(other instanceof BlobVersion)) {
+                return false;
+            }
+            BlobVersion that = (BlobVersion) other;
+            return Objects.equals(etag, that.etag) && Objects.equals(lastModified, that.lastModified);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(etag, lastModified);
+        }
+    }
+}
@@ -2,40 +2,65 @@ package uk.gov.hmcts.reform.bulkscanprocessor.services.storage;
 
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.models.BlobErrorCode;
+import com.azure.storage.blob.models.BlobProperties;
 import com.azure.storage.blob.models.BlobStorageException;
 import com.azure.storage.blob.specialized.BlobLeaseClient;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import org.apache.http.HttpStatus;
 import org.slf4j.Logger;
 import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics;
 
 import java.util.Map;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import static com.azure.storage.blob.models.BlobErrorCode.BLOB_NOT_FOUND;
 import static com.azure.storage.blob.models.BlobErrorCode.LEASE_ALREADY_PRESENT;
 import static com.azure.storage.blob.models.CopyStatusType.SUCCESS;
 import static org.slf4j.LoggerFactory.getLogger;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.Stage.LEASE_CLAIM;
 import static uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseMetaDataChecker.LEASE_EXPIRATION_TIME;
 
 /**
  * Acquires lease for blobs.
+ * Blob properties are fetched once per lease and the same snapshot is used for all the checks,
+ * the metadata lease and its release.
+ * Blobs waiting to be moved to the rejected container by the {@link RejectedFileMover} are not leased,
+ * and the release of a blob whose move was just queued marks it as pending rejection.
  */
 @Component
 public class LeaseAcquirer {
 
     private static final Logger logger = getLogger(LeaseAcquirer.class);
 
+    private static final String STORAGE_CALLS_SUMMARY = "blob.lease.storage.calls";
+
     private final LeaseMetaDataChecker leaseMetaDataChecker;
+    private final RejectedFileMover rejectedFileMover;
+    private final MeterRegistry meterRegistry;
+    private final StageMetrics stageMetrics;
     public static final String META_DATA_WAIT_COPY =  "waitingCopy";
 
     /**
      * Constructor for LeaseAcquirer.
      * @param leaseMetaDataChecker LeaseMetaDataChecker
+     * @param rejectedFileMover RejectedFileMover
+     * @param meterRegistry MeterRegistry
+     * @param stageMetrics StageMetrics
      */
     public LeaseAcquirer(
-        LeaseMetaDataChecker leaseMetaDataChecker
+        LeaseMetaDataChecker leaseMetaDataChecker,
+        RejectedFileMover rejectedFileMover,
+        MeterRegistry meterRegistry,
+        StageMetrics stageMetrics
     ) {
         this.leaseMetaDataChecker = leaseMetaDataChecker;
+        this.rejectedFileMover = rejectedFileMover;
+        this.meterRegistry = meterRegistry;
+        this.stageMetrics = stageMetrics;
     }
 
     /**
@@ -52,8 +77,34 @@ public class LeaseAcquirer {
         Consumer<BlobErrorCode> onFailure,
         boolean releaseLease
     ) {
-        try {
+        ifAcquiredOrElse(blobClient, blobProperties -> true, onLeaseSuccess, onFailure, releaseLease);
+    }
 
+    /**
+     * Main wrapper for blobs to be leased by {@link BlobLeaseClient}.
+     * The blob is leased only if it can be processed according to its properties, so blobs
+     * which are not ready yet do not cost a lease and its release.
+     *
+     * @param blobClient Represents blob
+     * @param canProcess Check of the blob properties made before the lease is acquired
+     * @param onLeaseSuccess Consumer which takes in {@code leaseId} acquired with {@link BlobLeaseClient}
+     * @param onFailure Extra step to execute in case an error occurred
+     * @param releaseLease Flag whether to release the lease or not
+     */
+    public void ifAcquiredOrElse(
+        BlobClient blobClient,
+        Predicate<BlobProperties> canProcess,
+        Consumer<String> onLeaseSuccess,
+        Consumer<BlobErrorCode> onFailure,
+        boolean releaseLease
+    ) {
+        int storageCalls = 0;
+        String outcome = "skipped";
+        // the claim is timed up to the lease being acquired or given up, the processing is timed on its own
+        Timer.Sample claim = stageMetrics.start();
+        boolean claimRecorded = false;
+        try {
+            storageCalls++;
             var blobProperties  = blobClient.getProperties();
             if (null != blobProperties.getCopyStatus()
                 && blobProperties.getCopyStatus() != SUCCESS) {
@@ -61,7 +112,7 @@ public class LeaseAcquirer {
                     "Copy in progress skipping, file {} in container {}, copy status {}",
                     blobClient.getBlobName(),
                     blobClient.getContainerName(),
-                    blobClient.getProperties().getCopyStatus()
+                    blobProperties.getCopyStatus()
                 );
                 return;
             }
@@ -76,15 +127,36 @@ public class LeaseAcquirer {
                 return;
             }
 
-            boolean isReady = isBlobReady(blobClient, onFailure);
+            if (rejectedFileMover.isPendingRejection(metaData)) {
+                logger.info(
+                    "Move to rejected container pending, skipping file {} in container {}",
+                    blobClient.getBlobName(),
+                    blobClient.getContainerName()
+                );
+                return;
+            }
+
+            if (!canProcess.test(blobProperties)) {
+                return;
+            }
+
+            boolean isReady = isBlobReady(blobClient, blobProperties, onFailure);
 
             if (isReady) {
+                storageCalls++;
+                outcome = "acquired";
+                stageMetrics.stop(claim, LEASE_CLAIM, blobClient.getContainerName(), outcome);
+                claimRecorded = true;
                 onLeaseSuccess.accept(null);
                 if (releaseLease) {
-                    clearMetadataAndReleaseLease(blobClient);
+                    storageCalls++;
+                    clearMetadataAndReleaseLease(blobClient, blobProperties);
                 }
+            } else {
+                outcome = "not_acquired";
             }
         } catch (BlobStorageException exc) {
+            outcome = "error";
 
             String logContext = "Error acquiring lease for blob. "
                 + "File name: " + blobClient.getBlobName()
@@ -99,21 +171,35 @@ public class LeaseAcquirer {
             }
 
             onFailure.accept(exc.getErrorCode());
+        } finally {
+            if (!claimRecorded) {
+                stageMetrics.stop(claim, LEASE_CLAIM, blobClient.getContainerName(), outcome);
+            }
+            DistributionSummary.builder(STORAGE_CALLS_SUMMARY)
+                .description("Blob storage calls made to lease a blob, excluding the processing itself")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(storageCalls);
         }
     }
 
     /**
      * Checks if blob is ready to be leased.
      * @param blobClient Represents blob
+     * @param blobProperties Properties of the blob
      * @param onFailure Extra step to execute in case an error occurred
      * @return boolean
      */
-    private boolean isBlobReady(BlobClient blobClient, Consumer<BlobErrorCode> onFailure) {
+    private boolean isBlobReady(
+        BlobClient blobClient,
+        BlobProperties blobProperties,
+        Consumer<BlobErrorCode> onFailure
+    ) {
         boolean isReady = false;
         BlobErrorCode errorCode = LEASE_ALREADY_PRESENT;
 
         try {
-            isReady = leaseMetaDataChecker.isReadyToUse(blobClient);
+            isReady = leaseMetaDataChecker.isReadyToUse(blobClient, blobProperties);
         } catch (Exception ex) {
             if (ex instanceof BlobStorageException) {
                 errorCode = getErrorCode(blobClient, (BlobStorageException) ex);
@@ -135,15 +221,20 @@ public class LeaseAcquirer {
 
     /**
      * Clears metadata and releases lease.
+     * Metadata of the properties snapshot is used, which holds the lease set on it when the lease was acquired.
+     * If the blob was rejected and its move queued, it is marked as pending rejection with the same request.
      *
      * @param blobClient Represents blob
+     * @param blobProperties Properties of the blob
      */
     private void clearMetadataAndReleaseLease(
-        BlobClient blobClient
+        BlobClient blobClient,
+        BlobProperties blobProperties
     ) {
         try {
-            Map<String, String> blobMetaData = blobClient.getProperties().getMetadata();
+            Map<String, String> blobMetaData = blobProperties.getMetadata();
             blobMetaData.remove(LEASE_EXPIRATION_TIME);
+            rejectedFileMover.markIfQueued(blobClient.getBlobName(), blobClient.getContainerName(), blobMetaData);
             blobClient.setMetadata(blobMetaData);
         } catch (BlobStorageException exc) {
             logger.warn(
@@ -2,6 +2,7 @@ package uk.gov.hmcts.reform.bulkscanprocessor.services.storage;
 
 import com.azure.core.util.Context;
 import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.models.BlobProperties;
 import com.azure.storage.blob.models.BlobRequestConditions;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -40,7 +41,17 @@ public class LeaseMetaDataChecker {
      * @return true if the lease is acquired, false otherwise
      */
     public boolean isReadyToUse(BlobClient blobClient) {
-        var blobProperties = blobClient.getProperties();
+        return isReadyToUse(blobClient, blobClient.getProperties());
+    }
+
+    /**
+     * Checks if the lease is acquired on the blob metadata, using properties already fetched.
+     * When the lease is acquired, it is also set on the metadata of the given properties.
+     * @param blobClient The blob client
+     * @param blobProperties The blob properties
+     * @return true if the lease is acquired, false otherwise
+     */
+    public boolean isReadyToUse(BlobClient blobClient, BlobProperties blobProperties) {
         Map<String, String> blobMetaData = blobProperties.getMetadata();
         String etag = blobProperties.getETag();
 
@@ -79,6 +90,15 @@ public class LeaseMetaDataChecker {
         }
     }
 
+    /**
+     * Checks if the lease is held according to the given metadata, without acquiring it.
+     * @param blobMetaData The blob metadata, null if the blob has none
+     * @return true if the lease is held and not expired, false otherwise
+     */
+    public boolean isLeased(Map<String, String> blobMetaData) {
+        return blobMetaData != null && !isMetaDataLeaseExpired(blobMetaData.get(LEASE_EXPIRATION_TIME));
+    }
+
     /**
      * Checks if the lease is expired.
      * @param leaseExpirationTime The lease expiration time
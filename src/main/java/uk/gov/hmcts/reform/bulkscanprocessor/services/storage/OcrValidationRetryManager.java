@@ -2,6 +2,7 @@ package uk.gov.hmcts.reform.bulkscanprocessor.services.storage;
 
 import com.azure.core.util.Context;
 import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.models.BlobProperties;
 import com.azure.storage.blob.models.BlobRequestConditions;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
@@ -50,7 +51,17 @@ public class OcrValidationRetryManager {
      * @return true if the retry delay has expired, false otherwise
      */
     public boolean canProcess(BlobClient blobClient) {
-        Map<String, String> blobMetaData = blobClient.getProperties().getMetadata();
+        return canProcess(blobClient, blobClient.getProperties());
+    }
+
+    /**
+     * Checks if the retry delay has expired and can process the file, using properties already fetched.
+     * @param blobClient The blob client
+     * @param blobProperties The blob properties
+     * @return true if the retry delay has expired, false otherwise
+     */
+    public boolean canProcess(BlobClient blobClient, BlobProperties blobProperties) {
+        Map<String, String> blobMetaData = blobProperties.getMetadata();
         String retryDelayExpirationTime = blobMetaData.get(RETRY_DELAY_EXPIRATION_TIME_METADATA_PROPERTY);
 
         final boolean retryDelayExpired = isRetryDelayExpired(retryDelayExpirationTime);
@@ -0,0 +1,231 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.services.storage;
+
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.models.BlobErrorCode;
+import com.azure.storage.blob.models.BlobStorageException;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.BlobManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static uk.gov.hmcts.reform.bulkscanprocessor.util.TimeZones.EUROPE_LONDON_ZONE_ID;
+
+/**
+ * Moves rejected files to the rejected containers on dedicated threads, so a burst of invalid files
+ * does not hold the threads processing valid ones.
+ * The processing thread releases the lease of the file once it is done with it, so a queued move is first
+ * tried after a delay and leases the file again before copying it. While the lease is held, by the processing
+ * thread or by another node, the move is retried after a delay. A move which fails releases its lease,
+ * so the next attempt can take it.
+ * A queued file is marked as pending rejection when its lease is released, so it is not processed
+ * and rejected again, by this node or another one, while the move waits. The mark expires once all
+ * attempts to move the file would have been made.
+ * With no threads configured, files are moved on the calling thread, which holds the lease already.
+ */
+@Component
+public class RejectedFileMover {
+
+    private static final Logger log = LoggerFactory.getLogger(RejectedFileMover.class);
+
+    public static final String PENDING_REJECTION = "pendingRejection";
+
+    private final BlobManager blobManager;
+    private final LeaseMetaDataChecker leaseMetaDataChecker;
+    private final int maxAttempts;
+    private final Duration retryDelay;
+    private final ScheduledExecutorService executor;
+
+    // files queued on this node, by container and file name
+    private final Set<String> queued = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Constructor for the RejectedFileMover.
+     * @param blobManager The blob manager
+     * @param leaseMetaDataChecker The lease metadata checker
+     * @param threads The number of threads moving files, 0 to move them on the calling thread
+     * @param maxAttempts The maximum number of attempts to move a queued file
+     * @param retryDelay The delay before a queued file is tried again
+     */
+    public RejectedFileMover(
+        BlobManager blobManager,
+        LeaseMetaDataChecker leaseMetaDataChecker,
+        @Value("${scheduling.task.scan.reject_threads}") int threads,
+        @Value("${scheduling.task.scan.reject_max_attempts}") int maxAttempts,
+        @Value("${scheduling.task.scan.reject_retry_delay}") Duration retryDelay
+    ) {
+        this.blobManager = blobManager;
+        this.leaseMetaDataChecker = leaseMetaDataChecker;
+        this.maxAttempts = maxAttempts;
+        this.retryDelay = retryDelay;
+        this.executor = threads > 0 ? Executors.newScheduledThreadPool(threads) : null;
+    }
+
+    /**
+     * Moves the file to the rejected container, or queues the move if threads are configured.
+     * A file already queued on this node is not queued again.
+     * @param fileName The file name
+     * @param inputContainerName The input container name
+     */
+    public void moveToRejectedContainer(String fileName, String inputContainerName) {
+        if (executor == null) {
+            blobManager.tryMoveFileToRejectedContainer(fileName, inputContainerName);
+            return;
+        }
+
+        if (queued.add(key(fileName, inputContainerName))) {
+            log.info("Queued move of file {} from container {} to rejected container", fileName, inputContainerName);
+            schedule(fileName, inputContainerName, 1);
+        }
+    }
+
+    /**
+     * Marks the file as pending rejection on the given metadata, if its move is queued on this node.
+     * @param fileName The file name
+     * @param inputContainerName The input container name
+     * @param blobMetaData The metadata written to the file when its lease is released
+     */
+    public void markIfQueued(String fileName, String inputContainerName, Map<String, String> blobMetaData) {
+        if (queued.contains(key(fileName, inputContainerName))) {
+            blobMetaData.put(
+                PENDING_REJECTION,
+                LocalDateTime.now(EUROPE_LONDON_ZONE_ID).plus(retryDelay.multipliedBy(maxAttempts + 1L)).toString()
+            );
+        }
+    }
+
+    /**
+     * Checks if the file is pending rejection according to its metadata.
+     * @param blobMetaData The blob metadata, null if the blob has none
+     * @return true if the file is marked as pending rejection and the mark has not expired
+     */
+    public boolean isPendingRejection(Map<String, String> blobMetaData) {
+        String markExpiresAt = blobMetaData == null ? null : blobMetaData.get(PENDING_REJECTION);
+        return !StringUtils.isBlank(markExpiresAt)
+            && LocalDateTime.parse(markExpiresAt).isAfter(LocalDateTime.now(EUROPE_LONDON_ZONE_ID));
+    }
+
+    /**
+     * Stops moving files. Files still queued are left in the input container and rejected again
+     * when they are processed next.
+     */
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Leases the file and moves it, scheduling another attempt if it cannot be moved yet.
+     * @param fileName The file name
+     * @param inputContainerName The input container name
+     * @param attempt The number of the attempt
+     */
+    private void tryMove(String fileName, String inputContainerName, int attempt) {
+        boolean done = true;
+        BlobClient blobClient = null;
+        boolean leased = false;
+        try {
+            blobClient = blobManager.listContainerClient(inputContainerName).getBlobClient(fileName);
+            if (leaseMetaDataChecker.isReadyToUse(blobClient)) {
+                leased = true;
+                blobManager.moveFileToRejectedContainer(fileName, inputContainerName);
+            } else {
+                done = !canRetry(fileName, inputContainerName, attempt, "file is leased");
+            }
+        } catch (BlobStorageException exc) {
+            if (exc.getErrorCode() == BlobErrorCode.BLOB_NOT_FOUND) {
+                // moved by another node in the meantime
+                log.info("Rejected file {} no longer in container {}", fileName, inputContainerName);
+            } else {
+                log.warn("Failed to move rejected file {} from container {}", fileName, inputContainerName, exc);
+                releaseLease(blobClient, leased);
+                done = !canRetry(fileName, inputContainerName, attempt, exc.getErrorCode());
+            }
+        } catch (Exception exc) {
+            log.warn("Failed to move rejected file {} from container {}", fileName, inputContainerName, exc);
+            releaseLease(blobClient, leased);
+            done = !canRetry(fileName, inputContainerName, attempt, exc.getMessage());
+        } finally {
+            if (done) {
+                queued.remove(key(fileName, inputContainerName));
+            }
+        }
+    }
+
+    /**
+     * Schedules another attempt to move the file, unless the maximum number of attempts is reached.
+     * @param fileName The file name
+     * @param inputContainerName The input container name
+     * @param attempt The number of the failed attempt
+     * @param reason The reason of the failure
+     * @return true if another attempt is scheduled
+     */
+    private boolean canRetry(String fileName, String inputContainerName, int attempt, Object reason) {
+        if (attempt >= maxAttempts) {
+            log.error(
+                "Giving up moving rejected file {} from container {} after {} attempts. Reason: {}",
+                fileName,
+                inputContainerName,
+                attempt,
+                reason
+            );
+            return false;
+        }
+
+        schedule(fileName, inputContainerName, attempt + 1);
+        return true;
+    }
+
+    /**
+     * Schedules an attempt to move the file after the retry delay.
+     * @param fileName The file name
+     * @param inputContainerName The input container name
+     * @param attempt The number of the attempt
+     */
+    private void schedule(String fileName, String inputContainerName, int attempt) {
+        executor.schedule(
+            () -> tryMove(fileName, inputContainerName, attempt),
+            retryDelay.toMillis(),
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Releases the lease taken by a failed attempt, so the next attempt is not stopped by it.
+     * @param blobClient The blob client
+     * @param leased Whether the attempt took the lease
+     */
+    private void releaseLease(BlobClient blobClient, boolean leased) {
+        if (!leased) {
+            return;
+        }
+
+        try {
+            leaseMetaDataChecker.clearMetaData(blobClient);
+        } catch (Exception exc) {
+            log.warn(
+                "Failed to release lease of rejected file {} from container {}",
+                blobClient.getBlobName(),
+                blobClient.getContainerName(),
+                exc
+            );
+        }
+    }
+
+    private static String key(String fileName, String inputContainerName) {
+        return inputContainerName + "/" + fileName;
+    }
+}
@@ -4,6 +4,7 @@ import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -11,6 +12,8 @@ import org.springframework.stereotype.Component;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.ZipFileLoadException;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.FileContentProcessor;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.BlobInventory;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseAcquirer;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.OcrValidationRetryManager;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.BlobManager;
@@ -18,11 +21,15 @@ import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.EnvelopeProcessor;
 
 import java.io.IOException;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.zip.ZipInputStream;
 
+import static com.azure.storage.blob.models.BlobErrorCode.BLOB_NOT_FOUND;
 import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.ZIPFILE_PROCESSING_STARTED;
-import static uk.gov.hmcts.reform.bulkscanprocessor.services.FileNamesExtractor.getShuffledZipFileNames;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.Stage.BLOB_LIST;
 
 /**
  * This class is a task executed by Scheduler as per configured interval.
@@ -34,6 +41,9 @@ import static uk.gov.hmcts.reform.bulkscanprocessor.services.FileNamesExtractor.
  * <li>Save PDF files in document storage</li>
  * <li>Update status and doc urls in DB</li>
  * </ol>
+ * Zip files are processed concurrently on virtual threads, bounded per node and per container.
+ * Zip files already processed and waiting for deletion are skipped until they change, see {@link BlobInventory}.
+ * Zip files which already have an envelope are filtered out with a single query per listing page.
  */
 @Component
 @ConditionalOnProperty(value = "scheduling.task.scan.enabled", matchIfMissing = true)
@@ -52,6 +62,16 @@ public class BlobProcessorTask {
 
     private final OcrValidationRetryManager ocrValidationRetryManager;
 
+    private final BlobInventory blobInventory;
+
+    private final StageMetrics stageMetrics;
+
+    private final int maxConcurrency;
+
+    private final int maxConcurrencyPerContainer;
+
+    private final boolean rangedMetadataReadEnabled;
+
     /**
      * Constructor for the BlobProcessorTask.
      * @param blobManager The blob manager
@@ -59,50 +79,159 @@ public class BlobProcessorTask {
      * @param fileContentProcessor The file content processor
      * @param leaseAcquirer The lease acquirer
      * @param ocrValidationRetryManager The OCR validation retry manager
+     * @param blobInventory The inventory of blobs in input containers
+     * @param stageMetrics The metrics of processing stages
+     * @param maxConcurrency The maximum number of zip files processed at once on this node
+     * @param maxConcurrencyPerContainer The maximum number of zip files processed at once per container
+     * @param rangedMetadataReadEnabled Whether only the metadata is downloaded from the zip file
      */
     public BlobProcessorTask(
         BlobManager blobManager,
         EnvelopeProcessor envelopeProcessor,
         FileContentProcessor fileContentProcessor,
         LeaseAcquirer leaseAcquirer,
-        OcrValidationRetryManager ocrValidationRetryManager
+        OcrValidationRetryManager ocrValidationRetryManager,
+        BlobInventory blobInventory,
+        StageMetrics stageMetrics,
+        @Value("${scheduling.task.scan.max_concurrency}") int maxConcurrency,
+        @Value("${scheduling.task.scan.max_concurrency_per_container}") int maxConcurrencyPerContainer,
+        @Value("${scheduling.task.scan.ranged_metadata_read_enabled}") boolean rangedMetadataReadEnabled
     ) {
         this.blobManager = blobManager;
         this.fileContentProcessor = fileContentProcessor;
         this.envelopeProcessor = envelopeProcessor;
         this.leaseAcquirer = leaseAcquirer;
         this.ocrValidationRetryManager = ocrValidationRetryManager;
+        this.blobInventory = blobInventory;
+        this.stageMetrics = stageMetrics;
+        this.maxConcurrency = maxConcurrency;
+        this.maxConcurrencyPerContainer = maxConcurrencyPerContainer;
+        this.rangedMetadataReadEnabled = rangedMetadataReadEnabled;
     }
 
     /**
      * Process blobs from input containers.
+     * Returns once all the zip files picked up in this run have been processed.
      */
     @Scheduled(fixedDelayString = "${scheduling.task.scan.delay}")
     public void processBlobs() {
         log.info("Started blob processing job");
 
-        for (BlobContainerClient container : blobManager.listInputContainerClients()) {
-            processZipFiles(container);
+        Semaphore nodePermits = new Semaphore(maxConcurrency);
+
+        // executors are closed in reverse order: wait for container listings first, then for zip processing
+        try (
+            ExecutorService zipExecutor = Executors.newVirtualThreadPerTaskExecutor();
+            ExecutorService containerExecutor = Executors.newVirtualThreadPerTaskExecutor()
+        ) {
+            for (BlobContainerClient container : blobManager.listInputContainerClients()) {
+                containerExecutor.execute(() -> tryProcessZipFiles(container, zipExecutor, nodePermits));
+            }
         }
 
         log.info("Finished blob processing job");
     }
 
+    /**
+     * Process zip files in the given container, logging any error.
+     * @param container The container
+     * @param zipExecutor The executor to process zip files on
+     * @param nodePermits The permits shared by all containers on this node
+     */
+    private void tryProcessZipFiles(
+        BlobContainerClient container,
+        ExecutorService zipExecutor,
+        Semaphore nodePermits
+    ) {
+        try {
+            processZipFiles(container, zipExecutor, nodePermits);
+        } catch (InterruptedException ex) {
+            log.warn("Interrupted while processing blobs for container {}", container.getBlobContainerName());
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            log.error("Failed to process blobs for container {}", container.getBlobContainerName(), ex);
+        }
+    }
+
     /**
      * Process zip files in the given container.
      * @param container The container
+     * @param zipExecutor The executor to process zip files on
+     * @param nodePermits The permits shared by all containers on this node
+     * @throws InterruptedException If interrupted while waiting for a permit
      */
-    private void processZipFiles(BlobContainerClient container) {
-        log.debug("Processing blobs for container {}", container.getBlobContainerName());
-        List<String> zipFilenames = getShuffledZipFileNames(container);
+    private void processZipFiles(
+        BlobContainerClient container,
+        ExecutorService zipExecutor,
+        Semaphore nodePermits
+    ) throws InterruptedException {
+        String containerName = container.getBlobContainerName();
+        log.debug("Processing blobs for container {}", containerName);
+        List<String> listedZipFilenames = stageMetrics.record(
+            BLOB_LIST,
+            containerName,
+            () -> blobInventory.getNewOrChangedZipFileNames(container)
+        );
+        stageMetrics.countItems(BLOB_LIST, containerName, listedZipFilenames.size());
+
+        List<String> zipFilenames = skipZipFilesWithEnvelope(containerName, listedZipFilenames);
+
+        Semaphore containerPermits = new Semaphore(maxConcurrencyPerContainer);
 
         for (String zipFilename : zipFilenames) {
-            tryProcessZipFile(container, zipFilename);
+            // container permit first so a busy container does not hold node permits other containers could use
+            containerPermits.acquire();
+            try {
+                nodePermits.acquire();
+            } catch (InterruptedException ex) {
+                containerPermits.release();
+                throw ex;
+            }
+
+            zipExecutor.execute(() -> {
+                try {
+                    tryProcessZipFile(container, zipFilename);
+                } finally {
+                    nodePermits.release();
+                    containerPermits.release();
+                }
+            });
         }
 
+        // wait for the zip files still in progress
+        containerPermits.acquire(maxConcurrencyPerContainer);
+
         log.debug("Finished processing blobs for container {}", container.getBlobContainerName());
     }
 
+    /**
+     * Filters out zip files which already have an envelope, checking a whole listing page with a single query.
+     * Such zip files are only waiting to be deleted, so there is no need to look at the blobs.
+     * @param containerName The container name
+     * @param zipFilenames The listed zip file names
+     * @return The zip file names without an envelope
+     */
+    private List<String> skipZipFilesWithEnvelope(String containerName, List<String> zipFilenames) {
+        Set<String> withEnvelope = envelopeProcessor.getZipFileNamesWithEnvelope(
+            containerName,
+            zipFilenames,
+            blobInventory.getPageSize()
+        );
+
+        if (withEnvelope.isEmpty()) {
+            return zipFilenames;
+        }
+
+        withEnvelope.forEach(zipFilename -> blobInventory.markProcessed(containerName, zipFilename));
+        log.info(
+            "Skipping {} zip files from container {} which already have an envelope",
+            withEnvelope.size(),
+            containerName
+        );
+
+        return zipFilenames.stream().filter(zipFilename -> !withEnvelope.contains(zipFilename)).toList();
+    }
+
     /**
      * Process a zip file.
      * @param container The container
@@ -127,23 +256,7 @@ public class BlobProcessorTask {
 
         BlobClient blobClient = container.getBlobClient(zipFilename);
 
-        Envelope existingEnvelope =
-            envelopeProcessor.getEnvelopeByFileAndContainer(container.getBlobContainerName(), zipFilename);
-
-        if (existingEnvelope != null) {
-            log.warn(
-                "Envelope for zip file {} (container {}) already exists. Aborting its processing. Envelope ID: {}. "
-                    + "Case reference: {}",
-                zipFilename,
-                container.getBlobContainerName(),
-                existingEnvelope.getId(),
-                Optional.ofNullable(existingEnvelope.getCaseNumber()).orElse("(NOT PRESENT)")
-            );
-        } else if (Boolean.FALSE.equals(blobClient.exists())) {
-            logAbortedProcessingNonExistingFile(zipFilename, container.getBlobContainerName());
-        } else {
-            leaseAndProcessZipFile(container, blobClient, zipFilename);
-        }
+        leaseAndProcessZipFile(container, blobClient, zipFilename);
     }
 
     /**
@@ -158,14 +271,16 @@ public class BlobProcessorTask {
         String zipFilename
     ) {
 
+        // blob properties are fetched once by the lease acquirer, which also finds out if the blob no longer exists
         leaseAcquirer.ifAcquiredOrElse(
             blobClient,
-            leaseId -> {
-                if (ocrValidationRetryManager.canProcess(blobClient)) {
-                    processZipFile(container, blobClient, zipFilename);
+            blobProperties -> ocrValidationRetryManager.canProcess(blobClient, blobProperties),
+            leaseId -> processZipFile(container, blobClient, zipFilename),
+            errorCode -> {
+                if (errorCode == BLOB_NOT_FOUND) {
+                    logAbortedProcessingNonExistingFile(zipFilename, container.getBlobContainerName());
                 }
             },
-            s -> {},
             true
         );
     }
@@ -184,9 +299,33 @@ public class BlobProcessorTask {
         Envelope envelope = envelopeProcessor
             .getEnvelopeByFileAndContainer(container.getBlobContainerName(), zipFilename);
 
-        if (envelope == null) {
+        if (envelope == null && rangedMetadataReadEnabled) {
+            envelopeProcessor.createEvent(
+                ZIPFILE_PROCESSING_STARTED,
+                container.getBlobContainerName(),
+                zipFilename,
+                null,
+                null
+            );
+
+            fileContentProcessor.processZipFileContent(
+                blobClient,
+                zipFilename,
+                container.getBlobContainerName()
+            );
+
+            log.info(
+                "Zip content processed for file {}, container: {}",
+                zipFilename,
+                container.getBlobContainerName()
+            );
+        } else if (envelope == null) {
             // Zip file will include metadata.json and collection of pdf documents
-            try (ZipInputStream zis =  new ZipInputStream(blobClient.openInputStream())) {
+            try (
+                ZipInputStream zis = new ZipInputStream(
+                    stageMetrics.meterDownload(blobClient.openInputStream(), container.getBlobContainerName())
+                )
+            ) {
                 envelopeProcessor.createEvent(
                     ZIPFILE_PROCESSING_STARTED,
                     container.getBlobContainerName(),
@@ -1,11 +1,8 @@
 package uk.gov.hmcts.reform.bulkscanprocessor.tasks;
 
-import com.azure.core.util.Context;
-import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.models.BlobItem;
 import com.azure.storage.blob.models.BlobListDetails;
-import com.azure.storage.blob.models.DeleteSnapshotsOptionType;
 import com.azure.storage.blob.models.ListBlobsOptions;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.slf4j.Logger;
@@ -14,10 +11,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseAcquirer;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.BlobBatchDeleter;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.BlobManager;
 
 import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static java.time.OffsetDateTime.now;
 import static java.time.ZoneOffset.UTC;
@@ -28,6 +28,7 @@ import static uk.gov.hmcts.reform.bulkscanprocessor.util.TimeZones.EUROPE_LONDON
  * It will read all the rejected files from Azure Blob storage and will
  * delete them if they are older than the configured
  * time to live (ttl).
+ * Containers are cleaned up in parallel and files are deleted in batches.
  */
 @Service
 @ConditionalOnProperty(value = "scheduling.task.delete-rejected-files.enabled")
@@ -37,24 +38,24 @@ public class CleanUpRejectedFilesTask {
     private static final String TASK_NAME = "delete-rejected-files";
 
     private final BlobManager blobManager;
-    private final LeaseAcquirer leaseAcquirer;
+    private final BlobBatchDeleter blobBatchDeleter;
     private final Duration ttl;
     private static final ListBlobsOptions listOptions =
-        new ListBlobsOptions().setDetails(new BlobListDetails().setRetrieveSnapshots(true));
+        new ListBlobsOptions().setDetails(new BlobListDetails().setRetrieveSnapshots(true).setRetrieveMetadata(true));
 
     /**
      * Constructor for the CleanUpRejectedFilesTask.
      * @param blobManager The blob manager
-     * @param leaseAcquirer The lease acquirer
+     * @param blobBatchDeleter The blob batch deleter
      * @param ttl The time to live for rejected files
      */
     public CleanUpRejectedFilesTask(
         BlobManager blobManager,
-        LeaseAcquirer leaseAcquirer,
+        BlobBatchDeleter blobBatchDeleter,
         @Value("${scheduling.task.delete-rejected-files.ttl}") String ttl // ISO-8601 duration string
     ) {
         this.blobManager = blobManager;
-        this.leaseAcquirer = leaseAcquirer;
+        this.blobBatchDeleter = blobBatchDeleter;
         this.ttl = Duration.parse(ttl);
     }
 
@@ -69,9 +70,11 @@ public class CleanUpRejectedFilesTask {
     public void run() {
         log.info("Started {} job", TASK_NAME);
 
-        blobManager
-            .listRejectedContainers()
-            .forEach(this::deleteFilesInRejectedContainer);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (BlobContainerClient containerClient : blobManager.listRejectedContainers()) {
+                executor.execute(() -> deleteFilesInRejectedContainer(containerClient));
+            }
+        }
 
         log.info("Finished {} job", TASK_NAME);
     }
@@ -85,46 +88,21 @@ public class CleanUpRejectedFilesTask {
         var containerName = containerClient.getBlobContainerName();
         log.info("Looking for rejected files to delete. Container: {}", containerName);
 
-        containerClient
-            .listBlobs(listOptions, null)
-            .stream()
-            .filter(this::canBeDeleted)
-            .map(blobItem -> containerClient.getBlobClient(blobItem.getName()))
-            .forEach(blobClient -> leaseAcquirer.ifAcquiredOrElse(
-                blobClient,
-                leaseId -> deleteBlob(blobClient),
-                errorCode -> {}, // nothing to do if blob not found in rejected container
-                false
-            ));
-
-        log.info("Finished removing rejected files. Container: {}", containerName);
-    }
-
-    /**
-     * Deletes the blob from the container.
-     * @param blobClient The blob client
-     */
-    private void deleteBlob(BlobClient blobClient) {
         try {
-            blobClient.deleteWithResponse(
-                DeleteSnapshotsOptionType.INCLUDE,
-                null,
-                null,
-                Context.NONE
-            );
-            log.info(
-                "Deleted rejected file {} from container {}",
-                blobClient.getBlobName(),
-                blobClient.getContainerName()
-            );
+            // snapshots are deleted with their base blob
+            List<BlobItem> blobsToDelete = containerClient
+                .listBlobs(listOptions, null)
+                .stream()
+                .filter(blobItem -> blobItem.getSnapshot() == null)
+                .filter(this::canBeDeleted)
+                .toList();
+
+            blobBatchDeleter.deleteBlobs(containerClient, blobsToDelete);
         } catch (Exception ex) {
-            log.error(
-                "Unable to delete rejected file {} from container {}",
-                blobClient.getBlobName(),
-                blobClient.getContainerName(),
-                ex
-            );
+            log.error("Unable to delete rejected files. Container: {}", containerName, ex);
         }
+
+        log.info("Finished removing rejected files. Container: {}", containerName);
     }
 
     /**
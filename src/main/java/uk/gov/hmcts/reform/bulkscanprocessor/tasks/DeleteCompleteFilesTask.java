@@ -10,6 +10,9 @@ import org.springframework.stereotype.Service;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.DeleteFilesService;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.BlobManager;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import static uk.gov.hmcts.reform.bulkscanprocessor.util.TimeZones.EUROPE_LONDON;
 
 /**
@@ -48,18 +51,29 @@ public class DeleteCompleteFilesTask {
     public void run() {
         log.info("Started {} job", TASK_NAME);
 
-        for (BlobContainerClient container : blobManager.listInputContainerClients()) {
-            try {
-                deleteFilesService.processCompleteFiles(container);
-            } catch (Exception ex) {
-                log.error(
-                    "Failed to process files from container {}",
-                    container.getBlobContainerName(),
-                    ex
-                );
+        // containers are processed in parallel, each deleting its files in batches
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (BlobContainerClient container : blobManager.listInputContainerClients()) {
+                executor.execute(() -> processContainer(container));
             }
         }
 
         log.info("Finished {} job", TASK_NAME);
     }
+
+    /**
+     * Deletes the complete files from the container.
+     * @param container The container
+     */
+    private void processContainer(BlobContainerClient container) {
+        try {
+            deleteFilesService.processCompleteFiles(container);
+        } catch (Exception ex) {
+            log.error(
+                "Failed to process files from container {}",
+                container.getBlobContainerName(),
+                ex
+            );
+        }
+    }
 }
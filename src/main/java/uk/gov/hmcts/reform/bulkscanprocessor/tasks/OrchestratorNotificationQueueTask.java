@@ -0,0 +1,117 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.tasks;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEvent;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventJdbcRepository;
+import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.NotificationStateNotRecordedException;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.EnvelopeWorkQueue;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.OrchestratorNotificationService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sends notifications to the orchestrator for uploaded envelopes claimed from the {@link EnvelopeWorkQueue}.
+ * Replaces {@link OrchestratorNotificationTask} when the work queue is enabled. It runs on every node without
+ * the task lock, each node sending the pages of envelopes it claimed in service bus batches.
+ */
+@Component
+@ConditionalOnProperty(value = "scheduling.task.notifications_to_orchestrator.enabled", matchIfMissing = true)
+@ConditionalOnExpression("!${jms.enabled} && ${scheduling.work_queue.enabled}")
+public class OrchestratorNotificationQueueTask {
+
+    private static final Logger log = LoggerFactory.getLogger(OrchestratorNotificationQueueTask.class);
+    private static final String TASK_NAME = "send-orchestrator-notification";
+
+    private final OrchestratorNotificationService orchestratorNotificationService;
+    private final EnvelopeWorkQueue workQueue;
+    private final ProcessEventJdbcRepository processEventJdbcRepo;
+
+    /**
+     * Constructor for the OrchestratorNotificationQueueTask.
+     * @param orchestratorNotificationService The orchestrator notification service
+     * @param workQueue The envelope work queue
+     * @param processEventJdbcRepo The process event JDBC repository
+     */
+    public OrchestratorNotificationQueueTask(
+        OrchestratorNotificationService orchestratorNotificationService,
+        EnvelopeWorkQueue workQueue,
+        ProcessEventJdbcRepository processEventJdbcRepo
+    ) {
+        this.orchestratorNotificationService = orchestratorNotificationService;
+        this.workQueue = workQueue;
+        this.processEventJdbcRepo = processEventJdbcRepo;
+    }
+
+    /**
+     * This method is executed by Scheduler as per configured interval.
+     * It claims pages of uploaded envelopes and sends them until no more envelopes are left to claim.
+     * A page which fails as a whole is recorded as failed for each of its envelopes and the next page is tried.
+     * Claims are released once the run is finished, so envelopes which failed are retried by the next run.
+     * Claims of earlier pages are extended before each page is claimed, so they do not expire during a long run.
+     */
+    @Scheduled(fixedDelayString = "${scheduling.task.notifications_to_orchestrator.delay}")
+    public void run() {
+        log.debug("Started {} job", TASK_NAME);
+
+        int successCount = 0;
+        List<Envelope> claimed = new ArrayList<>();
+        try {
+            List<Envelope> envelopes;
+            do {
+                workQueue.extendClaims(claimed);
+                envelopes = workQueue.claimEnvelopesToNotify();
+                claimed.addAll(envelopes);
+                successCount += send(envelopes);
+            } while (!envelopes.isEmpty() && envelopes.size() == workQueue.getPageSize());
+        } finally {
+            workQueue.release(claimed);
+        }
+
+        log.info(
+            "Finished sending notifications to orchestrator. Successful: {}. Failures {}.",
+            successCount,
+            claimed.size() - successCount
+        );
+        log.debug("Finished {} job", TASK_NAME);
+    }
+
+    /**
+     * Sends notifications for a page of envelopes.
+     * @param envelopes The envelopes
+     * @return The number of envelopes sent
+     */
+    private int send(List<Envelope> envelopes) {
+        if (envelopes.isEmpty()) {
+            return 0;
+        }
+
+        try {
+            return orchestratorNotificationService.processEnvelopes(envelopes);
+        } catch (NotificationStateNotRecordedException exc) {
+            // notifications were delivered, recording them as failed would be misleading
+            log.error("Error recording batch of {} sent envelope notifications", envelopes.size(), exc);
+            return exc.getSentCount();
+        } catch (Exception exc) {
+            processEventJdbcRepo.saveAll(
+                envelopes
+                    .stream()
+                    .map(env -> new ProcessEvent(
+                        env.getContainer(),
+                        env.getZipFileName(),
+                        Event.DOC_PROCESSED_NOTIFICATION_FAILURE
+                    ))
+                    .toList()
+            );
+            log.error("Error sending batch of {} envelope notifications", envelopes.size(), exc);
+            return 0;
+        }
+    }
+}
@@ -3,28 +3,33 @@ package uk.gov.hmcts.reform.bulkscanprocessor.tasks;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEvent;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventRepository;
+import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.NotificationStateNotRecordedException;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.OrchestratorNotificationService;
 
 import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static uk.gov.hmcts.reform.bulkscanprocessor.entity.Status.UPLOADED;
 
 /**
  * Sends notifications to the orchestrator containing processed envelopes.
+ * Replaced by {@link OrchestratorNotificationQueueTask} when the work queue is enabled.
  */
 @Component
 @ConditionalOnProperty(value = "scheduling.task.notifications_to_orchestrator.enabled", matchIfMissing = true)
-@ConditionalOnExpression("!${jms.enabled}")
+@ConditionalOnExpression("!${jms.enabled} && !${scheduling.work_queue.enabled}")
 public class OrchestratorNotificationTask {
 
     private static final Logger log = LoggerFactory.getLogger(OrchestratorNotificationTask.class);
@@ -33,20 +38,28 @@ public class OrchestratorNotificationTask {
     private final OrchestratorNotificationService orchestratorNotificationService;
     private final EnvelopeRepository envelopeRepo;
     private final ProcessEventRepository processEventRepo;
+    private final boolean batchEnabled;
+    private final int batchSize;
 
     /**
      * Constructor for the OrchestratorNotificationTask.
      * @param orchestratorNotificationService The orchestrator notification service
      * @param envelopeRepo The envelope repository
      * @param processEventRepo The process event repository
+     * @param batchEnabled Whether envelopes are read and sent in batches
+     * @param batchSize The number of envelopes read and sent in a batch
      */
     public OrchestratorNotificationTask(
         OrchestratorNotificationService orchestratorNotificationService,
         EnvelopeRepository envelopeRepo,
-        ProcessEventRepository processEventRepo) {
+        ProcessEventRepository processEventRepo,
+        @Value("${scheduling.task.notifications_to_orchestrator.batch_enabled}") boolean batchEnabled,
+        @Value("${scheduling.task.notifications_to_orchestrator.batch_size}") int batchSize) {
         this.orchestratorNotificationService = orchestratorNotificationService;
         this.envelopeRepo = envelopeRepo;
         this.processEventRepo = processEventRepo;
+        this.batchEnabled = batchEnabled;
+        this.batchSize = batchSize;
     }
 
     /**
@@ -58,6 +71,12 @@ public class OrchestratorNotificationTask {
     public void run() {
         log.debug("Started {} job", TASK_NAME);
 
+        if (batchEnabled) {
+            sendInBatches();
+            log.debug("Finished {} job", TASK_NAME);
+            return;
+        }
+
         AtomicInteger successCount = new AtomicInteger(0);
 
         List<Envelope> envelopesToSend = envelopeRepo.findByStatus(UPLOADED);
@@ -81,6 +100,49 @@ public class OrchestratorNotificationTask {
         log.debug("Finished {} job", TASK_NAME);
     }
 
+    /**
+     * Sends notifications for uploaded envelopes, reading and sending them in batches.
+     * A batch which fails as a whole is recorded as failed for each of its envelopes and the next batch is tried.
+     * A batch which was sent but whose state could not be written is only logged, as its envelopes were notified.
+     */
+    private void sendInBatches() {
+        int successCount = 0;
+        int total = 0;
+        UUID lastId = new UUID(0, 0);
+        List<Envelope> envelopesToSend;
+
+        do {
+            envelopesToSend = envelopeRepo.findByStatusAndIdGreaterThanOrderByIdAsc(
+                UPLOADED,
+                lastId,
+                PageRequest.of(0, batchSize)
+            );
+            if (envelopesToSend.isEmpty()) {
+                break;
+            }
+
+            try {
+                successCount += orchestratorNotificationService.processEnvelopes(envelopesToSend);
+            } catch (NotificationStateNotRecordedException exc) {
+                // notifications were delivered, recording them as failed would be misleading
+                successCount += exc.getSentCount();
+                log.error("Error recording batch of {} sent envelope notifications", envelopesToSend.size(), exc);
+            } catch (Exception exc) {
+                envelopesToSend.forEach(env -> createEvent(env, Event.DOC_PROCESSED_NOTIFICATION_FAILURE));
+                log.error("Error sending batch of {} envelope notifications", envelopesToSend.size(), exc);
+            }
+
+            total += envelopesToSend.size();
+            lastId = envelopesToSend.get(envelopesToSend.size() - 1).getId();
+        } while (envelopesToSend.size() == batchSize);
+
+        log.info(
+            "Finished sending notifications to orchestrator. Successful: {}. Failures {}.",
+            successCount,
+            total - successCount
+        );
+    }
+
     /**
      * Creates a process event for the given envelope and event.
      * @param envelope The envelope
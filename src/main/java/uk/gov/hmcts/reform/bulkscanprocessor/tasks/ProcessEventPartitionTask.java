@@ -0,0 +1,49 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.tasks;
+
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.ProcessEventPartitionService;
+
+import static uk.gov.hmcts.reform.bulkscanprocessor.util.TimeZones.EUROPE_LONDON;
+
+/**
+ * This class is a task executed by Scheduler as per configured interval.
+ * It will create the monthly partitions of process events ahead of time
+ * and will remove the partitions past the retention period.
+ */
+@Service
+@ConditionalOnProperty(value = "scheduling.task.process-events-partitions.enabled", matchIfMissing = true)
+public class ProcessEventPartitionTask {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcessEventPartitionTask.class);
+    private static final String TASK_NAME = "process-events-partitions";
+
+    private final ProcessEventPartitionService partitionService;
+
+    /**
+     * Constructor for the ProcessEventPartitionTask.
+     * @param partitionService The process event partition service
+     */
+    public ProcessEventPartitionTask(ProcessEventPartitionService partitionService) {
+        this.partitionService = partitionService;
+    }
+
+    /**
+     * This method is executed by Scheduler as per configured interval.
+     * It will create the missing partitions and then remove the expired ones.
+     */
+    @Scheduled(cron = "${scheduling.task.process-events-partitions.cron}", zone = EUROPE_LONDON)
+    @SchedulerLock(name = TASK_NAME)
+    public void run() {
+        log.info("Started {} job", TASK_NAME);
+
+        partitionService.createPartitions();
+        partitionService.removeExpiredPartitions();
+
+        log.info("Finished {} job", TASK_NAME);
+    }
+}
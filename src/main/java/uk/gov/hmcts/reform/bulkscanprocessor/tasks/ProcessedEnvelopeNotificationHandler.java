@@ -9,6 +9,7 @@ import com.fasterxml.jackson.databind.JsonMappingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
@@ -19,6 +20,14 @@ import uk.gov.hmcts.reform.bulkscanprocessor.model.in.msg.ProcessedEnvelope;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.EnvelopeFinaliserService;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Handler of messages form processed envelopes queue.
@@ -26,6 +35,10 @@ import java.io.IOException;
  * Its purpose is to bring envelopes referenced by those messages to their final state.
  * This involves removing sensitive information, status change and creation of an appropriate event.
  * </p>
+ * <p>
+ * Envelopes are finalised one per message, or in batches of the messages received within a short window,
+ * depending on the configured {@link Mode}. Each message is completed or dead-lettered individually.
+ * </p>
  */
 @Service
 @Profile(Profiles.NOT_SERVICE_BUS_STUB) // only active when interaction with Service Bus isn't disabled
@@ -34,20 +47,65 @@ public class ProcessedEnvelopeNotificationHandler {
 
     private static final Logger log = LoggerFactory.getLogger(ProcessedEnvelopeNotificationHandler.class);
 
+    /**
+     * How envelopes referenced by messages are finalised.
+     */
+    public enum Mode {
+        /**
+         * Each envelope is finalised in its own transaction.
+         */
+        SINGLE,
+        /**
+         * Envelopes of messages received within the batch window are finalised together in a single transaction.
+         * Each message waits for its batch, so a batch holds at most as many messages as the processor
+         * handles concurrently, and is finalised as soon as it holds that many.
+         */
+        BATCH
+    }
+
     private final EnvelopeFinaliserService envelopeFinaliserService;
     private final ObjectMapper objectMapper;
+    private final Mode mode;
+    private final int batchSize;
+    private final Duration batchWindow;
+
+    private final Object batchLock = new Object();
+    private FinalisationBatch openBatch;
 
     /**
      * Constructor for the ProcessedEnvelopeNotificationHandler.
      * @param envelopeFinaliserService The envelope finaliser service
      * @param objectMapper The object mapper
+     * @param mode The mode of finalising envelopes
+     * @param batchSize The maximum number of envelopes finalised in a batch
+     * @param batchWindow The time the first message of a batch waits for other messages
+     * @param maxConcurrentCalls The number of messages the processor handles concurrently
      */
     public ProcessedEnvelopeNotificationHandler(
         EnvelopeFinaliserService envelopeFinaliserService,
-        ObjectMapper objectMapper
+        ObjectMapper objectMapper,
+        @Value("${processed-envelopes.finalisation.mode}") Mode mode,
+        @Value("${processed-envelopes.finalisation.batch_size}") int batchSize,
+        @Value("${processed-envelopes.finalisation.batch_window}") Duration batchWindow,
+        @Value("${queues.processed-envelopes.max-concurrent-calls}") int maxConcurrentCalls
     ) {
         this.envelopeFinaliserService = envelopeFinaliserService;
         this.objectMapper = objectMapper;
+        this.mode = mode;
+        // messages wait for their batch, so a batch larger than the concurrent calls would only fill up
+        // once the window elapses
+        this.batchSize = Math.min(batchSize, maxConcurrentCalls);
+        this.batchWindow = batchWindow;
+
+        if (mode == Mode.BATCH && batchSize > maxConcurrentCalls) {
+            log.warn(
+                "Finalisation batch size {} is above the {} concurrent calls of the processed envelopes queue, "
+                    + "batches are limited to {} envelopes",
+                batchSize,
+                maxConcurrentCalls,
+                this.batchSize
+            );
+        }
     }
 
     /**
@@ -106,6 +164,7 @@ public class ProcessedEnvelopeNotificationHandler {
      * @throws MessageProcessingResult The message processing result
      */
     private MessageProcessingResult tryProcessMessage(ServiceBusReceivedMessage message) {
+        ProcessedEnvelope processedEnvelope;
         try {
             log.info(
                 "Started processing 'processed envelope' message with ID {} (delivery {})",
@@ -113,7 +172,36 @@ public class ProcessedEnvelopeNotificationHandler {
                 message.getDeliveryCount() + 1
             );
 
-            ProcessedEnvelope processedEnvelope = readProcessedEnvelope(message);
+            processedEnvelope = readProcessedEnvelope(message);
+        } catch (InvalidMessageException e) {
+            log.error("Invalid 'processed envelope' message with ID {}", message.getMessageId(), e);
+            return new MessageProcessingResult(MessageProcessingResultType.UNRECOVERABLE_FAILURE, e);
+        } catch (Exception e) {
+            log.error(
+                "An error occurred when handling 'processed envelope' message with ID {}",
+                message.getMessageId(),
+                e
+            );
+
+            return new MessageProcessingResult(MessageProcessingResultType.POTENTIALLY_RECOVERABLE_FAILURE);
+        }
+
+        return mode == Mode.BATCH
+            ? tryFinaliseInBatch(message, processedEnvelope)
+            : tryFinalise(message, processedEnvelope);
+    }
+
+    /**
+     * Tries to finalise the envelope referenced by the message in its own transaction.
+     * @param message The message
+     * @param processedEnvelope The processed envelope read from the message
+     * @return The processing result
+     */
+    private MessageProcessingResult tryFinalise(
+        ServiceBusReceivedMessage message,
+        ProcessedEnvelope processedEnvelope
+    ) {
+        try {
             envelopeFinaliserService.finaliseEnvelope(
                 processedEnvelope.envelopeId,
                 processedEnvelope.ccdId,
@@ -121,25 +209,119 @@ public class ProcessedEnvelopeNotificationHandler {
             );
             log.info("'Processed envelope' message with ID {} processed successfully", message.getMessageId());
             return new MessageProcessingResult(MessageProcessingResultType.SUCCESS);
-        } catch (InvalidMessageException e) {
-            log.error("Invalid 'processed envelope' message with ID {}", message.getMessageId(), e);
-            return new MessageProcessingResult(MessageProcessingResultType.UNRECOVERABLE_FAILURE, e);
         } catch (EnvelopeNotFoundException e) {
+            return envelopeNotFound(message, e);
+        } catch (Exception e) {
             log.error(
-                "Failed to handle 'processed envelope' message with ID {} - envelope not found",
+                "An error occurred when handling 'processed envelope' message with ID {}",
                 message.getMessageId(),
                 e
             );
-            return new MessageProcessingResult(MessageProcessingResultType.UNRECOVERABLE_FAILURE, e);
+
+            return new MessageProcessingResult(MessageProcessingResultType.POTENTIALLY_RECOVERABLE_FAILURE);
+        }
+    }
+
+    /**
+     * Tries to finalise the envelope referenced by the message together with the envelopes of messages
+     * received within the batch window. If the batch fails, the envelope is finalised on its own,
+     * so a single bad message does not send the whole batch back to the queue.
+     * @param message The message
+     * @param processedEnvelope The processed envelope read from the message
+     * @return The processing result
+     */
+    private MessageProcessingResult tryFinaliseInBatch(
+        ServiceBusReceivedMessage message,
+        ProcessedEnvelope processedEnvelope
+    ) {
+        Set<UUID> notFoundEnvelopeIds;
+        try {
+            notFoundEnvelopeIds = finaliseInBatch(processedEnvelope);
         } catch (Exception e) {
-            log.error(
-                "An error occurred when handling 'processed envelope' message with ID {}",
+            log.warn(
+                "Failed to finalise envelope of 'processed envelope' message with ID {} in batch, finalising it alone",
                 message.getMessageId(),
                 e
             );
+            return tryFinalise(message, processedEnvelope);
+        }
 
-            return new MessageProcessingResult(MessageProcessingResultType.POTENTIALLY_RECOVERABLE_FAILURE);
+        if (notFoundEnvelopeIds.contains(processedEnvelope.envelopeId)) {
+            return envelopeNotFound(
+                message,
+                new EnvelopeNotFoundException(
+                    String.format("Envelope with ID %s couldn't be found", processedEnvelope.envelopeId)
+                )
+            );
+        }
+
+        log.info("'Processed envelope' message with ID {} processed successfully", message.getMessageId());
+        return new MessageProcessingResult(MessageProcessingResultType.SUCCESS);
+    }
+
+    /**
+     * Adds the envelope to the open batch, opening one if there is none, and waits for the batch to be finalised.
+     * The message opening a batch waits for the batch window, or until the batch is full, then finalises it
+     * on behalf of all messages of the batch.
+     * @param processedEnvelope The processed envelope
+     * @return IDs of the envelopes of the batch which couldn't be found
+     */
+    private Set<UUID> finaliseInBatch(ProcessedEnvelope processedEnvelope) {
+        FinalisationBatch batch;
+        boolean opened = false;
+        synchronized (batchLock) {
+            if (openBatch == null) {
+                openBatch = new FinalisationBatch();
+                opened = true;
+            }
+            batch = openBatch;
+            batch.processedEnvelopes.add(processedEnvelope);
+            if (batch.processedEnvelopes.size() >= batchSize) {
+                openBatch = null;
+                batch.full.countDown();
+            }
         }
+
+        if (opened) {
+            try {
+                batch.full.await(batchWindow.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<ProcessedEnvelope> processedEnvelopes;
+            synchronized (batchLock) {
+                if (openBatch == batch) {
+                    openBatch = null;
+                }
+                processedEnvelopes = List.copyOf(batch.processedEnvelopes);
+            }
+            try {
+                batch.notFoundEnvelopeIds.complete(envelopeFinaliserService.finaliseEnvelopes(processedEnvelopes));
+            } catch (Exception e) {
+                log.error("Failed to finalise batch of {} envelopes", processedEnvelopes.size(), e);
+                batch.notFoundEnvelopeIds.completeExceptionally(e);
+            }
+        }
+
+        return batch.notFoundEnvelopeIds.join();
+    }
+
+    /**
+     * Creates the result of a message referencing an envelope which couldn't be found.
+     * @param message The message
+     * @param exception The exception
+     * @return The processing result
+     */
+    private MessageProcessingResult envelopeNotFound(
+        ServiceBusReceivedMessage message,
+        EnvelopeNotFoundException exception
+    ) {
+        log.error(
+            "Failed to handle 'processed envelope' message with ID {} - envelope not found",
+            message.getMessageId(),
+            exception
+        );
+        return new MessageProcessingResult(MessageProcessingResultType.UNRECOVERABLE_FAILURE, exception);
     }
 
     /**
@@ -166,6 +348,16 @@ public class ProcessedEnvelopeNotificationHandler {
         }
     }
 
+    /**
+     * Envelopes of messages received within a batch window, finalised together.
+     */
+    private static class FinalisationBatch {
+        // guarded by batchLock of the handler
+        final List<ProcessedEnvelope> processedEnvelopes = new ArrayList<>();
+        final CountDownLatch full = new CountDownLatch(1);
+        final CompletableFuture<Set<UUID>> notFoundEnvelopeIds = new CompletableFuture<>();
+    }
+
     /**
      * The message processing result.
      */
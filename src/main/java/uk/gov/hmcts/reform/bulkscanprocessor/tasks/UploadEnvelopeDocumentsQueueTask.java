@@ -0,0 +1,101 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.tasks;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.EnvelopeWorkQueue;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.UploadEnvelopeDocumentsService;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.stream.Collectors.groupingBy;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * Uploads documents of envelopes claimed from the {@link EnvelopeWorkQueue}.
+ * Replaces {@link UploadEnvelopeDocumentsTask} when the work queue is enabled. It runs on every node without
+ * the task lock, each node uploading the pages of envelopes it claimed.
+ */
+@Component
+@ConditionalOnProperty(
+    name = "scheduling.task." + UploadEnvelopeDocumentsTask.TASK_NAME + ".enabled",
+    matchIfMissing = true
+)
+@ConditionalOnExpression("${scheduling.work_queue.enabled}")
+public class UploadEnvelopeDocumentsQueueTask {
+
+    private static final Logger log = getLogger(UploadEnvelopeDocumentsQueueTask.class);
+
+    private final EnvelopeWorkQueue workQueue;
+    private final UploadEnvelopeDocumentsService uploadService;
+    private final int maxRetries;
+
+    /**
+     * Constructor for the UploadEnvelopeDocumentsQueueTask.
+     * @param workQueue The envelope work queue
+     * @param uploadService The upload service
+     * @param maxRetries The maximum number of retries
+     */
+    public UploadEnvelopeDocumentsQueueTask(
+        EnvelopeWorkQueue workQueue,
+        UploadEnvelopeDocumentsService uploadService,
+        @Value("${scheduling.task.upload-documents.max_tries}") int maxRetries
+    ) {
+        this.workQueue = workQueue;
+        this.uploadService = uploadService;
+        this.maxRetries = maxRetries;
+    }
+
+    /**
+     * This method is executed by Scheduler as per configured interval.
+     * It claims and uploads pages of envelopes until no more envelopes are left to claim.
+     * Claims are released once the run is finished, so envelopes which failed are retried by the next run
+     * of any node and not again by this one. Claims of earlier pages are extended before each page is claimed,
+     * so they do not expire during a long run.
+     */
+    @Scheduled(fixedDelayString = "${scheduling.task." + UploadEnvelopeDocumentsTask.TASK_NAME + ".delay}")
+    public void run() {
+        log.info("Started {} job", UploadEnvelopeDocumentsTask.TASK_NAME);
+
+        List<Envelope> claimed = new ArrayList<>();
+        try {
+            List<Envelope> envelopes;
+            do {
+                workQueue.extendClaims(claimed);
+                envelopes = workQueue.claimEnvelopesToUpload(maxRetries);
+                claimed.addAll(envelopes);
+                upload(envelopes);
+            } while (!envelopes.isEmpty() && envelopes.size() == workQueue.getPageSize());
+        } finally {
+            workQueue.release(claimed);
+        }
+
+        log.info(
+            "Finished {} job. Envelopes claimed: {}",
+            UploadEnvelopeDocumentsTask.TASK_NAME,
+            claimed.size()
+        );
+    }
+
+    /**
+     * Uploads documents of the envelopes, containers being processed concurrently.
+     * @param envelopes The envelopes
+     */
+    private void upload(List<Envelope> envelopes) {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            envelopes
+                .stream()
+                .collect(groupingBy(Envelope::getContainer))
+                .forEach((container, containerEnvelopes) ->
+                    executor.execute(() -> uploadService.processByContainer(container, containerEnvelopes))
+                );
+        }
+    }
+}
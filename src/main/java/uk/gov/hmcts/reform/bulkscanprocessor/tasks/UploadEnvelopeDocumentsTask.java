@@ -3,6 +3,7 @@ package uk.gov.hmcts.reform.bulkscanprocessor.tasks;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
@@ -10,18 +11,24 @@ import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.UploadEnvelopeDocumentsService;
 
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 import static java.util.stream.Collectors.groupingBy;
 import static org.slf4j.LoggerFactory.getLogger;
 
 /**
  * This class is a task executed by Scheduler as per configured interval.
  * It will read all the envelopes that are ready to be uploaded and will upload them.
+ * Containers are processed concurrently, with uploads limited per node and per jurisdiction.
+ * Replaced by {@link UploadEnvelopeDocumentsQueueTask} when the work queue is enabled.
  */
 @Component
 @ConditionalOnProperty(
     name = "scheduling.task." + UploadEnvelopeDocumentsTask.TASK_NAME + ".enabled",
     matchIfMissing = true
 )
+@ConditionalOnExpression("!${scheduling.work_queue.enabled}")
 public class UploadEnvelopeDocumentsTask {
 
     private static final Logger log = getLogger(UploadEnvelopeDocumentsTask.class);
@@ -56,11 +63,15 @@ public class UploadEnvelopeDocumentsTask {
     public void run() {
         log.info("Started {} job", TASK_NAME);
 
-        envelopeRepository
-            .findEnvelopesToUpload(maxRetries)
-            .stream()
-            .collect(groupingBy(Envelope::getContainer))
-            .forEach(uploadService::processByContainer);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            envelopeRepository
+                .findEnvelopesToUpload(maxRetries)
+                .stream()
+                .collect(groupingBy(Envelope::getContainer))
+                .forEach((container, envelopes) ->
+                    executor.execute(() -> uploadService.processByContainer(container, envelopes))
+                );
+        }
 
         log.info("Finished {} job", TASK_NAME);
     }
@@ -160,11 +160,8 @@ public class JmsBlobProcessorTask {
 
         leaseAcquirer.ifAcquiredOrElse(
             blobClient,
-            leaseId -> {
-                if (ocrValidationRetryManager.canProcess(blobClient)) {
-                    processZipFile(container, blobClient, zipFilename);
-                }
-            },
+            blobProperties -> ocrValidationRetryManager.canProcess(blobClient, blobProperties),
+            leaseId -> processZipFile(container, blobClient, zipFilename),
             s -> {
             },
             true
@@ -8,6 +8,7 @@ import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeRepository;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.EnvelopeLatencyTracker;
 
 import java.time.Duration;
 
@@ -16,6 +17,8 @@ import static uk.gov.hmcts.reform.bulkscanprocessor.util.TimeZones.EUROPE_LONDON
 
 /**
  * Task to monitor incomplete envelopes.
+ * Besides envelopes left incomplete, it warns about containers whose 95th percentile envelope latency,
+ * as read by the {@link EnvelopeLatencyTracker} from envelopes of all nodes, is above the threshold.
  */
 @Component
 @ConditionalOnProperty(prefix = "monitoring.incomplete-envelopes", name = "enabled")
@@ -27,18 +30,26 @@ public class IncompleteEnvelopesTask {
 
     private final EnvelopeRepository envelopeRepository;
     private final Duration staleAfter;
+    private final EnvelopeLatencyTracker envelopeLatencyTracker;
+    private final Duration latencyThreshold;
 
     /**
      * Constructor for the IncompleteEnvelopesTask.
      * @param envelopeRepository The envelope repository
      * @param staleAfter The duration after which an envelope is considered stale
+     * @param envelopeLatencyTracker The tracker of envelope latency
+     * @param latencyThreshold The 95th percentile envelope latency above which a warning is logged
      */
     public IncompleteEnvelopesTask(
         EnvelopeRepository envelopeRepository,
-        @Value("${monitoring.incomplete-envelopes.stale-after}") Duration staleAfter
+        @Value("${monitoring.incomplete-envelopes.stale-after}") Duration staleAfter,
+        EnvelopeLatencyTracker envelopeLatencyTracker,
+        @Value("${monitoring.incomplete-envelopes.latency-threshold}") Duration latencyThreshold
     ) {
         this.envelopeRepository = envelopeRepository;
         this.staleAfter = staleAfter;
+        this.envelopeLatencyTracker = envelopeLatencyTracker;
+        this.latencyThreshold = latencyThreshold;
     }
 
     /**
@@ -58,6 +69,20 @@ public class IncompleteEnvelopesTask {
             log.warn("There are {} incomplete envelopes as of {}", incompleteEnvelopes, now());
         }
 
+        envelopeLatencyTracker.getLatencies()
+            .stream()
+            .filter(latency -> latency.p95Millis > latencyThreshold.toMillis())
+            .forEach(latency -> log.warn(
+                "Envelope latency to {} for container {} is above {}: p50 {} ms, p95 {} ms, p99 {} ms of {} envelopes",
+                latency.event,
+                latency.container,
+                latencyThreshold,
+                latency.p50Millis,
+                latency.p95Millis,
+                latency.p99Millis,
+                latency.count
+            ));
+
         log.info("Finished {} job", TASK_NAME);
     }
 }
@@ -43,6 +43,9 @@ public class BlobManager {
     private static final String SELECT_ALL_CONTAINER = "ALL";
     public static final Map<String, String> META_DATA_MAP = Map.of("waitingCopy", "true");
 
+    // largest blob Copy Blob From URL accepts, larger blobs are copied asynchronously
+    public static final long SYNC_COPY_MAX_SIZE = 256L * 1024 * 1024;
+
     private final BlobServiceClient blobServiceClient;
 
     private final BlobManagementProperties properties;
@@ -121,11 +124,7 @@ public class BlobManager {
         String rejectedContainerName = getRejectedContainerName(inputContainerName);
 
         try {
-            moveFileToRejectedContainer(
-                fileName,
-                inputContainerName,
-                rejectedContainerName
-            );
+            moveFileToRejectedContainer(fileName, inputContainerName);
         } catch (Exception ex) {
             log.error(
                 "An error occurred when moving rejected file {} from container {} to rejected files' container {}",
@@ -141,14 +140,10 @@ public class BlobManager {
      * Moves the file to the rejected container.
      * @param fileName The file name
      * @param inputContainerName The input container name
-     * @param rejectedContainerName The rejected container name
      * @throws BlobStorageException If an error occurs
      */
-    private void moveFileToRejectedContainer(
-        String fileName,
-        String inputContainerName,
-        String rejectedContainerName
-    ) {
+    public void moveFileToRejectedContainer(String fileName, String inputContainerName) {
+        String rejectedContainerName = getRejectedContainerName(inputContainerName);
         log.info("Moving file {} from container {} to {}", fileName, inputContainerName, rejectedContainerName);
         BlobClient inputBlob = blobServiceClient
             .getBlobContainerClient(inputContainerName)
@@ -211,6 +206,8 @@ public class BlobManager {
 
     /**
      * Copies the blob to the rejected container.
+     * Blobs up to {@link #SYNC_COPY_MAX_SIZE} are copied server side with a single synchronous request,
+     * larger ones with an asynchronous copy which is polled until it completes.
      * @param sourceBlob The source blob
      * @param targetBlob The target blob
      */
@@ -224,6 +221,29 @@ public class BlobManager {
                 )
             );
 
+        long blobSize = sourceBlob.getProperties().getBlobSize();
+        if (blobSize <= SYNC_COPY_MAX_SIZE) {
+            var start = System.nanoTime();
+            targetBlob.copyFromUrl(sourceBlob.getBlobUrl() + "?" + sasToken);
+            // the copy takes the metadata of the source, which holds its lease
+            targetBlob.setMetadata(null);
+            log.info("Copied to rejected container from {}. Size: {} bytes, Takes {} ms",
+                sourceBlob.getBlobUrl(),
+                blobSize,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)
+            );
+        } else {
+            beginCopyToRejectedContainer(sourceBlob, targetBlob, sasToken);
+        }
+    }
+
+    /**
+     * Copies the blob to the rejected container asynchronously, waiting for the copy to complete.
+     * @param sourceBlob The source blob
+     * @param targetBlob The target blob
+     * @param sasToken The SAS token to read the source blob with
+     */
+    private void beginCopyToRejectedContainer(BlobClient sourceBlob, BlobClient targetBlob, String sasToken) {
         var start = System.nanoTime();
         SyncPoller<BlobCopyInfo, Void> poller = null;
         try {
@@ -8,9 +8,9 @@ import org.springframework.stereotype.Component;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.ScannableItem;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.ScannableItemRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.DocumentUrlNotRetrievedException;
+import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.DocumentsPartiallyUploadedException;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.document.DocumentManagementService;
 
-import java.io.File;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -43,35 +43,75 @@ public class DocumentProcessor {
 
     /**
      * Uploads the pdf files to the document management service.
+     * Documents uploaded by an earlier attempt, which have their document UUID set already, are not sent again.
+     * When only some batches are uploaded, the document UUIDs of those are saved before the failure is rethrown,
+     * so a retry of the envelope only sends the rest.
      * @param pdfs The pdf files
      * @param scannedItems The scanned items
      * @param jurisdiction The jurisdiction
      * @param container The container
      */
     public void uploadPdfFiles(
-        List<File> pdfs,
+        List<ExtractedPdf> pdfs,
         List<ScannableItem> scannedItems,
         String jurisdiction,
         String container
     ) {
-        Map<String, String> response = documentManagementService.uploadDocuments(pdfs, jurisdiction, container);
+        Set<String> uploadedFiles = scannedItems.stream()
+            .filter(item -> item.getDocumentUuid() != null)
+            .map(ScannableItem::getFileName)
+            .collect(toSet());
+        if (!uploadedFiles.isEmpty()) {
+            log.info("Skipping {} documents uploaded by an earlier attempt", uploadedFiles.size());
+            if (uploadedFiles.size() == scannedItems.size()) {
+                return;
+            }
+        }
+
+        Map<String, String> response;
+        try {
+            response = documentManagementService.uploadDocuments(
+                pdfs.stream().filter(pdf -> !uploadedFiles.contains(pdf.getName())).toList(),
+                jurisdiction,
+                container
+            );
+        } catch (DocumentsPartiallyUploadedException exception) {
+            List<ScannableItem> uploadedItems = scannedItems.stream()
+                .filter(item -> exception.getUploadedDocuments().containsKey(item.getFileName()))
+                .toList();
+            setDocumentUuids(uploadedItems, exception.getUploadedDocuments());
+            scannableItemRepository.saveAll(uploadedItems);
+            throw exception;
+        }
 
         log.info("Document service response with file name and doc url {}", response);
 
+        List<ScannableItem> itemsToUpdate = scannedItems.stream()
+            .filter(item -> !uploadedFiles.contains(item.getFileName()))
+            .toList();
         Set<String> filesWithoutUrl =
             Sets.difference(
-                scannedItems.stream().map(ScannableItem::getFileName).collect(toSet()),
+                itemsToUpdate.stream().map(ScannableItem::getFileName).collect(toSet()),
                 response.keySet()
             );
 
         if (filesWithoutUrl.isEmpty()) {
-            scannedItems.forEach(item -> item.setDocumentUuid(extractDocumentUuid(response.get(item.getFileName()))));
-            scannableItemRepository.saveAll(scannedItems);
+            setDocumentUuids(itemsToUpdate, response);
+            scannableItemRepository.saveAll(itemsToUpdate);
         } else {
             throw new DocumentUrlNotRetrievedException(filesWithoutUrl);
         }
     }
 
+    /**
+     * Sets the document UUIDs of the scanned items from the URLs of their documents.
+     * @param scannedItems The scanned items
+     * @param documentUrls The document URLs by file name
+     */
+    private void setDocumentUuids(List<ScannableItem> scannedItems, Map<String, String> documentUrls) {
+        scannedItems.forEach(item -> item.setDocumentUuid(extractDocumentUuid(documentUrls.get(item.getFileName()))));
+    }
+
     /**
      * Extracts the document uuid from the document url.
      * @param documentUrl The document url
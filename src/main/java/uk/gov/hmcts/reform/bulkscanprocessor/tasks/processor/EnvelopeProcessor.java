@@ -2,12 +2,14 @@ package uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor;
 
 import com.fasterxml.jackson.core.JsonParseException;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
+import com.google.common.collect.Lists;
 import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEvent;
@@ -20,12 +22,15 @@ import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.OcrDataParseException;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.PreviouslyFailedToUploadException;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.blob.InputEnvelope;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.ProcessEventRecorder;
 import uk.gov.hmcts.reform.bulkscanprocessor.validation.MetafileJsonValidator;
 
 import java.io.IOException;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static uk.gov.hmcts.reform.bulkscanprocessor.entity.Status.UPLOAD_FAILURE;
@@ -40,21 +45,25 @@ public class EnvelopeProcessor {
     private final MetafileJsonValidator schemaValidator;
     private final EnvelopeRepository envelopeRepository;
     private final ProcessEventRepository processEventRepository;
+    private final ProcessEventRecorder processEventRecorder;
 
     /**
      * Constructor for the EnvelopeProcessor.
      * @param schemaValidator The schema validator
      * @param envelopeRepository The envelope repository
      * @param processEventRepository The process event repository
+     * @param processEventRecorder The process event recorder
      */
     public EnvelopeProcessor(
         MetafileJsonValidator schemaValidator,
         EnvelopeRepository envelopeRepository,
-        ProcessEventRepository processEventRepository
+        ProcessEventRepository processEventRepository,
+        ProcessEventRecorder processEventRecorder
     ) {
         this.schemaValidator = schemaValidator;
         this.envelopeRepository = envelopeRepository;
         this.processEventRepository = processEventRepository;
+        this.processEventRecorder = processEventRecorder;
     }
 
     /**
@@ -74,9 +83,7 @@ public class EnvelopeProcessor {
         }
 
         try {
-            schemaValidator.validate(metadataStream, zipFileName);
-
-            return schemaValidator.parseMetafile(metadataStream);
+            return schemaValidator.validateAndParse(metadataStream, zipFileName);
         } catch (JsonParseException | OcrDataParseException exception) {
             // invalid json files should also be reported to provider
             throw new InvalidEnvelopeSchemaException("Error occurred while parsing metafile", exception);
@@ -124,6 +131,21 @@ public class EnvelopeProcessor {
         );
     }
 
+    /**
+     * Finds which of the given zip files from a container already have an envelope, with one query per batch.
+     * @param container The container name
+     * @param zipFileNames The zip file names
+     * @param batchSize The maximum number of zip file names checked in a single query
+     * @return The zip file names having an envelope
+     */
+    public Set<String> getZipFileNamesWithEnvelope(String container, List<String> zipFileNames, int batchSize) {
+        Set<String> result = new HashSet<>();
+        for (List<String> batch : Lists.partition(zipFileNames, batchSize)) {
+            result.addAll(envelopeRepository.findZipFileNamesWithEnvelope(container, batch));
+        }
+        return result;
+    }
+
     /**
      * Saves the envelope.
      * @param envelope The envelope
@@ -192,11 +214,13 @@ public class EnvelopeProcessor {
 
     /**
      * Handles the event.
+     * The event and the status change of the envelope are committed together.
      * @param envelope The envelope
      * @param event The event
      */
+    @Transactional
     public void handleEvent(Envelope envelope, Event event) {
-        processEventRepository.saveAndFlush(
+        processEventRecorder.record(
             new ProcessEvent(envelope.getContainer(), envelope.getZipFileName(), event)
         );
 
@@ -0,0 +1,91 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+
+import java.io.File;
+
+/**
+ * PDF extracted from a zip file, ready to be uploaded.
+ * Small PDFs are kept in memory, bigger ones are spilled to the download folder.
+ */
+public final class ExtractedPdf {
+
+    private final String name;
+    private final long size;
+    private final byte[] content;
+    private final File file;
+
+    private ExtractedPdf(String name, long size, byte[] content, File file) {
+        this.name = name;
+        this.size = size;
+        this.content = content;
+        this.file = file;
+    }
+
+    /**
+     * Creates a PDF kept in memory.
+     * @param name The file name
+     * @param content The content
+     * @return The PDF
+     */
+    public static ExtractedPdf inMemory(String name, byte[] content) {
+        return new ExtractedPdf(name, content.length, content, null);
+    }
+
+    /**
+     * Creates a PDF stored on disk.
+     * @param file The file
+     * @return The PDF
+     */
+    public static ExtractedPdf onDisk(File file) {
+        return new ExtractedPdf(file.getName(), file.length(), null, file);
+    }
+
+    /**
+     * Gets the file name.
+     * @return The file name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the size, counted while the PDF was extracted.
+     * @return The size in bytes
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Checks if the PDF is kept in memory.
+     * @return true if the PDF is kept in memory, false if it is stored on disk
+     */
+    public boolean isInMemory() {
+        return content != null;
+    }
+
+    /**
+     * Gets the content as a resource which can be sent in a multipart request.
+     * @return The resource
+     */
+    public Resource toResource() {
+        if (content == null) {
+            return new FileSystemResource(file);
+        }
+
+        return new ByteArrayResource(content) {
+            @Override
+            public String getFilename() {
+                return name;
+            }
+        };
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
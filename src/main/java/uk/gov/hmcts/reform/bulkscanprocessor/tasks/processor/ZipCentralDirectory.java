@@ -0,0 +1,279 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor;
+
+import com.azure.core.util.Context;
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobRange;
+import com.azure.storage.blob.models.BlobRequestConditions;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Central directory of a zip file stored in a blob, read with ranged downloads.
+ * Lets the entries of a zip file be listed, and single entries be read,
+ * without downloading the whole archive.
+ * Zip64 archives are not supported, in which case the directory is not read at all.
+ */
+public final class ZipCentralDirectory {
+
+    private static final Logger log = LoggerFactory.getLogger(ZipCentralDirectory.class);
+
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+    private static final int CENTRAL_FILE_HEADER_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_FILE_HEADER_SIZE = 46;
+    private static final int LOCAL_FILE_HEADER_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_FILE_HEADER_SIZE = 30;
+    private static final int STORED = 0;
+    private static final int DEFLATED = 8;
+    private static final int ZIP64_ENTRY_COUNT = 0xFFFF;
+    private static final long ZIP64_SIZE_OR_OFFSET = 0xFFFFFFFFL;
+
+    private final BlobClient blobClient;
+    private final String etag;
+    private final Map<String, Entry> entries;
+
+    private ZipCentralDirectory(BlobClient blobClient, String etag, Map<String, Entry> entries) {
+        this.blobClient = blobClient;
+        this.etag = etag;
+        this.entries = entries;
+    }
+
+    /**
+     * Reads the central directory of the zip file stored in the blob.
+     * Fetches the end of the blob, which holds the end of central directory record,
+     * and the central directory itself if it does not fit in that range.
+     * @param blobClient The blob client
+     * @return The central directory, or empty if the blob is not a zip file this reader can handle
+     */
+    public static Optional<ZipCentralDirectory> read(BlobClient blobClient) {
+        BlobProperties properties = blobClient.getProperties();
+        final long blobSize = properties.getBlobSize();
+        final String etag = properties.getETag();
+
+        if (blobSize < END_OF_CENTRAL_DIRECTORY_SIZE) {
+            return Optional.empty();
+        }
+
+        long tailOffset = Math.max(0, blobSize - END_OF_CENTRAL_DIRECTORY_SIZE - MAX_COMMENT_SIZE);
+        ByteBuffer tail = readRange(blobClient, etag, tailOffset, blobSize - tailOffset);
+
+        int endOfCentralDirectory = findEndOfCentralDirectory(tail);
+        if (endOfCentralDirectory < 0) {
+            log.info("End of central directory not found. File: {}", blobClient.getBlobName());
+            return Optional.empty();
+        }
+
+        int entryCount = unsignedShort(tail, endOfCentralDirectory + 10);
+        long directorySize = unsignedInt(tail, endOfCentralDirectory + 12);
+        long directoryOffset = unsignedInt(tail, endOfCentralDirectory + 16);
+
+        if (entryCount == ZIP64_ENTRY_COUNT
+            || directorySize == ZIP64_SIZE_OR_OFFSET
+            || directoryOffset == ZIP64_SIZE_OR_OFFSET
+            || directoryOffset + directorySize > blobSize) {
+            log.info("Unsupported central directory. File: {}", blobClient.getBlobName());
+            return Optional.empty();
+        }
+
+        // small directories are already part of the downloaded tail
+        ByteBuffer directory = directoryOffset >= tailOffset
+            ? tail.slice((int) (directoryOffset - tailOffset), (int) directorySize).order(ByteOrder.LITTLE_ENDIAN)
+            : readRange(blobClient, etag, directoryOffset, directorySize);
+
+        return parseEntries(directory, entryCount)
+            .map(parsedEntries -> new ZipCentralDirectory(blobClient, etag, parsedEntries));
+    }
+
+    /**
+     * Gets the names of the entries, in the order they appear in the central directory.
+     * @return The entry names
+     */
+    public List<String> getEntryNames() {
+        return new ArrayList<>(entries.keySet());
+    }
+
+    /**
+     * Downloads and decompresses a single entry.
+     * @param entryName The entry name
+     * @return The uncompressed content of the entry
+     * @throws ZipException If the entry cannot be read
+     */
+    public byte[] readEntry(String entryName) throws ZipException {
+        Entry entry = entries.get(entryName);
+        if (entry == null) {
+            throw new ZipException("Entry not found: " + entryName);
+        }
+
+        ByteBuffer localHeader = readRange(blobClient, etag, entry.localHeaderOffset, LOCAL_FILE_HEADER_SIZE);
+        if (localHeader.getInt(0) != LOCAL_FILE_HEADER_SIGNATURE) {
+            throw new ZipException("Invalid local file header for entry: " + entryName);
+        }
+
+        long dataOffset = entry.localHeaderOffset
+            + LOCAL_FILE_HEADER_SIZE
+            + unsignedShort(localHeader, 26)
+            + unsignedShort(localHeader, 28);
+        byte[] data = readRange(blobClient, etag, dataOffset, entry.compressedSize).array();
+
+        switch (entry.method) {
+            case STORED:
+                return data;
+            case DEFLATED:
+                return inflate(data, entry.size, entryName);
+            default:
+                throw new ZipException("Unsupported compression method " + entry.method + " for entry: " + entryName);
+        }
+    }
+
+    /**
+     * Finds the end of central directory record, searching backwards to skip any archive comment.
+     * @param tail The end of the blob
+     * @return The position of the record, or -1 if not found
+     */
+    private static int findEndOfCentralDirectory(ByteBuffer tail) {
+        for (int position = tail.limit() - END_OF_CENTRAL_DIRECTORY_SIZE; position >= 0; position--) {
+            if (tail.getInt(position) == END_OF_CENTRAL_DIRECTORY_SIGNATURE
+                && position + END_OF_CENTRAL_DIRECTORY_SIZE + unsignedShort(tail, position + 20) == tail.limit()) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Parses the central directory file headers.
+     * @param directory The central directory
+     * @param entryCount The number of entries
+     * @return The entries by name, or empty if the directory is malformed or uses zip64
+     */
+    private static Optional<Map<String, Entry>> parseEntries(ByteBuffer directory, int entryCount) {
+        Map<String, Entry> entries = new LinkedHashMap<>();
+        int position = 0;
+
+        for (int i = 0; i < entryCount; i++) {
+            if (position + CENTRAL_FILE_HEADER_SIZE > directory.limit()
+                || directory.getInt(position) != CENTRAL_FILE_HEADER_SIGNATURE) {
+                return Optional.empty();
+            }
+
+            final int method = unsignedShort(directory, position + 10);
+            final long compressedSize = unsignedInt(directory, position + 20);
+            final long size = unsignedInt(directory, position + 24);
+            final int nameLength = unsignedShort(directory, position + 28);
+            final int extraLength = unsignedShort(directory, position + 30);
+            final int commentLength = unsignedShort(directory, position + 32);
+            final long localHeaderOffset = unsignedInt(directory, position + 42);
+
+            if (compressedSize == ZIP64_SIZE_OR_OFFSET
+                || size == ZIP64_SIZE_OR_OFFSET
+                || localHeaderOffset == ZIP64_SIZE_OR_OFFSET
+                || position + CENTRAL_FILE_HEADER_SIZE + nameLength > directory.limit()) {
+                return Optional.empty();
+            }
+
+            byte[] name = new byte[nameLength];
+            directory.get(position + CENTRAL_FILE_HEADER_SIZE, name);
+            // same charset ZipInputStream uses by default
+            entries.put(new String(name, UTF_8), new Entry(method, compressedSize, size, localHeaderOffset));
+
+            position += CENTRAL_FILE_HEADER_SIZE + nameLength + extraLength + commentLength;
+        }
+
+        return Optional.of(entries);
+    }
+
+    /**
+     * Decompresses deflated data.
+     * @param data The compressed data
+     * @param size The expected uncompressed size
+     * @param entryName The entry name
+     * @return The uncompressed data
+     * @throws ZipException If the data is not valid deflate data
+     */
+    private static byte[] inflate(byte[] data, long size, String entryName) throws ZipException {
+        Inflater inflater = new Inflater(true);
+        try {
+            // 'nowrap' mode may need an extra dummy byte at the end of the input
+            inflater.setInput(Arrays.copyOf(data, data.length + 1));
+
+            var output = new ByteArrayOutputStream((int) Math.min(size, Integer.MAX_VALUE - 8));
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int count = inflater.inflate(buffer);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new ZipException("Truncated entry: " + entryName);
+                }
+                output.write(buffer, 0, count);
+            }
+            return output.toByteArray();
+        } catch (DataFormatException exception) {
+            throw new ZipException("Invalid compressed data for entry: " + entryName + ". " + exception.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /**
+     * Downloads a range of the blob, failing if the blob changed since its properties were read.
+     * @param blobClient The blob client
+     * @param etag The etag of the blob
+     * @param offset The offset of the range
+     * @param count The number of bytes to download
+     * @return The downloaded bytes
+     */
+    private static ByteBuffer readRange(BlobClient blobClient, String etag, long offset, long count) {
+        var output = new ByteArrayOutputStream((int) count);
+        blobClient.downloadStreamWithResponse(
+            output,
+            new BlobRange(offset, count),
+            null,
+            new BlobRequestConditions().setIfMatch(etag),
+            false,
+            null,
+            Context.NONE
+        );
+        return ByteBuffer.wrap(output.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int unsignedShort(ByteBuffer buffer, int index) {
+        return Short.toUnsignedInt(buffer.getShort(index));
+    }
+
+    private static long unsignedInt(ByteBuffer buffer, int index) {
+        return Integer.toUnsignedLong(buffer.getInt(index));
+    }
+
+    /**
+     * Location and compression of a single entry.
+     */
+    private static class Entry {
+        final int method;
+        final long compressedSize;
+        final long size;
+        final long localHeaderOffset;
+
+        Entry(int method, long compressedSize, long size, long localHeaderOffset) {
+            this.method = method;
+            this.compressedSize = compressedSize;
+            this.size = size;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+    }
+}
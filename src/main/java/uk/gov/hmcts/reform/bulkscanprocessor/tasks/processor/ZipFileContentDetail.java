@@ -11,14 +11,42 @@ public class ZipFileContentDetail {
 
     public final List<String> pdfFileNames;
 
+    /**
+     * PDF files extracted from the zip file. Empty unless the zip file was fully extracted.
+     */
+    public final List<ExtractedPdf> pdfFiles;
+
+    /**
+     * Id of the extraction of the PDF files. Null unless the zip file was fully extracted.
+     */
+    public final String extractionId;
+
     /**
      * Constructor for the ZipFileContentDetail.
      * @param metadata The metadata
      * @param pdfFileNames The PDF file names
      */
     public ZipFileContentDetail(byte[] metadata, List<String> pdfFileNames) {
+        this(metadata, pdfFileNames, List.of(), null);
+    }
+
+    /**
+     * Constructor for the ZipFileContentDetail.
+     * @param metadata The metadata
+     * @param pdfFileNames The PDF file names
+     * @param pdfFiles The PDF files extracted from the zip file
+     * @param extractionId The id of the extraction of the PDF files
+     */
+    public ZipFileContentDetail(
+        byte[] metadata,
+        List<String> pdfFileNames,
+        List<ExtractedPdf> pdfFiles,
+        String extractionId
+    ) {
         this.metadata = metadata;
         this.pdfFileNames = List.copyOf(pdfFileNames);
+        this.pdfFiles = List.copyOf(pdfFiles);
+        this.extractionId = extractionId;
     }
 
     /**
@@ -1,20 +1,29 @@
 package uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor;
 
+import com.azure.storage.blob.BlobClient;
 import com.google.common.collect.ImmutableList;
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.FileSizeExceedMaxUploadLimit;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.NonPdfFileFoundException;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
 import java.util.function.Consumer;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipInputStream;
@@ -23,6 +32,12 @@ import static com.google.common.io.ByteStreams.toByteArray;
 
 /**
  * Processes the content of a zip file.
+ * Extracted PDFs are kept in memory, within per PDF and per zip file limits, and within a budget shared
+ * by all extractions running on the node, so memory used does not grow with the number of zip files
+ * processed concurrently. Only PDFs which do not fit are written to the download folder.
+ * Memory taken from the shared budget is given back when the extracted files of the zip file are deleted.
+ * Each extraction has its own id, so that zip files with the same name, e.g. from different containers,
+ * can be extracted concurrently.
  */
 @Component
 public class ZipFileProcessor {
@@ -30,13 +45,30 @@ public class ZipFileProcessor {
 
     private static final Logger log = LoggerFactory.getLogger(ZipFileProcessor.class);
     public final String downloadPath;
+    private final long inMemoryMaxPdfSize;
+    private final long inMemoryMaxZipSize;
+    // bytes of PDFs which can still be kept in memory by all extractions on the node
+    private final Semaphore inMemoryBudget;
+    // bytes of PDFs kept in memory for each extraction, taken from the shared budget
+    private final ConcurrentMap<String, Long> inMemorySizes = new ConcurrentHashMap<>();
 
     /**
      * Constructor for the ZipFileProcessor.
      * @param downloadPath The download path
+     * @param inMemoryMaxPdfSize The maximum size of a PDF kept in memory
+     * @param inMemoryMaxZipSize The maximum total size of PDFs of a zip file kept in memory
+     * @param inMemoryMaxTotalSize The maximum total size of PDFs kept in memory by all extractions on the node
      */
-    public ZipFileProcessor(@Value("${tmp-folder-path-for-download}") String downloadPath) {
+    public ZipFileProcessor(
+        @Value("${tmp-folder-path-for-download}") String downloadPath,
+        @Value("${pdf-extraction.in-memory-max-pdf-size}") DataSize inMemoryMaxPdfSize,
+        @Value("${pdf-extraction.in-memory-max-zip-size}") DataSize inMemoryMaxZipSize,
+        @Value("${pdf-extraction.in-memory-max-total-size}") DataSize inMemoryMaxTotalSize
+    ) {
         this.downloadPath = downloadPath + File.separator;
+        this.inMemoryMaxPdfSize = inMemoryMaxPdfSize.toBytes();
+        this.inMemoryMaxZipSize = inMemoryMaxZipSize.toBytes();
+        this.inMemoryBudget = new Semaphore(Math.toIntExact(inMemoryMaxTotalSize.toBytes()));
     }
 
     /**
@@ -49,15 +81,16 @@ public class ZipFileProcessor {
     public void extractPdfFiles(
         ZipInputStream extractedZis,
         String zipFileName,
-        Consumer<List<File>> pdfListConsumer
+        Consumer<List<ExtractedPdf>> pdfListConsumer
     ) throws IOException {
+        String extractionId = newExtractionId(zipFileName);
         try {
-            List<File> fileList = createPdfAndSaveToTemp(extractedZis, zipFileName);
+            List<ExtractedPdf> fileList = extractPdfs(extractedZis, zipFileName, extractionId);
             checkFileSizeAgainstUploadLimit(fileList);
             pdfListConsumer.accept(fileList);
             log.info("Function consumed, zipFileName {}", zipFileName);
         } finally {
-            deleteFolder(zipFileName);
+            deleteFolder(extractionId);
         }
     }
 
@@ -65,10 +98,10 @@ public class ZipFileProcessor {
      * Checks the size of the PDF files against the upload limit.
      * @param fileList The list of files
      */
-    public void checkFileSizeAgainstUploadLimit(List<File> fileList) {
+    public void checkFileSizeAgainstUploadLimit(List<ExtractedPdf> fileList) {
         long totalSize = 0;
-        for (File file : fileList) {
-            long fileSize = file.length();
+        for (ExtractedPdf file : fileList) {
+            long fileSize = file.getSize();
             if (fileSize > MAX_PDF_SIZE) {
                 log.info("PDF size exceeds the max upload size limit, {} {} ", file.getName(), fileSize);
                 throw new FileSizeExceedMaxUploadLimit("Pdf size =" + fileSize
@@ -80,11 +113,37 @@ public class ZipFileProcessor {
     }
 
     /**
-     * Deletes the folder.
+     * Deletes the PDF files extracted from the zip file to the download folder,
+     * and gives the memory used by PDFs of the zip file back to the shared budget.
+     * Does nothing if the zip file was not fully extracted.
+     * @param zipContentDetail The content detail returned by {@link #extractZipContent(ZipInputStream, String)}
+     */
+    public void deleteExtractedFiles(ZipFileContentDetail zipContentDetail) {
+        if (zipContentDetail.extractionId != null) {
+            deleteFolder(zipContentDetail.extractionId);
+        }
+    }
+
+    /**
+     * Creates the id of an extraction of a zip file, unique among extractions on the node.
      * @param zipFileName The zip file name
+     * @return The extraction id
      */
-    private void deleteFolder(String zipFileName) {
-        String folderPath =  downloadPath +  zipFileName;
+    private String newExtractionId(String zipFileName) {
+        return zipFileName + "-" + UUID.randomUUID();
+    }
+
+    /**
+     * Deletes the folder of an extraction.
+     * @param extractionId The extraction id
+     */
+    private void deleteFolder(String extractionId) {
+        Long inMemorySize = inMemorySizes.remove(extractionId);
+        if (inMemorySize != null) {
+            inMemoryBudget.release(Math.toIntExact(inMemorySize));
+        }
+
+        String folderPath =  downloadPath +  extractionId;
         try {
             FileUtils.deleteDirectory(new File(folderPath));
             log.info("Folder deleted {}", folderPath);
@@ -135,38 +194,201 @@ public class ZipFileProcessor {
     }
 
     /**
-     * Creates PDF files and saves them to the temp folder.
+     * Gets the content detail of a zip file stored in a blob.
+     * Only the central directory and the metadata entry are downloaded, using ranged reads.
+     * Falls back to reading the whole zip file when the central directory cannot be used.
+     * @param blobClient The blob client
+     * @param zipFileName The zip file name
+     * @return The zip file content detail
+     * @throws IOException If an I/O error occurs
+     */
+    public ZipFileContentDetail getZipContentDetail(
+        BlobClient blobClient,
+        String zipFileName
+    ) throws IOException {
+        Optional<ZipCentralDirectory> centralDirectory = ZipCentralDirectory.read(blobClient);
+
+        if (centralDirectory.isEmpty()) {
+            log.info("Reading whole zip file {} to get its content detail", zipFileName);
+            try (ZipInputStream zis = new ZipInputStream(blobClient.openInputStream())) {
+                return getZipContentDetail(zis, zipFileName);
+            }
+        }
+
+        List<String> pdfs = new ArrayList<>();
+        byte[] metadata = null;
+
+        for (String entryName : centralDirectory.get().getEntryNames()) {
+            switch (FilenameUtils.getExtension(entryName)) {
+                case "json":
+                    metadata = centralDirectory.get().readEntry(entryName);
+                    log.info(
+                        "File: {}, Meta data size: {}",
+                        zipFileName,
+                        FileUtils.byteCountToDisplaySize(metadata.length)
+                    );
+                    break;
+                case "pdf":
+                    pdfs.add(entryName);
+                    break;
+                default:
+                    // contract breakage
+                    throw new NonPdfFileFoundException(zipFileName, entryName);
+            }
+        }
+
+        log.info("PDFs found in {}: {}", zipFileName, pdfs.size());
+
+        return new ZipFileContentDetail(metadata, pdfs);
+    }
+
+    /**
+     * Reads the metadata and extracts the PDF files in a single pass over the zip file.
+     * Extracted files must be removed with {@link #deleteExtractedFiles(ZipFileContentDetail)} once no longer needed.
+     * If extraction fails, files extracted so far are removed before the exception is thrown.
      * @param extractedZis The zip input stream
      * @param zipFileName The zip file name
-     * @return The list of PDF files
+     * @return The zip file content detail, including the extracted PDF files
      * @throws IOException If an I/O error occurs
      */
-    private List<File> createPdfAndSaveToTemp(
+    public ZipFileContentDetail extractZipContent(
         ZipInputStream extractedZis,
         String zipFileName
     ) throws IOException {
 
+        String extractionId = newExtractionId(zipFileName);
+        ZipEntry zipEntry;
+
+        List<String> pdfNames = new ArrayList<>();
+        List<ExtractedPdf> pdfs = new ArrayList<>();
+        byte[] metadata = null;
+        long zipInMemoryBudget = inMemoryMaxZipSize;
+
+        try {
+            while ((zipEntry = extractedZis.getNextEntry()) != null) {
+                switch (FilenameUtils.getExtension(zipEntry.getName())) {
+                    case "json":
+                        metadata = toByteArray(extractedZis);
+                        log.info(
+                            "File: {}, Meta data size: {}",
+                            zipFileName,
+                            FileUtils.byteCountToDisplaySize(metadata.length)
+                        );
+                        break;
+                    case "pdf":
+                        ExtractedPdf pdf = extractPdf(extractedZis, zipEntry, extractionId, zipInMemoryBudget);
+                        if (pdf.isInMemory()) {
+                            zipInMemoryBudget -= pdf.getSize();
+                        }
+                        pdfNames.add(zipEntry.getName());
+                        pdfs.add(pdf);
+                        break;
+                    default:
+                        // contract breakage
+                        throw new NonPdfFileFoundException(zipFileName, zipEntry.getName());
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            deleteFolder(extractionId);
+            throw e;
+        }
+
+        log.info("PDFs found in {}: {}", zipFileName, pdfs.size());
+
+        return new ZipFileContentDetail(metadata, pdfNames, pdfs, extractionId);
+    }
+
+    /**
+     * Extracts the PDF files.
+     * @param extractedZis The zip input stream
+     * @param zipFileName The zip file name
+     * @param extractionId The extraction id
+     * @return The list of PDF files
+     * @throws IOException If an I/O error occurs
+     */
+    private List<ExtractedPdf> extractPdfs(
+        ZipInputStream extractedZis,
+        String zipFileName,
+        String extractionId
+    ) throws IOException {
+
         ZipEntry zipEntry;
-        List<File> pdfs = new ArrayList<>();
-        String folderPath =  downloadPath + zipFileName;
+        List<ExtractedPdf> pdfs = new ArrayList<>();
+        long zipInMemoryBudget = inMemoryMaxZipSize;
 
         while ((zipEntry = extractedZis.getNextEntry()) != null) {
             if ("pdf".equals(FilenameUtils.getExtension(zipEntry.getName()))) {
-                String filePath =
-                    folderPath + File.separator + FilenameUtils.getName(zipEntry.getName());
-                var pdfFile = new File(filePath);
-                FileUtils.copyToFile(extractedZis, pdfFile);
-                pdfs.add(pdfFile);
+                ExtractedPdf pdf = extractPdf(extractedZis, zipEntry, extractionId, zipInMemoryBudget);
+                if (pdf.isInMemory()) {
+                    zipInMemoryBudget -= pdf.getSize();
+                }
+                pdfs.add(pdf);
                 log.info(
-                    "ZipFile:{}, has {}, pdf size: {}",
+                    "ZipFile:{}, has {}, pdf size: {}, in memory: {}",
                     zipFileName,
                     zipEntry.getName(),
-                    FileUtils.byteCountToDisplaySize(Files.size(pdfFile.toPath()))
+                    FileUtils.byteCountToDisplaySize(pdf.getSize()),
+                    pdf.isInMemory()
                 );
             }
         }
-        log.info("Zip file {} has {} pdfs: {}. Saved to {} ", zipFileName, pdfs.size(), pdfs, folderPath);
+        log.info("Zip file {} has {} pdfs: {}", zipFileName, pdfs.size(), pdfs);
 
         return ImmutableList.copyOf(pdfs);
     }
+
+    /**
+     * Extracts the PDF file of the current zip entry.
+     * The PDF is kept in memory if it fits, otherwise what has been read so far is written
+     * to the download folder, followed by the rest of the entry.
+     * Memory for the PDF is taken from the shared budget before it is read, as much as is available,
+     * and what the PDF does not use is given back.
+     * @param extractedZis The zip input stream, positioned at the entry
+     * @param zipEntry The zip entry
+     * @param extractionId The extraction id
+     * @param zipInMemoryBudget The size still available for PDFs of the zip file kept in memory
+     * @return The PDF file
+     * @throws IOException If an I/O error occurs
+     */
+    private ExtractedPdf extractPdf(
+        ZipInputStream extractedZis,
+        ZipEntry zipEntry,
+        String extractionId,
+        long zipInMemoryBudget
+    ) throws IOException {
+        String pdfName = FilenameUtils.getName(zipEntry.getName());
+        int inMemoryLimit = reserveInMemory(Math.max(0, Math.min(inMemoryMaxPdfSize, zipInMemoryBudget)));
+
+        var buffer = new ByteArrayOutputStream();
+        long buffered;
+        try {
+            buffered = IOUtils.copyLarge(extractedZis, buffer, 0, inMemoryLimit + 1L);
+        } catch (IOException | RuntimeException e) {
+            inMemoryBudget.release(inMemoryLimit);
+            throw e;
+        }
+        if (buffered <= inMemoryLimit) {
+            inMemoryBudget.release(inMemoryLimit - (int) buffered);
+            inMemorySizes.merge(extractionId, buffered, Long::sum);
+            return ExtractedPdf.inMemory(pdfName, buffer.toByteArray());
+        }
+        inMemoryBudget.release(inMemoryLimit);
+
+        var pdfFile = new File(downloadPath + extractionId + File.separator + pdfName);
+        try (OutputStream output = FileUtils.openOutputStream(pdfFile)) {
+            buffer.writeTo(output);
+            IOUtils.copyLarge(extractedZis, output);
+        }
+        return ExtractedPdf.onDisk(pdfFile);
+    }
+
+    /**
+     * Takes up to the given size from the shared in-memory budget, without waiting for memory to be given back.
+     * @param size The size wanted
+     * @return The size taken, 0 if the budget is exhausted
+     */
+    private int reserveInMemory(long size) {
+        int available = (int) Math.min(size, inMemoryBudget.availablePermits());
+        return available > 0 && inMemoryBudget.tryAcquire(available) ? available : 0;
+    }
 }
@@ -4,13 +4,15 @@ import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVPrinter;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.reports.models.ZipFileSummaryResponse;
 
-import java.io.File;
-import java.io.FileWriter;
+import java.io.BufferedWriter;
 import java.io.IOException;
-import java.util.List;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
 
-import static java.util.Collections.emptyList;
-import static java.util.Optional.ofNullable;
+import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * Utility class to write CSV files.
@@ -30,23 +32,29 @@ public final class CsvWriter {
     }
 
     /**
-     * Writes the given data to a CSV file.
+     * Writes the given data as CSV to the output stream, record by record as the data is read.
+     * The output stream is closed once all records are written.
      *
-     * @param data list of ZipFileSummaryResponse
-     * @return the CSV file
-     * @throws IOException if there is an error writing the file
+     * @param data stream of ZipFileSummaryResponse
+     * @param outputStream the output stream to write to
+     * @param gzip whether the CSV is gzip compressed
+     * @throws IOException if there is an error writing to the output stream
      */
-    public static File writeZipFilesSummaryToCsv(
-        List<ZipFileSummaryResponse> data
+    public static void writeZipFilesSummaryToCsv(
+        Stream<ZipFileSummaryResponse> data,
+        OutputStream outputStream,
+        boolean gzip
     ) throws IOException {
-        File csvFile = File.createTempFile("Zipfiles-summary-", ".csv");
+        OutputStream target = gzip ? new GZIPOutputStream(outputStream) : outputStream;
 
-        CSVFormat csvFileHeader = CSVFormat.DEFAULT.withHeader(ZIP_FILES_SUMMARY_CSV_HEADERS);
+        CSVFormat csvFileHeader = CSVFormat.DEFAULT.builder().setHeader(ZIP_FILES_SUMMARY_CSV_HEADERS).build();
         try (
-            FileWriter fileWriter = new FileWriter(csvFile);
-            CSVPrinter printer = new CSVPrinter(fileWriter, csvFileHeader)
+            BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(target, UTF_8));
+            CSVPrinter printer = new CSVPrinter(writer, csvFileHeader)
         ) {
-            for (ZipFileSummaryResponse summary : ofNullable(data).orElse(emptyList())) {
+            Iterator<ZipFileSummaryResponse> iterator = data.iterator();
+            while (iterator.hasNext()) {
+                ZipFileSummaryResponse summary = iterator.next();
                 printer.printRecord(
                     summary.container,
                     summary.fileName,
@@ -61,6 +69,5 @@ public final class CsvWriter {
                 );
             }
         }
-        return csvFile;
     }
 }
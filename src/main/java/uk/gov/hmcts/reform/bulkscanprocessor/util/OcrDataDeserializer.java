@@ -52,7 +52,8 @@ public class OcrDataDeserializer extends StdDeserializer<InputOcrData> {
      * @throws IOException if there is an error parsing the OCR data
      */
     private InputOcrData parseOcrData(String base64EncodedOcrData) throws IOException {
-        String ocrDataJson = new String(Base64.getDecoder().decode(base64EncodedOcrData));
+        // decoded bytes are parsed directly, without building an intermediate string
+        byte[] ocrDataJson = Base64.getDecoder().decode(base64EncodedOcrData);
         return objectMapper.readValue(ocrDataJson, InputOcrData.class);
     }
 }
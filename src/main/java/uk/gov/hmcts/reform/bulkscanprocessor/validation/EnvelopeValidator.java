@@ -4,6 +4,7 @@ import com.google.common.collect.Sets;
 import org.apache.commons.lang3.StringUtils;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
+import uk.gov.hmcts.reform.bulkscanprocessor.config.ContainerMappingIndex;
 import uk.gov.hmcts.reform.bulkscanprocessor.config.ContainerMappings;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.ContainerJurisdictionPoBoxMismatchException;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.DisallowedDocumentTypesException;
@@ -202,23 +203,17 @@ public final class EnvelopeValidator {
     /**
      * Assert container is configured for the jurisdiction and po box.
      *
-     * @param mappings      container mappings with jurisdiction and PoBox
+     * @param mappingIndex  container mappings with jurisdiction and PoBox
      * @param envelope      to assert against
      * @param containerName container from which envelope was retrieved
      * @throws ContainerJurisdictionPoBoxMismatchException if container does not match jurisdiction and po box
      */
     public void assertContainerMatchesJurisdictionAndPoBox(
-        List<ContainerMappings.Mapping> mappings,
+        ContainerMappingIndex mappingIndex,
         InputEnvelope envelope,
         String containerName
     ) {
-        boolean isMatched = mappings.stream()
-            .anyMatch(mapping ->
-                          mapping.getContainer().equalsIgnoreCase(containerName)
-                              && mapping.getJurisdiction().equalsIgnoreCase(envelope.jurisdiction)
-                              && mapping.getPoBoxes().stream().map(String::toLowerCase).collect(toList())
-                              .contains(envelope.poBox.toLowerCase())
-            );
+        boolean isMatched = mappingIndex.matches(containerName, envelope.jurisdiction, envelope.poBox);
 
         if (!isMatched) {
             throw new ContainerJurisdictionPoBoxMismatchException(
@@ -237,16 +232,16 @@ public final class EnvelopeValidator {
      *
      * @param envelope         to assert against
      * @param paymentsEnabled  if payments are enabled
-     * @param mappings         container mappings with jurisdiction and PoBox
+     * @param mappingIndex     container mappings with jurisdiction and PoBox
      * @throws PaymentsDisabledException if payments are not enabled for the container
      */
     public void assertPaymentsEnabledForContainerIfPaymentsArePresent(
         InputEnvelope envelope,
         boolean paymentsEnabled,
-        List<ContainerMappings.Mapping> mappings
+        ContainerMappingIndex mappingIndex
     ) {
         if (!isEmpty(envelope.payments)
-            && (!paymentsEnabled || !isPaymentsEnabledForContainer(mappings, envelope))
+            && (!paymentsEnabled || !isPaymentsEnabledForContainer(mappingIndex, envelope))
         ) {
             throw new PaymentsDisabledException(
                 String.format(
@@ -260,15 +255,10 @@ public final class EnvelopeValidator {
 
     public void assertServiceEnabled(
         InputEnvelope envelope,
-        List<ContainerMappings.Mapping> mappings
+        ContainerMappingIndex mappingIndex
     ) {
-        Boolean isServiceEnabled = mappings
-            .stream()
-            .filter(mapping ->
-                        mapping.getPoBoxes().stream().map(String::toLowerCase).collect(toList())
-                            .contains(envelope.poBox.toLowerCase())
-            )
-            .findFirst()
+        Boolean isServiceEnabled = mappingIndex
+            .findByPoBox(envelope.poBox)
             .map(ContainerMappings.Mapping::isEnabled)
             .orElse(false);
 
@@ -284,17 +274,11 @@ public final class EnvelopeValidator {
     }
 
     private boolean isPaymentsEnabledForContainer(
-        List<ContainerMappings.Mapping> mappings,
+        ContainerMappingIndex mappingIndex,
         InputEnvelope envelope
     ) {
-        return mappings
-            .stream()
-            .filter(mapping ->
-                        mapping.getJurisdiction().equalsIgnoreCase(envelope.jurisdiction)
-                            && mapping.getPoBoxes().stream().map(String::toLowerCase).collect(toList())
-                            .contains(envelope.poBox.toLowerCase())
-            )
-            .findFirst()
+        return mappingIndex
+            .findByJurisdictionAndPoBox(envelope.jurisdiction, envelope.poBox)
             .map(ContainerMappings.Mapping::isPaymentsEnabled)
             .orElse(false);
     }
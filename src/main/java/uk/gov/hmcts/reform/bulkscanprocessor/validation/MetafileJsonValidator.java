@@ -1,5 +1,6 @@
 package uk.gov.hmcts.reform.bulkscanprocessor.validation;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.fge.jsonschema.core.exceptions.ProcessingException;
@@ -43,13 +44,43 @@ public class MetafileJsonValidator {
      * @throws ProcessingException processing error during the validation
      */
     public void validate(byte[] metafile, String zipFileName) throws IOException, ProcessingException {
-        ProcessingReport report = jsonSchemaValidator.validate(MAPPER.readTree(metafile), true);
+        validate(MAPPER.readTree(metafile), zipFileName);
+    }
+
+    /**
+     * Validate already read metafile against envelope schema.
+     *
+     * @param metafileTree to validate against
+     * @param zipFileName name of the zip file the metafile comes from
+     * @throws ProcessingException processing error during the validation
+     */
+    private void validate(JsonNode metafileTree, String zipFileName) throws ProcessingException {
+        ProcessingReport report = jsonSchemaValidator.validate(metafileTree, true);
 
         if (!report.isSuccess()) {
             throw new InvalidEnvelopeSchemaException(report, zipFileName);
         }
     }
 
+    /**
+     * Validate the metafile against envelope schema and parse it into an InputEnvelope object.
+     * The metafile is read only once and the same tree is used for both validation and binding.
+     * Throws an {@code InvalidEnvelopeSchemaException} in case there are errors.
+     *
+     * @param metafile to validate and parse
+     * @param zipFileName name of the zip file the metafile comes from
+     * @return the parsed InputEnvelope object
+     * @throws IOException if the metafile cannot be read
+     * @throws ProcessingException processing error during the validation
+     */
+    public InputEnvelope validateAndParse(byte[] metafile, String zipFileName) throws IOException, ProcessingException {
+        JsonNode metafileTree = MAPPER.readTree(metafile);
+
+        validate(metafileTree, zipFileName);
+
+        return MAPPER.treeToValue(metafileTree, InputEnvelope.class);
+    }
+
     /**
      * Parse the metafile into an InputEnvelope object.
      *
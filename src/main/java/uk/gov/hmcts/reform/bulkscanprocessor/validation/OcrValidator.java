@@ -14,7 +14,7 @@ import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.OcrValidationException;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.blob.InputDocumentType;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.blob.InputEnvelope;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.blob.InputScannableItem;
-import uk.gov.hmcts.reform.bulkscanprocessor.ocrvalidation.client.OcrValidationClient;
+import uk.gov.hmcts.reform.bulkscanprocessor.ocrvalidation.client.GuardedOcrValidationClient;
 import uk.gov.hmcts.reform.bulkscanprocessor.ocrvalidation.client.model.req.FormData;
 import uk.gov.hmcts.reform.bulkscanprocessor.ocrvalidation.client.model.req.OcrDataField;
 import uk.gov.hmcts.reform.bulkscanprocessor.ocrvalidation.client.model.res.ValidationResponse;
@@ -37,7 +37,7 @@ public class OcrValidator {
 
     private static final Logger log = LoggerFactory.getLogger(OcrValidator.class);
 
-    private final OcrValidationClient client;
+    private final GuardedOcrValidationClient client;
     private final OcrPresenceValidator presenceValidator;
     private final ContainerMappings containerMappings;
     private final AuthTokenGenerator authTokenGenerator;
@@ -50,7 +50,7 @@ public class OcrValidator {
      * @param authTokenGenerator auth token generator
      */
     public OcrValidator(
-        OcrValidationClient client,
+        GuardedOcrValidationClient client,
         OcrPresenceValidator presenceValidator,
         ContainerMappings containerMappings,
         AuthTokenGenerator authTokenGenerator
@@ -191,11 +191,8 @@ public class OcrValidator {
      */
     private Optional<String> findValidationUrl(String poBox) {
         Optional<String> validationUrl = containerMappings
-            .getMappings()
-            .stream()
-            .filter(mapping -> mapping.getPoBoxes().stream().map(String::toLowerCase).collect(toList())
-                    .contains(poBox.toLowerCase()))
-            .findFirst()
+            .getIndex()
+            .findByPoBox(poBox)
             .map(ContainerMappings.Mapping::getOcrValidationUrl)
             .filter(url -> !Strings.isNullOrEmpty(url));
 
@@ -0,0 +1,5 @@
+ALTER TABLE envelopes
+  ADD COLUMN claimedby VARCHAR(100) NULL,
+  ADD COLUMN claimeduntil TIMESTAMP NULL;
+
+CREATE INDEX envelopes_status_createdat_idx ON envelopes(status, createdat);
@@ -0,0 +1,13 @@
+-- bounds createdat of process events to the range they get as the legacy partition in V067, so attaching them
+-- does not scan the table under lock to check the range. added without validation, which only locks the table
+-- briefly, and validated separately while events keep being written.
+-- the bound is computed as in V067, which runs after this one and so never gets an earlier bound
+DO $$
+BEGIN
+  EXECUTE format(
+    'ALTER TABLE process_events ADD CONSTRAINT process_events_createdat_check '
+      || 'CHECK (createdat IS NOT NULL AND createdat < %L) NOT VALID',
+    date_trunc('month', now()) + INTERVAL '1 month'
+  );
+END
+$$;
@@ -0,0 +1,2 @@
+-- runs in its own transaction, validating does not block inserts of process events while the table is scanned
+ALTER TABLE process_events VALIDATE CONSTRAINT process_events_createdat_check;
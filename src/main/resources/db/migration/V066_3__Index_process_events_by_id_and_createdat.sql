@@ -0,0 +1,4 @@
+-- index matching the primary key of the partitioned process events from V067, which it backs once the legacy
+-- table is attached instead of being built under lock. built concurrently, flyway runs this outside of a
+-- transaction so it has to stay the only statement of the migration
+CREATE UNIQUE INDEX CONCURRENTLY process_events_id_createdat_idx ON process_events (id, createdat);
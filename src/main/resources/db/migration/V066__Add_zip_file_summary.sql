@@ -0,0 +1,62 @@
+-- one row per zip file and day on which its processing started, with the latest event of the zip file
+CREATE TABLE zip_file_summary (
+  container VARCHAR(50) NOT NULL,
+  zipfilename VARCHAR(255) NOT NULL,
+  createdday DATE NOT NULL,
+  createddate TIMESTAMP NOT NULL,
+  lastevent VARCHAR(100) NOT NULL,
+  lasteventat TIMESTAMP NOT NULL,
+  PRIMARY KEY (container, zipfilename, createdday)
+);
+
+CREATE INDEX zip_file_summary_createdday_idx ON zip_file_summary (createdday);
+
+-- events inserted by running nodes are held back until the trigger is in place, so none is missed
+-- between the backfill and the trigger. The lock is the one CREATE TRIGGER takes, held until commit
+LOCK TABLE process_events IN SHARE ROW EXCLUSIVE MODE;
+
+INSERT INTO zip_file_summary (container, zipfilename, createdday, createddate, lastevent, lasteventat)
+SELECT started.container, started.zipfilename, started.createdday, started.createddate, latest.event, latest.createdat
+FROM (
+  SELECT container, zipfilename, date(createdat) AS createdday, MIN(createdat) AS createddate
+  FROM process_events
+  WHERE event = 'ZIPFILE_PROCESSING_STARTED'
+  GROUP BY container, zipfilename, date(createdat)
+) started
+JOIN LATERAL (
+  SELECT event, createdat
+  FROM process_events
+  WHERE container = started.container AND zipfilename = started.zipfilename
+  ORDER BY createdat DESC
+  LIMIT 1
+) latest ON true;
+
+CREATE OR REPLACE FUNCTION update_zip_file_summary()
+RETURNS TRIGGER AS $$
+BEGIN
+  IF NEW.event = 'ZIPFILE_PROCESSING_STARTED' THEN
+    INSERT INTO zip_file_summary (container, zipfilename, createdday, createddate, lastevent, lasteventat)
+    SELECT NEW.container, NEW.zipfilename, date(NEW.createdat), NEW.createdat, latest.event, latest.createdat
+    FROM (
+      SELECT event, createdat
+      FROM process_events
+      WHERE container = NEW.container AND zipfilename = NEW.zipfilename
+      ORDER BY createdat DESC
+      LIMIT 1
+    ) latest
+    ON CONFLICT (container, zipfilename, createdday)
+    DO UPDATE SET createddate = LEAST(zip_file_summary.createddate, EXCLUDED.createddate);
+  END IF;
+
+  UPDATE zip_file_summary
+  SET lastevent = NEW.event, lasteventat = NEW.createdat
+  WHERE container = NEW.container AND zipfilename = NEW.zipfilename AND lasteventat < NEW.createdat;
+
+  RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER update_zip_file_summary
+AFTER INSERT ON process_events
+FOR EACH ROW
+EXECUTE PROCEDURE update_zip_file_summary();
@@ -0,0 +1,116 @@
+-- process events are partitioned by month of createdat, so old months can be detached or archived and dropped
+-- instead of deleting rows, and queries filtering on createdat only read the partitions of their dates.
+-- existing events are kept in place as the legacy partition, which holds everything up to the end of this month.
+DROP TRIGGER update_zip_file_summary ON process_events;
+
+ALTER TABLE process_events RENAME TO process_events_legacy;
+ALTER TABLE process_events_legacy RENAME CONSTRAINT process_events_pkey TO process_events_legacy_pkey;
+ALTER INDEX process_events_container_event_idx RENAME TO process_events_legacy_container_event_idx;
+ALTER INDEX process_events_zip_idx RENAME TO process_events_legacy_zip_idx;
+ALTER INDEX process_events_container_zip_event_idx RENAME TO process_events_legacy_container_zip_event_idx;
+ALTER INDEX process_events_event_createdat_idx RENAME TO process_events_legacy_event_createdat_idx;
+
+-- the primary key of the partitioned table only reuses an index of the partition backing a constraint
+ALTER TABLE process_events_legacy
+  ADD CONSTRAINT process_events_legacy_id_createdat_key UNIQUE USING INDEX process_events_id_createdat_idx;
+
+-- primary key of a partitioned table has to include the partition key, ids are still unique as they come from
+-- the same sequence
+CREATE TABLE process_events (
+  id BIGINT NOT NULL DEFAULT nextval('process_events_id_seq'),
+  container VARCHAR(50) NOT NULL,
+  zipfilename VARCHAR(255) NOT NULL,
+  createdat TIMESTAMP NOT NULL,
+  event VARCHAR(100) NOT NULL,
+  reason TEXT NULL,
+  PRIMARY KEY (id, createdat)
+) PARTITION BY RANGE (createdat);
+
+ALTER SEQUENCE process_events_id_seq OWNED BY process_events.id;
+
+-- same definitions as the indexes of the legacy table, which get attached to these instead of being rebuilt,
+-- as does the index of the primary key
+CREATE INDEX process_events_container_event_idx ON process_events (container, event);
+CREATE INDEX process_events_zip_idx ON process_events (zipfilename);
+CREATE INDEX process_events_container_zip_event_idx ON process_events (container, zipfilename, event);
+CREATE INDEX process_events_event_createdat_idx ON process_events (event, createdat);
+
+-- createdat of the legacy table is already validated to be below a bound no later than this one in V066_1,
+-- so attaching it does not scan the table
+DO $$
+BEGIN
+  EXECUTE format(
+    'ALTER TABLE process_events ATTACH PARTITION process_events_legacy FOR VALUES FROM (MINVALUE) TO (%L)',
+    date_trunc('month', now()) + INTERVAL '1 month'
+  );
+END
+$$;
+
+-- only needed to attach the legacy table, the range of the partition bounds its createdat from now on
+ALTER TABLE process_events_legacy DROP CONSTRAINT process_events_createdat_check;
+
+-- partitions of process events with the end of the range of each of them, null for the default partition
+CREATE VIEW process_events_partitions AS
+SELECT
+  c.relname AS name,
+  substring(pg_get_expr(c.relpartbound, c.oid) FROM 'TO \(''(.*)''\)')::timestamp AS rangeend
+FROM pg_inherits i
+JOIN pg_class c ON c.oid = i.inhrelid
+WHERE i.inhparent = 'process_events'::regclass;
+
+-- events outside of the created partitions are not lost if partitions are not created in time
+CREATE TABLE process_events_default PARTITION OF process_events DEFAULT;
+
+-- creates the monthly partitions following the latest one, up to the end of the given number of months from now.
+-- a partition cannot be added while the default partition holds events of its month, so these events are moved
+-- to the new partition before it is attached. inserts into the default partition wait until partitions are created,
+-- so that no event of the month lands there in between. the zip file summary is not updated again for moved events,
+-- as they are not inserted into process events.
+-- returns the number of partitions created
+CREATE OR REPLACE FUNCTION create_process_events_partitions(months_ahead INT)
+RETURNS INT AS $$
+DECLARE
+  range_start TIMESTAMP;
+  partition_name TEXT;
+  created INT := 0;
+BEGIN
+  SELECT COALESCE(max(rangeend), date_trunc('month', now())) INTO range_start FROM process_events_partitions;
+
+  IF range_start >= date_trunc('month', now()) + make_interval(months => months_ahead + 1) THEN
+    RETURN 0;
+  END IF;
+
+  LOCK TABLE process_events_default IN SHARE ROW EXCLUSIVE MODE;
+
+  WHILE range_start < date_trunc('month', now()) + make_interval(months => months_ahead + 1) LOOP
+    partition_name := 'process_events_' || to_char(range_start, '"y"YYYY"m"MM');
+
+    EXECUTE format('CREATE TABLE %I (LIKE process_events INCLUDING DEFAULTS)', partition_name);
+    EXECUTE format(
+      'WITH moved AS (DELETE FROM process_events_default WHERE createdat >= %L AND createdat < %L RETURNING *) '
+        || 'INSERT INTO %I SELECT * FROM moved',
+      range_start,
+      range_start + INTERVAL '1 month',
+      partition_name
+    );
+    EXECUTE format(
+      'ALTER TABLE process_events ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+      partition_name,
+      range_start,
+      range_start + INTERVAL '1 month'
+    );
+
+    range_start := range_start + INTERVAL '1 month';
+    created := created + 1;
+  END LOOP;
+
+  RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT create_process_events_partitions(3);
+
+CREATE TRIGGER update_zip_file_summary
+AFTER INSERT ON process_events
+FOR EACH ROW
+EXECUTE PROCEDURE update_zip_file_summary();
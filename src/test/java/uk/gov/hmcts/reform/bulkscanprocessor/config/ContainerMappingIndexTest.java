@@ -0,0 +1,55 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.config;
+
+import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.bulkscanprocessor.config.ContainerMappings.Mapping;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ContainerMappingIndexTest {
+
+    private static final Mapping SSCS =
+        new Mapping("sscs", "SSCS", List.of("12625", "SSCSPO"), "https://sscs", true, true);
+    private static final Mapping SSCS_DUPLICATE =
+        new Mapping("sscs-other", "SSCS", List.of("sscspo"), "https://other", false, false);
+    private static final Mapping PROBATE =
+        new Mapping("probate", "PROBATE", List.of("12626"), null, false, true);
+
+    private final ContainerMappingIndex index = new ContainerMappingIndex(List.of(SSCS, SSCS_DUPLICATE, PROBATE));
+
+    @Test
+    void should_find_mapping_by_po_box_ignoring_case() {
+        assertThat(index.findByPoBox("sscsPO")).contains(SSCS);
+        assertThat(index.findByPoBox("12626")).contains(PROBATE);
+        assertThat(index.findByPoBox("unknown")).isEmpty();
+    }
+
+    @Test
+    void should_find_mapping_by_jurisdiction_and_po_box_ignoring_case() {
+        assertThat(index.findByJurisdictionAndPoBox("sscs", "12625")).contains(SSCS);
+        assertThat(index.findByJurisdictionAndPoBox("PROBATE", "12625")).isEmpty();
+    }
+
+    @Test
+    void should_match_container_jurisdiction_and_po_box_ignoring_case() {
+        assertThat(index.matches("SSCS", "sscs", "sscspo")).isTrue();
+        assertThat(index.matches("sscs-other", "SSCS", "SSCSPO")).isTrue();
+        assertThat(index.matches("probate", "SSCS", "12626")).isFalse();
+    }
+
+    @Test
+    void should_rebuild_index_when_mappings_are_set_again() {
+        ContainerMappings containerMappings = new ContainerMappings();
+        containerMappings.setMappings(List.of(SSCS));
+
+        ContainerMappingIndex firstIndex = containerMappings.getIndex();
+        assertThat(containerMappings.getIndex()).isSameAs(firstIndex);
+
+        containerMappings.setMappings(List.of(PROBATE));
+
+        assertThat(containerMappings.getIndex()).isNotSameAs(firstIndex);
+        assertThat(containerMappings.getIndex().findByPoBox("12626")).contains(PROBATE);
+        assertThat(containerMappings.getIndex().findByPoBox("12625")).isEmpty();
+    }
+}
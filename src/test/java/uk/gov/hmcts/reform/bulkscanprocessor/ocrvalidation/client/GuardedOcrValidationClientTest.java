@@ -0,0 +1,172 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.ocrvalidation.client;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.OcrValidationUnavailableException;
+import uk.gov.hmcts.reform.bulkscanprocessor.ocrvalidation.client.model.req.FormData;
+import uk.gov.hmcts.reform.bulkscanprocessor.ocrvalidation.client.model.req.OcrDataField;
+import uk.gov.hmcts.reform.bulkscanprocessor.ocrvalidation.client.model.res.Status;
+import uk.gov.hmcts.reform.bulkscanprocessor.ocrvalidation.client.model.res.ValidationResponse;
+
+import java.time.Duration;
+import java.util.List;
+
+import static java.util.Collections.emptyList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class GuardedOcrValidationClientTest {
+
+    private static final String URL = "https://example.com";
+    private static final String S2S_TOKEN = "token";
+
+    @Mock
+    private OcrValidationClient client;
+
+    @Test
+    void should_call_validation_once_for_identical_form_data() {
+        // given
+        GuardedOcrValidationClient guardedClient = guardedClient(Duration.ofSeconds(5), Duration.ofMinutes(1));
+        ValidationResponse response = new ValidationResponse(Status.SUCCESS, emptyList(), emptyList());
+        given(client.validate(eq(URL), any(), eq("PERSONAL"), eq(S2S_TOKEN))).willReturn(response);
+
+        // when
+        ValidationResponse first = guardedClient.validate(URL, formData("value"), "PERSONAL", S2S_TOKEN);
+        ValidationResponse second = guardedClient.validate(URL, formData("value"), "PERSONAL", S2S_TOKEN);
+
+        // then
+        assertThat(first).isSameAs(response);
+        assertThat(second).isSameAs(response);
+        verify(client, times(1)).validate(eq(URL), any(), eq("PERSONAL"), eq(S2S_TOKEN));
+    }
+
+    @Test
+    void should_call_validation_again_for_different_form_data() {
+        // given
+        GuardedOcrValidationClient guardedClient = guardedClient(Duration.ofSeconds(5), Duration.ofMinutes(1));
+        given(client.validate(eq(URL), any(), eq("PERSONAL"), eq(S2S_TOKEN)))
+            .willReturn(new ValidationResponse(Status.SUCCESS, emptyList(), emptyList()));
+
+        // when
+        guardedClient.validate(URL, formData("value"), "PERSONAL", S2S_TOKEN);
+        guardedClient.validate(URL, formData("other value"), "PERSONAL", S2S_TOKEN);
+
+        // then
+        verify(client, times(2)).validate(eq(URL), any(), eq("PERSONAL"), eq(S2S_TOKEN));
+    }
+
+    @Test
+    void should_not_cache_response_with_errors() {
+        // given
+        GuardedOcrValidationClient guardedClient = guardedClient(Duration.ofSeconds(5), Duration.ofMinutes(1));
+        ValidationResponse errors = new ValidationResponse(Status.ERRORS, emptyList(), List.of("invalid field"));
+        ValidationResponse success = new ValidationResponse(Status.SUCCESS, emptyList(), emptyList());
+        given(client.validate(eq(URL), any(), eq("PERSONAL"), eq(S2S_TOKEN))).willReturn(errors, success);
+
+        // when
+        ValidationResponse first = guardedClient.validate(URL, formData("value"), "PERSONAL", S2S_TOKEN);
+        ValidationResponse second = guardedClient.validate(URL, formData("value"), "PERSONAL", S2S_TOKEN);
+
+        // then
+        assertThat(first).isSameAs(errors);
+        assertThat(second).isSameAs(success);
+        verify(client, times(2)).validate(eq(URL), any(), eq("PERSONAL"), eq(S2S_TOKEN));
+    }
+
+    @Test
+    void should_fail_fast_once_circuit_is_open() {
+        // given
+        GuardedOcrValidationClient guardedClient = guardedClient(Duration.ofSeconds(5), Duration.ofMinutes(1));
+        given(client.validate(eq(URL), any(), anyString(), eq(S2S_TOKEN)))
+            .willThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE));
+
+        // when
+        Throwable firstFailure = catchThrowable(() -> guardedClient.validate(URL, formData("a"), "A", S2S_TOKEN));
+        Throwable secondFailure = catchThrowable(() -> guardedClient.validate(URL, formData("b"), "A", S2S_TOKEN));
+        Throwable fastFailure = catchThrowable(() -> guardedClient.validate(URL, formData("c"), "A", S2S_TOKEN));
+
+        // then
+        assertThat(firstFailure).isInstanceOf(HttpServerErrorException.class);
+        assertThat(secondFailure).isInstanceOf(HttpServerErrorException.class);
+        assertThat(fastFailure)
+            .isInstanceOf(OcrValidationUnavailableException.class)
+            .hasMessageContaining("circuit is open");
+        verify(client, times(2)).validate(eq(URL), any(), anyString(), eq(S2S_TOKEN));
+    }
+
+    @Test
+    void should_not_open_circuit_when_request_is_rejected() {
+        // given
+        GuardedOcrValidationClient guardedClient = guardedClient(Duration.ofSeconds(5), Duration.ofMinutes(1));
+        given(client.validate(eq(URL), any(), anyString(), eq(S2S_TOKEN)))
+            .willThrow(HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null));
+
+        // when
+        for (String value : List.of("a", "b", "c")) {
+            Throwable exc = catchThrowable(() -> guardedClient.validate(URL, formData(value), "A", S2S_TOKEN));
+
+            // then
+            assertThat(exc).isInstanceOf(HttpClientErrorException.NotFound.class);
+        }
+        verify(client, times(3)).validate(eq(URL), any(), anyString(), eq(S2S_TOKEN));
+    }
+
+    @Test
+    void should_time_out_slow_validation() {
+        // given
+        GuardedOcrValidationClient guardedClient = guardedClient(Duration.ofMillis(50), Duration.ofMinutes(1));
+        willAnswer(invocation -> {
+            Thread.sleep(1000);
+            return new ValidationResponse(Status.SUCCESS, emptyList(), emptyList());
+        }).given(client).validate(eq(URL), any(), anyString(), eq(S2S_TOKEN));
+
+        // when
+        Throwable exc = catchThrowable(() -> guardedClient.validate(URL, formData("a"), "A", S2S_TOKEN));
+
+        // then
+        assertThat(exc)
+            .isInstanceOf(OcrValidationUnavailableException.class)
+            .hasMessageContaining("timed out");
+    }
+
+    @Test
+    void should_call_client_directly_when_disabled() {
+        // given
+        GuardedOcrValidationClient guardedClient = new GuardedOcrValidationClient(
+            client, false, 1, Duration.ofSeconds(5), 2, Duration.ofMinutes(1), 100, Duration.ofHours(1)
+        );
+        FormData formData = formData("value");
+        given(client.validate(URL, formData, "A", S2S_TOKEN))
+            .willReturn(new ValidationResponse(Status.SUCCESS, emptyList(), emptyList()));
+
+        // when
+        guardedClient.validate(URL, formData, "A", S2S_TOKEN);
+        guardedClient.validate(URL, formData, "A", S2S_TOKEN);
+
+        // then
+        verify(client, times(2)).validate(URL, formData, "A", S2S_TOKEN);
+        verifyNoMoreInteractions(client);
+    }
+
+    private GuardedOcrValidationClient guardedClient(Duration timeout, Duration openDuration) {
+        return new GuardedOcrValidationClient(client, true, 1, timeout, 2, openDuration, 100, Duration.ofHours(1));
+    }
+
+    private static FormData formData(String value) {
+        return new FormData(List.of(new OcrDataField("field", value)));
+    }
+}
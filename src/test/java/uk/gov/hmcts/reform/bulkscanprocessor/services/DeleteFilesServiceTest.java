@@ -1,10 +1,9 @@
 package uk.gov.hmcts.reform.bulkscanprocessor.services;
 
-import com.azure.core.http.rest.Response;
-import com.azure.storage.blob.BlobClient;
+import com.azure.core.http.rest.PagedIterable;
 import com.azure.storage.blob.BlobContainerClient;
-import com.azure.storage.blob.models.BlobStorageException;
-import org.bouncycastle.util.StoreException;
+import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.ListBlobsOptions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,35 +12,32 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeRepository;
-import uk.gov.hmcts.reform.bulkscanprocessor.helper.EnvelopeCreator;
-import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseAcquirer;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.BlobBatchDeleter;
 
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
-import java.util.function.Consumer;
+import java.util.stream.Stream;
 
-import static com.azure.storage.blob.models.BlobErrorCode.BLOB_NOT_FOUND;
-import static com.azure.storage.blob.models.BlobErrorCode.BLOB_OVERWRITTEN;
 import static java.util.Collections.emptyList;
-import static java.util.Collections.singletonList;
 import static java.util.UUID.randomUUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyBoolean;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.Mockito.doAnswer;
-import static org.mockito.Mockito.doThrow;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
-import static org.mockito.Mockito.verifyNoMoreInteractions;
-import static uk.gov.hmcts.reform.bulkscanprocessor.entity.Status.COMPLETED;
+import static org.mockito.Mockito.verifyNoInteractions;
 
 @ExtendWith(MockitoExtension.class)
-@SuppressWarnings({"PMD", "unchecked"})
+@SuppressWarnings("unchecked")
 class DeleteFilesServiceTest {
 
+    private static final String CONTAINER_NAME_1 = "container1";
+
     @Mock
     private EnvelopeRepository envelopeRepository;
 
@@ -49,306 +45,133 @@ class DeleteFilesServiceTest {
     private EnvelopeMarkAsDeletedService envelopeMarkAsDeletedService;
 
     @Mock
-    private LeaseAcquirer leaseAcquirer;
+    private BlobBatchDeleter blobBatchDeleter;
 
     @Mock
     private BlobContainerClient container1;
 
     private DeleteFilesService deleteFilesService;
 
-    private static final String CONTAINER_NAME_1 = "container1";
-
     @BeforeEach
     void setUp() {
         deleteFilesService = new DeleteFilesService(
             envelopeRepository,
             envelopeMarkAsDeletedService,
-            leaseAcquirer
+            blobBatchDeleter
         );
         given(container1.getBlobContainerName()).willReturn(CONTAINER_NAME_1);
     }
 
     @Test
-    void should_delete_single_existing_file() {
+    void should_delete_existing_files_in_batch_and_mark_envelopes_as_deleted() {
         // given
-        final BlobClient blobClient = mock(BlobClient.class);
-
-        final Envelope envelope11 = EnvelopeCreator.envelope("X", COMPLETED, CONTAINER_NAME_1);
-
+        Envelope envelope1 = envelope("1.zip");
+        Envelope envelope2 = envelope("2.zip");
         given(envelopeRepository.getCompleteEnvelopesFromContainer(CONTAINER_NAME_1))
-            .willReturn(singletonList(envelope11));
-        prepareGivensForEnvelope(container1, blobClient, envelope11);
+            .willReturn(List.of(envelope1, envelope2));
 
-        leaseCanBeAcquired();
+        BlobItem blob1 = blob("1.zip");
+        BlobItem blob2 = blob("2.zip");
+        containerHas(blob1, blob2, blob("not-complete.zip"));
+        given(blobBatchDeleter.deleteBlobs(eq(container1), anyList())).willReturn(Set.of("1.zip", "2.zip"));
 
         // when
         deleteFilesService.processCompleteFiles(container1);
 
         // then
-        verify(envelopeRepository).getCompleteEnvelopesFromContainer(CONTAINER_NAME_1);
-        verifyEnvelopesSaving(envelope11);
-        verifyNoMoreInteractions(envelopeRepository);
+        var blobsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(blobBatchDeleter).deleteBlobs(eq(container1), blobsCaptor.capture());
+        assertThat(blobsCaptor.getValue()).containsExactlyInAnyOrder(blob1, blob2);
 
-        verifyBlobClientInteractions(blobClient);
+        assertThat(markedAsDeleted()).containsExactly(envelope1.getId(), envelope2.getId());
     }
 
     @Test
-    void should_handle_zero_complete_files() {
+    void should_mark_as_deleted_envelopes_whose_files_do_not_exist() {
         // given
+        Envelope envelope = envelope("1.zip");
         given(envelopeRepository.getCompleteEnvelopesFromContainer(CONTAINER_NAME_1))
-            .willReturn(emptyList());
+            .willReturn(List.of(envelope));
+        containerHas();
+        given(blobBatchDeleter.deleteBlobs(container1, emptyList())).willReturn(Set.of());
 
         // when
         deleteFilesService.processCompleteFiles(container1);
 
         // then
-        verify(envelopeRepository).getCompleteEnvelopesFromContainer(CONTAINER_NAME_1);
-        verifyNoMoreInteractions(envelopeRepository);
+        assertThat(markedAsDeleted()).containsExactly(envelope.getId());
     }
 
     @Test
-    void should_mark_as_deleted_single_non_existing_file() {
+    void should_not_mark_as_deleted_envelopes_whose_files_were_not_deleted() {
         // given
-        final BlobClient blobClient = mock(BlobClient.class);
-
-        final Envelope envelope11 = prepareEnvelope("X", blobClient, container1);
-        given(blobClient.exists()).willReturn(false);
-        assertThat(envelope11.isZipDeleted()).isFalse();
+        Envelope deletedEnvelope = envelope("1.zip");
+        Envelope leasedEnvelope = mock(Envelope.class);
+        given(leasedEnvelope.getZipFileName()).willReturn("2.zip");
+        given(envelopeRepository.getCompleteEnvelopesFromContainer(CONTAINER_NAME_1))
+            .willReturn(List.of(deletedEnvelope, leasedEnvelope));
+        containerHas(blob("1.zip"), blob("2.zip"));
+        given(blobBatchDeleter.deleteBlobs(eq(container1), anyList())).willReturn(Set.of("1.zip"));
 
         // when
         deleteFilesService.processCompleteFiles(container1);
 
         // then
-        verify(envelopeRepository).getCompleteEnvelopesFromContainer(CONTAINER_NAME_1);
-        verifyEnvelopesSaving(envelope11);
-        verifyNoMoreInteractions(envelopeRepository);
-        verify(blobClient).exists();
-        verifyNoMoreInteractions(blobClient);
+        assertThat(markedAsDeleted()).containsExactly(deletedEnvelope.getId());
     }
 
     @Test
-    void should_handle_not_deleting_existing_file() {
+    void should_handle_zero_complete_files() {
         // given
-        final BlobClient blobClient = mock(BlobClient.class);
-
-        String zipFileName = randomUUID() + ".zip";
-        String caseNumber = "12564233455665";
-        Envelope envelope = mock(Envelope.class);
-        given(envelope.getZipFileName()).willReturn(zipFileName);
-        given(envelope.getCaseNumber()).willReturn(caseNumber);
-
-        given(envelopeRepository
-            .getCompleteEnvelopesFromContainer(container1.getBlobContainerName()))
-            .willReturn(singletonList(envelope));
-
-        given(container1.getBlobClient(zipFileName)).willReturn(blobClient);
-
-        given(blobClient.exists()).willReturn(true);
-
-        doThrow(mock(BlobStorageException.class))
-            .when(blobClient).deleteWithResponse(any(),any(), any(), any());
-
-        doAnswer(invocation -> {
-            var okAction = (Consumer) invocation.getArgument(1);
-            okAction.accept(UUID.randomUUID().toString());
-            return null;
-        }).when(leaseAcquirer).ifAcquiredOrElse(any(), any(), any(), anyBoolean());
-
+        given(envelopeRepository.getCompleteEnvelopesFromContainer(CONTAINER_NAME_1))
+            .willReturn(emptyList());
 
         // when
         deleteFilesService.processCompleteFiles(container1);
 
         // then
-        verify(envelopeRepository).getCompleteEnvelopesFromContainer(CONTAINER_NAME_1);
-        verifyNoMoreInteractions(envelopeRepository);
-        verify(envelope, never()).setZipDeleted(anyBoolean());
-        verifyNoMoreInteractions(envelope);
-
-        verify(blobClient).exists();
-        verify(blobClient).deleteWithResponse(any(), any(), any(), any());
-        verifyNoMoreInteractions(blobClient);
+        verify(container1, never()).listBlobs(any(), any());
+        verifyNoInteractions(blobBatchDeleter, envelopeMarkAsDeletedService);
     }
 
     @Test
-    void should_not_delete_file_if_exception_thrown() {
+    void should_handle_failure_to_mark_envelopes_as_deleted() {
         // given
-
-        String zipFileName = randomUUID() + ".zip";
-        String caseNumber = "1714725907404444";
-        Envelope envelope = mock(Envelope.class);
-        given(envelope.getZipFileName()).willReturn(zipFileName);
-        given(envelope.getCaseNumber()).willReturn(caseNumber);
-
+        Envelope envelope = envelope("1.zip");
         given(envelopeRepository.getCompleteEnvelopesFromContainer(CONTAINER_NAME_1))
-            .willReturn(singletonList(envelope));
-        given(container1.getBlobClient(zipFileName))
-            .willThrow(new StoreException("msg", new RuntimeException()));
+            .willReturn(List.of(envelope));
+        containerHas(blob("1.zip"));
+        given(blobBatchDeleter.deleteBlobs(eq(container1), anyList())).willReturn(Set.of("1.zip"));
+        willThrow(new RuntimeException("db error"))
+            .given(envelopeMarkAsDeletedService).markEnvelopesAsDeleted(any(), any());
 
         // when
         deleteFilesService.processCompleteFiles(container1);
 
         // then
-        verify(envelopeRepository).getCompleteEnvelopesFromContainer(CONTAINER_NAME_1);
-        verifyNoMoreInteractions(envelopeRepository);
-        verify(envelope, never()).setZipDeleted(anyBoolean());
-        verifyNoMoreInteractions(envelope);
+        assertThat(markedAsDeleted()).containsExactly(envelope.getId());
     }
 
-    @Test
-    void should_handle_lease_acquire_exception() {
-        // given
-        final BlobClient blobClient = mock(BlobClient.class);
-
-        String zipFileName = randomUUID() + ".zip";
-
-        Envelope envelope = mock(Envelope.class);
-        given(envelope.getZipFileName()).willReturn(zipFileName);
-        given(envelope.getCaseNumber()).willReturn(null);
-
-        given(envelopeRepository
-            .getCompleteEnvelopesFromContainer(container1.getBlobContainerName()))
-            .willReturn(singletonList(envelope));
-
-        given(container1.getBlobClient(zipFileName)).willReturn(blobClient);
-
-        given(blobClient.exists()).willReturn(true);
-
-        doThrow(mock(BlobStorageException.class))
-            .when(leaseAcquirer).ifAcquiredOrElse(any(), any(), any(), anyBoolean());
-
-        // when
-        deleteFilesService.processCompleteFiles(container1);
-
-        // then
-        verify(envelopeRepository).getCompleteEnvelopesFromContainer(CONTAINER_NAME_1);
-        verifyNoMoreInteractions(envelopeRepository);
-        verify(envelope, never()).setZipDeleted(anyBoolean());
-        verifyNoMoreInteractions(envelope);
-        verify(leaseAcquirer).ifAcquiredOrElse(any(), any(), any(), anyBoolean());;
-
-        verify(blobClient).exists();
-        verify(blobClient, never()).deleteWithResponse(any(), any(), any(), any());
-        verifyNoMoreInteractions(blobClient);
+    private List<UUID> markedAsDeleted() {
+        var idsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(envelopeMarkAsDeletedService).markEnvelopesAsDeleted(idsCaptor.capture(), eq(CONTAINER_NAME_1));
+        return idsCaptor.getValue();
     }
 
-    @Test
-    void should_mark_as_deleted_when_error_code_blob_not_found() {
-        // given
-        final BlobClient blobClient = mock(BlobClient.class);
-
-        String zipFileName = randomUUID() + ".zip";
-        Envelope envelope = mock(Envelope.class);
-        given(envelope.getZipFileName()).willReturn(zipFileName);
-
-        given(envelopeRepository
-            .getCompleteEnvelopesFromContainer(container1.getBlobContainerName()))
-            .willReturn(singletonList(envelope));
-
-        given(container1.getBlobClient(zipFileName)).willReturn(blobClient);
-
-        given(blobClient.exists()).willReturn(true);
-
-
-        doAnswer(invocation -> {
-            var errorAction = (Consumer) invocation.getArgument(2);
-            errorAction.accept(BLOB_NOT_FOUND);
-            return null;
-        }).when(leaseAcquirer).ifAcquiredOrElse(any(), any(), any(), anyBoolean());
-
-
-        // when
-        deleteFilesService.processCompleteFiles(container1);
-
-        // then
-        verify(envelopeRepository).getCompleteEnvelopesFromContainer(CONTAINER_NAME_1);
-        verifyEnvelopesSaving(envelope);
-        verifyNoMoreInteractions(envelopeRepository);
-        verify(envelope, never()).setZipDeleted(anyBoolean());
-        verifyNoMoreInteractions(blobClient);
+    private void containerHas(BlobItem... blobs) {
+        PagedIterable<BlobItem> blobItems = mock(PagedIterable.class);
+        given(blobItems.stream()).willReturn(Stream.of(blobs));
+        given(container1.listBlobs(any(ListBlobsOptions.class), any())).willReturn(blobItems);
     }
 
-    @Test
-    void should_mark_as_deleted_when_error_code_different_than_blob_not_found() {
-        // given
-        final BlobClient blobClient = mock(BlobClient.class);
-
-        String zipFileName = randomUUID() + ".zip";
+    private static Envelope envelope(String zipFileName) {
         Envelope envelope = mock(Envelope.class);
         given(envelope.getZipFileName()).willReturn(zipFileName);
-
-        given(envelopeRepository
-            .getCompleteEnvelopesFromContainer(container1.getBlobContainerName()))
-            .willReturn(singletonList(envelope));
-
-        given(container1.getBlobClient(zipFileName)).willReturn(blobClient);
-
-        given(blobClient.exists()).willReturn(true);
-
-
-        doAnswer(invocation -> {
-            var errorAction = (Consumer) invocation.getArgument(2);
-            errorAction.accept(BLOB_OVERWRITTEN);
-            return null;
-        }).when(leaseAcquirer).ifAcquiredOrElse(any(), any(), any(), anyBoolean());
-
-
-        // when
-        deleteFilesService.processCompleteFiles(container1);
-
-        // then
-        verify(envelopeRepository).getCompleteEnvelopesFromContainer(CONTAINER_NAME_1);
-        verifyNoMoreInteractions(envelopeRepository);
-        verify(envelope, never()).setZipDeleted(anyBoolean());
-        verifyNoMoreInteractions(blobClient);
-    }
-
-    private Envelope prepareEnvelope(
-        String jurisdiction,
-        BlobClient blobClient,
-        BlobContainerClient container
-    ) {
-        final Envelope envelope = EnvelopeCreator.envelope(jurisdiction, COMPLETED, container.getBlobContainerName());
-        given(envelopeRepository
-            .getCompleteEnvelopesFromContainer(container.getBlobContainerName()))
-            .willReturn(singletonList(envelope));
-        given(container.getBlobClient(envelope.getZipFileName())).willReturn(blobClient);
-
+        given(envelope.getId()).willReturn(randomUUID());
         return envelope;
     }
 
-    private void prepareGivensForEnvelope(
-        BlobContainerClient container,
-        BlobClient blobClient,
-        Envelope envelope
-    ) {
-        given(container.getBlobClient(envelope.getZipFileName())).willReturn(blobClient);
-        given(blobClient.exists()).willReturn(true);
-        given(blobClient.deleteWithResponse(any(), any(), any(), any())).willReturn(mock(Response.class));
-        assertThat(envelope.isZipDeleted()).isFalse();
-    }
-
-    private void verifyBlobClientInteractions(BlobClient blobClient) {
-        verify(blobClient).exists();
-        verify(blobClient).deleteWithResponse(any(), any(), any(), any());
-        verify(blobClient).getBlobUrl();
-        verifyNoMoreInteractions(blobClient);
-    }
-
-    private void verifyEnvelopesSaving(Envelope... envelopes) {
-        ArgumentCaptor<UUID> envelopeIdCaptor = ArgumentCaptor.forClass(UUID.class);
-        verify(envelopeMarkAsDeletedService, times(envelopes.length))
-            .markEnvelopeAsDeleted(envelopeIdCaptor.capture(), anyString());
-        for (int i = 0; i < envelopes.length; i++) {
-            assertThat(envelopeIdCaptor.getAllValues().get(i))
-                .isEqualTo(envelopes[i].getId());
-        }
-    }
-
-    private void leaseCanBeAcquired() {
-        doAnswer(invocation -> {
-            var okAction = (Consumer) invocation.getArgument(1);
-            okAction.accept(UUID.randomUUID().toString());
-            return null;
-        }).when(leaseAcquirer).ifAcquiredOrElse(any(), any(), any(), anyBoolean());
+    private static BlobItem blob(String name) {
+        return new BlobItem().setName(name);
     }
 }
@@ -70,7 +70,7 @@ class EnvelopeActionServiceTest {
         // given
         var uuid = UUID.randomUUID();
 
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.empty());
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.empty());
 
         // when
         // then
@@ -88,7 +88,7 @@ class EnvelopeActionServiceTest {
             null,
             null
         );
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.of(envelope));
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.of(envelope));
 
         // when
         envelopeActionService.reprocessEnvelope(uuid);
@@ -132,7 +132,7 @@ class EnvelopeActionServiceTest {
             .willReturn(asList(event1, event2, event3));
 
         var uuid = UUID.randomUUID();
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.of(envelope));
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.of(envelope));
 
         // when
         envelopeActionService.reprocessEnvelope(uuid);
@@ -176,7 +176,7 @@ class EnvelopeActionServiceTest {
             .willReturn(asList(event1, event2, event3));
 
         var uuid = UUID.randomUUID();
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.of(envelope));
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.of(envelope));
 
         // when
         // then
@@ -197,7 +197,7 @@ class EnvelopeActionServiceTest {
             .willReturn(emptyList());
 
         var uuid = UUID.randomUUID();
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.of(envelope));
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.of(envelope));
 
         // when
         // then
@@ -214,7 +214,7 @@ class EnvelopeActionServiceTest {
             null,
             null
         );
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.of(envelope));
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.of(envelope));
 
         // when
         // then
@@ -232,7 +232,7 @@ class EnvelopeActionServiceTest {
             "111222333",
             "create"
         );
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.of(envelope));
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.of(envelope));
 
         // when
         // then
@@ -246,7 +246,7 @@ class EnvelopeActionServiceTest {
         // given
         var uuid = UUID.randomUUID();
 
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.empty());
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.empty());
 
         // when
         // then
@@ -266,7 +266,7 @@ class EnvelopeActionServiceTest {
             "ccdId",
             null
         );
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.of(envelope));
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.of(envelope));
         given(processEventRepository.findByZipFileNameOrderByCreatedAtDesc(envelope.getZipFileName()))
             .willReturn(asList(
                 new ProcessEvent(envelope.getContainer(), envelope.getZipFileName(), ZIPFILE_PROCESSING_STARTED),
@@ -304,7 +304,7 @@ class EnvelopeActionServiceTest {
             null,
             null
         );
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.of(envelope));
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.of(envelope));
 
         // when
         // then
@@ -324,7 +324,7 @@ class EnvelopeActionServiceTest {
             null,
             null
         );
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.of(envelope));
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.of(envelope));
         given(processEventRepository.findByZipFileNameOrderByCreatedAtDesc(envelope.getZipFileName()))
             .willReturn(asList(
                 new ProcessEvent(envelope.getContainer(), envelope.getZipFileName(), ZIPFILE_PROCESSING_STARTED),
@@ -346,7 +346,7 @@ class EnvelopeActionServiceTest {
         // given
         var uuid = UUID.randomUUID();
 
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.empty());
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.empty());
 
         // when
         // then
@@ -375,7 +375,7 @@ class EnvelopeActionServiceTest {
                 .willReturn(asList(event1, event2, event3));
 
         var uuid = UUID.randomUUID();
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.of(envelope));
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.of(envelope));
 
         // when
         envelopeActionService.moveEnvelopeToAborted(uuid);
@@ -415,7 +415,7 @@ class EnvelopeActionServiceTest {
                 .willReturn(asList(event1, event2, event3));
 
         var uuid = UUID.randomUUID();
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.of(envelope));
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.of(envelope));
 
         // when
         // then
@@ -432,7 +432,7 @@ class EnvelopeActionServiceTest {
                 .willReturn(emptyList());
 
         var uuid = UUID.randomUUID();
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.of(envelope));
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.of(envelope));
 
         // when
         // then
@@ -445,7 +445,7 @@ class EnvelopeActionServiceTest {
         // given
         var uuid = UUID.randomUUID();
         var envelope = envelope(UPLOADED, null, null);
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.of(envelope));
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.of(envelope));
 
         // when
         // then
@@ -459,7 +459,7 @@ class EnvelopeActionServiceTest {
         // given
         var uuid = UUID.randomUUID();
         var envelope = envelope(NOTIFICATION_SENT, "111222333", "create");
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.of(envelope));
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.of(envelope));
 
         // when
         // then
@@ -473,7 +473,7 @@ class EnvelopeActionServiceTest {
         // given
         var uuid = UUID.randomUUID();
 
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.empty());
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.empty());
 
         // when
         // then
@@ -500,7 +500,7 @@ class EnvelopeActionServiceTest {
             .willReturn(asList(event1, event2, event3));
 
         var uuid = UUID.randomUUID();
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.of(envelope));
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.of(envelope));
 
         // when
         envelopeActionService.updateClassificationAndReprocessEnvelope(uuid);
@@ -539,7 +539,7 @@ class EnvelopeActionServiceTest {
             .willReturn(asList(event1, event2, event3));
 
         var uuid = UUID.randomUUID();
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.of(envelope));
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.of(envelope));
 
         // when
         // then
@@ -556,7 +556,7 @@ class EnvelopeActionServiceTest {
             .willReturn(emptyList());
 
         var uuid = UUID.randomUUID();
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.of(envelope));
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.of(envelope));
 
         // when
         // then
@@ -569,7 +569,7 @@ class EnvelopeActionServiceTest {
         // given
         var uuid = UUID.randomUUID();
         var envelope = envelope(SUPPLEMENTARY_EVIDENCE, UPLOADED, null, null);
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.of(envelope));
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.of(envelope));
 
         // when
         // then
@@ -589,7 +589,7 @@ class EnvelopeActionServiceTest {
         // given
         var uuid = UUID.randomUUID();
         var envelope = envelope(classification, NOTIFICATION_SENT, null, null);
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.of(envelope));
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.of(envelope));
 
         // when
         // then
@@ -603,7 +603,7 @@ class EnvelopeActionServiceTest {
         // given
         var uuid = UUID.randomUUID();
         var envelope = envelope(SUPPLEMENTARY_EVIDENCE, NOTIFICATION_SENT, "111222333", "create");
-        given(envelopeRepository.findById(uuid)).willReturn(Optional.of(envelope));
+        given(envelopeRepository.findWithoutItemsById(uuid)).willReturn(Optional.of(envelope));
 
         // when
         // then
@@ -1,11 +1,13 @@
 package uk.gov.hmcts.reform.bulkscanprocessor.services;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.bulkscanprocessor.config.ContainerMappingIndex;
 import uk.gov.hmcts.reform.bulkscanprocessor.config.ContainerMappings;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.blob.InputEnvelope;
@@ -55,7 +57,7 @@ class EnvelopeHandlerTest {
     @Mock
     private FileRejector fileRejector;
 
-    private List<ContainerMappings.Mapping> mappings = emptyList();
+    private ContainerMappingIndex mappingIndex = new ContainerMappingIndex(emptyList());
 
     private List<String> pdfs = emptyList();
 
@@ -73,6 +75,7 @@ class EnvelopeHandlerTest {
             containerMappings,
             envelopeProcessor,
             ocrValidator,
+            new StageMetrics(new SimpleMeterRegistry()),
             paymentsEnabled
         );
         inputEnvelope = new InputEnvelope(
@@ -95,7 +98,7 @@ class EnvelopeHandlerTest {
     @Test
     void should_handle_and_save_envelope() {
         given(ocrValidator.assertOcrDataIsValid(inputEnvelope)).willReturn(warnings);
-        given(containerMappings.getMappings()).willReturn(mappings);
+        given(containerMappings.getIndex()).willReturn(mappingIndex);
 
         // when
         envelopeHandler.handleEnvelope(
@@ -108,14 +111,14 @@ class EnvelopeHandlerTest {
         // then
         verify(envelopeValidator).assertZipFilenameMatchesWithMetadata(inputEnvelope, FILE_NAME);
         verify(envelopeValidator).assertContainerMatchesJurisdictionAndPoBox(
-            containerMappings.getMappings(), inputEnvelope, CONTAINER_NAME
+            mappingIndex, inputEnvelope, CONTAINER_NAME
         );
-        verify(envelopeValidator).assertServiceEnabled(inputEnvelope, containerMappings.getMappings());
+        verify(envelopeValidator).assertServiceEnabled(inputEnvelope, mappingIndex);
         verify(envelopeValidator).assertEnvelopeContainsOcrDataIfRequired(inputEnvelope);
         verify(envelopeValidator).assertEnvelopeHasPdfs(inputEnvelope, pdfs);
         verify(envelopeValidator).assertDocumentControlNumbersAreUnique(inputEnvelope);
         verify(envelopeValidator).assertPaymentsEnabledForContainerIfPaymentsArePresent(
-            inputEnvelope, paymentsEnabled, containerMappings.getMappings()
+            inputEnvelope, paymentsEnabled, mappingIndex
         );
         verify(envelopeValidator).assertEnvelopeContainsDocsOfAllowedTypesOnly(inputEnvelope);
         verify(envelopeProcessor).assertDidNotFailToUploadBefore(inputEnvelope.zipFileName, CONTAINER_NAME);
@@ -0,0 +1,143 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.services;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeJdbcRepository;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEvent;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.out.EnvelopeLatencyInfo;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.COMPLETED;
+import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.DOC_PROCESSED_NOTIFICATION_SENT;
+import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.DOC_UPLOADED;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.EnvelopeLatencyTracker.LATENCY_TIMER;
+
+@ExtendWith(MockitoExtension.class)
+class EnvelopeLatencyTrackerTest {
+
+    private static final Instant ZIP_FILE_CREATED_AT = Instant.parse("2026-10-01T10:00:00Z");
+
+    @Mock
+    private EnvelopeJdbcRepository envelopeJdbcRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private EnvelopeLatencyTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new EnvelopeLatencyTracker(meterRegistry, envelopeJdbcRepository, Duration.ofHours(1));
+    }
+
+    @Test
+    void should_record_latency_from_zip_file_creation_to_event() {
+        // given
+        Envelope envelope = envelope("c1");
+
+        // when
+        tracker.eventRecorded(envelope, event(DOC_PROCESSED_NOTIFICATION_SENT, Duration.ofMinutes(2)));
+        tracker.eventRecorded(envelope, event(COMPLETED, Duration.ofMinutes(5)));
+
+        // then
+        Timer notified = latencyTimer("doc_processed_notification_sent");
+        assertThat(notified.count()).isEqualTo(1);
+        assertThat(notified.totalTime(TimeUnit.MINUTES)).isEqualTo(2);
+        Timer completed = latencyTimer("completed");
+        assertThat(completed.count()).isEqualTo(1);
+        assertThat(completed.totalTime(TimeUnit.MINUTES)).isEqualTo(5);
+    }
+
+    @Test
+    void should_publish_percentile_histogram_of_latency() {
+        // when
+        tracker.eventRecorded(envelope("c1"), event(COMPLETED, Duration.ofMinutes(5)));
+
+        // then
+        assertThat(latencyTimer("completed").takeSnapshot().histogramCounts()).isNotEmpty();
+    }
+
+    @Test
+    void should_not_record_latency_to_events_other_than_end_events() {
+        // given
+        Envelope envelope = mock(Envelope.class);
+
+        // when
+        tracker.eventRecorded(envelope, event(DOC_UPLOADED, Duration.ofMinutes(1)));
+
+        // then
+        assertThat(meterRegistry.find(LATENCY_TIMER).timer()).isNull();
+    }
+
+    @Test
+    void should_not_record_latency_of_envelope_without_zip_file_creation_time() {
+        // given
+        Envelope envelope = mock(Envelope.class);
+
+        // when
+        tracker.eventRecorded(envelope, event(COMPLETED, Duration.ofMinutes(1)));
+
+        // then
+        assertThat(meterRegistry.find(LATENCY_TIMER).timer()).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void should_read_latencies_of_envelopes_within_window() {
+        // given
+        List<EnvelopeLatencyInfo> latencies = List.of(
+            new EnvelopeLatencyInfo("c1", COMPLETED, 10, 60_000, 120_000, 300_000)
+        );
+        given(envelopeJdbcRepository.findLatencies(any(), any())).willReturn(latencies);
+        Instant windowStart = Instant.now().minus(Duration.ofHours(1));
+
+        // when
+        List<EnvelopeLatencyInfo> result = tracker.getLatencies();
+
+        // then
+        assertThat(result).isEqualTo(latencies);
+        ArgumentCaptor<Collection<Event>> eventsArg = ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Instant> sinceArg = ArgumentCaptor.forClass(Instant.class);
+        verify(envelopeJdbcRepository).findLatencies(eventsArg.capture(), sinceArg.capture());
+        assertThat(eventsArg.getValue()).containsExactlyInAnyOrder(DOC_PROCESSED_NOTIFICATION_SENT, COMPLETED);
+        assertThat(sinceArg.getValue()).isBetween(windowStart, Instant.now().minus(Duration.ofHours(1)));
+    }
+
+    private Timer latencyTimer(String event) {
+        return meterRegistry.get(LATENCY_TIMER)
+            .tag("container", "c1")
+            .tag("event", event)
+            .timer();
+    }
+
+    private static Envelope envelope(String container) {
+        Envelope envelope = mock(Envelope.class);
+        given(envelope.getContainer()).willReturn(container);
+        given(envelope.getZipFileCreateddate()).willReturn(ZIP_FILE_CREATED_AT);
+        return envelope;
+    }
+
+    private static ProcessEvent event(Event event, Duration afterZipFileCreated) {
+        ProcessEvent processEvent = new ProcessEvent("c1", "a.zip", event);
+        processEvent.setCreatedAt(ZIP_FILE_CREATED_AT.plus(afterZipFileCreated));
+        return processEvent;
+    }
+}
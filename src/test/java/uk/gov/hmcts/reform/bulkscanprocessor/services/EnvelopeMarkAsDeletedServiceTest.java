@@ -7,6 +7,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeJdbcRepository;
 
+import java.util.List;
 import java.util.UUID;
 
 import static org.mockito.Mockito.verify;
@@ -26,12 +27,12 @@ class EnvelopeMarkAsDeletedServiceTest {
     @Test
     void should_call_repository() {
         // given
-        UUID envelopeId = UUID.randomUUID();
+        List<UUID> envelopeIds = List.of(UUID.randomUUID(), UUID.randomUUID());
 
         // when
-        envelopeMarkAsDeletedService.markEnvelopeAsDeleted(envelopeId, "loggingContext");
+        envelopeMarkAsDeletedService.markEnvelopesAsDeleted(envelopeIds, "container");
 
         // then
-        verify(envelopeJdbcRepository).markEnvelopeAsDeleted(envelopeId);
+        verify(envelopeJdbcRepository).markEnvelopesAsDeleted(envelopeIds);
     }
 }
@@ -0,0 +1,118 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeJdbcRepository;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static uk.gov.hmcts.reform.bulkscanprocessor.entity.Status.UPLOADED;
+
+@ExtendWith(MockitoExtension.class)
+class EnvelopeWorkQueueTest {
+
+    private static final int PAGE_SIZE = 10;
+    private static final Duration CLAIM_DURATION = Duration.ofMinutes(15);
+
+    @Mock private EnvelopeJdbcRepository envelopeJdbcRepository;
+    @Mock private EnvelopeRepository envelopeRepository;
+
+    private EnvelopeWorkQueue workQueue;
+
+    @BeforeEach
+    void setUp() {
+        workQueue = new EnvelopeWorkQueue(envelopeJdbcRepository, envelopeRepository, PAGE_SIZE, CLAIM_DURATION);
+    }
+
+    @Test
+    void should_load_claimed_envelopes_to_upload_oldest_first() {
+        // given
+        Envelope older = mock(Envelope.class);
+        Envelope newer = mock(Envelope.class);
+        given(older.getCreatedAt()).willReturn(Instant.now().minusSeconds(60));
+        given(newer.getCreatedAt()).willReturn(Instant.now());
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        given(envelopeJdbcRepository.claimEnvelopesToUpload(eq(5), anyString(), eq(CLAIM_DURATION), eq(PAGE_SIZE)))
+            .willReturn(ids);
+        given(envelopeRepository.findAllById(ids)).willReturn(List.of(newer, older));
+
+        // when
+        List<Envelope> claimed = workQueue.claimEnvelopesToUpload(5);
+
+        // then
+        assertThat(claimed).containsExactly(older, newer);
+    }
+
+    @Test
+    void should_not_load_envelopes_when_none_was_claimed() {
+        // given
+        given(envelopeJdbcRepository.claimEnvelopesByStatus(
+            eq(UPLOADED), anyString(), eq(CLAIM_DURATION), eq(PAGE_SIZE)
+        )).willReturn(List.of());
+
+        // when
+        List<Envelope> claimed = workQueue.claimEnvelopesToNotify();
+
+        // then
+        assertThat(claimed).isEmpty();
+        verifyNoInteractions(envelopeRepository);
+    }
+
+    @Test
+    void should_release_envelopes_claimed_by_the_same_node() {
+        // given
+        given(envelopeJdbcRepository.claimEnvelopesByStatus(
+            eq(UPLOADED), anyString(), eq(CLAIM_DURATION), eq(PAGE_SIZE)
+        )).willReturn(List.of());
+        UUID envelopeId = UUID.randomUUID();
+        Envelope envelope = mock(Envelope.class);
+        given(envelope.getId()).willReturn(envelopeId);
+
+        // when
+        workQueue.claimEnvelopesToNotify();
+        workQueue.release(List.of(envelope));
+
+        // then
+        ArgumentCaptor<String> claimedBy = ArgumentCaptor.forClass(String.class);
+        verify(envelopeJdbcRepository)
+            .claimEnvelopesByStatus(eq(UPLOADED), claimedBy.capture(), eq(CLAIM_DURATION), eq(PAGE_SIZE));
+        verify(envelopeJdbcRepository).releaseClaims(List.of(envelopeId), claimedBy.getValue());
+    }
+
+    @Test
+    void should_extend_claims_of_the_same_node_by_claim_duration() {
+        // given
+        given(envelopeJdbcRepository.claimEnvelopesByStatus(
+            eq(UPLOADED), anyString(), eq(CLAIM_DURATION), eq(PAGE_SIZE)
+        )).willReturn(List.of());
+        UUID envelopeId = UUID.randomUUID();
+        Envelope envelope = mock(Envelope.class);
+        given(envelope.getId()).willReturn(envelopeId);
+
+        // when
+        workQueue.claimEnvelopesToNotify();
+        workQueue.extendClaims(List.of(envelope));
+
+        // then
+        ArgumentCaptor<String> claimedBy = ArgumentCaptor.forClass(String.class);
+        verify(envelopeJdbcRepository)
+            .claimEnvelopesByStatus(eq(UPLOADED), claimedBy.capture(), eq(CLAIM_DURATION), eq(PAGE_SIZE));
+        verify(envelopeJdbcRepository).extendClaims(List.of(envelopeId), claimedBy.getValue(), CLAIM_DURATION);
+    }
+}
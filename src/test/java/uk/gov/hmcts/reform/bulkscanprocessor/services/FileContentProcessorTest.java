@@ -1,16 +1,19 @@
 package uk.gov.hmcts.reform.bulkscanprocessor.services;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.DisallowedDocumentTypesException;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.MetadataNotFoundException;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.PaymentsDisabledException;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.ServiceDisabledException;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.blob.InputEnvelope;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.EnvelopeProcessor;
+import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ExtractedPdf;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ZipFileContentDetail;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ZipFileProcessor;
 
@@ -21,6 +24,7 @@ import static java.time.Instant.now;
 import static java.util.Collections.emptyList;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -50,6 +54,9 @@ class FileContentProcessorTest {
     @Mock
     private EnvelopeHandler envelopeHandler;
 
+    @Mock
+    private UploadEnvelopeDocumentsService uploadEnvelopeDocumentsService;
+
     @Mock
     private ZipInputStream zis;
 
@@ -69,7 +76,10 @@ class FileContentProcessorTest {
             zipFileProcessor,
             envelopeProcessor,
             envelopeHandler,
-            fileRejector
+            fileRejector,
+            uploadEnvelopeDocumentsService,
+            new StageMetrics(new SimpleMeterRegistry()),
+            false
         );
         inputEnvelope = new InputEnvelope(
             POBOX,
@@ -112,6 +122,41 @@ class FileContentProcessorTest {
         verifyNoMoreInteractions(envelopeProcessor);
     }
 
+    @Test
+    void should_upload_extracted_documents_in_single_pass_mode() throws Exception {
+        // given
+        fileContentProcessor = new FileContentProcessor(
+            zipFileProcessor,
+            envelopeProcessor,
+            envelopeHandler,
+            fileRejector,
+            uploadEnvelopeDocumentsService,
+            new StageMetrics(new SimpleMeterRegistry()),
+            true
+        );
+        List<ExtractedPdf> pdfFiles = List.of(ExtractedPdf.inMemory("1111002.pdf", new byte[0]));
+        ZipFileContentDetail extractedContent =
+            new ZipFileContentDetail(metadata, List.of("1111002.pdf"), pdfFiles, "extraction-id");
+        Envelope envelope = mock(Envelope.class);
+
+        given(zipFileProcessor.extractZipContent(zis, FILE_NAME)).willReturn(extractedContent);
+        given(envelopeProcessor.parseEnvelope(metadata, FILE_NAME)).willReturn(inputEnvelope);
+        given(envelopeHandler.handleEnvelope(CONTAINER_NAME, FILE_NAME, List.of("1111002.pdf"), inputEnvelope))
+            .willReturn(envelope);
+
+        // when
+        fileContentProcessor.processZipFileContent(
+            zis,
+            FILE_NAME,
+            CONTAINER_NAME
+        );
+
+        // then
+        verify(uploadEnvelopeDocumentsService).uploadExtractedDocuments(envelope, pdfFiles);
+        verify(zipFileProcessor).deleteExtractedFiles(extractedContent);
+        verifyNoInteractions(fileRejector);
+    }
+
     @Test
     void should_handle_payments_disabled() throws Exception {
         // given
@@ -6,7 +6,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.OcrPresenceException;
-import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.BlobManager;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.RejectedFileMover;
 
 import static org.mockito.Mockito.verify;
 import static uk.gov.hmcts.reform.bulkscanprocessor.model.out.msg.ErrorCode.ERR_METAFILE_INVALID;
@@ -23,7 +23,7 @@ class FileRejectorTest {
     private static final String CONTAINER = "container";
 
     @Mock
-    private BlobManager blobManager;
+    private RejectedFileMover rejectedFileMover;
 
     @Mock
     private ErrorNotificationSender errorNotificationSender;
@@ -31,7 +31,7 @@ class FileRejectorTest {
     @BeforeEach
     void setUp() {
         fileRejector = new FileRejector(
-            blobManager,
+            rejectedFileMover,
             errorNotificationSender
         );
     }
@@ -57,8 +57,8 @@ class FileRejectorTest {
                 EVENT_ID,
                 ERR_METAFILE_INVALID
             );
-        verify(blobManager)
-            .tryMoveFileToRejectedContainer(
+        verify(rejectedFileMover)
+            .moveToRejectedContainer(
                 FILE_NAME,
                 CONTAINER
             );
@@ -1,31 +1,45 @@
 package uk.gov.hmcts.reform.bulkscanprocessor.services;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeJdbcRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEvent;
-import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventRepository;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventJdbcRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.InvalidMessageException;
+import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.NotificationStateNotRecordedException;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.out.msg.EnvelopeMsg;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.servicebus.ServiceBusSendHelper;
 
+import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static uk.gov.hmcts.reform.bulkscanprocessor.entity.Status.NOTIFICATION_SENT;
 import static uk.gov.hmcts.reform.bulkscanprocessor.helper.EnvelopeCreator.envelope;
+import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.DOC_PROCESSED_NOTIFICATION_FAILURE;
 import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.DOC_PROCESSED_NOTIFICATION_SENT;
 
 @ExtendWith(MockitoExtension.class)
+@SuppressWarnings("unchecked")
 class OrchestratorNotificationServiceTest {
     private OrchestratorNotificationService orchestratorNotificationService;
 
@@ -36,7 +50,16 @@ class OrchestratorNotificationServiceTest {
     private EnvelopeRepository envelopeRepo;
 
     @Mock
-    private ProcessEventRepository processEventRepo;
+    private ProcessEventRecorder processEventRecorder;
+
+    @Mock
+    private EnvelopeJdbcRepository envelopeJdbcRepo;
+
+    @Mock
+    private ProcessEventJdbcRepository processEventJdbcRepo;
+
+    @Mock
+    private EnvelopeLatencyTracker envelopeLatencyTracker;
 
     private AtomicInteger successCount;
 
@@ -45,7 +68,11 @@ class OrchestratorNotificationServiceTest {
         orchestratorNotificationService = new OrchestratorNotificationService(
             serviceBusHelper,
             envelopeRepo,
-            processEventRepo
+            processEventRecorder,
+            envelopeJdbcRepo,
+            processEventJdbcRepo,
+            new StageMetrics(new SimpleMeterRegistry()),
+            envelopeLatencyTracker
         );
         successCount = new AtomicInteger(0);
     }
@@ -61,7 +88,7 @@ class OrchestratorNotificationServiceTest {
         // then
         verify(serviceBusHelper).sendMessage(any(EnvelopeMsg.class));
         ArgumentCaptor<ProcessEvent> eventArg = ArgumentCaptor.forClass(ProcessEvent.class);
-        verify(processEventRepo).saveAndFlush(eventArg.capture());
+        verify(processEventRecorder).record(eventArg.capture());
         assertThat(eventArg.getValue().getContainer()).isEqualTo(env.getContainer());
         assertThat(eventArg.getValue().getZipFileName()).isEqualTo(env.getZipFileName());
         assertThat(eventArg.getValue().getEvent()).isEqualTo(DOC_PROCESSED_NOTIFICATION_SENT);
@@ -71,6 +98,7 @@ class OrchestratorNotificationServiceTest {
         assertThat(envArg.getValue().getZipFileName()).isEqualTo(env.getZipFileName());
         assertThat(envArg.getValue().getStatus()).isEqualTo(NOTIFICATION_SENT);
         assertThat(successCount.get()).isEqualTo(1);
+        verify(envelopeLatencyTracker).eventRecorded(env, eventArg.getValue());
     }
 
     @Test
@@ -94,10 +122,64 @@ class OrchestratorNotificationServiceTest {
         assertThat(envArg.getValue().getZipFileName()).isEqualTo(env.getZipFileName());
         assertThat(envArg.getValue().getStatus()).isEqualTo(NOTIFICATION_SENT);
         ArgumentCaptor<ProcessEvent> argument = ArgumentCaptor.forClass(ProcessEvent.class);
-        verify(processEventRepo).saveAndFlush(argument.capture());
+        verify(processEventRecorder).record(argument.capture());
         assertThat(argument.getValue().getContainer()).isEqualTo(env.getContainer());
         assertThat(argument.getValue().getZipFileName()).isEqualTo(env.getZipFileName());
         assertThat(argument.getValue().getEvent()).isEqualTo(DOC_PROCESSED_NOTIFICATION_SENT);
         assertThat(successCount.get()).isZero();
+        verifyNoInteractions(envelopeLatencyTracker);
+    }
+
+    @Test
+    void should_notify_orchestrator_in_batch_and_record_failures_per_envelope() {
+        // given
+        UUID sentEnvelopeId = UUID.randomUUID();
+        Envelope sentEnv = spy(envelope());
+        given(sentEnv.getId()).willReturn(sentEnvelopeId);
+        Envelope failedEnv = spy(envelope());
+        given(failedEnv.getId()).willReturn(UUID.randomUUID());
+
+        given(serviceBusHelper.sendMessages(anyList())).willAnswer(invocation -> {
+            List<EnvelopeMsg> msgs = invocation.getArgument(0);
+            return msgs.stream().filter(msg -> msg.getMsgId().equals(sentEnvelopeId.toString())).toList();
+        });
+
+        // when
+        int sentCount = orchestratorNotificationService.processEnvelopes(List.of(sentEnv, failedEnv));
+
+        // then
+        assertThat(sentCount).isEqualTo(1);
+        verify(envelopeJdbcRepo).updateStatus(List.of(sentEnvelopeId), NOTIFICATION_SENT);
+        ArgumentCaptor<List<ProcessEvent>> eventsArg = ArgumentCaptor.forClass(List.class);
+        verify(processEventJdbcRepo).saveAll(eventsArg.capture());
+        assertThat(eventsArg.getValue())
+            .extracting(ProcessEvent::getZipFileName, ProcessEvent::getEvent)
+            .containsExactly(
+                tuple(sentEnv.getZipFileName(), DOC_PROCESSED_NOTIFICATION_SENT),
+                tuple(failedEnv.getZipFileName(), DOC_PROCESSED_NOTIFICATION_FAILURE)
+            );
+        verify(envelopeLatencyTracker).eventRecorded(sentEnv, eventsArg.getValue().get(0));
+        verify(envelopeLatencyTracker).eventRecorded(failedEnv, eventsArg.getValue().get(1));
+        verifyNoInteractions(envelopeRepo, processEventRecorder);
+    }
+
+    @Test
+    void should_report_sent_count_when_state_of_sent_envelopes_cannot_be_recorded() {
+        // given
+        Envelope env = spy(envelope());
+        given(env.getId()).willReturn(UUID.randomUUID());
+        given(serviceBusHelper.sendMessages(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+        willThrow(new DataAccessResourceFailureException("db down"))
+            .given(envelopeJdbcRepo).updateStatus(anyList(), any());
+
+        // when
+        assertThatThrownBy(() -> orchestratorNotificationService.processEnvelopes(List.of(env)))
+            .isInstanceOfSatisfying(
+                NotificationStateNotRecordedException.class,
+                exc -> assertThat(exc.getSentCount()).isEqualTo(1)
+            );
+
+        // then
+        verifyNoInteractions(envelopeLatencyTracker);
     }
 }
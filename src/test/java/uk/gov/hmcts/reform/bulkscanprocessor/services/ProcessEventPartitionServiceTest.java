@@ -0,0 +1,155 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.services;
+
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.BlobServiceClient;
+import com.azure.storage.blob.specialized.BlobOutputStream;
+import com.azure.storage.blob.specialized.BlockBlobClient;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventPartitionRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessEventPartitionServiceTest {
+
+    private static final int MONTHS_AHEAD = 3;
+    private static final Duration RETENTION_PERIOD = Duration.ofDays(730);
+    private static final String ARCHIVE_CONTAINER = "process-events-archive";
+
+    @Mock private ProcessEventPartitionRepository partitionRepository;
+    @Mock private BlobServiceClient blobServiceClient;
+    @Mock private BlobContainerClient containerClient;
+    @Mock private BlobClient blobClient;
+    @Mock private BlockBlobClient blockBlobClient;
+    @Mock private BlobOutputStream blobOutputStream;
+
+    @Test
+    void should_create_partitions_for_configured_months_ahead() {
+        // given
+        given(partitionRepository.createPartitions(MONTHS_AHEAD)).willReturn(1);
+
+        // when
+        service(true, false).createPartitions();
+
+        // then
+        verify(partitionRepository).createPartitions(MONTHS_AHEAD);
+    }
+
+    @Test
+    void should_not_remove_partitions_when_retention_is_disabled() {
+        // when
+        service(false, false).removeExpiredPartitions();
+
+        // then
+        verifyNoInteractions(partitionRepository, blobServiceClient);
+    }
+
+    @Test
+    void should_only_detach_partitions_past_retention_period_when_archive_is_disabled() {
+        // given
+        given(partitionRepository.findPartitionsEndingBefore(any()))
+            .willReturn(List.of("process_events_legacy", "process_events_y2024m01"));
+
+        // when
+        Instant before = Instant.now();
+        service(true, false).removeExpiredPartitions();
+        Instant after = Instant.now();
+
+        // then
+        var cutoffCaptor = ArgumentCaptor.forClass(Instant.class);
+        verify(partitionRepository).findPartitionsEndingBefore(cutoffCaptor.capture());
+        assertThat(cutoffCaptor.getValue()).isBetween(before.minus(RETENTION_PERIOD), after.minus(RETENTION_PERIOD));
+
+        verify(partitionRepository).detach("process_events_legacy");
+        verify(partitionRepository).detach("process_events_y2024m01");
+        verify(partitionRepository, never()).drop(anyString());
+        verifyNoInteractions(blobServiceClient);
+    }
+
+    @Test
+    void should_archive_partition_before_detaching_and_dropping_it() {
+        // given
+        given(partitionRepository.findPartitionsEndingBefore(any())).willReturn(List.of("process_events_y2024m01"));
+        givenArchiveBlobExists("process_events_y2024m01.csv.gz");
+
+        // when
+        service(true, true).removeExpiredPartitions();
+
+        // then
+        InOrder inOrder = inOrder(partitionRepository);
+        inOrder.verify(partitionRepository).forEachEvent(eq("process_events_y2024m01"), any());
+        inOrder.verify(partitionRepository).detach("process_events_y2024m01");
+        inOrder.verify(partitionRepository).drop("process_events_y2024m01");
+    }
+
+    @Test
+    void should_keep_partition_when_archiving_it_fails() {
+        // given
+        given(partitionRepository.findPartitionsEndingBefore(any())).willReturn(List.of("process_events_y2024m01"));
+        givenArchiveBlobExists("process_events_y2024m01.csv.gz");
+        willThrow(new DataAccessResourceFailureException("connection lost"))
+            .given(partitionRepository).forEachEvent(eq("process_events_y2024m01"), any());
+
+        // when
+        service(true, true).removeExpiredPartitions();
+
+        // then
+        verify(partitionRepository, never()).detach(anyString());
+        verify(partitionRepository, never()).drop(anyString());
+    }
+
+    @Test
+    void should_continue_with_next_partition_when_one_fails_to_be_detached() {
+        // given
+        given(partitionRepository.findPartitionsEndingBefore(any()))
+            .willReturn(List.of("process_events_legacy", "process_events_y2024m01"));
+        willThrow(new DataAccessResourceFailureException("lock timeout"))
+            .given(partitionRepository).detach("process_events_legacy");
+
+        // when
+        service(true, false).removeExpiredPartitions();
+
+        // then
+        verify(partitionRepository).detach("process_events_y2024m01");
+    }
+
+    private void givenArchiveBlobExists(String blobName) {
+        given(blobServiceClient.getBlobContainerClient(ARCHIVE_CONTAINER)).willReturn(containerClient);
+        given(containerClient.exists()).willReturn(true);
+        given(containerClient.getBlobClient(blobName)).willReturn(blobClient);
+        given(blobClient.getBlockBlobClient()).willReturn(blockBlobClient);
+        given(blockBlobClient.getBlobOutputStream(true)).willReturn(blobOutputStream);
+    }
+
+    private ProcessEventPartitionService service(boolean retentionEnabled, boolean archiveEnabled) {
+        return new ProcessEventPartitionService(
+            partitionRepository,
+            blobServiceClient,
+            MONTHS_AHEAD,
+            retentionEnabled,
+            RETENTION_PERIOD,
+            archiveEnabled,
+            ARCHIVE_CONTAINER
+        );
+    }
+}
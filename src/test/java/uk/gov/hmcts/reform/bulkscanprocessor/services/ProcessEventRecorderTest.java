@@ -0,0 +1,211 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.services;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEvent;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventJdbcRepository;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventRepository;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.ProcessEventRecorder.Mode;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.DOC_UPLOADED;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessEventRecorderTest {
+
+    private static final int BATCH_SIZE = 2;
+
+    @Mock private ProcessEventRepository processEventRepository;
+    @Mock private ProcessEventJdbcRepository processEventJdbcRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void should_save_and_flush_each_event_in_immediate_mode() {
+        // given
+        ProcessEvent event = event("a.zip");
+
+        // when
+        recorder(Mode.IMMEDIATE).record(event);
+
+        // then
+        verify(processEventRepository).saveAndFlush(event);
+        verifyNoInteractions(processEventJdbcRepository);
+        assertThat(flushSize(Mode.IMMEDIATE).count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_insert_events_of_transaction_in_single_batch_before_commit() {
+        // given
+        ProcessEventRecorder recorder = recorder(Mode.TRANSACTIONAL);
+        ProcessEvent event1 = event("a.zip");
+        ProcessEvent event2 = event("b.zip");
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // when
+        recorder.record(event1);
+        recorder.record(event2);
+
+        // then
+        verifyNoInteractions(processEventJdbcRepository);
+
+        // when
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        // then
+        verify(processEventJdbcRepository).saveAll(List.of(event1, event2));
+        verifyNoInteractions(processEventRepository);
+        assertThat(flushSize(Mode.TRANSACTIONAL).count()).isEqualTo(1);
+        assertThat(flushSize(Mode.TRANSACTIONAL).totalAmount()).isEqualTo(2);
+        assertThat(TransactionSynchronizationManager.hasResource(recorder)).isFalse();
+    }
+
+    @Test
+    void should_insert_event_right_away_when_there_is_no_transaction_in_transactional_mode() {
+        // given
+        ProcessEvent event = event("a.zip");
+
+        // when
+        recorder(Mode.TRANSACTIONAL).record(event);
+
+        // then
+        verify(processEventJdbcRepository).saveAll(List.of(event));
+    }
+
+    @Test
+    void should_insert_queued_events_once_batch_is_full_in_write_behind_mode() {
+        // given
+        ProcessEventRecorder recorder = recorder(Mode.WRITE_BEHIND);
+        ProcessEvent event1 = event("a.zip");
+        ProcessEvent event2 = event("b.zip");
+        ProcessEvent event3 = event("c.zip");
+
+        // when
+        recorder.record(event1);
+        recorder.record(event2);
+        recorder.record(event3);
+
+        // then
+        verify(processEventJdbcRepository).saveAll(List.of(event1, event2));
+
+        // when
+        recorder.flushQueue();
+
+        // then
+        verify(processEventJdbcRepository).saveAll(List.of(event3));
+        assertThat(flushSize(Mode.WRITE_BEHIND).count()).isEqualTo(2);
+    }
+
+    @Test
+    void should_insert_events_one_by_one_when_batch_fails_in_write_behind_mode() {
+        // given
+        ProcessEventRecorder recorder = recorder(Mode.WRITE_BEHIND);
+        ProcessEvent event1 = event("a.zip");
+        ProcessEvent event2 = event("b.zip");
+        willThrow(new DataIntegrityViolationException("value too long"))
+            .given(processEventJdbcRepository).saveAll(List.of(event1, event2));
+        willThrow(new DataIntegrityViolationException("value too long"))
+            .given(processEventJdbcRepository).saveAll(List.of(event1));
+
+        // when
+        recorder.record(event1);
+        recorder.record(event2);
+
+        // then
+        verify(processEventJdbcRepository).saveAll(List.of(event2));
+        assertThat(flushSize(Mode.WRITE_BEHIND).count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_insert_events_recorded_together_in_single_batch_in_immediate_mode() {
+        // given
+        ProcessEvent event1 = event("a.zip");
+        ProcessEvent event2 = event("b.zip");
+
+        // when
+        recorder(Mode.IMMEDIATE).recordAll(List.of(event1, event2));
+
+        // then
+        verify(processEventJdbcRepository).saveAll(List.of(event1, event2));
+        verifyNoInteractions(processEventRepository);
+        assertThat(flushSize(Mode.IMMEDIATE).totalAmount()).isEqualTo(2);
+    }
+
+    @Test
+    void should_add_events_recorded_together_to_events_of_transaction() {
+        // given
+        ProcessEventRecorder recorder = recorder(Mode.TRANSACTIONAL);
+        ProcessEvent event1 = event("a.zip");
+        ProcessEvent event2 = event("b.zip");
+        ProcessEvent event3 = event("c.zip");
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        // when
+        recorder.record(event1);
+        recorder.recordAll(List.of(event2, event3));
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+
+        // then
+        verify(processEventJdbcRepository).saveAll(List.of(event1, event2, event3));
+        assertThat(flushSize(Mode.TRANSACTIONAL).count()).isEqualTo(1);
+    }
+
+    @Test
+    void should_insert_queued_events_once_events_recorded_together_fill_batch_in_write_behind_mode() {
+        // given
+        ProcessEvent event1 = event("a.zip");
+        ProcessEvent event2 = event("b.zip");
+        ProcessEvent event3 = event("c.zip");
+
+        // when
+        recorder(Mode.WRITE_BEHIND).recordAll(List.of(event1, event2, event3));
+
+        // then
+        verify(processEventJdbcRepository).saveAll(List.of(event1, event2));
+        verify(processEventJdbcRepository).saveAll(List.of(event3));
+    }
+
+    private ProcessEventRecorder recorder(Mode mode) {
+        return new ProcessEventRecorder(
+            processEventRepository,
+            processEventJdbcRepository,
+            meterRegistry,
+            mode,
+            BATCH_SIZE
+        );
+    }
+
+    private DistributionSummary flushSize(Mode mode) {
+        return meterRegistry.get("process.events.flush.size").tag("mode", mode.name()).summary();
+    }
+
+    private static ProcessEvent event(String zipFileName) {
+        return new ProcessEvent("container", zipFileName, DOC_UPLOADED);
+    }
+}
@@ -0,0 +1,116 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.services;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.STAGE_ITEMS_COUNTER;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.STAGE_SIZE_SUMMARY;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.STAGE_TIMER;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.Stage.BLOB_LIST;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.Stage.DB_SAVE;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.Stage.DOWNLOAD;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics.Stage.SCHEMA_VALIDATION;
+
+class StageMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private StageMetrics stageMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        stageMetrics = new StageMetrics(meterRegistry);
+    }
+
+    @Test
+    void should_record_stage_with_success_outcome_and_return_its_result() {
+        // when
+        String result = stageMetrics.record(SCHEMA_VALIDATION, "c1", () -> "parsed");
+
+        // then
+        assertThat(result).isEqualTo("parsed");
+        assertThat(timerCount("schema_validation", "c1", "success")).isEqualTo(1);
+        assertThat(meterRegistry.find(STAGE_TIMER).tag("outcome", "failure").timer()).isNull();
+    }
+
+    @Test
+    void should_record_stage_with_failure_outcome_and_rethrow_when_stage_fails() {
+        // given
+        IOException failure = new IOException("failed");
+
+        // when
+        Throwable exc = catchThrowable(() -> stageMetrics.run(DB_SAVE, "c1", () -> {
+            throw failure;
+        }));
+
+        // then
+        assertThat(exc).isSameAs(failure);
+        assertThat(timerCount("db_save", "c1", "failure")).isEqualTo(1);
+    }
+
+    @Test
+    void should_count_items_of_the_stage_per_container() {
+        // when
+        stageMetrics.countItems(BLOB_LIST, "c1", 3);
+        stageMetrics.countItems(BLOB_LIST, "c1", 2);
+        stageMetrics.countItems(BLOB_LIST, "c2", 1);
+
+        // then
+        assertThat(itemsCount("c1")).isEqualTo(5);
+        assertThat(itemsCount("c2")).isEqualTo(1);
+    }
+
+    @Test
+    void should_record_download_with_bytes_read_when_stream_is_closed() throws Exception {
+        // given
+        byte[] content = new byte[1500];
+
+        // when
+        try (InputStream stream = stageMetrics.meterDownload(new ByteArrayInputStream(content), "c1")) {
+            assertThat(stream.read()).isZero();
+            assertThat(stream.readAllBytes()).hasSize(1499);
+            assertThat(meterRegistry.find(STAGE_TIMER).timer()).isNull();
+        }
+
+        // then
+        assertThat(timerCount(DOWNLOAD.tag(), "c1", "success")).isEqualTo(1);
+        assertThat(
+            meterRegistry.get(STAGE_SIZE_SUMMARY).tag("stage", "download").tag("container", "c1").summary()
+                .totalAmount()
+        ).isEqualTo(1500);
+    }
+
+    @Test
+    void should_tag_stage_of_unknown_container() {
+        // when
+        stageMetrics.run(DB_SAVE, null, () -> { });
+
+        // then
+        assertThat(timerCount("db_save", "unknown", "success")).isEqualTo(1);
+    }
+
+    private double itemsCount(String container) {
+        return meterRegistry.get(STAGE_ITEMS_COUNTER)
+            .tag("stage", "blob_list")
+            .tag("container", container)
+            .counter()
+            .count();
+    }
+
+    private long timerCount(String stage, String container, String outcome) {
+        return meterRegistry.get(STAGE_TIMER)
+            .tag("stage", stage)
+            .tag("container", container)
+            .tag("outcome", outcome)
+            .timer()
+            .count();
+    }
+}
@@ -0,0 +1,63 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.services;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UploadConcurrencyLimiterTest {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private final Map<String, AtomicInteger> inFlightByJurisdiction = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> maxInFlightByJurisdiction = new ConcurrentHashMap<>();
+
+    @Test
+    void should_not_exceed_node_and_jurisdiction_limits() {
+        // given
+        UploadConcurrencyLimiter limiter = new UploadConcurrencyLimiter(3, 2);
+
+        // when
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < 12; i++) {
+                String jurisdiction = i % 3 == 0 ? "SSCS" : "BULKSCAN";
+                executor.execute(() -> {
+                    try {
+                        limiter.run(jurisdiction, () -> upload(jurisdiction));
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            }
+        }
+
+        // then
+        assertThat(maxInFlight.get()).isBetween(2, 3);
+        assertThat(maxInFlightByJurisdiction.get("SSCS").get()).isLessThanOrEqualTo(2);
+        assertThat(maxInFlightByJurisdiction.get("BULKSCAN").get()).isLessThanOrEqualTo(2);
+    }
+
+    private void upload(String jurisdiction) {
+        AtomicInteger jurisdictionInFlight = inFlightByJurisdiction.computeIfAbsent(
+            jurisdiction,
+            key -> new AtomicInteger()
+        );
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        maxInFlightByJurisdiction
+            .computeIfAbsent(jurisdiction, key -> new AtomicInteger())
+            .accumulateAndGet(jurisdictionInFlight.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            jurisdictionInFlight.decrementAndGet();
+            inFlight.decrementAndGet();
+        }
+    }
+}
@@ -3,6 +3,7 @@ package uk.gov.hmcts.reform.bulkscanprocessor.services;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.specialized.BlobInputStream;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -18,9 +19,9 @@ import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseAcquirer;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.BlobManager;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.DocumentProcessor;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.EnvelopeProcessor;
+import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ExtractedPdf;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ZipFileProcessor;
 
-import java.io.File;
 import java.io.IOException;
 import java.util.List;
 import java.util.UUID;
@@ -70,7 +71,9 @@ class UploadEnvelopeDocumentsServiceTest {
             zipFileProcessor,
             documentProcessor,
             envelopeProcessor,
-            leaseAcquirer
+            leaseAcquirer,
+            new UploadConcurrencyLimiter(2, 1),
+            new StageMetrics(new SimpleMeterRegistry())
         );
     }
 
@@ -264,7 +267,7 @@ class UploadEnvelopeDocumentsServiceTest {
         leaseAcquired();
         given(blobClient.openInputStream()).willReturn(mock(BlobInputStream.class));
 
-        List<File> files = List.of(mock(File.class));
+        List<ExtractedPdf> files = List.of(ExtractedPdf.inMemory("doc.pdf", new byte[0]));
         doAnswer(invocation -> {
             var okAction = (Consumer) invocation.getArgument(2);
             okAction.accept(files);
@@ -293,6 +296,37 @@ class UploadEnvelopeDocumentsServiceTest {
 
     }
 
+    @Test
+    void should_upload_extracted_documents_without_downloading_blob() {
+        // given
+        Envelope envelope = getEnvelopes().get(0);
+        List<ExtractedPdf> pdfs = singletonList(ExtractedPdf.inMemory("doc.pdf", new byte[0]));
+
+        // when
+        uploadService.uploadExtractedDocuments(envelope, pdfs);
+
+        // then
+        verify(documentProcessor).uploadPdfFiles(pdfs, envelope.getScannableItems(), "jurisdiction", CONTAINER_1);
+        verify(envelopeProcessor).handleEvent(envelope, Event.DOC_UPLOADED);
+        verifyNoInteractions(blobManager, leaseAcquirer);
+    }
+
+    @Test
+    void should_leave_envelope_for_upload_task_when_extracted_documents_fail_to_upload() {
+        // given
+        Envelope envelope = getEnvelopes().get(0);
+        List<ExtractedPdf> pdfs = singletonList(ExtractedPdf.inMemory("doc.pdf", new byte[0]));
+        willThrow(new RuntimeException("upload failed"))
+            .given(documentProcessor).uploadPdfFiles(any(), any(), any(), any());
+
+        // when
+        uploadService.uploadExtractedDocuments(envelope, pdfs);
+
+        // then
+        verify(envelopeProcessor).markAsUploadFailure(envelope);
+        verify(envelopeProcessor, times(0)).handleEvent(envelope, Event.DOC_UPLOADED);
+    }
+
     private List<Envelope> getEnvelopes() {
         // service is only interested in status, createdAt, file name and container
         // default state is "CREATED" - that's what we need :+1:
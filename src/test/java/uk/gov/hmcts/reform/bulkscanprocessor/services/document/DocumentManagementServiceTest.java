@@ -2,6 +2,7 @@ package uk.gov.hmcts.reform.bulkscanprocessor.services.document;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.google.common.io.Resources;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -10,15 +11,24 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpStatus;
+import org.springframework.util.MultiValueMap;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.DocumentUrlNotRetrievedException;
+import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.DocumentsPartiallyUploadedException;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.UnableToUploadDocumentException;
+import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ExtractedPdf;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
 import java.nio.charset.Charset;
+import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 
 import static com.google.common.io.Resources.getResource;
@@ -29,6 +39,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -52,6 +63,8 @@ class DocumentManagementServiceTest {
 
     private ObjectMapper objectMapper = new ObjectMapper();
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @BeforeEach
     void setUp() {
 
@@ -60,7 +73,11 @@ class DocumentManagementServiceTest {
         documentManagementService = new DocumentManagementService(
             documentServiceHelper,
             "http://localhost:8080",
-            restTemplate
+            restTemplate,
+            meterRegistry,
+            DataSize.ofMegabytes(100),
+            3,
+            Duration.ZERO
         );
     }
 
@@ -68,8 +85,8 @@ class DocumentManagementServiceTest {
     void should_return_upload_response_with_document_urls_when_docs_are_successfully_uploaded()
         throws Exception {
         //Given
-        File pdf1 = new File(getResource("test1.pdf").toURI());
-        File pdf2 = new File(getResource("test2.pdf").toURI());
+        ExtractedPdf pdf1 = ExtractedPdf.onDisk(new File(getResource("test1.pdf").toURI()));
+        ExtractedPdf pdf2 = ExtractedPdf.onDisk(new File(getResource("test2.pdf").toURI()));
 
         given(documentServiceHelper.createDocumentUploadCredential("DIVORCE","finrem"))
             .willReturn(documentUploadCredential);
@@ -92,6 +109,11 @@ class DocumentManagementServiceTest {
 
         assertThat(actualUploadResponse).containsKeys("test1.pdf", "test2.pdf");
 
+        assertThat(meterRegistry.get("cdam.upload").tags("jurisdiction", "DIVORCE", "outcome", "success").timer()
+            .count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cdam.upload.size").tags("jurisdiction", "DIVORCE").summary()
+            .totalAmount()).isEqualTo(pdf1.getSize() + pdf2.getSize());
+
         verify(documentServiceHelper).createDocumentUploadCredential("DIVORCE", "finrem");
         verify(restTemplate).postForObject(
             eq("http://localhost:8080/cases/documents"),
@@ -103,8 +125,8 @@ class DocumentManagementServiceTest {
     @Test
     void should_throw_client_exception_when_service_auth_throws_unauthorized_exception() throws Exception {
         //Given
-        File pdf1 = new File(getResource("test1.pdf").toURI());
-        File pdf2 = new File(getResource("test2.pdf").toURI());
+        ExtractedPdf pdf1 = ExtractedPdf.onDisk(new File(getResource("test1.pdf").toURI()));
+        ExtractedPdf pdf2 = ExtractedPdf.onDisk(new File(getResource("test2.pdf").toURI()));
 
         given(documentServiceHelper.createDocumentUploadCredential(anyString(), anyString()))
             .willThrow(new HttpClientErrorException(HttpStatus.UNAUTHORIZED));
@@ -124,8 +146,8 @@ class DocumentManagementServiceTest {
     void should_throw_unable_to_upload_doc_exception_when_bulk_scan_service_throws_client_exception()
         throws Exception {
         //Given
-        File pdf1 = new File(getResource("test1.pdf").toURI());
-        File pdf2 = new File(getResource("test2.pdf").toURI());
+        ExtractedPdf pdf1 = ExtractedPdf.onDisk(new File(getResource("test1.pdf").toURI()));
+        ExtractedPdf pdf2 = ExtractedPdf.onDisk(new File(getResource("test2.pdf").toURI()));
         given(documentServiceHelper.createDocumentUploadCredential("BULKSCAN", "bulkscan"))
             .willReturn(documentUploadCredential);
 
@@ -151,8 +173,8 @@ class DocumentManagementServiceTest {
     @Test
     void should_throw_unable_to_upload_document_exception_when_document_storage_is_down() throws Exception {
         //Given
-        File pdf1 = new File(getResource("test1.pdf").toURI());
-        File pdf2 = new File(getResource("test2.pdf").toURI());
+        ExtractedPdf pdf1 = ExtractedPdf.onDisk(new File(getResource("test1.pdf").toURI()));
+        ExtractedPdf pdf2 = ExtractedPdf.onDisk(new File(getResource("test2.pdf").toURI()));
         given(documentServiceHelper
                   .createDocumentUploadCredential("BULKSCAN", "bulkscan"))
             .willReturn(documentUploadCredential);
@@ -175,13 +197,15 @@ class DocumentManagementServiceTest {
             .hasCauseExactlyInstanceOf(HttpServerErrorException.class);
 
         verify(documentServiceHelper).createDocumentUploadCredential(anyString(), anyString());
+        assertThat(meterRegistry.get("cdam.upload").tags("jurisdiction", "BULKSCAN", "outcome", "failure").timer()
+            .count()).isEqualTo(1);
     }
 
     @Test
     void should_throw_DocumentUrlNotRetrievedException_when_documents_null() throws Exception {
         //Given
-        File pdf1 = new File(getResource("test1.pdf").toURI());
-        File pdf2 = new File(getResource("test2.pdf").toURI());
+        ExtractedPdf pdf1 = ExtractedPdf.onDisk(new File(getResource("test1.pdf").toURI()));
+        ExtractedPdf pdf2 = ExtractedPdf.onDisk(new File(getResource("test2.pdf").toURI()));
         given(documentServiceHelper
                   .createDocumentUploadCredential("BULKSCAN", "bulkscan"))
             .willReturn(documentUploadCredential);
@@ -205,6 +229,160 @@ class DocumentManagementServiceTest {
         verify(documentServiceHelper).createDocumentUploadCredential("BULKSCAN", "bulkscan");
     }
 
+    @Test
+    void should_upload_documents_in_batches_and_retry_only_failed_batch() throws Exception {
+        //Given
+        ExtractedPdf pdf1 = ExtractedPdf.onDisk(new File(getResource("test1.pdf").toURI()));
+        ExtractedPdf pdf2 = ExtractedPdf.onDisk(new File(getResource("test2.pdf").toURI()));
+        documentManagementService = new DocumentManagementService(
+            documentServiceHelper,
+            "http://localhost:8080",
+            restTemplate,
+            meterRegistry,
+            DataSize.ofBytes(Math.max(pdf1.getSize(), pdf2.getSize())), // one document per batch
+            3,
+            Duration.ZERO
+        );
+
+        given(documentServiceHelper.createDocumentUploadCredential("DIVORCE", "finrem"))
+            .willReturn(documentUploadCredential);
+
+        List<Document> documents = getResponse().getDocuments();
+        given(restTemplate.postForObject(
+            eq("http://localhost:8080/cases/documents"),
+            httpEntityReqEntity.capture(),
+            any())
+        )
+            .willReturn(new UploadResponse(List.of(documents.get(0))))
+            .willThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE))
+            .willReturn(new UploadResponse(List.of(documents.get(1))));
+
+        //when
+        Map<String, String> actualUploadResponse =
+            documentManagementService.uploadDocuments(asList(pdf1, pdf2), "DIVORCE", "finrem");
+
+        //then
+        assertThat(actualUploadResponse).containsOnlyKeys("test1.pdf", "test2.pdf");
+
+        verify(restTemplate, times(3)).postForObject(anyString(), any(), any());
+        List<HttpEntity> requests = httpEntityReqEntity.getAllValues();
+        assertThat(requests).extracting(request -> ((MultiValueMap<?, ?>) request.getBody()).get("files").size())
+            .containsOnly(1);
+        // the second document is sent again, the first one is not
+        assertThat(requests.get(2).getBody()).isEqualTo(requests.get(1).getBody());
+    }
+
+    @Test
+    void should_not_retry_batch_rejected_with_client_error() throws Exception {
+        //Given
+        ExtractedPdf pdf1 = ExtractedPdf.onDisk(new File(getResource("test1.pdf").toURI()));
+        given(documentServiceHelper.createDocumentUploadCredential("BULKSCAN", "bulkscan"))
+            .willReturn(documentUploadCredential);
+
+        given(restTemplate.postForObject(
+            eq("http://localhost:8080/cases/documents"),
+            httpEntityReqEntity.capture(),
+            any())
+        ).willThrow(new HttpClientErrorException(HttpStatus.BAD_REQUEST));
+
+        //when
+        Throwable exc = catchThrowable(() -> documentManagementService
+            .uploadDocuments(List.of(pdf1), "BULKSCAN", "bulkscan"));
+
+        //then
+        assertThat(exc).isInstanceOf(UnableToUploadDocumentException.class);
+        verify(restTemplate).postForObject(anyString(), any(), any());
+    }
+
+    @Test
+    void should_retry_batch_when_connection_cannot_be_made() throws Exception {
+        //Given
+        ExtractedPdf pdf1 = ExtractedPdf.onDisk(new File(getResource("test1.pdf").toURI()));
+        given(documentServiceHelper.createDocumentUploadCredential("DIVORCE", "finrem"))
+            .willReturn(documentUploadCredential);
+
+        given(restTemplate.postForObject(
+            eq("http://localhost:8080/cases/documents"),
+            httpEntityReqEntity.capture(),
+            any())
+        )
+            .willThrow(new ResourceAccessException("I/O error", new ConnectException("Connection refused")))
+            .willReturn(new UploadResponse(List.of(getResponse().getDocuments().get(0))));
+
+        //when
+        Map<String, String> actualUploadResponse =
+            documentManagementService.uploadDocuments(List.of(pdf1), "DIVORCE", "finrem");
+
+        //then
+        assertThat(actualUploadResponse).containsOnlyKeys("test1.pdf");
+        verify(restTemplate, times(2)).postForObject(anyString(), any(), any());
+    }
+
+    @Test
+    void should_not_retry_batch_which_may_have_been_processed() throws Exception {
+        //Given
+        ExtractedPdf pdf1 = ExtractedPdf.onDisk(new File(getResource("test1.pdf").toURI()));
+        given(documentServiceHelper.createDocumentUploadCredential("BULKSCAN", "bulkscan"))
+            .willReturn(documentUploadCredential);
+
+        given(restTemplate.postForObject(
+            eq("http://localhost:8080/cases/documents"),
+            httpEntityReqEntity.capture(),
+            any())
+        )
+            .willThrow(new ResourceAccessException("I/O error", new SocketTimeoutException("Read timed out")))
+            .willThrow(new HttpServerErrorException(HttpStatus.BAD_GATEWAY));
+
+        //when
+        Throwable timeout = catchThrowable(() -> documentManagementService
+            .uploadDocuments(List.of(pdf1), "BULKSCAN", "bulkscan"));
+        Throwable serverError = catchThrowable(() -> documentManagementService
+            .uploadDocuments(List.of(pdf1), "BULKSCAN", "bulkscan"));
+
+        //then
+        assertThat(timeout).isInstanceOf(UnableToUploadDocumentException.class);
+        assertThat(serverError).isInstanceOf(UnableToUploadDocumentException.class);
+        verify(restTemplate, times(2)).postForObject(anyString(), any(), any());
+    }
+
+    @Test
+    void should_return_documents_of_uploaded_batches_when_later_batch_fails() throws Exception {
+        //Given
+        ExtractedPdf pdf1 = ExtractedPdf.onDisk(new File(getResource("test1.pdf").toURI()));
+        ExtractedPdf pdf2 = ExtractedPdf.onDisk(new File(getResource("test2.pdf").toURI()));
+        documentManagementService = new DocumentManagementService(
+            documentServiceHelper,
+            "http://localhost:8080",
+            restTemplate,
+            meterRegistry,
+            DataSize.ofBytes(Math.max(pdf1.getSize(), pdf2.getSize())), // one document per batch
+            3,
+            Duration.ZERO
+        );
+
+        given(documentServiceHelper.createDocumentUploadCredential("DIVORCE", "finrem"))
+            .willReturn(documentUploadCredential);
+
+        given(restTemplate.postForObject(
+            eq("http://localhost:8080/cases/documents"),
+            httpEntityReqEntity.capture(),
+            any())
+        )
+            .willReturn(new UploadResponse(List.of(getResponse().getDocuments().get(0))))
+            .willThrow(new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR));
+
+        //when
+        Throwable exc = catchThrowable(() -> documentManagementService
+            .uploadDocuments(asList(pdf1, pdf2), "DIVORCE", "finrem"));
+
+        //then
+        assertThat(exc)
+            .isInstanceOf(DocumentsPartiallyUploadedException.class)
+            .hasCauseExactlyInstanceOf(UnableToUploadDocumentException.class);
+        assertThat(((DocumentsPartiallyUploadedException) exc).getUploadedDocuments()).containsOnlyKeys("test1.pdf");
+        verify(restTemplate, times(2)).postForObject(anyString(), any(), any());
+    }
+
     private UploadResponse getResponse() throws IOException {
         return
             objectMapper.readValue(
@@ -14,12 +14,15 @@ import org.springframework.mail.javamail.JavaMailSenderImpl;
 import uk.gov.hmcts.reform.bulkscanprocessor.jupiter.GreenMailExtension;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.reports.ReportsService;
 
+import java.io.OutputStream;
 import java.time.LocalDate;
 import java.util.Properties;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.catchThrowable;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
@@ -68,7 +71,7 @@ class ReportSenderTest {
 
         LocalDate yesterday = LocalDate.now().minusDays(1);
 
-        verify(reportsService).getZipFilesSummary(yesterday, null, null);
+        verify(reportsService).writeZipFilesSummaryCsv(eq(yesterday), isNull(), any(OutputStream.class), eq(false));
     }
 
     @Test
@@ -7,6 +7,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.Status;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.reports.EnvelopeCountSummaryRepository;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.reports.ZipFileSummary;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.reports.ZipFilesSummaryRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.helper.reports.countsummary.Item;
 import uk.gov.hmcts.reform.bulkscanprocessor.helper.reports.zipfilesummary.ZipFileSummaryItem;
@@ -15,16 +16,21 @@ import uk.gov.hmcts.reform.bulkscanprocessor.services.reports.models.EnvelopeCou
 import uk.gov.hmcts.reform.bulkscanprocessor.services.reports.models.ZipFileSummaryResponse;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.reports.utils.ZeroRowFiller;
 
+import java.io.ByteArrayOutputStream;
 import java.time.Instant;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.time.LocalDate.now;
 import static java.time.LocalDateTime.ofInstant;
 import static java.time.temporal.ChronoUnit.MINUTES;
 import static java.util.Arrays.asList;
 import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
@@ -163,7 +169,7 @@ class ReportsServiceTest {
 
     @Test
     void should_map_empty_list_from_repo_when_requested_for_zipfiles_summary() {
-        given(zipFilesSummaryRepo.getZipFileSummaryReportFor(now()))
+        given(zipFilesSummaryRepo.getZipFileSummaryReportFor(now(), null, null))
             .willReturn(emptyList());
 
         // when
@@ -176,7 +182,7 @@ class ReportsServiceTest {
     @Test
     void should_map_db_results_when_requested_for_zipfiles_summary() {
         Instant instant = Instant.now();
-        given(zipFilesSummaryRepo.getZipFileSummaryReportFor(now()))
+        given(zipFilesSummaryRepo.getZipFileSummaryReportFor(now(), null, null))
             .willReturn(asList(
                 new ZipFileSummaryItem(
                     "t1.zip",
@@ -241,22 +247,44 @@ class ReportsServiceTest {
     }
 
     @Test
-    void should_filter_zipfiles_by_container_when_requested_for_zipfiles_summary() {
-        Instant instant = Instant.now();
-        given(zipFilesSummaryRepo.getZipFileSummaryReportFor(now()))
-            .willReturn(asList(
+    void should_write_streamed_db_results_as_csv_when_requested_for_zipfiles_summary_csv() throws Exception {
+        Instant instant = Instant.parse("2019-02-15T14:15:23Z");
+        AtomicBoolean closed = new AtomicBoolean();
+        given(zipFilesSummaryRepo.streamZipFileSummaryReportFor(now(), "c1", null))
+            .willReturn(Stream.<ZipFileSummary>of(
                 new ZipFileSummaryItem(
                     "t1.zip",
-                    instant.minus(1, MINUTES),
+                    instant,
                     null,
                     "c1",
-                    ZIPFILE_PROCESSING_STARTED.toString(),
-                    null,
+                    Event.ZIPFILE_PROCESSING_STARTED.toString(),
+                    Status.CREATED.toString(),
                     EXCEPTION.name(),
                     null,
                     null,
                     null
-                ),
+                )
+            ).onClose(() -> closed.set(true)));
+
+        // when
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        service.writeZipFilesSummaryCsv(now(), "c1", outputStream, false);
+
+        // then
+        assertThat(outputStream.toString(UTF_8))
+            .isEqualTo(
+                "Container,Zip File Name,Date Received,Time Received,Date Processed,Time Processed,"
+                    + "Status,Classification,CCD Action,CCD ID\r\n"
+                    + "c1,t1.zip,2019-02-15,14:15:23,,,ZIPFILE_PROCESSING_STARTED,EXCEPTION,,\r\n"
+            );
+        assertThat(closed).isTrue();
+    }
+
+    @Test
+    void should_filter_zipfiles_by_container_when_requested_for_zipfiles_summary() {
+        Instant instant = Instant.now();
+        given(zipFilesSummaryRepo.getZipFileSummaryReportFor(now(), "c2", null))
+            .willReturn(singletonList(
                 new ZipFileSummaryItem(
                     "t2.zip",
                     instant.minus(10, MINUTES),
@@ -284,20 +312,8 @@ class ReportsServiceTest {
     @Test
     void should_filter_zipfiles_by_classification_when_requested_for_zipfiles_summary() {
         Instant instant = Instant.now();
-        given(zipFilesSummaryRepo.getZipFileSummaryReportFor(now()))
+        given(zipFilesSummaryRepo.getZipFileSummaryReportFor(now(), null, NEW_APPLICATION.name()))
             .willReturn(asList(
-                new ZipFileSummaryItem(
-                    "t1.zip",
-                    instant.minus(1, MINUTES),
-                    null,
-                    "c1",
-                    ZIPFILE_PROCESSING_STARTED.toString(),
-                    null,
-                    EXCEPTION.name(),
-                    null,
-                    null,
-                    null
-                ),
                 new ZipFileSummaryItem(
                     "t2.zip",
                     instant.minus(1, MINUTES),
@@ -310,18 +326,6 @@ class ReportsServiceTest {
                     null,
                     null
                 ),
-                new ZipFileSummaryItem(
-                    "t3.zip",
-                    instant.minus(10, MINUTES),
-                    instant.minus(20, MINUTES),
-                    "c2",
-                    COMPLETED.toString(),
-                    null,
-                    EXCEPTION.name(),
-                    null,
-                    null,
-                    null
-                ),
                 new ZipFileSummaryItem(
                     "t4.zip",
                     instant.minus(10, MINUTES),
@@ -352,44 +356,8 @@ class ReportsServiceTest {
     @Test
     void should_filter_zipfiles_by_container_and_classification_when_requested_for_zipfiles_summary() {
         Instant instant = Instant.now();
-        given(zipFilesSummaryRepo.getZipFileSummaryReportFor(now()))
-            .willReturn(asList(
-                new ZipFileSummaryItem(
-                    "t1.zip",
-                    instant.minus(1, MINUTES),
-                    null,
-                    "c1",
-                    ZIPFILE_PROCESSING_STARTED.toString(),
-                    null,
-                    EXCEPTION.name(),
-                    null,
-                    null,
-                    null
-                ),
-                new ZipFileSummaryItem(
-                    "t2.zip",
-                    instant.minus(1, MINUTES),
-                    null,
-                    "c1",
-                    ZIPFILE_PROCESSING_STARTED.toString(),
-                    null,
-                    NEW_APPLICATION.name(),
-                    null,
-                    null,
-                    null
-                ),
-                new ZipFileSummaryItem(
-                    "t3.zip",
-                    instant.minus(10, MINUTES),
-                    instant.minus(20, MINUTES),
-                    "c2",
-                    COMPLETED.toString(),
-                    null,
-                    EXCEPTION.name(),
-                    null,
-                    null,
-                    null
-                ),
+        given(zipFilesSummaryRepo.getZipFileSummaryReportFor(now(), "c2", NEW_APPLICATION.name()))
+            .willReturn(singletonList(
                 new ZipFileSummaryItem(
                     "t4.zip",
                     instant.minus(10, MINUTES),
@@ -0,0 +1,175 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.services.storage;
+
+import com.azure.core.http.rest.Response;
+import com.azure.core.util.Context;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.batch.BlobBatch;
+import com.azure.storage.blob.batch.BlobBatchClient;
+import com.azure.storage.blob.models.BlobErrorCode;
+import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.BlobItemProperties;
+import com.azure.storage.blob.models.BlobRequestConditions;
+import com.azure.storage.blob.models.BlobStorageException;
+import com.azure.storage.blob.models.CopyStatusType;
+import com.azure.storage.blob.models.DeleteSnapshotsOptionType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.storage.BlobBatchDeleter.MAX_BATCH_SIZE;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseAcquirer.META_DATA_WAIT_COPY;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("unchecked")
+class BlobBatchDeleterTest {
+
+    private static final String CONTAINER_URL = "http://localhost/container1";
+
+    @Mock private BlobBatchClient blobBatchClient;
+    @Mock private BlobBatch blobBatch;
+    @Mock private LeaseMetaDataChecker leaseMetaDataChecker;
+    @Mock private BlobContainerClient container;
+
+    private BlobBatchDeleter blobBatchDeleter;
+
+    @BeforeEach
+    void setUp() {
+        blobBatchDeleter = new BlobBatchDeleter(blobBatchClient, leaseMetaDataChecker);
+        given(container.getBlobContainerName()).willReturn("container1");
+    }
+
+    @Test
+    void should_delete_blobs_with_snapshots_if_not_changed_since_listed() {
+        // given
+        given(container.getBlobContainerUrl()).willReturn(CONTAINER_URL);
+        given(blobBatchClient.getBlobBatch()).willReturn(blobBatch);
+        Response<Void> response = mock(Response.class);
+        given(blobBatch.deleteBlob(anyString(), any(), any())).willReturn(response);
+
+        // when
+        var deleted = blobBatchDeleter.deleteBlobs(container, List.of(blob("a b.zip", "0x1")));
+
+        // then
+        var conditionsCaptor = ArgumentCaptor.forClass(BlobRequestConditions.class);
+        verify(blobBatch).deleteBlob(
+            eq(CONTAINER_URL + "/a%20b.zip"),
+            eq(DeleteSnapshotsOptionType.INCLUDE),
+            conditionsCaptor.capture()
+        );
+        assertThat(conditionsCaptor.getValue().getIfMatch()).isEqualTo("\"0x1\"");
+        verify(blobBatchClient).submitBatchWithResponse(blobBatch, false, null, Context.NONE);
+        assertThat(deleted).containsExactly("a b.zip");
+    }
+
+    @Test
+    void should_split_blobs_into_batches_of_max_size() {
+        // given
+        given(container.getBlobContainerUrl()).willReturn(CONTAINER_URL);
+        given(blobBatchClient.getBlobBatch()).willReturn(blobBatch);
+        given(blobBatch.deleteBlob(anyString(), any(), any())).willReturn(mock(Response.class));
+
+        List<BlobItem> blobs = new ArrayList<>();
+        for (int i = 0; i < MAX_BATCH_SIZE + 1; i++) {
+            blobs.add(blob(i + ".zip", "0x" + i));
+        }
+
+        // when
+        var deleted = blobBatchDeleter.deleteBlobs(container, blobs);
+
+        // then
+        verify(blobBatchClient, times(2)).submitBatchWithResponse(any(), eq(false), any(), any());
+        assertThat(deleted).hasSize(MAX_BATCH_SIZE + 1);
+    }
+
+    @Test
+    void should_count_blobs_not_found_as_deleted_and_skip_other_failures() {
+        // given
+        given(container.getBlobContainerUrl()).willReturn(CONTAINER_URL);
+        given(blobBatchClient.getBlobBatch()).willReturn(blobBatch);
+        Response<Void> notFound = failedResponse(BlobErrorCode.BLOB_NOT_FOUND);
+        Response<Void> changed = failedResponse(BlobErrorCode.CONDITION_NOT_MET);
+        given(blobBatch.deleteBlob(eq(CONTAINER_URL + "/gone.zip"), any(), any())).willReturn(notFound);
+        given(blobBatch.deleteBlob(eq(CONTAINER_URL + "/changed.zip"), any(), any())).willReturn(changed);
+
+        // when
+        var deleted = blobBatchDeleter.deleteBlobs(
+            container,
+            List.of(blob("gone.zip", "0x1"), blob("changed.zip", "0x2"))
+        );
+
+        // then
+        assertThat(deleted).containsExactly("gone.zip");
+    }
+
+    @Test
+    void should_skip_leased_blobs_and_blobs_being_copied() {
+        // given
+        BlobItem leased = blob("leased.zip", "0x1").setMetadata(Map.of("leaseExpirationTime", "x"));
+        given(leaseMetaDataChecker.isLeased(leased.getMetadata())).willReturn(true);
+
+        BlobItem copying = blob("copying.zip", "0x2");
+        copying.getProperties().setCopyStatus(CopyStatusType.PENDING);
+
+        BlobItem waitingCopy = blob("waiting.zip", "0x3").setMetadata(Map.of(META_DATA_WAIT_COPY, "true"));
+
+        // when
+        var deleted = blobBatchDeleter.deleteBlobs(container, List.of(leased, copying, waitingCopy));
+
+        // then
+        assertThat(deleted).isEmpty();
+        verifyNoInteractions(blobBatchClient);
+    }
+
+    @Test
+    void should_continue_with_next_batch_when_batch_fails() {
+        // given
+        given(container.getBlobContainerUrl()).willReturn(CONTAINER_URL);
+        given(blobBatchClient.getBlobBatch()).willReturn(blobBatch);
+        given(blobBatch.deleteBlob(anyString(), any(), any())).willReturn(mock(Response.class));
+        willThrow(new RuntimeException("connection reset"))
+            .willReturn(null)
+            .given(blobBatchClient).submitBatchWithResponse(any(), eq(false), any(), any());
+
+        List<BlobItem> blobs = new ArrayList<>();
+        for (int i = 0; i < MAX_BATCH_SIZE + 1; i++) {
+            blobs.add(blob(i + ".zip", "0x" + i));
+        }
+
+        // when
+        var deleted = blobBatchDeleter.deleteBlobs(container, blobs);
+
+        // then
+        assertThat(deleted).containsExactly(MAX_BATCH_SIZE + ".zip");
+    }
+
+    private static Response<Void> failedResponse(BlobErrorCode errorCode) {
+        BlobStorageException exception = mock(BlobStorageException.class);
+        given(exception.getErrorCode()).willReturn(errorCode);
+        Response<Void> response = mock(Response.class);
+        given(response.getStatusCode()).willThrow(exception);
+        return response;
+    }
+
+    private static BlobItem blob(String name, String etag) {
+        return new BlobItem()
+            .setName(name)
+            .setProperties(new BlobItemProperties().setETag(etag));
+    }
+}
@@ -0,0 +1,128 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.services.storage;
+
+import com.azure.core.http.rest.PagedIterable;
+import com.azure.core.http.rest.PagedResponse;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.BlobItemProperties;
+import com.azure.storage.blob.models.ListBlobsOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+@ExtendWith(MockitoExtension.class)
+@SuppressWarnings("unchecked")
+class BlobInventoryTest {
+
+    private static final String CONTAINER = "bulkscan";
+    private static final OffsetDateTime LAST_MODIFIED = OffsetDateTime.parse("2026-01-01T10:00:00Z");
+
+    @Mock
+    private BlobContainerClient container;
+
+    private BlobInventory inventory;
+
+    @BeforeEach
+    void setUp() {
+        inventory = new BlobInventory(2, true, Duration.ofHours(1));
+        given(container.getBlobContainerName()).willReturn(CONTAINER);
+    }
+
+    @Test
+    void should_list_all_pages_of_blobs() {
+        // given
+        listing(
+            List.of(blob("1.zip", "etag-1"), blob("2.zip", "etag-2")),
+            List.of(blob("3.zip", "etag-3"))
+        );
+
+        // when
+        List<String> zipFileNames = inventory.getNewOrChangedZipFileNames(container);
+
+        // then
+        assertThat(zipFileNames).containsExactlyInAnyOrder("1.zip", "2.zip", "3.zip");
+    }
+
+    @Test
+    void should_skip_processed_blobs_until_they_change() {
+        // given
+        listing(List.of(blob("1.zip", "etag-1"), blob("2.zip", "etag-2"), blob("3.zip", "etag-3")));
+        inventory.getNewOrChangedZipFileNames(container);
+        inventory.markProcessed(CONTAINER, "1.zip");
+        inventory.markProcessed(CONTAINER, "2.zip");
+
+        listing(List.of(blob("1.zip", "etag-1"), blob("2.zip", "etag-2-changed"), blob("3.zip", "etag-3")));
+
+        // when
+        List<String> zipFileNames = inventory.getNewOrChangedZipFileNames(container);
+
+        // then
+        assertThat(zipFileNames).containsExactlyInAnyOrder("2.zip", "3.zip");
+    }
+
+    @Test
+    void should_forget_processed_blobs_which_were_deleted() {
+        // given
+        listing(List.of(blob("1.zip", "etag-1")));
+        inventory.getNewOrChangedZipFileNames(container);
+        inventory.markProcessed(CONTAINER, "1.zip");
+
+        listing(List.of());
+        inventory.getNewOrChangedZipFileNames(container);
+
+        // blob uploaded again with the same properties
+        listing(List.of(blob("1.zip", "etag-1")));
+
+        // when
+        List<String> zipFileNames = inventory.getNewOrChangedZipFileNames(container);
+
+        // then
+        assertThat(zipFileNames).containsExactly("1.zip");
+    }
+
+    @Test
+    void should_list_processed_blobs_again_once_ttl_elapsed() {
+        // given
+        inventory = new BlobInventory(2, true, Duration.ZERO);
+        listing(List.of(blob("1.zip", "etag-1"), blob("2.zip", "etag-2")));
+        inventory.getNewOrChangedZipFileNames(container);
+        inventory.markProcessed(CONTAINER, "1.zip");
+
+        // when
+        List<String> zipFileNames = inventory.getNewOrChangedZipFileNames(container);
+
+        // then
+        assertThat(zipFileNames).containsExactlyInAnyOrder("1.zip", "2.zip");
+    }
+
+    private void listing(List<BlobItem>... pages) {
+        PagedIterable<BlobItem> pagedIterable = mock(PagedIterable.class);
+        List<PagedResponse<BlobItem>> responses = new ArrayList<>();
+        for (List<BlobItem> blobs : pages) {
+            PagedResponse<BlobItem> response = mock(PagedResponse.class);
+            given(response.getValue()).willReturn(blobs);
+            responses.add(response);
+        }
+        given(pagedIterable.iterableByPage()).willReturn(responses);
+        given(container.listBlobs(any(ListBlobsOptions.class), isNull())).willReturn(pagedIterable);
+    }
+
+    private static BlobItem blob(String name, String etag) {
+        return new BlobItem()
+            .setName(name)
+            .setProperties(new BlobItemProperties().setETag(etag).setLastModified(LAST_MODIFIED));
+    }
+}
@@ -5,6 +5,7 @@ import com.azure.storage.blob.models.BlobErrorCode;
 import com.azure.storage.blob.models.BlobProperties;
 import com.azure.storage.blob.models.BlobStorageException;
 import com.azure.storage.blob.models.CopyStatusType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -12,24 +13,33 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics;
+import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.BlobManager;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 import static com.azure.storage.blob.models.BlobErrorCode.BLOB_NOT_FOUND;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseMetaDataChecker.LEASE_EXPIRATION_TIME;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.storage.RejectedFileMover.PENDING_REJECTION;
 
 @ExtendWith(MockitoExtension.class)
 @SuppressWarnings("unchecked")
@@ -40,19 +50,28 @@ class LeaseAcquirerTest {
     @Mock private BlobStorageException blobStorageException;
 
     @Mock private LeaseMetaDataChecker leaseMetaDataChecker;
+    @Mock private RejectedFileMover rejectedFileMover;
+    @Mock private BlobManager blobManager;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
 
     private LeaseAcquirer leaseAcquirer;
 
     @BeforeEach
     void setUp() {
-        leaseAcquirer = new LeaseAcquirer(leaseMetaDataChecker);
+        leaseAcquirer = new LeaseAcquirer(
+            leaseMetaDataChecker,
+            rejectedFileMover,
+            meterRegistry,
+            new StageMetrics(meterRegistry)
+        );
     }
 
     @Test
     void should_run_provided_action_when_lease_was_acquired() {
         // given
         setCopyStatus(null);
-        given(leaseMetaDataChecker.isReadyToUse(any())).willReturn(true);
+        given(leaseMetaDataChecker.isReadyToUse(any(), any())).willReturn(true);
         var onSuccess = mock(Consumer.class);
         var onFailure = mock(Consumer.class);
         // when
@@ -61,7 +80,7 @@ class LeaseAcquirerTest {
         // then
         verify(onSuccess).accept(null);
         verify(onFailure, never()).accept(any(BlobErrorCode.class));
-        verify(leaseMetaDataChecker).isReadyToUse(blobClient);
+        verify(leaseMetaDataChecker).isReadyToUse(eq(blobClient), any());
         verifyNoMoreInteractions(leaseMetaDataChecker);
     }
 
@@ -71,7 +90,7 @@ class LeaseAcquirerTest {
         var onSuccess = mock(Consumer.class);
         var onFailure = mock(Consumer.class);
         setCopyStatus(null);
-        doThrow(blobStorageException).when(leaseMetaDataChecker).isReadyToUse(any());
+        doThrow(blobStorageException).when(leaseMetaDataChecker).isReadyToUse(any(), any());
 
         // when
         leaseAcquirer.ifAcquiredOrElse(blobClient, onSuccess, onFailure, false);
@@ -86,7 +105,7 @@ class LeaseAcquirerTest {
         // given
         setCopyStatus(CopyStatusType.SUCCESS);
 
-        doThrow(blobStorageException).when(leaseMetaDataChecker).isReadyToUse(any());
+        doThrow(blobStorageException).when(leaseMetaDataChecker).isReadyToUse(any(), any());
 
         // when
         leaseAcquirer.ifAcquiredOrElse(blobClient, mock(Consumer.class), mock(Consumer.class), true);
@@ -98,7 +117,7 @@ class LeaseAcquirerTest {
     @Test
     void should_call_release_when_successfully_processed_blob() {
         //given
-        given(leaseMetaDataChecker.isReadyToUse(any())).willReturn(true);
+        given(leaseMetaDataChecker.isReadyToUse(any(), any())).willReturn(true);
 
         given(blobClient.getProperties()).willReturn(blobProperties);
         final Map<String, String> metadata = new HashMap<>();
@@ -111,7 +130,7 @@ class LeaseAcquirerTest {
         leaseAcquirer.ifAcquiredOrElse(blobClient, mock(Consumer.class), mock(Consumer.class), true);
 
         // then
-        verify(leaseMetaDataChecker).isReadyToUse(blobClient);
+        verify(leaseMetaDataChecker).isReadyToUse(eq(blobClient), any());
         verify(blobClient).setMetadata(metadata);
         assertThat(metadata).doesNotContainKey(LEASE_EXPIRATION_TIME);
         assertThat(metadata).containsKey("someProperty");
@@ -128,7 +147,7 @@ class LeaseAcquirerTest {
 
         setCopyStatus(CopyStatusType.SUCCESS);
 
-        given(leaseMetaDataChecker.isReadyToUse(any())).willReturn(false);
+        given(leaseMetaDataChecker.isReadyToUse(any(), any())).willReturn(false);
 
         // when
         leaseAcquirer.ifAcquiredOrElse(blobClient, onSuccess, onFailure, false);
@@ -142,7 +161,7 @@ class LeaseAcquirerTest {
     @Test
     void should_catch_exception_when_metadata_lease_clear_throw_exception() {
         // given
-        given(leaseMetaDataChecker.isReadyToUse(any())).willReturn(true);
+        given(leaseMetaDataChecker.isReadyToUse(any(), any())).willReturn(true);
         willThrow(new BlobStorageException("Can not clear metadata", null, null))
             .given(blobClient).setMetadata(any());
 
@@ -162,7 +181,7 @@ class LeaseAcquirerTest {
         // then
         verify(onSuccess).accept(null);
         verify(onFailure, never()).accept(any());
-        verify(leaseMetaDataChecker).isReadyToUse(blobClient);
+        verify(leaseMetaDataChecker).isReadyToUse(eq(blobClient), any());
         verify(blobClient).setMetadata(metadata);
         assertThat(metadata).doesNotContainKey(LEASE_EXPIRATION_TIME);
         assertThat(metadata).containsKey("someProperty");
@@ -175,7 +194,7 @@ class LeaseAcquirerTest {
     void should_run_onFailure_when_metadata_lease_can_not_acquired() {
         // given
         setCopyStatus(CopyStatusType.SUCCESS);
-        given(leaseMetaDataChecker.isReadyToUse(any())).willReturn(false);
+        given(leaseMetaDataChecker.isReadyToUse(any(), any())).willReturn(false);
 
         var onSuccess = mock(Consumer.class);
         Consumer<BlobErrorCode> onFailure = errorCode -> {
@@ -189,7 +208,7 @@ class LeaseAcquirerTest {
 
         // then
         verify(onSuccess, never()).accept(anyString());
-        verify(leaseMetaDataChecker).isReadyToUse(blobClient);
+        verify(leaseMetaDataChecker).isReadyToUse(eq(blobClient), any());
         verifyNoMoreInteractions(leaseMetaDataChecker);
 
     }
@@ -242,7 +261,7 @@ class LeaseAcquirerTest {
         // given
         setCopyStatus(CopyStatusType.SUCCESS);
 
-        doThrow(blobStorageException).when(leaseMetaDataChecker).isReadyToUse(any());
+        doThrow(blobStorageException).when(leaseMetaDataChecker).isReadyToUse(any(), any());
         given(blobStorageException.getErrorCode()).willReturn(null);
         given(blobStorageException.getStatusCode()).willReturn(404);
         var onFailure = mock(Consumer.class);
@@ -255,6 +274,126 @@ class LeaseAcquirerTest {
         verify(onFailure).accept(BLOB_NOT_FOUND);
     }
 
+    @Test
+    void should_not_acquire_lease_when_blob_can_not_be_processed() {
+        // given
+        setCopyStatus(null);
+        var onSuccess = mock(Consumer.class);
+        var onFailure = mock(Consumer.class);
+
+        // when
+        leaseAcquirer.ifAcquiredOrElse(blobClient, blobProperties -> false, onSuccess, onFailure, true);
+
+        // then
+        verify(onSuccess, never()).accept(any());
+        verify(onFailure, never()).accept(any());
+        verifyNoMoreInteractions(leaseMetaDataChecker);
+        verify(blobClient, never()).setMetadata(any());
+    }
+
+    @Test
+    void should_use_single_properties_snapshot_for_checks_lease_and_release() {
+        // given
+        given(blobClient.getProperties()).willReturn(blobProperties);
+        final Map<String, String> metadata = new HashMap<>();
+        given(blobProperties.getMetadata()).willReturn(metadata);
+        given(leaseMetaDataChecker.isReadyToUse(blobClient, blobProperties)).willAnswer(invocation -> {
+            metadata.put(LEASE_EXPIRATION_TIME, "time");
+            return true;
+        });
+        Predicate<BlobProperties> canProcess = mock(Predicate.class);
+        given(canProcess.test(blobProperties)).willReturn(true);
+        var onSuccess = mock(Consumer.class);
+
+        // when
+        leaseAcquirer.ifAcquiredOrElse(blobClient, canProcess, onSuccess, mock(Consumer.class), true);
+
+        // then
+        verify(blobClient, times(1)).getProperties();
+        verify(onSuccess).accept(null);
+        verify(blobClient).setMetadata(metadata);
+        assertThat(metadata).doesNotContainKey(LEASE_EXPIRATION_TIME);
+        assertThat(meterRegistry.get("blob.lease.storage.calls").tag("outcome", "acquired").summary().totalAmount())
+            .isEqualTo(3);
+    }
+
+    @Test
+    void should_skip_lease_when_blob_is_pending_rejection() {
+        // given
+        setCopyStatus(null);
+        given(rejectedFileMover.isPendingRejection(any())).willReturn(true);
+        var onSuccess = mock(Consumer.class);
+        var onFailure = mock(Consumer.class);
+
+        // when
+        leaseAcquirer.ifAcquiredOrElse(blobClient, onSuccess, onFailure, true);
+
+        // then
+        verify(onSuccess, never()).accept(any());
+        verify(onFailure, never()).accept(any());
+        verifyNoMoreInteractions(leaseMetaDataChecker);
+        verify(blobClient, never()).setMetadata(any());
+    }
+
+    @Test
+    void should_mark_blob_pending_rejection_with_release_of_lease() {
+        // given
+        given(leaseMetaDataChecker.isReadyToUse(any(), any())).willReturn(true);
+        given(blobClient.getProperties()).willReturn(blobProperties);
+        given(blobClient.getBlobName()).willReturn("file.zip");
+        given(blobClient.getContainerName()).willReturn("container");
+        final Map<String, String> metadata = new HashMap<>();
+        metadata.put(LEASE_EXPIRATION_TIME, "time");
+        given(blobProperties.getMetadata()).willReturn(metadata);
+        willAnswer(invocation -> metadata.put(PENDING_REJECTION, "time"))
+            .given(rejectedFileMover).markIfQueued("file.zip", "container", metadata);
+
+        // when
+        leaseAcquirer.ifAcquiredOrElse(blobClient, mock(Consumer.class), mock(Consumer.class), true);
+
+        // then
+        verify(blobClient).setMetadata(Map.of(PENDING_REJECTION, "time"));
+    }
+
+    @Test
+    void should_not_process_blob_again_while_its_queued_move_to_rejected_container_waits() {
+        // given
+        RejectedFileMover mover = new RejectedFileMover(blobManager, leaseMetaDataChecker, 1, 3, Duration.ofHours(1));
+        LeaseAcquirer acquirer = new LeaseAcquirer(
+            leaseMetaDataChecker,
+            mover,
+            meterRegistry,
+            new StageMetrics(meterRegistry)
+        );
+        given(blobClient.getProperties()).willReturn(blobProperties);
+        given(blobClient.getBlobName()).willReturn("file.zip");
+        given(blobClient.getContainerName()).willReturn("container");
+        final Map<String, String> metadata = new HashMap<>();
+        given(blobProperties.getMetadata()).willReturn(metadata);
+        given(leaseMetaDataChecker.isReadyToUse(blobClient, blobProperties)).willAnswer(invocation -> {
+            metadata.put(LEASE_EXPIRATION_TIME, "time");
+            return true;
+        });
+        AtomicInteger rejections = new AtomicInteger();
+        Consumer<String> rejectFile = leaseId -> {
+            rejections.incrementAndGet();
+            mover.moveToRejectedContainer("file.zip", "container");
+        };
+
+        try {
+            // when
+            acquirer.ifAcquiredOrElse(blobClient, rejectFile, mock(Consumer.class), true);
+            acquirer.ifAcquiredOrElse(blobClient, rejectFile, mock(Consumer.class), true);
+
+            // then
+            assertThat(rejections).hasValue(1);
+            assertThat(metadata).doesNotContainKey(LEASE_EXPIRATION_TIME).containsKey(PENDING_REJECTION);
+            verify(leaseMetaDataChecker, times(1)).isReadyToUse(blobClient, blobProperties);
+        } finally {
+            mover.shutdown();
+        }
+    }
+
     private void setCopyStatus(CopyStatusType copyStatus) {
         BlobProperties blobItemProperties = mock(BlobProperties.class);
         given(blobItemProperties.getCopyStatus()).willReturn(copyStatus);
@@ -143,4 +143,21 @@ class LeaseMetaDataCheckerTest {
 
         assertThat(metaDataCaptor.getValue()).isEmpty();
     }
+
+    @Test
+    void should_report_lease_held_only_when_expiry_in_metadata_valid() {
+        //given
+        Map<String, String> leased = Map.of(
+            LEASE_EXPIRATION_TIME, LocalDateTime.now(EUROPE_LONDON_ZONE_ID).plusSeconds(40).toString()
+        );
+        Map<String, String> expired = Map.of(
+            LEASE_EXPIRATION_TIME, LocalDateTime.now(EUROPE_LONDON_ZONE_ID).minusSeconds(40).toString()
+        );
+
+        //then
+        assertThat(leaseMetaDataChecker.isLeased(leased)).isTrue();
+        assertThat(leaseMetaDataChecker.isLeased(expired)).isFalse();
+        assertThat(leaseMetaDataChecker.isLeased(blobMetaData)).isFalse();
+        assertThat(leaseMetaDataChecker.isLeased(null)).isFalse();
+    }
 }
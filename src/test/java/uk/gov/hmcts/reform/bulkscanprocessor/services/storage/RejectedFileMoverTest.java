@@ -0,0 +1,236 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.services.storage;
+
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.BlobContainerClient;
+import com.azure.storage.blob.models.BlobErrorCode;
+import com.azure.storage.blob.models.BlobStorageException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.BlobManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static uk.gov.hmcts.reform.bulkscanprocessor.services.storage.RejectedFileMover.PENDING_REJECTION;
+import static uk.gov.hmcts.reform.bulkscanprocessor.util.TimeZones.EUROPE_LONDON_ZONE_ID;
+
+@ExtendWith(MockitoExtension.class)
+class RejectedFileMoverTest {
+
+    private static final String CONTAINER = "bulkscan";
+    private static final String FILE_NAME = "file1.zip";
+    private static final long WAIT_MILLIS = 1000;
+
+    @Mock private BlobManager blobManager;
+    @Mock private LeaseMetaDataChecker leaseMetaDataChecker;
+    @Mock private BlobContainerClient containerClient;
+    @Mock private BlobClient blobClient;
+    @Mock private BlobStorageException blobStorageException;
+
+    private RejectedFileMover rejectedFileMover;
+
+    @AfterEach
+    void tearDown() {
+        rejectedFileMover.shutdown();
+    }
+
+    @Test
+    void should_move_file_on_calling_thread_when_no_threads_are_configured() {
+        // given
+        rejectedFileMover = new RejectedFileMover(blobManager, leaseMetaDataChecker, 0, 3, Duration.ZERO);
+
+        // when
+        rejectedFileMover.moveToRejectedContainer(FILE_NAME, CONTAINER);
+
+        // then
+        verify(blobManager).tryMoveFileToRejectedContainer(FILE_NAME, CONTAINER);
+        verifyNoInteractions(leaseMetaDataChecker);
+    }
+
+    @Test
+    void should_lease_and_move_file_on_dedicated_thread() {
+        // given
+        rejectedFileMover = new RejectedFileMover(blobManager, leaseMetaDataChecker, 1, 3, Duration.ZERO);
+        givenBlobClient();
+        given(leaseMetaDataChecker.isReadyToUse(blobClient)).willReturn(true);
+
+        // when
+        rejectedFileMover.moveToRejectedContainer(FILE_NAME, CONTAINER);
+
+        // then
+        verify(blobManager, timeout(WAIT_MILLIS)).moveFileToRejectedContainer(FILE_NAME, CONTAINER);
+        verify(blobManager, never()).tryMoveFileToRejectedContainer(FILE_NAME, CONTAINER);
+    }
+
+    @Test
+    void should_retry_while_file_is_leased_and_give_up_after_max_attempts() {
+        // given
+        rejectedFileMover = new RejectedFileMover(blobManager, leaseMetaDataChecker, 1, 3, Duration.ofMillis(10));
+        givenBlobClient();
+        given(leaseMetaDataChecker.isReadyToUse(blobClient)).willReturn(false);
+
+        // when
+        rejectedFileMover.moveToRejectedContainer(FILE_NAME, CONTAINER);
+
+        // then
+        verify(leaseMetaDataChecker, after(WAIT_MILLIS).times(3)).isReadyToUse(blobClient);
+        verify(blobManager, never()).moveFileToRejectedContainer(FILE_NAME, CONTAINER);
+    }
+
+    @Test
+    void should_move_file_once_lease_is_released() {
+        // given
+        rejectedFileMover = new RejectedFileMover(blobManager, leaseMetaDataChecker, 1, 3, Duration.ofMillis(10));
+        givenBlobClient();
+        given(leaseMetaDataChecker.isReadyToUse(blobClient)).willReturn(false, true);
+
+        // when
+        rejectedFileMover.moveToRejectedContainer(FILE_NAME, CONTAINER);
+
+        // then
+        verify(blobManager, timeout(WAIT_MILLIS)).moveFileToRejectedContainer(FILE_NAME, CONTAINER);
+        verify(leaseMetaDataChecker, times(2)).isReadyToUse(blobClient);
+    }
+
+    @Test
+    void should_release_lease_when_move_fails_and_move_file_on_next_attempt() {
+        // given
+        rejectedFileMover = new RejectedFileMover(blobManager, leaseMetaDataChecker, 1, 3, Duration.ofMillis(10));
+        givenBlobClient();
+        given(leaseMetaDataChecker.isReadyToUse(blobClient)).willReturn(true);
+        given(blobStorageException.getErrorCode()).willReturn(BlobErrorCode.SERVER_BUSY);
+        willThrow(blobStorageException).willDoNothing()
+            .given(blobManager).moveFileToRejectedContainer(FILE_NAME, CONTAINER);
+
+        // when
+        rejectedFileMover.moveToRejectedContainer(FILE_NAME, CONTAINER);
+
+        // then
+        verify(blobManager, timeout(WAIT_MILLIS).times(2)).moveFileToRejectedContainer(FILE_NAME, CONTAINER);
+        verify(leaseMetaDataChecker).clearMetaData(blobClient);
+    }
+
+    @Test
+    void should_not_release_lease_held_by_others() {
+        // given
+        rejectedFileMover = new RejectedFileMover(blobManager, leaseMetaDataChecker, 1, 2, Duration.ofMillis(10));
+        givenBlobClient();
+        given(leaseMetaDataChecker.isReadyToUse(blobClient)).willReturn(false);
+
+        // when
+        rejectedFileMover.moveToRejectedContainer(FILE_NAME, CONTAINER);
+
+        // then
+        verify(leaseMetaDataChecker, after(WAIT_MILLIS).times(2)).isReadyToUse(blobClient);
+        verify(leaseMetaDataChecker, never()).clearMetaData(blobClient);
+    }
+
+    @Test
+    void should_make_first_attempt_after_retry_delay() {
+        // given
+        rejectedFileMover = new RejectedFileMover(blobManager, leaseMetaDataChecker, 1, 3, Duration.ofMinutes(1));
+
+        // when
+        rejectedFileMover.moveToRejectedContainer(FILE_NAME, CONTAINER);
+
+        // then
+        verify(blobManager, after(WAIT_MILLIS).never()).listContainerClient(CONTAINER);
+        verifyNoInteractions(leaseMetaDataChecker);
+    }
+
+    @Test
+    void should_stop_retrying_when_file_no_longer_exists() {
+        // given
+        rejectedFileMover = new RejectedFileMover(blobManager, leaseMetaDataChecker, 1, 3, Duration.ofMillis(10));
+        givenBlobClient();
+        given(blobStorageException.getErrorCode()).willReturn(BlobErrorCode.BLOB_NOT_FOUND);
+        willThrow(blobStorageException).given(leaseMetaDataChecker).isReadyToUse(blobClient);
+
+        // when
+        rejectedFileMover.moveToRejectedContainer(FILE_NAME, CONTAINER);
+
+        // then
+        verify(leaseMetaDataChecker, after(WAIT_MILLIS).times(1)).isReadyToUse(blobClient);
+        verify(blobManager, never()).moveFileToRejectedContainer(FILE_NAME, CONTAINER);
+    }
+
+    @Test
+    void should_not_queue_file_already_queued() {
+        // given
+        rejectedFileMover = new RejectedFileMover(blobManager, leaseMetaDataChecker, 1, 2, Duration.ofMillis(200));
+        givenBlobClient();
+        given(leaseMetaDataChecker.isReadyToUse(blobClient)).willReturn(false);
+
+        // when
+        rejectedFileMover.moveToRejectedContainer(FILE_NAME, CONTAINER);
+        rejectedFileMover.moveToRejectedContainer(FILE_NAME, CONTAINER);
+
+        // then
+        verify(leaseMetaDataChecker, after(WAIT_MILLIS).times(2)).isReadyToUse(blobClient);
+    }
+
+    @Test
+    void should_mark_queued_file_as_pending_rejection_until_all_attempts_are_made() {
+        // given
+        rejectedFileMover = new RejectedFileMover(blobManager, leaseMetaDataChecker, 1, 3, Duration.ofMinutes(1));
+        rejectedFileMover.moveToRejectedContainer(FILE_NAME, CONTAINER);
+        Map<String, String> metadata = new HashMap<>();
+
+        // when
+        rejectedFileMover.markIfQueued(FILE_NAME, CONTAINER, metadata);
+
+        // then
+        assertThat(rejectedFileMover.isPendingRejection(metadata)).isTrue();
+        assertThat(LocalDateTime.parse(metadata.get(PENDING_REJECTION)))
+            .isBetween(
+                LocalDateTime.now(EUROPE_LONDON_ZONE_ID).plusMinutes(3),
+                LocalDateTime.now(EUROPE_LONDON_ZONE_ID).plusMinutes(4)
+            );
+    }
+
+    @Test
+    void should_not_mark_file_which_is_not_queued() {
+        // given
+        rejectedFileMover = new RejectedFileMover(blobManager, leaseMetaDataChecker, 1, 3, Duration.ofMinutes(1));
+        Map<String, String> metadata = new HashMap<>();
+
+        // when
+        rejectedFileMover.markIfQueued(FILE_NAME, CONTAINER, metadata);
+
+        // then
+        assertThat(metadata).isEmpty();
+        assertThat(rejectedFileMover.isPendingRejection(metadata)).isFalse();
+    }
+
+    @Test
+    void should_not_consider_file_pending_rejection_once_mark_expired() {
+        // given
+        rejectedFileMover = new RejectedFileMover(blobManager, leaseMetaDataChecker, 1, 3, Duration.ofMinutes(1));
+        String expiredMark = LocalDateTime.now(EUROPE_LONDON_ZONE_ID).minusSeconds(1).toString();
+
+        // when
+        boolean pendingRejection = rejectedFileMover.isPendingRejection(Map.of(PENDING_REJECTION, expiredMark));
+
+        // then
+        assertThat(pendingRejection).isFalse();
+    }
+
+    private void givenBlobClient() {
+        given(blobManager.listContainerClient(CONTAINER)).willReturn(containerClient);
+        given(containerClient.getBlobClient(FILE_NAME)).willReturn(blobClient);
+    }
+}
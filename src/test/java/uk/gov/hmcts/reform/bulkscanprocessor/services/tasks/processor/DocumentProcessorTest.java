@@ -10,8 +10,10 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.ScannableItem;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.ScannableItemRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.DocumentUrlNotRetrievedException;
+import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.DocumentsPartiallyUploadedException;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.document.DocumentManagementService;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.DocumentProcessor;
+import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.ExtractedPdf;
 
 import java.io.File;
 import java.time.Instant;
@@ -27,6 +29,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -52,9 +55,9 @@ class DocumentProcessorTest {
     void should_update_document_uuid_when_doc_response_conntains_matching_file_name_and_doc_url()
         throws Exception {
         //Given
-        File test1 = new File(getResource("test1.pdf").toURI());
+        ExtractedPdf test1 = ExtractedPdf.onDisk(new File(getResource("test1.pdf").toURI()));
 
-        List<File> pdfs = ImmutableList.of(test1);
+        List<ExtractedPdf> pdfs = ImmutableList.of(test1);
 
         Map<String, String> response = ImmutableMap.of("test1.pdf", "http://localhost/documents/5fef5f98-e875-4084-b115-47188bc9066b");
 
@@ -102,6 +105,73 @@ class DocumentProcessorTest {
             .hasMessageContaining("c.pdf");
     }
 
+    @Test
+    void should_not_upload_documents_uploaded_by_earlier_attempt() {
+        // given
+        ExtractedPdf uploadedPdf = ExtractedPdf.inMemory("a.pdf", new byte[] {1});
+        ExtractedPdf pdf = ExtractedPdf.inMemory("b.pdf", new byte[] {2});
+        ScannableItem uploadedItem = scannableItem("a.pdf");
+        uploadedItem.setDocumentUuid("uuida");
+        ScannableItem item = scannableItem("b.pdf");
+
+        given(documentManagementService.uploadDocuments(List.of(pdf), "BULKSCAN", "bulkscanauto"))
+            .willReturn(ImmutableMap.of("b.pdf", "http://localhost/documents/uuidb"));
+
+        // when
+        documentProcessor.uploadPdfFiles(
+            List.of(uploadedPdf, pdf),
+            List.of(uploadedItem, item),
+            "BULKSCAN",
+            "bulkscanauto"
+        );
+
+        // then
+        assertThat(uploadedItem.getDocumentUuid()).isEqualTo("uuida");
+        assertThat(item.getDocumentUuid()).isEqualTo("uuidb");
+        verify(scannableItemRepository).saveAll(List.of(item));
+    }
+
+    @Test
+    void should_not_upload_anything_when_all_documents_were_uploaded_by_earlier_attempt() {
+        // given
+        ScannableItem uploadedItem = scannableItem("a.pdf");
+        uploadedItem.setDocumentUuid("uuida");
+
+        // when
+        documentProcessor.uploadPdfFiles(
+            List.of(ExtractedPdf.inMemory("a.pdf", new byte[] {1})),
+            List.of(uploadedItem),
+            "BULKSCAN",
+            "bulkscanauto"
+        );
+
+        // then
+        verifyNoInteractions(documentManagementService, scannableItemRepository);
+    }
+
+    @Test
+    void should_save_document_uuids_of_uploaded_batches_when_later_batch_fails() {
+        // given
+        ScannableItem uploadedItem = scannableItem("a.pdf");
+        ScannableItem failedItem = scannableItem("b.pdf");
+        DocumentsPartiallyUploadedException failure = new DocumentsPartiallyUploadedException(
+            Map.of("a.pdf", "http://localhost/documents/uuida"),
+            new IllegalStateException("batch failed")
+        );
+        given(documentManagementService.uploadDocuments(any(), eq("BULKSCAN"), eq("bulkscanauto")))
+            .willThrow(failure);
+
+        // when
+        Throwable exc = catchThrowable(() -> documentProcessor
+            .uploadPdfFiles(emptyList(), List.of(uploadedItem, failedItem), "BULKSCAN", "bulkscanauto"));
+
+        // then
+        assertThat(exc).isSameAs(failure);
+        assertThat(uploadedItem.getDocumentUuid()).isEqualTo("uuida");
+        assertThat(failedItem.getDocumentUuid()).isNull();
+        verify(scannableItemRepository).saveAll(List.of(uploadedItem));
+    }
+
     private ScannableItem scannableItem(String fileName) {
         return new ScannableItem(
             "1111002",
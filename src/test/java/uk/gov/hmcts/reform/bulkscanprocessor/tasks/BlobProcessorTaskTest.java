@@ -4,27 +4,44 @@ import com.azure.core.http.rest.PagedIterable;
 import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
 import com.azure.storage.blob.models.BlobItem;
+import com.azure.storage.blob.models.BlobProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.FileContentProcessor;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.StageMetrics;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.BlobInventory;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseAcquirer;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.OcrValidationRetryManager;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.BlobManager;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.EnvelopeProcessor;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
 
 import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
@@ -46,6 +63,9 @@ class BlobProcessorTaskTest {
     @Mock
     private BlobItem blob;
 
+    @Mock
+    private BlobProperties blobProperties;
+
     @Mock
     private FileContentProcessor fileContentProcessor;
 
@@ -64,7 +84,12 @@ class BlobProcessorTaskTest {
             envelopeProcessor,
             fileContentProcessor,
             leaseAcquirer,
-            ocrValidationRetryManager
+            ocrValidationRetryManager,
+            new BlobInventory(1000, false, Duration.ofHours(1)),
+            new StageMetrics(new SimpleMeterRegistry()),
+            2,
+            1,
+            false
         );
     }
 
@@ -79,17 +104,17 @@ class BlobProcessorTaskTest {
 
         given(blob.getName()).willReturn("file.zip");
         given(container.getBlobClient("file.zip")).willReturn(blobClient);
-        given(ocrValidationRetryManager.canProcess(blobClient)).willReturn(true);
         given(container.getBlobContainerName()).willReturn("cont");
+        given(envelopeProcessor.getZipFileNamesWithEnvelope("cont", List.of("file.zip"), 1000))
+            .willReturn(Set.of());
         given(envelopeProcessor.getEnvelopeByFileAndContainer("cont", "file.zip"))
             .willReturn(null);
-        given(blobClient.exists()).willReturn(true);
 
         doAnswer(invocation -> {
-            var okAction = (Consumer) invocation.getArgument(1);
+            var okAction = (Consumer) invocation.getArgument(2);
             okAction.accept(UUID.randomUUID().toString());
             return null;
-        }).when(leaseAcquirer).ifAcquiredOrElse(any(), any(), any(), anyBoolean());
+        }).when(leaseAcquirer).ifAcquiredOrElse(any(), any(Predicate.class), any(), any(), anyBoolean());
 
         willThrow(new RuntimeException("Can't download")).given(blobClient).openInputStream();
 
@@ -111,17 +136,19 @@ class BlobProcessorTaskTest {
 
         given(blob.getName()).willReturn("file.zip");
         given(container.getBlobClient("file.zip")).willReturn(blobClient);
-        given(ocrValidationRetryManager.canProcess(blobClient)).willReturn(false);
+        given(ocrValidationRetryManager.canProcess(blobClient, blobProperties)).willReturn(false);
         given(container.getBlobContainerName()).willReturn("cont");
-        given(envelopeProcessor.getEnvelopeByFileAndContainer("cont", "file.zip"))
-            .willReturn(null);
-        given(blobClient.exists()).willReturn(true);
+        given(envelopeProcessor.getZipFileNamesWithEnvelope("cont", List.of("file.zip"), 1000))
+            .willReturn(Set.of());
 
         doAnswer(invocation -> {
-            var okAction = (Consumer) invocation.getArgument(1);
-            okAction.accept(UUID.randomUUID().toString());
+            var canProcess = (Predicate<BlobProperties>) invocation.getArgument(1);
+            if (canProcess.test(blobProperties)) {
+                var okAction = (Consumer) invocation.getArgument(2);
+                okAction.accept(UUID.randomUUID().toString());
+            }
             return null;
-        }).when(leaseAcquirer).ifAcquiredOrElse(any(), any(), any(), anyBoolean());
+        }).when(leaseAcquirer).ifAcquiredOrElse(any(), any(Predicate.class), any(), any(), anyBoolean());
 
         // when
         blobProcessorTask.processBlobs();
@@ -131,4 +158,63 @@ class BlobProcessorTaskTest {
         verifyNoMoreInteractions(blobClient);
         verifyNoInteractions(fileContentProcessor);
     }
+
+    @Test
+    void processBlobs_should_not_exceed_per_container_concurrency() {
+        // given
+        given(blobManager.listInputContainerClients()).willReturn(singletonList(container));
+
+        List<BlobItem> blobs = List.of(mock(BlobItem.class), mock(BlobItem.class), mock(BlobItem.class));
+        for (int i = 0; i < blobs.size(); i++) {
+            given(blobs.get(i).getName()).willReturn("file" + i + ".zip");
+        }
+
+        PagedIterable<BlobItem> pagedIterable = mock(PagedIterable.class);
+        given(container.listBlobs()).willReturn(pagedIterable);
+        given(pagedIterable.stream()).willReturn(blobs.stream());
+        given(container.getBlobContainerName()).willReturn("cont");
+        given(container.getBlobClient(anyString())).willReturn(blobClient);
+
+        AtomicInteger inProgress = new AtomicInteger();
+        AtomicInteger maxInProgress = new AtomicInteger();
+        doAnswer(invocation -> {
+            maxInProgress.accumulateAndGet(inProgress.incrementAndGet(), Math::max);
+            Thread.sleep(50);
+            inProgress.decrementAndGet();
+            return null;
+        }).when(leaseAcquirer).ifAcquiredOrElse(any(), any(Predicate.class), any(), any(), anyBoolean());
+
+        // when
+        blobProcessorTask.processBlobs();
+
+        // then
+        verify(leaseAcquirer, times(3)).ifAcquiredOrElse(any(), any(Predicate.class), any(), any(), anyBoolean());
+        assertThat(maxInProgress.get()).isEqualTo(1);
+    }
+
+    @Test
+    void processBlobs_should_skip_zip_files_with_envelope_before_accessing_blobs() {
+        // given
+        given(blobManager.listInputContainerClients()).willReturn(singletonList(container));
+
+        BlobItem processedBlob = mock(BlobItem.class);
+        given(processedBlob.getName()).willReturn("processed.zip");
+        given(blob.getName()).willReturn("file.zip");
+
+        PagedIterable<BlobItem> pagedIterable = mock(PagedIterable.class);
+        given(container.listBlobs()).willReturn(pagedIterable);
+        given(pagedIterable.stream()).willReturn(Stream.of(processedBlob, blob));
+        given(container.getBlobContainerName()).willReturn("cont");
+        given(envelopeProcessor.getZipFileNamesWithEnvelope(eq("cont"), anyList(), eq(1000)))
+            .willReturn(Set.of("processed.zip"));
+        given(container.getBlobClient("file.zip")).willReturn(blobClient);
+
+        // when
+        blobProcessorTask.processBlobs();
+
+        // then
+        verify(container, never()).getBlobClient("processed.zip");
+        verify(leaseAcquirer).ifAcquiredOrElse(eq(blobClient), any(Predicate.class), any(), any(), eq(true));
+        verifyNoMoreInteractions(envelopeProcessor);
+    }
 }
@@ -1,118 +1,113 @@
 package uk.gov.hmcts.reform.bulkscanprocessor.tasks;
 
 import com.azure.core.http.rest.PagedIterable;
-import com.azure.storage.blob.BlobClient;
 import com.azure.storage.blob.BlobContainerClient;
-import com.azure.storage.blob.models.BlobContainerItem;
 import com.azure.storage.blob.models.BlobItem;
 import com.azure.storage.blob.models.BlobItemProperties;
-import com.azure.storage.blob.models.BlobProperties;
-import com.azure.storage.blob.models.BlobRequestConditions;
-import com.azure.storage.blob.models.DeleteSnapshotsOptionType;
-import com.azure.storage.blob.specialized.BlobLeaseClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseAcquirer;
-import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.LeaseMetaDataChecker;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.storage.BlobBatchDeleter;
 import uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor.BlobManager;
 
 import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.List;
 import java.util.stream.Stream;
 
+import static java.util.Arrays.asList;
 import static java.util.Collections.singletonList;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.mock;
-import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 @SuppressWarnings("unchecked")
 class CleanUpRejectedFilesTaskTest {
 
+    private static final String TTL = "PT1H";
+    private static final String REJECTED_CONTAINER = "con-rejected";
+
     @Mock private BlobManager blobManager;
-    @Mock private LeaseMetaDataChecker leaseMetaDataChecker;
+    @Mock private BlobBatchDeleter blobBatchDeleter;
 
     @Mock private BlobContainerClient containerClient;
 
-    @Mock private BlobLeaseClient leaseClient;
-
-    @Mock private PagedIterable<BlobContainerItem> containers;
-
-    private static final String OLD_REJECTED_BLOB = "file2.zip";
-    private static final String REJECTED_CONTAINER = "con-rejected";
-
     @BeforeEach
-    void setUp() throws Exception {
+    void setUp() {
         given(blobManager.listRejectedContainers()).willReturn(singletonList(containerClient));
+        given(containerClient.getBlobContainerName()).willReturn(REJECTED_CONTAINER);
     }
 
     @Test
     void should_remove_only_old_files() {
-
-        String ttlString = "PT1H";
-        Duration ttl = Duration.parse(ttlString);
-
         // given
-        PagedIterable<BlobItem> rejectedContainerBlobItems = mock(PagedIterable.class);
-
-
-        given(containerClient.listBlobs(any(), any())).willReturn(rejectedContainerBlobItems);
-        given(containerClient.getBlobContainerName()).willReturn(REJECTED_CONTAINER);
-
-        //properties to get LastModified time
-        BlobItemProperties oldBlobItemProperties = mock(BlobItemProperties.class);
-        BlobItemProperties newBlobItemProperties = mock(BlobItemProperties.class);
-        given(oldBlobItemProperties.getLastModified()).willReturn(OffsetDateTime.now().minus(ttl.plusMinutes(1)));
-        given(newBlobItemProperties.getLastModified()).willReturn(OffsetDateTime.now());
-
-
-        BlobItem oldRejectedBlob = mock(BlobItem.class);
-        BlobItem newRejectedBlob = mock(BlobItem.class);
-        given(oldRejectedBlob.getProperties()).willReturn(oldBlobItemProperties);
-        given(newRejectedBlob.getProperties()).willReturn(newBlobItemProperties);
+        Duration ttl = Duration.parse(TTL);
+        BlobItem oldRejectedBlob = blob("file2.zip", OffsetDateTime.now().minus(ttl.plusMinutes(1)));
+        BlobItem newRejectedBlob = blob("file1.zip", OffsetDateTime.now());
+        containerHas(newRejectedBlob, oldRejectedBlob);
 
-        //old one will be deleted
-        given(oldRejectedBlob.getName()).willReturn(OLD_REJECTED_BLOB);
+        // when
+        new CleanUpRejectedFilesTask(blobManager, blobBatchDeleter, TTL).run();
 
-        BlobClient blobClientToDelete =  mock(BlobClient.class);
-        given(containerClient.getBlobClient(OLD_REJECTED_BLOB)).willReturn(blobClientToDelete);
+        // then
+        assertThat(blobsDeleted()).containsExactly(oldRejectedBlob);
+    }
 
-        given(blobClientToDelete.getBlobName()).willReturn(OLD_REJECTED_BLOB);
-        given(blobClientToDelete.getContainerName()).willReturn(REJECTED_CONTAINER);
+    @Test
+    void should_delete_snapshots_with_their_base_blob() {
+        // given
+        OffsetDateTime lastModified = OffsetDateTime.now().minusDays(1);
+        BlobItem blob = blob("file1.zip", lastModified);
+        BlobItem snapshot = blob("file1.zip", lastModified).setSnapshot("2026-10-01T10:00:00.0000000Z");
+        containerHas(snapshot, blob);
 
-        BlobProperties blobItemProperties = mock(BlobProperties.class);
-        given(blobItemProperties.getCopyStatus()).willReturn(null);
-        given(blobClientToDelete.getProperties()).willReturn(blobItemProperties);
+        // when
+        new CleanUpRejectedFilesTask(blobManager, blobBatchDeleter, TTL).run();
 
-        given(rejectedContainerBlobItems.stream()).willReturn(Stream.of(newRejectedBlob, oldRejectedBlob));
+        // then
+        assertThat(blobsDeleted()).containsExactly(blob);
+    }
 
-        given(leaseMetaDataChecker.isReadyToUse(blobClientToDelete)).willReturn(true);
+    @Test
+    void should_clean_up_other_containers_when_one_fails() {
+        // given
+        BlobContainerClient failingContainer = mock(BlobContainerClient.class);
+        given(failingContainer.getBlobContainerName()).willReturn("failing-rejected");
+        given(failingContainer.listBlobs(any(), any())).willThrow(new RuntimeException("listing failed"));
+        given(blobManager.listRejectedContainers()).willReturn(asList(failingContainer, containerClient));
 
-        CleanUpRejectedFilesTask task =
-            new CleanUpRejectedFilesTask(
-                blobManager,
-                new LeaseAcquirer(leaseMetaDataChecker),
-                ttlString
+        BlobItem oldRejectedBlob = blob("file2.zip", OffsetDateTime.now().minusDays(1));
+        containerHas(oldRejectedBlob);
 
-            );
         // when
-        task.run();
+        new CleanUpRejectedFilesTask(blobManager, blobBatchDeleter, TTL).run();
 
         // then
-
-        var conditionCapturer = ArgumentCaptor.forClass(BlobRequestConditions.class);
-        verify(blobClientToDelete, times(1))
-            .deleteWithResponse(eq(DeleteSnapshotsOptionType.INCLUDE), conditionCapturer.capture(), any(), any());
-
+        assertThat(blobsDeleted()).containsExactly(oldRejectedBlob);
     }
 
+    private List<BlobItem> blobsDeleted() {
+        var blobsCaptor = ArgumentCaptor.forClass(List.class);
+        verify(blobBatchDeleter).deleteBlobs(eq(containerClient), blobsCaptor.capture());
+        return blobsCaptor.getValue();
+    }
 
+    private void containerHas(BlobItem... blobs) {
+        PagedIterable<BlobItem> blobItems = mock(PagedIterable.class);
+        given(blobItems.stream()).willReturn(Stream.of(blobs));
+        given(containerClient.listBlobs(any(), any())).willReturn(blobItems);
+    }
 
+    private static BlobItem blob(String name, OffsetDateTime lastModified) {
+        return new BlobItem()
+            .setName(name)
+            .setProperties(new BlobItemProperties().setLastModified(lastModified));
+    }
 }
@@ -0,0 +1,115 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.tasks;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEvent;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventJdbcRepository;
+import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.NotificationStateNotRecordedException;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.EnvelopeWorkQueue;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.OrchestratorNotificationService;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static uk.gov.hmcts.reform.bulkscanprocessor.helper.EnvelopeCreator.envelope;
+import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.DOC_PROCESSED_NOTIFICATION_FAILURE;
+
+@ExtendWith(MockitoExtension.class)
+class OrchestratorNotificationQueueTaskTest {
+
+    @Mock private OrchestratorNotificationService orchestratorNotificationService;
+    @Mock private EnvelopeWorkQueue workQueue;
+    @Mock private ProcessEventJdbcRepository processEventJdbcRepo;
+
+    @Captor private ArgumentCaptor<List<ProcessEvent>> eventsCaptor;
+
+    private OrchestratorNotificationQueueTask task;
+
+    @BeforeEach
+    void setUp() {
+        task = new OrchestratorNotificationQueueTask(orchestratorNotificationService, workQueue, processEventJdbcRepo);
+    }
+
+    @Test
+    void should_do_nothing_when_no_envelopes_are_claimed() {
+        // given
+        given(workQueue.claimEnvelopesToNotify()).willReturn(List.of());
+
+        // when
+        task.run();
+
+        // then
+        verifyNoInteractions(orchestratorNotificationService, processEventJdbcRepo);
+        verify(workQueue).release(List.of());
+    }
+
+    @Test
+    void should_send_claimed_pages_and_release_all_claims() {
+        // given
+        List<Envelope> page1 = List.of(envelope(), envelope());
+        List<Envelope> page2 = List.of(envelope());
+        given(workQueue.getPageSize()).willReturn(2);
+        given(workQueue.claimEnvelopesToNotify()).willReturn(page1).willReturn(page2);
+        given(orchestratorNotificationService.processEnvelopes(page1)).willReturn(2);
+        given(orchestratorNotificationService.processEnvelopes(page2)).willReturn(1);
+
+        // when
+        task.run();
+
+        // then
+        verify(workQueue).release(List.of(page1.get(0), page1.get(1), page2.get(0)));
+        verifyNoInteractions(processEventJdbcRepo);
+    }
+
+    @Test
+    void should_record_failure_for_each_envelope_of_failed_page_and_continue_with_next_page() {
+        // given
+        List<Envelope> page1 = List.of(envelope(), envelope());
+        List<Envelope> page2 = List.of(envelope());
+        given(workQueue.getPageSize()).willReturn(2);
+        given(workQueue.claimEnvelopesToNotify()).willReturn(page1).willReturn(page2);
+        given(orchestratorNotificationService.processEnvelopes(page1))
+            .willThrow(new IllegalStateException("service bus unavailable"));
+        given(orchestratorNotificationService.processEnvelopes(page2)).willReturn(1);
+
+        // when
+        task.run();
+
+        // then
+        verify(processEventJdbcRepo).saveAll(eventsCaptor.capture());
+        assertThat(eventsCaptor.getValue())
+            .extracting(ProcessEvent::getZipFileName, ProcessEvent::getEvent)
+            .containsExactly(
+                tuple(page1.get(0).getZipFileName(), DOC_PROCESSED_NOTIFICATION_FAILURE),
+                tuple(page1.get(1).getZipFileName(), DOC_PROCESSED_NOTIFICATION_FAILURE)
+            );
+        verify(workQueue).release(List.of(page1.get(0), page1.get(1), page2.get(0)));
+    }
+
+    @Test
+    void should_not_record_failure_when_notifications_were_sent_but_their_state_was_not_recorded() {
+        // given
+        List<Envelope> page = List.of(envelope(), envelope());
+        given(workQueue.getPageSize()).willReturn(3);
+        given(workQueue.claimEnvelopesToNotify()).willReturn(page);
+        given(orchestratorNotificationService.processEnvelopes(page))
+            .willThrow(new NotificationStateNotRecordedException(2, new IllegalStateException("db down")));
+
+        // when
+        task.run();
+
+        // then
+        verifyNoInteractions(processEventJdbcRepo);
+        verify(workQueue).release(page);
+    }
+}
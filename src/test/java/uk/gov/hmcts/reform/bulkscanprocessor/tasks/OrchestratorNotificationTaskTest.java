@@ -11,14 +11,21 @@ import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.Status;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.OrchestratorNotificationService;
 
+import java.util.List;
+import java.util.UUID;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import static java.util.stream.Collectors.toList;
 import static java.util.stream.IntStream.range;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static uk.gov.hmcts.reform.bulkscanprocessor.helper.EnvelopeCreator.envelope;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,7 +42,9 @@ class OrchestratorNotificationTaskTest {
         this.task = new OrchestratorNotificationTask(
             orchestratorNotificationService,
             envelopeRepo,
-            processEventRepo
+            processEventRepo,
+            false,
+            2
         );
     }
 
@@ -57,4 +66,39 @@ class OrchestratorNotificationTaskTest {
         verify(orchestratorNotificationService, times(numberOfEnvelopesToSend))
             .processEnvelope(any(AtomicInteger.class), any(Envelope.class));
     }
+
+    @Test
+    void should_send_envelopes_in_batches_when_batching_enabled() {
+        // given
+        task = new OrchestratorNotificationTask(
+            orchestratorNotificationService,
+            envelopeRepo,
+            processEventRepo,
+            true,
+            2
+        );
+
+        List<Envelope> envelopes = range(0, 3).mapToObj(i -> envelopeWithId()).collect(toList());
+        UUID lastIdOfFirstBatch = envelopes.get(1).getId();
+        given(envelopeRepo.findByStatusAndIdGreaterThanOrderByIdAsc(eq(Status.UPLOADED), eq(new UUID(0, 0)), any()))
+            .willReturn(envelopes.subList(0, 2));
+        given(envelopeRepo.findByStatusAndIdGreaterThanOrderByIdAsc(eq(Status.UPLOADED), eq(lastIdOfFirstBatch), any()))
+            .willReturn(envelopes.subList(2, 3));
+        given(orchestratorNotificationService.processEnvelopes(anyList())).willReturn(2, 1);
+
+        // when
+        task.run();
+
+        // then
+        verify(orchestratorNotificationService).processEnvelopes(envelopes.subList(0, 2));
+        verify(orchestratorNotificationService).processEnvelopes(envelopes.subList(2, 3));
+        verify(orchestratorNotificationService, never()).processEnvelope(any(), any());
+        verifyNoInteractions(processEventRepo);
+    }
+
+    private static Envelope envelopeWithId() {
+        Envelope envelope = spy(envelope());
+        given(envelope.getId()).willReturn(UUID.randomUUID());
+        return envelope;
+    }
 }
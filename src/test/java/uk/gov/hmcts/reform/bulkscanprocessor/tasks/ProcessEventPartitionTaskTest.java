@@ -0,0 +1,28 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.tasks;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.ProcessEventPartitionService;
+
+import static org.mockito.Mockito.inOrder;
+
+@ExtendWith(MockitoExtension.class)
+class ProcessEventPartitionTaskTest {
+
+    @Mock
+    private ProcessEventPartitionService partitionService;
+
+    @Test
+    void should_create_partitions_before_removing_expired_ones() {
+        // when
+        new ProcessEventPartitionTask(partitionService).run();
+
+        // then
+        InOrder inOrder = inOrder(partitionService);
+        inOrder.verify(partitionService).createPartitions();
+        inOrder.verify(partitionService).removeExpiredPartitions();
+    }
+}
@@ -12,17 +12,29 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.EnvelopeNotFoundException;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.in.msg.ProcessedEnvelope;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.EnvelopeFinaliserService;
+import uk.gov.hmcts.reform.bulkscanprocessor.tasks.ProcessedEnvelopeNotificationHandler.Mode;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
+import static java.util.Collections.emptySet;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 
 @ExtendWith(MockitoExtension.class)
@@ -45,7 +57,11 @@ class ProcessedEnvelopeNotificationHandlerTest {
     void setUp() {
         handler = new ProcessedEnvelopeNotificationHandler(
             envelopeFinaliserService,
-            objectMapper
+            objectMapper,
+            Mode.SINGLE,
+            1,
+            Duration.ZERO,
+            1
         );
     }
 
@@ -173,6 +189,153 @@ class ProcessedEnvelopeNotificationHandlerTest {
         verifyNoMoreInteractions(messageContext);
     }
 
+    @Test
+    void should_finalise_envelopes_of_concurrent_messages_in_single_batch() throws Exception {
+        // given
+        handler = batchHandler(2, 2, Duration.ofSeconds(10));
+        UUID envelopeId1 = UUID.randomUUID();
+        UUID envelopeId2 = UUID.randomUUID();
+        var messageContext1 = messageContext(validMessage(envelopeId1, "1", "EXCEPTION_RECORD"));
+        var messageContext2 = messageContext(validMessage(envelopeId2, "2", "AUTO_ATTACHED_TO_CASE"));
+        given(envelopeFinaliserService.finaliseEnvelopes(anyList())).willReturn(emptySet());
+
+        // when
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            var processing1 = executor.submit(() -> handler.processMessage(messageContext1));
+            var processing2 = executor.submit(() -> handler.processMessage(messageContext2));
+            processing1.get(5, TimeUnit.SECONDS);
+            processing2.get(5, TimeUnit.SECONDS);
+        }
+
+        // then
+        assertThat(finalisedEnvelopeIds()).containsExactlyInAnyOrder(envelopeId1, envelopeId2);
+        verify(messageContext1).complete();
+        verify(messageContext2).complete();
+        verify(envelopeFinaliserService, never()).finaliseEnvelope(any(), any(), any());
+    }
+
+    @Test
+    void should_finalise_batch_once_window_elapses() {
+        // given
+        handler = batchHandler(10, 10, Duration.ofMillis(50));
+        UUID envelopeId = UUID.randomUUID();
+        given(messageContext.getMessage()).willReturn(message);
+        given(message.getBody()).willReturn(BinaryData.fromString(validMessage(envelopeId, "1", "EXCEPTION_RECORD")));
+        given(envelopeFinaliserService.finaliseEnvelopes(anyList())).willReturn(emptySet());
+
+        // when
+        handler.processMessage(messageContext);
+
+        // then
+        assertThat(finalisedEnvelopeIds()).containsExactly(envelopeId);
+        verify(messageContext).complete();
+    }
+
+    @Test
+    void should_finalise_batch_without_waiting_for_window_once_it_holds_as_many_messages_as_concurrent_calls()
+        throws Exception {
+        // given
+        handler = batchHandler(50, 1, Duration.ofSeconds(10));
+        UUID envelopeId = UUID.randomUUID();
+        given(messageContext.getMessage()).willReturn(message);
+        given(message.getBody()).willReturn(BinaryData.fromString(validMessage(envelopeId, "1", "EXCEPTION_RECORD")));
+        given(envelopeFinaliserService.finaliseEnvelopes(anyList())).willReturn(emptySet());
+
+        // when
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            executor.submit(() -> handler.processMessage(messageContext)).get(5, TimeUnit.SECONDS);
+        }
+
+        // then
+        assertThat(finalisedEnvelopeIds()).containsExactly(envelopeId);
+        verify(messageContext).complete();
+    }
+
+    @Test
+    void should_dead_letter_message_when_envelope_of_batch_not_found() {
+        // given
+        handler = batchHandler(1, 1, Duration.ofSeconds(10));
+        UUID envelopeId = UUID.randomUUID();
+        given(messageContext.getMessage()).willReturn(message);
+        given(message.getBody()).willReturn(BinaryData.fromString(validMessage(envelopeId, null, null)));
+        given(envelopeFinaliserService.finaliseEnvelopes(anyList())).willReturn(Set.of(envelopeId));
+
+        // when
+        handler.processMessage(messageContext);
+
+        // then
+        ArgumentCaptor<DeadLetterOptions> deadLetterOptionsArgumentCaptor
+            = ArgumentCaptor.forClass(DeadLetterOptions.class);
+        verify(messageContext).deadLetter(deadLetterOptionsArgumentCaptor.capture());
+        assertThat(deadLetterOptionsArgumentCaptor.getValue().getDeadLetterReason())
+            .isEqualTo("Envelope with ID " + envelopeId + " couldn't be found");
+        verify(messageContext, never()).complete();
+    }
+
+    @Test
+    void should_finalise_envelope_alone_when_batch_fails() {
+        // given
+        handler = batchHandler(1, 1, Duration.ofSeconds(10));
+        UUID envelopeId = UUID.randomUUID();
+        given(messageContext.getMessage()).willReturn(message);
+        given(message.getBody()).willReturn(BinaryData.fromString(validMessage(envelopeId, "1", "EXCEPTION_RECORD")));
+        willThrow(new RuntimeException("test exception"))
+            .given(envelopeFinaliserService)
+            .finaliseEnvelopes(anyList());
+
+        // when
+        handler.processMessage(messageContext);
+
+        // then
+        verify(envelopeFinaliserService).finaliseEnvelope(envelopeId, "1", "EXCEPTION_RECORD");
+        verify(messageContext).complete();
+    }
+
+    @Test
+    void should_dead_letter_invalid_message_without_adding_it_to_batch() {
+        // given
+        handler = batchHandler(1, 1, Duration.ofSeconds(10));
+        given(messageContext.getMessage()).willReturn(message);
+        given(message.getBody()).willReturn(BinaryData.fromString("invalid body"));
+
+        // when
+        handler.processMessage(messageContext);
+
+        // then
+        verify(messageContext).deadLetter(any(DeadLetterOptions.class));
+        verifyNoInteractions(envelopeFinaliserService);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<UUID> finalisedEnvelopeIds() {
+        ArgumentCaptor<List<ProcessedEnvelope>> captor = ArgumentCaptor.forClass(List.class);
+        verify(envelopeFinaliserService).finaliseEnvelopes(captor.capture());
+        return captor.getValue().stream().map(processedEnvelope -> processedEnvelope.envelopeId).toList();
+    }
+
+    private ProcessedEnvelopeNotificationHandler batchHandler(
+        int batchSize,
+        int maxConcurrentCalls,
+        Duration batchWindow
+    ) {
+        return new ProcessedEnvelopeNotificationHandler(
+            envelopeFinaliserService,
+            objectMapper,
+            Mode.BATCH,
+            batchSize,
+            batchWindow,
+            maxConcurrentCalls
+        );
+    }
+
+    private static ServiceBusReceivedMessageContext messageContext(String body) {
+        var receivedMessage = mock(ServiceBusReceivedMessage.class);
+        given(receivedMessage.getBody()).willReturn(BinaryData.fromString(body));
+        var receivedMessageContext = mock(ServiceBusReceivedMessageContext.class);
+        given(receivedMessageContext.getMessage()).willReturn(receivedMessage);
+        return receivedMessageContext;
+    }
+
     //ProcessedEnvelope should ignore unknown fields when json deserialization
     private String validMessage(UUID envelopeId, String ccdId, String envelopeCcdAction) {
         return
@@ -0,0 +1,120 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.tasks;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.EnvelopeWorkQueue;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.UploadEnvelopeDocumentsService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static uk.gov.hmcts.reform.bulkscanprocessor.entity.Status.CREATED;
+import static uk.gov.hmcts.reform.bulkscanprocessor.helper.EnvelopeCreator.envelope;
+
+@ExtendWith(MockitoExtension.class)
+class UploadEnvelopeDocumentsQueueTaskTest {
+
+    private static final int MAX_RETRIES = 5;
+
+    @Mock private EnvelopeWorkQueue workQueue;
+    @Mock private UploadEnvelopeDocumentsService uploadService;
+
+    private UploadEnvelopeDocumentsQueueTask task;
+
+    @BeforeEach
+    void setUp() {
+        task = new UploadEnvelopeDocumentsQueueTask(workQueue, uploadService, MAX_RETRIES);
+    }
+
+    @Test
+    void should_do_nothing_when_no_envelopes_are_claimed() {
+        // given
+        given(workQueue.claimEnvelopesToUpload(MAX_RETRIES)).willReturn(List.of());
+
+        // when
+        task.run();
+
+        // then
+        verifyNoInteractions(uploadService);
+        verify(workQueue).release(List.of());
+    }
+
+    @Test
+    void should_claim_pages_until_a_page_is_not_full_and_release_all_claims() {
+        // given
+        Envelope envelope1 = envelope("BULKSCAN", CREATED, "container-1");
+        Envelope envelope2 = envelope("BULKSCAN", CREATED, "container-2");
+        Envelope envelope3 = envelope("BULKSCAN", CREATED, "container-1");
+        given(workQueue.getPageSize()).willReturn(2);
+        given(workQueue.claimEnvelopesToUpload(MAX_RETRIES))
+            .willReturn(List.of(envelope1, envelope2))
+            .willReturn(List.of(envelope3));
+
+        // when
+        task.run();
+
+        // then
+        verify(uploadService).processByContainer("container-1", List.of(envelope1));
+        verify(uploadService).processByContainer("container-2", List.of(envelope2));
+        verify(uploadService).processByContainer("container-1", List.of(envelope3));
+        verify(workQueue).release(List.of(envelope1, envelope2, envelope3));
+    }
+
+    @Test
+    void should_extend_claims_of_earlier_pages_before_claiming_next_page() {
+        // given
+        Envelope envelope1 = envelope("BULKSCAN", CREATED, "container-1");
+        Envelope envelope2 = envelope("BULKSCAN", CREATED, "container-1");
+        given(workQueue.getPageSize()).willReturn(1);
+        given(workQueue.claimEnvelopesToUpload(MAX_RETRIES))
+            .willReturn(List.of(envelope1))
+            .willReturn(List.of(envelope2))
+            .willReturn(List.of());
+
+        // the claimed list grows during the run, so a copy of each argument is kept
+        List<List<Envelope>> extended = new ArrayList<>();
+        willAnswer(invocation -> {
+            extended.add(List.copyOf(invocation.<List<Envelope>>getArgument(0)));
+            return null;
+        }).given(workQueue).extendClaims(anyList());
+
+        // when
+        task.run();
+
+        // then
+        assertThat(extended).containsExactly(List.of(), List.of(envelope1), List.of(envelope1, envelope2));
+        verify(uploadService).processByContainer("container-1", List.of(envelope1));
+        verify(uploadService).processByContainer("container-1", List.of(envelope2));
+        verify(workQueue).release(List.of(envelope1, envelope2));
+    }
+
+    @Test
+    void should_release_claims_when_claiming_fails() {
+        // given
+        Envelope envelope = envelope("BULKSCAN", CREATED, "container-1");
+        given(workQueue.getPageSize()).willReturn(1);
+        given(workQueue.claimEnvelopesToUpload(MAX_RETRIES))
+            .willReturn(List.of(envelope))
+            .willThrow(new IllegalStateException("connection lost"));
+
+        // when
+        assertThatThrownBy(() -> task.run()).isInstanceOf(IllegalStateException.class);
+
+        // then
+        verify(uploadService).processByContainer("container-1", List.of(envelope));
+        verifyNoMoreInteractions(uploadService);
+        verify(workQueue).release(List.of(envelope));
+    }
+}
@@ -6,12 +6,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeRepository;
+import uk.gov.hmcts.reform.bulkscanprocessor.model.out.EnvelopeLatencyInfo;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.EnvelopeLatencyTracker;
 
 import java.time.Duration;
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.COMPLETED;
 
 @ExtendWith(MockitoExtension.class)
 class IncompleteEnvelopesTaskTest {
@@ -19,11 +24,19 @@ class IncompleteEnvelopesTaskTest {
     @Mock
     private EnvelopeRepository envelopeRepository;
 
+    @Mock
+    private EnvelopeLatencyTracker envelopeLatencyTracker;
+
     private IncompleteEnvelopesTask task;
 
     @BeforeEach
     void setUp() {
-        task = new IncompleteEnvelopesTask(envelopeRepository, Duration.ofHours(1));
+        task = new IncompleteEnvelopesTask(
+            envelopeRepository,
+            Duration.ofHours(1),
+            envelopeLatencyTracker,
+            Duration.ofHours(2)
+        );
     }
 
     @Test
@@ -39,4 +52,17 @@ class IncompleteEnvelopesTaskTest {
 
         assertThatCode(task::run).doesNotThrowAnyException();
     }
+
+    @Test
+    void should_finish_the_task_successfully_when_envelope_latency_is_above_threshold() {
+        given(envelopeRepository.getIncompleteEnvelopesCountBefore(any())).willReturn(0);
+        given(envelopeLatencyTracker.getLatencies()).willReturn(List.of(
+            new EnvelopeLatencyInfo("c1", COMPLETED, 10, 60_000, Duration.ofHours(3).toMillis(), 12_000_000),
+            new EnvelopeLatencyInfo("c2", COMPLETED, 10, 60_000, 120_000, 300_000)
+        ));
+
+        assertThatCode(task::run).doesNotThrowAnyException();
+
+        verify(envelopeLatencyTracker).getLatencies();
+    }
 }
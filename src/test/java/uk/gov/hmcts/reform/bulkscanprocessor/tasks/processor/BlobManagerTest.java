@@ -13,6 +13,7 @@ import com.azure.storage.blob.BlobServiceClient;
 import com.azure.storage.blob.models.BlobContainerItem;
 import com.azure.storage.blob.models.BlobCopyInfo;
 import com.azure.storage.blob.models.BlobErrorCode;
+import com.azure.storage.blob.models.BlobProperties;
 import com.azure.storage.blob.models.BlobStorageException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -167,6 +168,48 @@ class BlobManagerTest {
         verify(inputBlobClient).deleteWithResponse(any(), any(), any(), any());
     }
 
+    @Test
+    void tryMoveFileToRejectedContainer_copies_blob_within_sync_copy_limit_with_single_request() {
+        // given
+        given(inputContainerClient.getBlobClient(INPUT_FILE_NAME)).willReturn(inputBlobClient);
+        given(rejectedContainerClient.getBlobClient(INPUT_FILE_NAME)).willReturn(rejectedBlobClient);
+        given(blobServiceClient.getBlobContainerClient(INPUT_CONTAINER_NAME)).willReturn(inputContainerClient);
+        given(blobServiceClient.getBlobContainerClient(REJECTED_CONTAINER_NAME)).willReturn(rejectedContainerClient);
+
+        givenInputBlobSize(BlobManager.SYNC_COPY_MAX_SIZE);
+        given(inputBlobClient.getBlobUrl()).willReturn("http://bulk-scan/test.zip");
+        given(inputBlobClient.generateSas(any())).willReturn("sas");
+
+        // when
+        blobManager.tryMoveFileToRejectedContainer(INPUT_FILE_NAME, INPUT_CONTAINER_NAME);
+
+        // then
+        verify(rejectedBlobClient).copyFromUrl("http://bulk-scan/test.zip?sas");
+        verify(rejectedBlobClient).setMetadata(null);
+        verify(rejectedBlobClient, never()).beginCopy(any(), any(), any(), any(), any(), any(), any());
+        verify(inputBlobClient).deleteWithResponse(any(), any(), any(), any());
+    }
+
+    @Test
+    void tryMoveFileToRejectedContainer_does_not_delete_blob_when_sync_copy_fails() {
+        // given
+        given(inputContainerClient.getBlobClient(INPUT_FILE_NAME)).willReturn(inputBlobClient);
+        given(rejectedContainerClient.getBlobClient(INPUT_FILE_NAME)).willReturn(rejectedBlobClient);
+        given(blobServiceClient.getBlobContainerClient(INPUT_CONTAINER_NAME)).willReturn(inputContainerClient);
+        given(blobServiceClient.getBlobContainerClient(REJECTED_CONTAINER_NAME)).willReturn(rejectedContainerClient);
+
+        givenInputBlobSize(1024);
+        willThrow(new BlobStorageException("Can not copy", null, null))
+            .given(rejectedBlobClient)
+            .copyFromUrl(any());
+
+        // when
+        blobManager.tryMoveFileToRejectedContainer(INPUT_FILE_NAME, INPUT_CONTAINER_NAME);
+
+        // then
+        verify(inputBlobClient, never()).deleteWithResponse(any(), any(), any(), any());
+    }
+
     @Test
     void tryMoveFileToRejectedContainer_does_not_delete_blob_when_beginFromUrl_fails() {
         // given
@@ -175,6 +218,7 @@ class BlobManagerTest {
         given(blobServiceClient.getBlobContainerClient(INPUT_CONTAINER_NAME)).willReturn(inputContainerClient);
         given(blobServiceClient.getBlobContainerClient(REJECTED_CONTAINER_NAME)).willReturn(rejectedContainerClient);
 
+        givenInputBlobSize(BlobManager.SYNC_COPY_MAX_SIZE + 1);
         doThrow(new BlobStorageException("Can not copy", null, null))
             .when(rejectedBlobClient)
             .beginCopy(any(), any(), any(), any(), any(), any(), any());;
@@ -248,6 +292,7 @@ class BlobManagerTest {
         given(blobServiceClient.getBlobContainerClient(INPUT_CONTAINER_NAME)).willReturn(inputContainerClient);
         given(blobServiceClient.getBlobContainerClient(REJECTED_CONTAINER_NAME)).willReturn(rejectedContainerClient);
 
+        givenInputBlobSize(BlobManager.SYNC_COPY_MAX_SIZE + 1);
         SyncPoller syncPoller = mock(SyncPoller.class);
 
         given(rejectedBlobClient
@@ -280,7 +325,14 @@ class BlobManagerTest {
         return container;
     }
 
+    private void givenInputBlobSize(long size) {
+        BlobProperties blobProperties = mock(BlobProperties.class);
+        given(blobProperties.getBlobSize()).willReturn(size);
+        given(inputBlobClient.getProperties()).willReturn(blobProperties);
+    }
+
     private void mockBeginCopy(String url, String sasToken) {
+        givenInputBlobSize(BlobManager.SYNC_COPY_MAX_SIZE + 1);
         given(inputBlobClient.getBlobUrl()).willReturn(url);
         given(inputBlobClient.generateSas(any())).willReturn(sasToken);
 
@@ -10,8 +10,12 @@ import uk.gov.hmcts.reform.bulkscanprocessor.entity.Envelope;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.EnvelopeRepository;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEvent;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.ProcessEventRepository;
+import uk.gov.hmcts.reform.bulkscanprocessor.services.ProcessEventRecorder;
 import uk.gov.hmcts.reform.bulkscanprocessor.validation.MetafileJsonValidator;
 
+import java.util.List;
+import java.util.Set;
+
 import static java.util.UUID.randomUUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -20,7 +24,9 @@ import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static uk.gov.hmcts.reform.bulkscanprocessor.entity.Status.CREATED;
+import static uk.gov.hmcts.reform.bulkscanprocessor.entity.Status.UPLOADED;
 import static uk.gov.hmcts.reform.bulkscanprocessor.entity.Status.UPLOAD_FAILURE;
+import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.DOC_UPLOADED;
 import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Event.DOC_UPLOAD_FAILURE;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,12 +35,18 @@ class EnvelopeProcessorTest {
     @Mock private MetafileJsonValidator schemaValidator;
     @Mock private EnvelopeRepository envelopeRepository;
     @Mock private ProcessEventRepository processEventRepository;
+    @Mock private ProcessEventRecorder processEventRecorder;
 
     private EnvelopeProcessor envelopeProcessor;
 
     @BeforeEach
     void setUp() {
-        envelopeProcessor = new EnvelopeProcessor(schemaValidator, envelopeRepository, processEventRepository);
+        envelopeProcessor = new EnvelopeProcessor(
+            schemaValidator,
+            envelopeRepository,
+            processEventRepository,
+            processEventRecorder
+        );
     }
 
     @Test
@@ -69,4 +81,41 @@ class EnvelopeProcessorTest {
         verify(processEventRepository, times(1)).saveAndFlush(any(ProcessEvent.class));
         verifyNoInteractions(schemaValidator, envelopeRepository);
     }
+
+    @Test
+    void should_record_event_and_change_status_of_envelope() {
+        // given
+        Envelope envelope = new Envelope();
+        envelope.setStatus(CREATED);
+
+        // when
+        envelopeProcessor.handleEvent(envelope, DOC_UPLOADED);
+
+        // then
+        ArgumentCaptor<ProcessEvent> eventCaptor = ArgumentCaptor.forClass(ProcessEvent.class);
+        verify(processEventRecorder).record(eventCaptor.capture());
+        assertThat(eventCaptor.getValue().getEvent()).isEqualTo(DOC_UPLOADED);
+        verify(envelopeRepository).saveAndFlush(envelope);
+        assertThat(envelope.getStatus()).isEqualTo(UPLOADED);
+        verifyNoInteractions(processEventRepository);
+    }
+
+    @Test
+    void should_check_zip_file_names_for_envelopes_in_batches() {
+        // given
+        given(envelopeRepository.findZipFileNamesWithEnvelope("container", List.of("a.zip", "b.zip")))
+            .willReturn(List.of("b.zip"));
+        given(envelopeRepository.findZipFileNamesWithEnvelope("container", List.of("c.zip")))
+            .willReturn(List.of("c.zip"));
+
+        // when
+        Set<String> result = envelopeProcessor.getZipFileNamesWithEnvelope(
+            "container",
+            List.of("a.zip", "b.zip", "c.zip"),
+            2
+        );
+
+        // then
+        assertThat(result).containsExactlyInAnyOrder("b.zip", "c.zip");
+    }
 }
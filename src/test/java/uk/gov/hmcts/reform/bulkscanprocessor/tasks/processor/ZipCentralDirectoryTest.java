@@ -0,0 +1,98 @@
+package uk.gov.hmcts.reform.bulkscanprocessor.tasks.processor;
+
+import com.azure.storage.blob.BlobClient;
+import com.azure.storage.blob.models.BlobProperties;
+import com.azure.storage.blob.models.BlobRange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import uk.gov.hmcts.reform.bulkscanprocessor.helper.DirectoryZipper;
+import uk.gov.hmcts.reform.bulkscanprocessor.helper.DirectoryZipper.ZipItem;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static com.google.common.io.Resources.getResource;
+import static com.google.common.io.Resources.toByteArray;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+@ExtendWith(MockitoExtension.class)
+class ZipCentralDirectoryTest {
+
+    @Mock
+    private BlobClient blobClient;
+
+    private final List<BlobRange> downloadedRanges = new ArrayList<>();
+
+    @Test
+    void should_list_entries_and_read_metadata() throws Exception {
+        // given
+        byte[] zip = DirectoryZipper.zipDir("envelopes/sample_valid_content");
+        mockBlob(zip);
+
+        // when
+        Optional<ZipCentralDirectory> directory = ZipCentralDirectory.read(blobClient);
+
+        // then
+        assertThat(directory).isPresent();
+        assertThat(directory.get().getEntryNames()).containsExactly("1111002.pdf", "metadata.json");
+        assertThat(directory.get().readEntry("metadata.json"))
+            .isEqualTo(toByteArray(getResource("envelopes/sample_valid_content/metadata.json")));
+    }
+
+    @Test
+    void should_download_only_a_small_part_of_a_large_zip_file() throws Exception {
+        // given
+        byte[] pdf = new byte[1_000_000];
+        new Random(1).nextBytes(pdf); // not compressible
+        byte[] metadata = toByteArray(getResource("envelopes/sample_valid_content/metadata.json"));
+        byte[] zip = DirectoryZipper.zipItems(List.of(
+            new ZipItem("1111002.pdf", pdf),
+            new ZipItem("metadata.json", metadata)
+        ));
+        mockBlob(zip);
+
+        // when
+        ZipCentralDirectory directory = ZipCentralDirectory.read(blobClient).orElseThrow();
+
+        // then
+        assertThat(directory.readEntry("metadata.json")).isEqualTo(metadata);
+        assertThat(downloadedRanges.stream().mapToLong(BlobRange::getCount).sum()).isLessThan(zip.length / 10);
+    }
+
+    @Test
+    void should_not_read_directory_of_blob_which_is_not_a_zip_file() {
+        // given
+        mockBlob("not a zip file, just some text long enough".getBytes());
+
+        // when
+        Optional<ZipCentralDirectory> directory = ZipCentralDirectory.read(blobClient);
+
+        // then
+        assertThat(directory).isEmpty();
+    }
+
+    private void mockBlob(byte[] content) {
+        BlobProperties properties = mock(BlobProperties.class);
+        given(properties.getBlobSize()).willReturn((long) content.length);
+        given(properties.getETag()).willReturn("etag");
+        given(blobClient.getProperties()).willReturn(properties);
+
+        doAnswer(invocation -> {
+            OutputStream output = invocation.getArgument(0);
+            BlobRange range = invocation.getArgument(1);
+            downloadedRanges.add(range);
+            output.write(content, (int) range.getOffset(), range.getCount().intValue());
+            return null;
+        }).when(blobClient).downloadStreamWithResponse(any(), any(), any(), any(), anyBoolean(), any(), any());
+    }
+}
@@ -4,8 +4,11 @@ import com.azure.storage.blob.models.BlobStorageException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.util.unit.DataSize;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.FileSizeExceedMaxUploadLimit;
+import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.NonPdfFileFoundException;
 import uk.gov.hmcts.reform.bulkscanprocessor.helper.DirectoryZipper;
+import uk.gov.hmcts.reform.bulkscanprocessor.helper.DirectoryZipper.ZipItem;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
@@ -15,9 +18,11 @@ import java.util.function.Consumer;
 import java.util.zip.ZipInputStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
@@ -27,7 +32,12 @@ import static org.mockito.Mockito.verify;
 class ZipFileProcessorTest {
 
     private static final String FOLDER_NAME = "tempwork";
-    ZipFileProcessor  zipFileProcessor = new ZipFileProcessor(FOLDER_NAME);
+    ZipFileProcessor  zipFileProcessor = new ZipFileProcessor(
+        FOLDER_NAME,
+        DataSize.ofMegabytes(1),
+        DataSize.ofMegabytes(2),
+        DataSize.ofMegabytes(4)
+    );
 
     @Test
     void should_run_provided_function_when_there_is_no_error() throws IOException {
@@ -59,15 +69,153 @@ class ZipFileProcessorTest {
         assertThat(new File(FOLDER_NAME + File.separator + zipFileName)).doesNotExist();
     }
 
+    @Test
+    void should_extract_metadata_and_pdfs_in_single_pass() throws IOException {
+        byte[] zipFile = DirectoryZipper.zipDir("envelopes/sample_valid_content");
+
+        ZipInputStream extractedZis = new ZipInputStream(new ByteArrayInputStream(zipFile));
+
+        var zipFileName = "1_2324_43543.zip";
+        ZipFileContentDetail detail = zipFileProcessor.extractZipContent(extractedZis, zipFileName);
+
+        assertThat(detail.getMetadata()).isNotEmpty();
+        assertThat(detail.pdfFiles).hasSameSizeAs(detail.pdfFileNames).isNotEmpty()
+            .allMatch(ExtractedPdf::isInMemory);
+        assertThat(new File(FOLDER_NAME + File.separator + zipFileName)).doesNotExist();
+    }
+
+    @Test
+    void should_write_pdfs_to_download_folder_only_above_in_memory_limits() throws IOException {
+        byte[] zipFile = DirectoryZipper.zipItems(List.of(
+            new ZipItem("small.pdf", new byte[1000]),
+            new ZipItem("large.pdf", new byte[1_500_000]), // above the limit for a PDF
+            new ZipItem("medium1.pdf", new byte[900_000]),
+            new ZipItem("medium2.pdf", new byte[900_000]),
+            new ZipItem("medium3.pdf", new byte[900_000]) // above the limit for the zip file
+        ));
+
+        ZipInputStream extractedZis = new ZipInputStream(new ByteArrayInputStream(zipFile));
+
+        var zipFileName = "1_2324_43543.zip";
+        var consumer = mock(Consumer.class);
+        File[] largePdf = new File[1];
+        doAnswer(invocation -> {
+            List<ExtractedPdf> pdfs = invocation.getArgument(0);
+            assertThat(pdfs)
+                .extracting(ExtractedPdf::getName, ExtractedPdf::getSize, ExtractedPdf::isInMemory)
+                .containsExactly(
+                    tuple("small.pdf", 1000L, true),
+                    tuple("large.pdf", 1_500_000L, false),
+                    tuple("medium1.pdf", 900_000L, true),
+                    tuple("medium2.pdf", 900_000L, true),
+                    tuple("medium3.pdf", 900_000L, false)
+                );
+            largePdf[0] = pdfs.get(1).toResource().getFile();
+            assertThat(largePdf[0]).hasSize(1_500_000L);
+            return null;
+        }).when(consumer).accept(any());
+
+        zipFileProcessor.extractPdfFiles(extractedZis, zipFileName, consumer);
+
+        verify(consumer).accept(any());
+        assertThat(largePdf[0].getParentFile()).doesNotExist();
+    }
+
+    @Test
+    void should_share_in_memory_limit_between_zip_files_until_their_files_are_deleted() throws IOException {
+        var processor = new ZipFileProcessor(
+            FOLDER_NAME,
+            DataSize.ofMegabytes(1),
+            DataSize.ofMegabytes(2),
+            DataSize.ofBytes(1_500_000)
+        );
+        byte[] twoPdfs = DirectoryZipper.zipItems(List.of(
+            new ZipItem("1.pdf", new byte[900_000]),
+            new ZipItem("2.pdf", new byte[900_000]) // above the limit shared by all zip files
+        ));
+        byte[] onePdf = DirectoryZipper.zipItems(List.of(new ZipItem("1.pdf", new byte[900_000])));
+
+        var first = processor.extractZipContent(new ZipInputStream(new ByteArrayInputStream(twoPdfs)), "a.zip");
+        var second = processor.extractZipContent(new ZipInputStream(new ByteArrayInputStream(onePdf)), "b.zip");
+
+        assertThat(first.pdfFiles).extracting(ExtractedPdf::isInMemory).containsExactly(true, false);
+        assertThat(second.pdfFiles).extracting(ExtractedPdf::isInMemory).containsExactly(false);
+
+        processor.deleteExtractedFiles(first);
+        var third = processor.extractZipContent(new ZipInputStream(new ByteArrayInputStream(onePdf)), "c.zip");
+
+        assertThat(third.pdfFiles).extracting(ExtractedPdf::isInMemory).containsExactly(true);
+
+        processor.deleteExtractedFiles(second);
+        processor.deleteExtractedFiles(third);
+    }
+
+    @Test
+    void should_keep_extractions_of_zip_files_with_the_same_name_apart() throws IOException {
+        // given
+        var processor = new ZipFileProcessor(
+            FOLDER_NAME,
+            DataSize.ofBytes(500),
+            DataSize.ofBytes(500),
+            DataSize.ofBytes(500)
+        );
+        byte[] zipFile = DirectoryZipper.zipItems(List.of(new ZipItem("1.pdf", new byte[1000])));
+
+        // when
+        var first = processor.extractZipContent(new ZipInputStream(new ByteArrayInputStream(zipFile)), "a.zip");
+        var second = processor.extractZipContent(new ZipInputStream(new ByteArrayInputStream(zipFile)), "a.zip");
+
+        // then
+        File firstPdf = first.pdfFiles.get(0).toResource().getFile();
+        File secondPdf = second.pdfFiles.get(0).toResource().getFile();
+        assertThat(firstPdf).isNotEqualTo(secondPdf);
+
+        processor.deleteExtractedFiles(first);
+
+        assertThat(firstPdf).doesNotExist();
+        assertThat(secondPdf).hasSize(1000L);
+
+        processor.deleteExtractedFiles(second);
+
+        assertThat(secondPdf.getParentFile()).doesNotExist();
+    }
+
+    @Test
+    void should_give_memory_back_when_extraction_fails() throws IOException {
+        // given
+        var processor = new ZipFileProcessor(
+            FOLDER_NAME,
+            DataSize.ofMegabytes(1),
+            DataSize.ofMegabytes(2),
+            DataSize.ofBytes(1_000_000)
+        );
+        byte[] invalidZip = DirectoryZipper.zipItems(List.of(
+            new ZipItem("1.pdf", new byte[900_000]),
+            new ZipItem("1.txt", new byte[10])
+        ));
+        byte[] onePdf = DirectoryZipper.zipItems(List.of(new ZipItem("1.pdf", new byte[900_000])));
+
+        // when
+        assertThrows(
+            NonPdfFileFoundException.class,
+            () -> processor.extractZipContent(new ZipInputStream(new ByteArrayInputStream(invalidZip)), "a.zip")
+        );
+        var detail = processor.extractZipContent(new ZipInputStream(new ByteArrayInputStream(onePdf)), "a.zip");
+
+        // then
+        assertThat(detail.pdfFiles).extracting(ExtractedPdf::isInMemory).containsExactly(true);
+
+        processor.deleteExtractedFiles(detail);
+    }
 
     @Test
     void should_throw_file_size_exceed_exception_when_file_is_large() throws IOException {
-        File file1 = mock(File.class);
-        given(file1.length()).willReturn(200_000_000L);
-        File  file2 = mock(File.class);
-        given(file2.length()).willReturn(314_572_801L);
+        ExtractedPdf file1 = mock(ExtractedPdf.class);
+        given(file1.getSize()).willReturn(200_000_000L);
+        ExtractedPdf  file2 = mock(ExtractedPdf.class);
+        given(file2.getSize()).willReturn(314_572_801L);
         given(file2.getName()).willReturn("mock_file2.pdf");
-        List<File> fileList = List.of(file1, file2);
+        List<ExtractedPdf> fileList = List.of(file1, file2);
         assertThrows(
             FileSizeExceedMaxUploadLimit.class,
             () -> zipFileProcessor.checkFileSizeAgainstUploadLimit(fileList)
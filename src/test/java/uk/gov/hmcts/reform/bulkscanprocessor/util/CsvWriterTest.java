@@ -6,14 +6,18 @@ import org.junit.jupiter.api.Test;
 import uk.gov.hmcts.reform.bulkscanprocessor.entity.Status;
 import uk.gov.hmcts.reform.bulkscanprocessor.services.reports.models.ZipFileSummaryResponse;
 
-import java.io.File;
-import java.io.FileReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.Arrays;
 import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.AssertionsForClassTypes.tuple;
 import static uk.gov.hmcts.reform.bulkscanprocessor.model.common.Classification.SUPPLEMENTARY_EVIDENCE;
@@ -27,7 +31,7 @@ class CsvWriterTest {
         LocalTime time = LocalTime.now();
 
         //given
-        List<ZipFileSummaryResponse> csvData = Arrays.asList(
+        Stream<ZipFileSummaryResponse> csvData = Stream.of(
             new ZipFileSummaryResponse(
                 "test1.zip",
                 date,
@@ -57,10 +61,11 @@ class CsvWriterTest {
         );
 
         //when
-        File summaryToCsv = CsvWriter.writeZipFilesSummaryToCsv(csvData);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        CsvWriter.writeZipFilesSummaryToCsv(csvData, outputStream, false);
 
         //then
-        List<CSVRecord> csvRecordList = readCsv(summaryToCsv);
+        List<CSVRecord> csvRecordList = readCsv(new ByteArrayInputStream(outputStream.toByteArray()));
 
         assertThat(csvRecordList)
             .isNotEmpty()
@@ -118,12 +123,13 @@ class CsvWriterTest {
     }
 
     @Test
-    void should_return_csv_file_with_only_headers_when_the_data_is_null() throws IOException {
+    void should_return_csv_file_with_only_headers_when_there_is_no_data() throws IOException {
         //when
-        File summaryToCsv = CsvWriter.writeZipFilesSummaryToCsv(null);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        CsvWriter.writeZipFilesSummaryToCsv(Stream.empty(), outputStream, false);
 
         //then
-        List<CSVRecord> csvRecordList = readCsv(summaryToCsv);
+        List<CSVRecord> csvRecordList = readCsv(new ByteArrayInputStream(outputStream.toByteArray()));
 
         assertThat(csvRecordList)
             .isNotEmpty()
@@ -156,7 +162,47 @@ class CsvWriterTest {
             );
     }
 
-    private List<CSVRecord> readCsv(File summaryToCsv) throws IOException {
-        return CSVFormat.DEFAULT.parse(new FileReader(summaryToCsv)).getRecords();
+    @Test
+    void should_return_gzipped_csv_file_when_requested() throws IOException {
+        LocalDate date = LocalDate.now();
+        LocalTime time = LocalTime.now();
+
+        //given
+        Stream<ZipFileSummaryResponse> csvData = Stream.of(
+            new ZipFileSummaryResponse(
+                "test1.zip",
+                date,
+                time,
+                null,
+                null,
+                "bulkscan",
+                DOC_UPLOADED.toString(),
+                Status.UPLOADED.toString(),
+                SUPPLEMENTARY_EVIDENCE.name(),
+                null,
+                null
+            )
+        );
+
+        //when
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        CsvWriter.writeZipFilesSummaryToCsv(csvData, outputStream, true);
+
+        //then
+        List<CSVRecord> csvRecordList = readCsv(
+            new GZIPInputStream(new ByteArrayInputStream(outputStream.toByteArray()))
+        );
+
+        assertThat(csvRecordList)
+            .hasSize(2)
+            .extracting(data -> tuple(data.get(0), data.get(1), data.get(4), data.get(7)))
+            .containsExactly(
+                tuple("Container", "Zip File Name", "Date Processed", "Classification"),
+                tuple("bulkscan", "test1.zip", "", SUPPLEMENTARY_EVIDENCE.name())
+            );
+    }
+
+    private List<CSVRecord> readCsv(InputStream csv) throws IOException {
+        return CSVFormat.DEFAULT.parse(new InputStreamReader(csv, UTF_8)).getRecords();
     }
 }
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.node.TextNode;
 import org.assertj.core.api.SoftAssertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import uk.gov.hmcts.reform.bulkscanprocessor.config.ContainerMappingIndex;
 import uk.gov.hmcts.reform.bulkscanprocessor.config.ContainerMappings.Mapping;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.ContainerJurisdictionPoBoxMismatchException;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.DuplicateDocumentControlNumbersInEnvelopeException;
@@ -268,7 +269,9 @@ class EnvelopeProcessorValidationTest {
 
         // when
         Throwable err = catchThrowable(
-            () -> envelopeValidator.assertContainerMatchesJurisdictionAndPoBox(mappings, envelope, container)
+            () -> envelopeValidator.assertContainerMatchesJurisdictionAndPoBox(
+                new ContainerMappingIndex(mappings), envelope, container
+            )
         );
 
         // then
@@ -301,7 +304,9 @@ class EnvelopeProcessorValidationTest {
 
         // when
         Throwable err = catchThrowable(
-            () -> envelopeValidator.assertContainerMatchesJurisdictionAndPoBox(mappings, envelope, container)
+            () -> envelopeValidator.assertContainerMatchesJurisdictionAndPoBox(
+                new ContainerMappingIndex(mappings), envelope, container
+            )
         );
 
         // then
@@ -319,7 +324,9 @@ class EnvelopeProcessorValidationTest {
 
         // when
         Throwable err = catchThrowable(
-            () -> envelopeValidator.assertContainerMatchesJurisdictionAndPoBox(mappings, envelope, container)
+            () -> envelopeValidator.assertContainerMatchesJurisdictionAndPoBox(
+                new ContainerMappingIndex(mappings), envelope, container
+            )
         );
 
         // then
@@ -337,7 +344,9 @@ class EnvelopeProcessorValidationTest {
 
         // when
         Throwable err = catchThrowable(
-            () -> envelopeValidator.assertContainerMatchesJurisdictionAndPoBox(mappings, envelope, container)
+            () -> envelopeValidator.assertContainerMatchesJurisdictionAndPoBox(
+                new ContainerMappingIndex(mappings), envelope, container
+            )
         );
 
         // then
@@ -360,7 +369,11 @@ class EnvelopeProcessorValidationTest {
         // when
         Throwable err = catchThrowable(
             () -> envelopeValidator.assertPaymentsEnabledForContainerIfPaymentsArePresent(
-                envelope, false, singletonList(new Mapping("abc", "ABC", singletonList("test_poBox"), null, true, true))
+                envelope,
+                false,
+                new ContainerMappingIndex(
+                    singletonList(new Mapping("abc", "ABC", singletonList("test_poBox"), null, true, true))
+                )
             ));
 
         // then
@@ -383,7 +396,11 @@ class EnvelopeProcessorValidationTest {
         // when
         Throwable err = catchThrowable(
             () -> envelopeValidator.assertPaymentsEnabledForContainerIfPaymentsArePresent(
-                envelope, true, singletonList(new Mapping("abc", "ABC", singletonList("test_poBox"), null, false, true))
+                envelope,
+                true,
+                new ContainerMappingIndex(
+                    singletonList(new Mapping("abc", "ABC", singletonList("test_poBox"), null, false, true))
+                )
             ));
 
         // then
@@ -5,6 +5,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
+import uk.gov.hmcts.reform.bulkscanprocessor.config.ContainerMappingIndex;
 import uk.gov.hmcts.reform.bulkscanprocessor.config.ContainerMappings;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.ContainerJurisdictionPoBoxMismatchException;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.DisallowedDocumentTypesException;
@@ -426,7 +427,7 @@ class EnvelopeValidatorTest {
                 envelopeValidator.assertPaymentsEnabledForContainerIfPaymentsArePresent(
                         envelope,
                         false,
-                        mappings
+                        new ContainerMappingIndex(mappings)
                 )
         );
     }
@@ -453,7 +454,7 @@ class EnvelopeValidatorTest {
                 envelopeValidator.assertPaymentsEnabledForContainerIfPaymentsArePresent(
                         envelope,
                         true,
-                        mappings
+                        new ContainerMappingIndex(mappings)
                 )
         );
     }
@@ -481,7 +482,7 @@ class EnvelopeValidatorTest {
                 envelopeValidator.assertPaymentsEnabledForContainerIfPaymentsArePresent(
                     envelope,
                     false,
-                    mappings
+                    new ContainerMappingIndex(mappings)
                 )
         )
                 .isInstanceOf(PaymentsDisabledException.class)
@@ -511,7 +512,7 @@ class EnvelopeValidatorTest {
                 envelopeValidator.assertPaymentsEnabledForContainerIfPaymentsArePresent(
                         envelope,
                         true,
-                        mappings
+                        new ContainerMappingIndex(mappings)
                 )
         )
             .isInstanceOf(PaymentsDisabledException.class)
@@ -537,7 +538,7 @@ class EnvelopeValidatorTest {
         // then
         assertDoesNotThrow(() ->
                     envelopeValidator.assertContainerMatchesJurisdictionAndPoBox(
-                            mappings,
+                            new ContainerMappingIndex(mappings),
                             envelope,
                             CONTAINER
                     )
@@ -563,7 +564,7 @@ class EnvelopeValidatorTest {
         // then
         assertDoesNotThrow(() ->
                 envelopeValidator.assertContainerMatchesJurisdictionAndPoBox(
-                        mappings,
+                        new ContainerMappingIndex(mappings),
                         envelope,
                         CONTAINER
                 )
@@ -590,7 +591,7 @@ class EnvelopeValidatorTest {
         assertThatThrownBy(
             () ->
                 envelopeValidator.assertContainerMatchesJurisdictionAndPoBox(
-                    mappings,
+                    new ContainerMappingIndex(mappings),
                     envelope,
                     CONTAINER
                 )
@@ -619,7 +620,7 @@ class EnvelopeValidatorTest {
         assertThatThrownBy(
             () ->
                 envelopeValidator.assertContainerMatchesJurisdictionAndPoBox(
-                    mappings,
+                    new ContainerMappingIndex(mappings),
                     envelope,
                     CONTAINER
                 )
@@ -648,7 +649,7 @@ class EnvelopeValidatorTest {
         assertDoesNotThrow(() ->
                 envelopeValidator.assertServiceEnabled(
                         envelope,
-                        mappings
+                        new ContainerMappingIndex(mappings)
                 )
         );
     }
@@ -673,7 +674,7 @@ class EnvelopeValidatorTest {
         assertDoesNotThrow(() ->
                 envelopeValidator.assertServiceEnabled(
                         envelope,
-                        mappings
+                        new ContainerMappingIndex(mappings)
                 )
         );
     }
@@ -698,7 +699,7 @@ class EnvelopeValidatorTest {
         assertThatThrownBy(
             () -> envelopeValidator.assertServiceEnabled(
                     envelope,
-                    mappings
+                    new ContainerMappingIndex(mappings)
             )
         )
             .isInstanceOf(ServiceDisabledException.class)
@@ -135,9 +135,27 @@ class MetafileJsonValidatorTest {
         assertThat(envelope.payments.get(1).documentControlNumber).isEqualTo("1111002");
     }
 
+    @Test
+    void should_validate_and_parse_envelope_with_ocr_data_in_single_pass() throws Exception {
+        byte[] metafile = getMetafile("/metafiles/valid/with-supplementary-evidence-with-ocr.json");
+
+        InputEnvelope envelope = validator.validateAndParse(metafile, "zip-file-123");
+
+        assertThat(envelope)
+            .usingRecursiveComparison()
+            .isEqualTo(validator.parseMetafile(metafile));
+        assertThat(envelope.scannableItems)
+            .extracting(item -> item.ocrData)
+            .anyMatch(ocrData -> ocrData != null && !ocrData.getFields().isEmpty());
+    }
+
     private InputEnvelope getEnvelope(String resource) throws IOException {
+        return validator.parseMetafile(getMetafile(resource));
+    }
+
+    private byte[] getMetafile(String resource) throws IOException {
         try (InputStream inputStream = getClass().getResourceAsStream(resource)) {
-            return validator.parseMetafile(IOUtils.toByteArray(inputStream));
+            return IOUtils.toByteArray(inputStream);
         }
     }
 }
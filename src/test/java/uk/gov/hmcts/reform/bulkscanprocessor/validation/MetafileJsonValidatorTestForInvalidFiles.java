@@ -39,6 +39,20 @@ class MetafileJsonValidatorTestForInvalidFiles {
             .hasMessageContaining("missing: [\"scannable_items\"]");
     }
 
+    @Test
+    void should_not_bind_envelope_when_validated_and_parsed_in_single_pass() throws IOException {
+        // given
+        byte[] metafile = getMetafile("/metafiles/invalid/no-scannables.json");
+
+        // when
+        Throwable exc = catchThrowable(() -> validator.validateAndParse(metafile, SAMPLE_ZIP_FILE_NAME));
+
+        // then
+        assertThat(exc)
+            .isInstanceOf(InvalidEnvelopeSchemaException.class)
+            .hasMessageContaining("missing: [\"scannable_items\"]");
+    }
+
     @Test
     void should_not_parse_envelope_with_unknown_properties() throws IOException {
         // given
@@ -13,6 +13,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.web.client.HttpClientErrorException.NotFound;
 import uk.gov.hmcts.reform.authorisation.generators.AuthTokenGenerator;
+import uk.gov.hmcts.reform.bulkscanprocessor.config.ContainerMappingIndex;
 import uk.gov.hmcts.reform.bulkscanprocessor.config.ContainerMappings;
 import uk.gov.hmcts.reform.bulkscanprocessor.config.ContainerMappings.Mapping;
 import uk.gov.hmcts.reform.bulkscanprocessor.exceptions.OcrPresenceException;
@@ -23,7 +24,7 @@ import uk.gov.hmcts.reform.bulkscanprocessor.model.blob.InputOcrData;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.blob.InputOcrDataField;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.blob.InputScannableItem;
 import uk.gov.hmcts.reform.bulkscanprocessor.model.common.Classification;
-import uk.gov.hmcts.reform.bulkscanprocessor.ocrvalidation.client.OcrValidationClient;
+import uk.gov.hmcts.reform.bulkscanprocessor.ocrvalidation.client.GuardedOcrValidationClient;
 import uk.gov.hmcts.reform.bulkscanprocessor.ocrvalidation.client.model.req.FormData;
 import uk.gov.hmcts.reform.bulkscanprocessor.ocrvalidation.client.model.res.Status;
 import uk.gov.hmcts.reform.bulkscanprocessor.ocrvalidation.client.model.res.ValidationResponse;
@@ -66,7 +67,7 @@ class OcrValidatorTest {
     @RegisterExtension
     public LogCapturer capturer = LogCapturer.create().captureForType(OcrValidator.class);
 
-    @Mock private OcrValidationClient client;
+    @Mock private GuardedOcrValidationClient client;
     @Mock private OcrPresenceValidator presenceValidator;
     @Mock private ContainerMappings containerMappings;
     @Mock private AuthTokenGenerator authTokenGenerator;
@@ -113,10 +114,10 @@ class OcrValidatorTest {
         // given
         String url = VALIDATION_URL;
 
-        given(containerMappings.getMappings())
-            .willReturn(singletonList(
+        given(containerMappings.getIndex())
+            .willReturn(new ContainerMappingIndex(singletonList(
                 new Mapping("container", "jurisdiction", singletonList(PO_BOX_1), url, true, true)
-            ));
+            )));
 
         given(client.validate(eq(url), any(), any(), any()))
             .willReturn(new ValidationResponse(Status.SUCCESS, emptyList(), emptyList()));
@@ -161,10 +162,10 @@ class OcrValidatorTest {
         // given
         String url = VALIDATION_URL;
 
-        given(containerMappings.getMappings())
-            .willReturn(singletonList(
+        given(containerMappings.getIndex())
+            .willReturn(new ContainerMappingIndex(singletonList(
                 new Mapping("container", "jurisdiction", asList(PO_BOX_1, PO_BOX_2), url, true, true)
-            ));
+            )));
 
         given(client.validate(eq(url), any(), any(), any()))
             .willReturn(new ValidationResponse(Status.SUCCESS, emptyList(), emptyList()));
@@ -209,10 +210,10 @@ class OcrValidatorTest {
         // given
         String url = VALIDATION_URL;
 
-        given(containerMappings.getMappings())
-            .willReturn(singletonList(
+        given(containerMappings.getIndex())
+            .willReturn(new ContainerMappingIndex(singletonList(
                 new Mapping("container", "jurisdiction", singletonList(PO_BOX_1), url, true, true)
-            ));
+            )));
 
         given(client.validate(eq(url), any(), any(), any()))
             .willReturn(new ValidationResponse(Status.SUCCESS, emptyList(), emptyList()));
@@ -271,10 +272,10 @@ class OcrValidatorTest {
     @Test
     void should_return_warnings_from_successful_validation_result() {
         // given
-        given(containerMappings.getMappings())
-            .willReturn(singletonList(
+        given(containerMappings.getIndex())
+            .willReturn(new ContainerMappingIndex(singletonList(
                 new Mapping("container", "jurisdiction", singletonList(PO_BOX_1), VALIDATION_URL, true, true)
-            ));
+            )));
 
         List<String> expectedWarnings = ImmutableList.of("warning 1", "warning 2");
 
@@ -305,10 +306,10 @@ class OcrValidatorTest {
     @Test
     void should_handle_null_warnings_from_successful_validation_result() {
         // given
-        given(containerMappings.getMappings())
-            .willReturn(singletonList(
+        given(containerMappings.getIndex())
+            .willReturn(new ContainerMappingIndex(singletonList(
                 new Mapping("container", "jurisdiction", singletonList(PO_BOX_1), VALIDATION_URL, true, true)
-            ));
+            )));
 
         given(client.validate(any(), any(), any(), any()))
             .willReturn(new ValidationResponse(Status.SUCCESS, null, emptyList()));
@@ -344,7 +345,7 @@ class OcrValidatorTest {
             SUPPLEMENTARY_EVIDENCE
         );
 
-        given(containerMappings.getMappings()).willReturn(emptyList()); // url not configured
+        given(containerMappings.getIndex()).willReturn(new ContainerMappingIndex(emptyList())); // url not configured
 
         // when
         ocrValidator.assertOcrDataIsValid(envelope);
@@ -356,10 +357,10 @@ class OcrValidatorTest {
     @Test
     void should_not_call_validation_if_url_is_not_configured_for_po_box() {
         // given
-        given(containerMappings.getMappings())
-                .willReturn(singletonList(
+        given(containerMappings.getIndex())
+                .willReturn(new ContainerMappingIndex(singletonList(
                         new Mapping("container", "jurisdiction", singletonList(PO_BOX_1), VALIDATION_URL, true, true)
-                ));
+                )));
 
         InputEnvelope envelope = envelope(
             PO_BOX_2,
@@ -389,10 +390,10 @@ class OcrValidatorTest {
             SUPPLEMENTARY_EVIDENCE
         );
 
-        given(containerMappings.getMappings())
-            .willReturn(singletonList(
+        given(containerMappings.getIndex())
+            .willReturn(new ContainerMappingIndex(singletonList(
                 new Mapping("c", "j", singletonList(envelope.poBox), "https://example.com", true, true)
-            ));
+            )));
 
         // when
         ocrValidator.assertOcrDataIsValid(envelope);
@@ -416,10 +417,10 @@ class OcrValidatorTest {
         given(presenceValidator.assertHasProperlySetOcr(any()))
             .willReturn(Optional.of(doc(FORM, "y", sampleOcr())));
 
-        given(containerMappings.getMappings())
-            .willReturn(singletonList(
+        given(containerMappings.getIndex())
+            .willReturn(new ContainerMappingIndex(singletonList(
                 new Mapping("container", "jurisdiction", singletonList(PO_BOX_1), VALIDATION_URL, true, true)
-            ));
+            )));
 
         given(client.validate(any(), any(), any(), any()))
             .willReturn(new ValidationResponse(Status.ERRORS, emptyList(), singletonList("Error!")));
@@ -439,10 +440,10 @@ class OcrValidatorTest {
     @Test
     void should_handle_null_reponse_code() {
         // given
-        given(containerMappings.getMappings())
-            .willReturn(singletonList(
+        given(containerMappings.getIndex())
+            .willReturn(new ContainerMappingIndex(singletonList(
                 new Mapping("container", "jurisdiction", singletonList(PO_BOX_1), VALIDATION_URL, true, true)
-            ));
+            )));
 
         given(client.validate(any(), any(), any(), any()))
             .willReturn(new ValidationResponse(null, null, emptyList()));
@@ -481,10 +482,10 @@ class OcrValidatorTest {
         given(presenceValidator.assertHasProperlySetOcr(any()))
             .willReturn(Optional.of(doc(FORM, "x", sampleOcr())));
 
-        given(containerMappings.getMappings())
-            .willReturn(singletonList(
+        given(containerMappings.getIndex())
+            .willReturn(new ContainerMappingIndex(singletonList(
                 new Mapping("container", "jurisdiction", singletonList(PO_BOX_1), VALIDATION_URL, true, true)
-            ));
+            )));
 
         given(authTokenGenerator.generate()).willReturn(S2S_TOKEN);
 
@@ -516,10 +517,10 @@ class OcrValidatorTest {
         given(presenceValidator.assertHasProperlySetOcr(envelope.scannableItems))
             .willReturn(Optional.of(scannableItemWithOcr));
 
-        given(containerMappings.getMappings())
-            .willReturn(singletonList(
+        given(containerMappings.getIndex())
+            .willReturn(new ContainerMappingIndex(singletonList(
                 new Mapping("c", "j", singletonList(envelope.poBox), VALIDATION_URL, true, true)
-            ));
+            )));
 
         given(client.validate(any(), any(), any(), any())).willThrow(new RuntimeException());
 
@@ -547,7 +548,7 @@ class OcrValidatorTest {
             SUPPLEMENTARY_EVIDENCE
         );
 
-        given(containerMappings.getMappings()).willReturn(emptyList());
+        given(containerMappings.getIndex()).willReturn(new ContainerMappingIndex(emptyList()));
 
         // when
         ocrValidator.assertOcrDataIsValid(envelope);